@@ -0,0 +1,187 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Set of java files which are audited by benchmarks. Two kinds of corpora are
+ * supported:
+ * <ul>
+ * <li>{@link #INPUTS} - all test inputs of sevntu-checks, the directory is taken
+ * from "sevntu.benchmark.inputs" system property;</li>
+ * <li>{@link #GENERATED} - large synthetic files produced by
+ * {@link SyntheticSourceGenerator}, their count and size are taken from
+ * "sevntu.benchmark.generated.files" and "sevntu.benchmark.generated.methods"
+ * system properties.</li>
+ * </ul>
+ */
+public final class BenchmarkCorpus
+{
+    /** Name of corpus with test inputs of sevntu-checks. */
+    public static final String INPUTS = "inputs";
+
+    /** Name of corpus with generated files. */
+    public static final String GENERATED = "generated";
+
+    /** Default location of sevntu-checks test inputs. */
+    private static final String DEFAULT_INPUTS_DIR = "../sevntu-checks/src/test/resources";
+
+    /** Default count of generated files. */
+    private static final int DEFAULT_GENERATED_FILES = 10;
+
+    /** Default count of methods in each generated file. */
+    private static final int DEFAULT_GENERATED_METHODS = 400;
+
+    /** Files of corpus. */
+    private final List<File> files;
+
+    /** Total count of lines in all files of corpus. */
+    private final long linesCount;
+
+    /** Total size of all files of corpus in bytes. */
+    private final long bytesCount;
+
+    private BenchmarkCorpus(List<File> files) throws IOException
+    {
+        this.files = Collections.unmodifiableList(files);
+        long lines = 0;
+        long bytes = 0;
+        for (File file : files) {
+            final byte[] content = Files.readAllBytes(file.toPath());
+            bytes += content.length;
+            for (byte b : content) {
+                if (b == '\n') {
+                    lines++;
+                }
+            }
+        }
+        linesCount = lines;
+        bytesCount = bytes;
+    }
+
+    /**
+     * Loads corpus by its name.
+     * @param name
+     *        {@link #INPUTS} or {@link #GENERATED}.
+     * @return loaded corpus.
+     * @throws IOException
+     *         if files can not be read or generated.
+     */
+    public static BenchmarkCorpus load(String name) throws IOException
+    {
+        final List<File> files;
+        if (INPUTS.equals(name)) {
+            final File dir = new File(System.getProperty("sevntu.benchmark.inputs",
+                    DEFAULT_INPUTS_DIR));
+            if (!dir.isDirectory()) {
+                throw new IOException("Directory with test inputs is not found: "
+                        + dir.getAbsolutePath());
+            }
+            files = new ArrayList<>();
+            collectJavaFiles(dir, files);
+        }
+        else if (GENERATED.equals(name)) {
+            files = generate(Integer.getInteger("sevntu.benchmark.generated.files",
+                    DEFAULT_GENERATED_FILES), Integer.getInteger(
+                    "sevntu.benchmark.generated.methods", DEFAULT_GENERATED_METHODS));
+        }
+        else {
+            throw new IllegalArgumentException("Unknown corpus: " + name);
+        }
+        if (files.isEmpty()) {
+            throw new IOException("Corpus '" + name + "' is empty");
+        }
+        return new BenchmarkCorpus(files);
+    }
+
+    /**
+     * Generates synthetic files into a temporary directory which is removed on
+     * JVM exit.
+     * @param filesCount
+     *        count of files to generate.
+     * @param methodsCount
+     *        count of methods in each file.
+     * @return generated files.
+     * @throws IOException
+     *         if files can not be written.
+     */
+    public static List<File> generate(int filesCount, int methodsCount) throws IOException
+    {
+        final File dir = Files.createTempDirectory("sevntu-benchmark").toFile();
+        dir.deleteOnExit();
+        final List<File> result = new ArrayList<>(filesCount);
+        for (int i = 0; i < filesCount; i++) {
+            final String className = "Generated" + i;
+            final File file = new File(dir, className + ".java");
+            final String source = new SyntheticSourceGenerator(i).generate(className,
+                    methodsCount);
+            Files.write(file.toPath(), source.getBytes("ISO-8859-1"));
+            file.deleteOnExit();
+            result.add(file);
+        }
+        return result;
+    }
+
+    private static void collectJavaFiles(File dir, List<File> result)
+    {
+        final File[] children = dir.listFiles();
+        if (children != null) {
+            Arrays.sort(children);
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    collectJavaFiles(child, result);
+                }
+                else if (child.getName().endsWith(".java")) {
+                    result.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return files of corpus.
+     */
+    public List<File> getFiles()
+    {
+        return files;
+    }
+
+    /**
+     * @return total count of lines in corpus.
+     */
+    public long getLinesCount()
+    {
+        return linesCount;
+    }
+
+    /**
+     * @return total size of corpus in bytes.
+     */
+    public long getBytesCount()
+    {
+        return bytesCount;
+    }
+}
@@ -0,0 +1,152 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link CheckBenchmark} with GC profiler and prints per check summary:
+ * nanoseconds per file, files per second and bytes allocated per thousand of
+ * lines of code. Usage:
+ * <pre>
+ * java -jar target/benchmarks.jar [check name regexp] [corpus]
+ * </pre>
+ * where check name regexp is matched against names like
+ * "coding.OverridableMethodInConstructorCheck" and corpus is "inputs" or
+ * "generated". Plain JMH command line is available as well:
+ * <pre>
+ * java -cp target/benchmarks.jar org.openjdk.jmh.Main CheckBenchmark -prof gc
+ * </pre>
+ */
+public final class BenchmarkReport
+{
+    /** Suffix of the GC profiler result with bytes allocated per operation. */
+    private static final String ALLOCATION_RESULT_SUFFIX = "gc.alloc.rate.norm";
+
+    /** Format of a report row. */
+    private static final String ROW_FORMAT = "%-55s %-10s %14s %12s %16s%n";
+
+    private BenchmarkReport()
+    {
+    }
+
+    /**
+     * Runs benchmarks and prints report.
+     * @param args
+     *        optional check name regexp and optional corpus name.
+     * @throws Exception
+     *         if benchmarks can not be run.
+     */
+    public static void main(String[] args) throws Exception
+    {
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(CheckBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class);
+        if (args.length > 0) {
+            options.param("check", getChecks(Pattern.compile(args[0])));
+        }
+        if (args.length > 1) {
+            options.param("corpus", args[1]);
+        }
+        print(new Runner(options.build()).run());
+    }
+
+    /**
+     * Gets values of "check" parameter which match the pattern.
+     * @param pattern
+     *        pattern of check name.
+     * @return names of matched checks.
+     * @throws NoSuchFieldException
+     *         if benchmark has no "check" parameter.
+     */
+    private static String[] getChecks(Pattern pattern) throws NoSuchFieldException
+    {
+        final List<String> result = new ArrayList<>();
+        final String[] checks = CheckBenchmark.class.getDeclaredField("check")
+                .getAnnotation(Param.class).value();
+        for (String check : checks) {
+            if (pattern.matcher(check).find()) {
+                result.add(check);
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("No check matches " + pattern);
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    /**
+     * Prints summary of benchmark results.
+     * @param results
+     *        results of {@link CheckBenchmark}.
+     * @throws Exception
+     *         if corpus can not be loaded.
+     */
+    private static void print(Collection<RunResult> results) throws Exception
+    {
+        final Map<String, Double> linesPerFile = new HashMap<>();
+        System.out.println();
+        System.out.printf(ROW_FORMAT, "Check", "Corpus", "ns/file", "files/sec",
+                "bytes/KLOC");
+        for (RunResult result : results) {
+            final BenchmarkParams params = result.getParams();
+            final String corpus = params.getParam("corpus");
+            Double lines = linesPerFile.get(corpus);
+            if (lines == null) {
+                final BenchmarkCorpus loaded = BenchmarkCorpus.load(corpus);
+                lines = (double) loaded.getLinesCount() / loaded.getFiles().size();
+                linesPerFile.put(corpus, lines);
+            }
+            final double nanosPerFile = result.getPrimaryResult().getScore();
+            final double bytesPerFile = getBytesPerFile(result);
+            System.out.printf(ROW_FORMAT, params.getParam("check"), corpus,
+                    String.format("%.0f", nanosPerFile),
+                    String.format("%.1f", 1e9 / nanosPerFile),
+                    Double.isNaN(bytesPerFile) ? "n/a"
+                            : String.format("%.0f", bytesPerFile * 1000 / lines));
+        }
+    }
+
+    private static double getBytesPerFile(RunResult result)
+    {
+        double bytes = Double.NaN;
+        // JMH declares secondary results with raw Result type
+        for (String name : result.getSecondaryResults().keySet()) {
+            if (name.endsWith(ALLOCATION_RESULT_SUFFIX)) {
+                final Result<?> allocation = result.getSecondaryResults().get(name);
+                bytes = allocation.getScore();
+            }
+        }
+        return bytes;
+    }
+}
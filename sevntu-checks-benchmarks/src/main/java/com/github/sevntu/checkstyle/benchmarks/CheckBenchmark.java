@@ -0,0 +1,230 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.benchmarks;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.puppycrawl.tools.checkstyle.Checker;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+
+/**
+ * Measures cost of a single check which is run by {@link TreeWalker} over a
+ * corpus of files. Each benchmark operation audits exactly one file of the
+ * corpus (files are taken in round-robin order), so the average time of an
+ * operation is the time per file and the "gc.alloc.rate.norm" value reported by
+ * the GC profiler is the count of bytes allocated per file. The
+ * {@link NoopCheck} value of "check" parameter measures cost of parsing and
+ * walking without any check logic and is a baseline for other values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckBenchmark
+{
+    /** Package of sevntu checks. */
+    public static final String CHECKS_PACKAGE = "com.github.sevntu.checkstyle.checks.";
+
+    /** Properties of checks which can not work with default values only. */
+    private static final Map<String, Map<String, String>> CHECK_PROPERTIES = new HashMap<>();
+
+    static {
+        final Map<String, String> childBlockLength = new HashMap<>();
+        childBlockLength.put("blockTypes", "LITERAL_IF, LITERAL_SWITCH, LITERAL_FOR, "
+                + "LITERAL_DO, LITERAL_WHILE, LITERAL_TRY, LITERAL_ELSE, LITERAL_CATCH");
+        CHECK_PROPERTIES.put(CHECKS_PACKAGE + "design.ChildBlockLengthCheck", childBlockLength);
+    }
+
+    /** Name of check relative to {@link #CHECKS_PACKAGE} or "NoopCheck". */
+    @Param({
+        "NoopCheck",
+        "annotation.ForbidAnnotationCheck",
+        "annotation.RequiredParameterForAnnotationCheck",
+        "coding.AvoidConstantAsFirstOperandInConditionCheck",
+        "coding.AvoidDefaultSerializableInInnerClasses",
+        "coding.AvoidHidingCauseExceptionCheck",
+        "coding.AvoidModifiersForTypesCheck",
+        "coding.AvoidNotShortCircuitOperatorsForBooleanCheck",
+        "coding.ConfusingConditionCheck",
+        "coding.CustomDeclarationOrderCheck",
+        "coding.DiamondOperatorForVariableDefinitionCheck",
+        "coding.EitherLogOrThrowCheck",
+        "coding.EmptyPublicCtorInClassCheck",
+        "coding.FinalizeImplementationCheck",
+        "coding.ForbidCCommentsInMethods",
+        "coding.ForbidCertainImportsCheck",
+        "coding.ForbidInstantiationCheck",
+        "coding.ForbidReturnInFinallyBlockCheck",
+        "coding.ForbidThrowAnonymousExceptionsCheck",
+        "coding.IllegalCatchExtendedCheck",
+        "coding.LogicConditionNeedOptimizationCheck",
+        "coding.MapIterationInForEachLoopCheck",
+        "coding.MultipleStringLiteralsExtendedCheck",
+        "coding.MultipleVariableDeclarationsExtendedCheck",
+        "coding.NameConventionForJunit4TestClassesCheck",
+        "coding.NoNullForCollectionReturnCheck",
+        "coding.OverridableMethodInConstructorCheck",
+        "coding.RedundantReturnCheck",
+        "coding.ReturnBooleanFromTernary",
+        "coding.ReturnCountExtendedCheck",
+        "coding.ReturnNullInsteadOfBoolean",
+        "coding.SimpleAccessorNameNotationCheck",
+        "coding.TernaryPerExpressionCountCheck",
+        "coding.UnnecessaryParenthesesExtendedCheck",
+        "coding.UselessSingleCatchCheck",
+        "coding.UselessSuperCtorCallCheck",
+        "design.AvoidConditionInversionCheck",
+        "design.CauseParameterInExceptionCheck",
+        "design.ChildBlockLengthCheck",
+        "design.ForbidWildcardAsReturnTypeCheck",
+        "design.HideUtilityClassConstructorCheck",
+        "design.InnerClassCheck",
+        "design.NestedSwitchCheck",
+        "design.NoMainMethodInAbstractClassCheck",
+        "design.PublicReferenceToPrivateTypeCheck",
+        "naming.EnumValueNameCheck",
+        "naming.InterfaceTypeParameterNameCheck",
+        "sizes.LineLengthExtendedCheck"
+    })
+    private String check;
+
+    /** Name of corpus, see {@link BenchmarkCorpus}. */
+    @Param({ BenchmarkCorpus.INPUTS, BenchmarkCorpus.GENERATED })
+    private String corpus;
+
+    /** Checker configured with the only check. */
+    private Checker checker;
+
+    /** Files of corpus. */
+    private List<File> files;
+
+    /** Index of the next file to audit. */
+    private int nextFile;
+
+    /**
+     * Creates checker and loads corpus.
+     * @throws Exception
+     *         if checker can not be configured or corpus can not be loaded.
+     */
+    @Setup
+    public void setUp() throws Exception
+    {
+        files = BenchmarkCorpus.load(corpus).getFiles();
+        checker = createChecker(getCheckClassName(check));
+        nextFile = 0;
+    }
+
+    /**
+     * Destroys checker.
+     */
+    @TearDown
+    public void tearDown()
+    {
+        checker.destroy();
+    }
+
+    /**
+     * Audits the next file of corpus.
+     * @return count of found errors, returned to avoid dead code elimination.
+     * @throws Exception
+     *         if file can not be audited.
+     */
+    @Benchmark
+    public int auditFile() throws Exception
+    {
+        final File file = files.get(nextFile);
+        nextFile++;
+        if (nextFile == files.size()) {
+            nextFile = 0;
+        }
+        return checker.process(Collections.singletonList(file));
+    }
+
+    /**
+     * Gets full name of check class.
+     * @param check
+     *        value of "check" parameter.
+     * @return full class name.
+     */
+    public static String getCheckClassName(String check)
+    {
+        final String result;
+        if (NoopCheck.class.getSimpleName().equals(check)) {
+            result = NoopCheck.class.getName();
+        }
+        else {
+            result = CHECKS_PACKAGE + check;
+        }
+        return result;
+    }
+
+    /**
+     * Creates checker which runs the only check with default properties, the
+     * only exception is made for checks which have mandatory properties.
+     * @param checkClassName
+     *        full name of check class.
+     * @return configured checker.
+     * @throws Exception
+     *         if checker can not be configured.
+     */
+    public static Checker createChecker(String checkClassName) throws Exception
+    {
+        final DefaultConfiguration checkerConfig = new DefaultConfiguration("configuration");
+        checkerConfig.addAttribute("charset", "iso-8859-1");
+        final DefaultConfiguration treeWalkerConfig =
+                new DefaultConfiguration(TreeWalker.class.getName());
+        final DefaultConfiguration checkConfig = new DefaultConfiguration(checkClassName);
+        final Map<String, String> properties = CHECK_PROPERTIES.get(checkClassName);
+        if (properties != null) {
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                checkConfig.addAttribute(property.getKey(), property.getValue());
+            }
+        }
+        treeWalkerConfig.addChild(checkConfig);
+        checkerConfig.addChild(treeWalkerConfig);
+
+        final Checker result = new Checker();
+        result.setLocaleCountry("");
+        result.setLocaleLanguage("en");
+        result.setModuleClassLoader(CheckBenchmark.class.getClassLoader());
+        result.configure(checkerConfig);
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.benchmarks;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.puppycrawl.tools.checkstyle.Checker;
+
+/**
+ * Checks that cost of a check per file does not depend on the count of files
+ * audited before, i.e. that check does not accumulate state during a long
+ * audit. One checker is used for the whole trial and each operation audits
+ * "filesCount" files, so time and "gc.alloc.rate.norm" of the GC profiler
+ * must grow linearly with "filesCount". Heap which is retained by the
+ * checker must stay flat, so "retainedHeapGrowthKb" result must stay
+ * close to zero.
+ * <pre>
+ * java -cp target/benchmarks.jar org.openjdk.jmh.Main CheckScalingBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckScalingBenchmark
+{
+    /** Count of generated files which are audited in a loop. */
+    private static final int DISTINCT_FILES = 20;
+
+    /** Count of methods in each generated file. */
+    private static final int METHODS_PER_FILE = 20;
+
+    /**
+     * Name of check relative to {@link CheckBenchmark#CHECKS_PACKAGE}. Default
+     * values are checks which iterate over children with cursors of
+     * {@link com.github.sevntu.checkstyle.Utils} instead of copied lists.
+     */
+    @Param({
+        "coding.AvoidModifiersForTypesCheck",
+        "coding.AvoidNotShortCircuitOperatorsForBooleanCheck",
+        "coding.ForbidReturnInFinallyBlockCheck",
+        "coding.NoNullForCollectionReturnCheck",
+        "coding.OverridableMethodInConstructorCheck",
+        "coding.ReturnCountExtendedCheck",
+        "design.CauseParameterInExceptionCheck",
+        "design.ForbidWildcardAsReturnTypeCheck"
+    })
+    private String check;
+
+    /** Count of files audited by each operation. */
+    @Param({"100", "500", "2500"})
+    private int filesCount;
+
+    /** Checker which is reused by all operations. */
+    private Checker checker;
+
+    /** Files of one operation. */
+    private List<File> files;
+
+    /**
+     * Creates checker and list of files.
+     * @throws Exception
+     *         if checker can not be configured or files can not be generated.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws Exception
+    {
+        final List<File> distinctFiles =
+                BenchmarkCorpus.generate(DISTINCT_FILES, METHODS_PER_FILE);
+        files = new ArrayList<>(filesCount);
+        for (int i = 0; i < filesCount; i++) {
+            files.add(distinctFiles.get(i % DISTINCT_FILES));
+        }
+        checker = CheckBenchmark.createChecker(CheckBenchmark.getCheckClassName(check));
+    }
+
+    /**
+     * Destroys checker.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        checker.destroy();
+    }
+
+    /**
+     * Audits all files by the same checker.
+     * @return count of found errors, returned to avoid dead code elimination.
+     * @throws Exception
+     *         if files can not be audited.
+     */
+    @Benchmark
+    public int auditFiles(RetainedHeap retainedHeap) throws Exception
+    {
+        return checker.process(files);
+    }
+
+    /**
+     * Reports growth of heap which is used after full GC during each
+     * iteration as a secondary result "retainedHeapGrowthKb" of the benchmark.
+     * JMH sums the result of all iterations, so the reported value is growth
+     * of retained heap during the measurement.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap
+    {
+        /** Growth of used heap during iteration in kilobytes. */
+        public long retainedHeapGrowthKb;
+
+        /** Used heap after the previous iteration in kilobytes. */
+        private long previousHeapKb;
+
+        /**
+         * Measures heap which is used before the first iteration.
+         */
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            previousHeapKb = getRetainedHeapKb();
+        }
+
+        /**
+         * Measures growth of heap during the iteration.
+         */
+        @TearDown(Level.Iteration)
+        public void measure()
+        {
+            final long heapKb = getRetainedHeapKb();
+            retainedHeapGrowthKb = heapKb - previousHeapKb;
+            previousHeapKb = heapKb;
+        }
+
+        private static long getRetainedHeapKb()
+        {
+            final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            memory.gc();
+            return memory.getHeapMemoryUsage().getUsed() / 1024;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.sevntu.checkstyle.NameMatcher;
+import com.github.sevntu.checkstyle.Utils;
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+/**
+ * Compares matching of all identifiers of the corpus against default
+ * expressions of checks by {@link NameMatcher} and by {@link Pattern}. Each
+ * operation matches all identifiers of the corpus:
+ * <pre>
+ * java -cp target/benchmarks.jar org.openjdk.jmh.Main NameMatcherBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameMatcherBenchmark
+{
+    /** Name of corpus, see {@link BenchmarkCorpus}. */
+    @Param(BenchmarkCorpus.INPUTS)
+    private String corpus;
+
+    /** Expression to match identifiers against. */
+    @Param({
+        ".+Exception",
+        "Test|org.junit.Test",
+        ".+Test\\d*|.+Tests\\d*|Test.+|Tests.+|.+IT|.+ITs|.+TestCase\\d*|.+TestCases\\d*",
+    })
+    private String regexp;
+
+    /** Identifiers of corpus files. */
+    private String[] identifiers;
+
+    /** Compiled expression. */
+    private Pattern pattern;
+
+    /** Analyzed expression. */
+    private NameMatcher nameMatcher;
+
+    /**
+     * Collects identifiers of corpus and compiles expression.
+     * @throws Exception
+     *         if corpus can not be loaded or parsed.
+     */
+    @Setup
+    public void setUp() throws Exception
+    {
+        final List<String> result = new ArrayList<>();
+        for (File file : BenchmarkCorpus.load(corpus).getFiles()) {
+            final DetailAST root =
+                    TreeWalker.parse(new FileContents(new FileText(file, "iso-8859-1")));
+            for (DetailAST sibling = root; sibling != null; sibling = sibling.getNextSibling()) {
+                for (DetailAST node = sibling; node != null; node = Utils.getNextNode(node, sibling)) {
+                    if (node.getType() == TokenTypes.IDENT) {
+                        result.add(node.getText());
+                    }
+                }
+            }
+        }
+        identifiers = result.toArray(new String[result.size()]);
+        pattern = Pattern.compile(regexp);
+        nameMatcher = NameMatcher.compile(regexp);
+    }
+
+    /**
+     * Matches identifiers by {@link Pattern}.
+     * @return count of matched identifiers, returned to avoid dead code
+     *         elimination.
+     */
+    @Benchmark
+    public int pattern()
+    {
+        int result = 0;
+        for (String identifier : identifiers) {
+            if (pattern.matcher(identifier).matches()) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Matches identifiers by {@link NameMatcher}.
+     * @return count of matched identifiers, returned to avoid dead code
+     *         elimination.
+     */
+    @Benchmark
+    public int nameMatcher()
+    {
+        int result = 0;
+        for (String identifier : identifiers) {
+            if (nameMatcher.matches(identifier)) {
+                result++;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,166 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates large compilable java sources which look like generated code from
+ * real projects: many private helpers calling each other, nested blocks,
+ * duplicated string literals, block comments, ternaries, catch blocks, map
+ * iterations and inner classes. Generation is deterministic for the given
+ * seed, so all benchmark runs audit the same code.
+ */
+public class SyntheticSourceGenerator
+{
+    /** Count of distinct string literals which are reused across the file. */
+    private static final int LITERALS_POOL_SIZE = 50;
+
+    /** Random generator which drives all choices. */
+    private final Random random;
+
+    /** Resulting source. */
+    private final StringBuilder source = new StringBuilder();
+
+    /**
+     * Creates generator.
+     * @param seed
+     *        seed of generator, equal seeds produce equal sources.
+     */
+    public SyntheticSourceGenerator(long seed)
+    {
+        random = new Random(seed);
+    }
+
+    /**
+     * Generates source of a top level class.
+     * @param className
+     *        name of the class.
+     * @param methodsCount
+     *        count of methods to generate.
+     * @return java source.
+     */
+    public String generate(String className, int methodsCount)
+    {
+        source.setLength(0);
+        source.append("package com.github.sevntu.checkstyle.benchmarks.generated;\n\n")
+                .append("import java.io.IOException;\n")
+                .append("import java.util.ArrayList;\n")
+                .append("import java.util.HashMap;\n")
+                .append("import java.util.List;\n")
+                .append("import java.util.Map;\n\n")
+                .append("/**\n * Generated class.\n */\n")
+                .append("public class ").append(className)
+                .append(" extends Base").append(className)
+                .append(" implements Cloneable\n{\n");
+        for (int i = 0; i < methodsCount / 10 + 1; i++) {
+            source.append("    private final String field").append(i).append(" = ")
+                    .append(literal()).append(";\n");
+        }
+        source.append("\n    public ").append(className).append("()\n    {\n");
+        for (int i = 0; i < 5; i++) {
+            source.append("        helper").append(random.nextInt(methodsCount))
+                    .append("(").append(i).append(");\n");
+        }
+        source.append("    }\n\n");
+        for (int i = 0; i < methodsCount; i++) {
+            appendMethod(i, methodsCount);
+        }
+        appendInnerTypes();
+        source.append("}\n\n")
+                .append("class Base").append(className).append("\n{\n")
+                .append("    public void overridable(int value)\n    {\n    }\n}\n");
+        return source.toString();
+    }
+
+    private void appendMethod(int index, int methodsCount)
+    {
+        final String modifier = random.nextInt(4) == 0 ? "public" : "private";
+        source.append("    /*\n     * Block comment of helper ").append(index)
+                .append(".\n     */\n")
+                .append("    ").append(modifier).append(" List<String> helper").append(index)
+                .append("(int value)\n    {\n")
+                .append("        List<String> result = null;\n")
+                .append("        boolean first = value > ").append(random.nextInt(100))
+                .append(";\n        boolean second = value < ").append(random.nextInt(100))
+                .append(";\n        if (first | second) {\n")
+                .append("            result = new ArrayList<String>();\n")
+                .append("            result.add(").append(literal()).append(");\n")
+                .append("        }\n");
+        appendNestedBlocks(2, 1 + random.nextInt(4));
+        source.append("        Map<String, String> map = new HashMap<String, String>();\n")
+                .append("        for (String key : map.keySet()) {\n")
+                .append("            String text = map.get(key) + ").append(literal())
+                .append("; /* trailing comment */\n")
+                .append("        }\n")
+                .append("        try {\n")
+                .append("            helper").append(random.nextInt(methodsCount))
+                .append("(value - 1);\n")
+                .append("            overridable(value);\n")
+                .append("        }\n")
+                .append("        catch (RuntimeException e) {\n")
+                .append("            throw new IllegalStateException(").append(literal())
+                .append(");\n")
+                .append("        }\n")
+                .append("        int ternary = first ? (second ? 1 : 2) : 3;\n")
+                .append("        if (ternary == 0) {\n")
+                .append("            return null;\n")
+                .append("        }\n")
+                .append("        return result;\n")
+                .append("    }\n\n");
+    }
+
+    private void appendNestedBlocks(int depth, int maxDepth)
+    {
+        final StringBuilder indent = new StringBuilder();
+        for (int i = 0; i < depth * 4; i++) {
+            indent.append(' ');
+        }
+        source.append(indent).append("for (int i").append(depth).append(" = 0; i")
+                .append(depth).append(" < value; i").append(depth).append("++) {\n")
+                .append(indent).append("    String local").append(depth).append(" = ")
+                .append(literal()).append(" + ").append(literal()).append(";\n");
+        if (depth < maxDepth + 1) {
+            appendNestedBlocks(depth + 1, maxDepth);
+        }
+        source.append(indent).append("}\n");
+    }
+
+    private void appendInnerTypes()
+    {
+        source.append("    private static class Holder\n    {\n")
+                .append("        private String value = ").append(literal()).append(";\n")
+                .append("    }\n\n")
+                .append("    public Holder getHolder() throws IOException\n    {\n")
+                .append("        Runnable runnable = new Runnable() {\n")
+                .append("            @Override\n")
+                .append("            public void run()\n            {\n")
+                .append("                /* comment inside of anonymous class */\n")
+                .append("            }\n")
+                .append("        };\n")
+                .append("        return new Holder();\n")
+                .append("    }\n\n")
+                .append("    public enum Kind\n    {\n        FIRST, SECOND, THIRD\n    }\n");
+    }
+
+    private String literal()
+    {
+        return "\"literal-" + random.nextInt(LITERALS_POOL_SIZE) + "\"";
+    }
+}
@@ -0,0 +1,468 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.lang.ref.WeakReference;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+/**
+ * <p>
+ * Index of a syntax tree of one file. Nodes are numbered in pre-order (document
+ * order), so subtree of each node is a continuous range of numbers, and for each
+ * token type sorted array of numbers of nodes of this type is kept. Queries like
+ * "all METHOD_CALL nodes below this METHOD_DEF" become binary searches instead of
+ * recursive walks.
+ * </p>
+ * <p>
+ * Index is built once per file and shared by all checks of the same
+ * TreeWalker: checks should call {@link #get(DetailAST)} from
+ * {@link com.puppycrawl.tools.checkstyle.api.Check#beginTree(DetailAST)} and
+ * keep the result till the end of file. Index reflects the tree without
+ * comment nodes, so it should not be used by checks which require comment
+ * nodes.
+ * </p>
+ */
+public final class AstIndex
+{
+    /** Index of the file which is processed by current thread. */
+    private static final ThreadLocal<WeakReference<AstIndex>> CURRENT_INDEX =
+            new ThreadLocal<>();
+
+    /** Initial capacity of arrays of nodes. */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Root of indexed tree. */
+    private final DetailAST rootAST;
+
+    /** Count of indexed nodes. */
+    private int nodesCount;
+
+    /** Nodes in pre-order. */
+    private DetailAST[] nodes = new DetailAST[INITIAL_CAPACITY];
+
+    /** Number of the first node after subtree of each node. */
+    private int[] subtreeEnds = new int[INITIAL_CAPACITY];
+
+    /** Sorted numbers of nodes by token type. */
+    private int[][] tokenPositions;
+
+    /** Hash table from node to its number, keys are compared by identity. */
+    private DetailAST[] positionKeys;
+
+    /** Values of hash table from node to its number. */
+    private int[] positionValues;
+
+    /**
+     * Builds index of tree.
+     * @param rootAST
+     *        root of tree, its siblings are indexed as well.
+     */
+    private AstIndex(DetailAST rootAST)
+    {
+        this.rootAST = rootAST;
+        if (rootAST != null) {
+            indexNodes();
+            indexTokenTypes();
+            indexPositions();
+        }
+        else {
+            tokenPositions = new int[0][];
+            positionKeys = new DetailAST[1];
+            positionValues = new int[1];
+        }
+    }
+
+    /**
+     * Gets index of tree which is shared by all checks processing the current
+     * file; index is built if it was not built yet.
+     * @param rootAST
+     *        root of tree which is passed to
+     *        {@link com.puppycrawl.tools.checkstyle.api.Check#beginTree(DetailAST)}.
+     * @return index of tree.
+     */
+    public static AstIndex get(DetailAST rootAST)
+    {
+        final WeakReference<AstIndex> reference = CURRENT_INDEX.get();
+        AstIndex result = null;
+        if (reference != null) {
+            result = reference.get();
+        }
+        if (result == null || result.rootAST != rootAST) {
+            result = new AstIndex(rootAST);
+            CURRENT_INDEX.set(new WeakReference<>(result));
+        }
+        return result;
+    }
+
+    /**
+     * @return root of indexed tree.
+     */
+    public DetailAST getRootAST()
+    {
+        return rootAST;
+    }
+
+    /**
+     * @return count of indexed nodes.
+     */
+    public int getNodesCount()
+    {
+        return nodesCount;
+    }
+
+    /**
+     * Gets number of node in pre-order.
+     * @param ast
+     *        node of indexed tree.
+     * @return number of node, or -1 if node is not indexed.
+     */
+    public int getPosition(DetailAST ast)
+    {
+        int slot = getSlot(ast);
+        int result = -1;
+        while (positionKeys[slot] != null) {
+            if (positionKeys[slot] == ast) {
+                result = positionValues[slot];
+                break;
+            }
+            slot = (slot + 1) & (positionKeys.length - 1);
+        }
+        return result;
+    }
+
+    /**
+     * Gets number of the first node after subtree of node.
+     * @param ast
+     *        node of indexed tree.
+     * @return number of the first node after subtree.
+     */
+    public int getSubtreeEnd(DetailAST ast)
+    {
+        return subtreeEnds[getIndexedPosition(ast)];
+    }
+
+    /**
+     * Gets node by its number.
+     * @param position
+     *        number of node in pre-order.
+     * @return node.
+     */
+    public DetailAST getNode(int position)
+    {
+        if (position < 0 || position >= nodesCount) {
+            throw new IndexOutOfBoundsException("Position " + position
+                    + " is out of range 0.." + nodesCount);
+        }
+        return nodes[position];
+    }
+
+    /**
+     * Checks whether one node is in subtree of another one.
+     * @param ancestor
+     *        root of subtree.
+     * @param ast
+     *        node to check.
+     * @return true if ast is ancestor itself or is below it.
+     */
+    public boolean isInSubtree(DetailAST ancestor, DetailAST ast)
+    {
+        final int ancestorPosition = getIndexedPosition(ancestor);
+        final int position = getIndexedPosition(ast);
+        return position >= ancestorPosition && position < subtreeEnds[ancestorPosition];
+    }
+
+    /**
+     * Gets all nodes of token type in the whole tree.
+     * @param tokenType
+     *        token type.
+     * @return unmodifiable list of nodes in document order.
+     */
+    public List<DetailAST> getTokens(int tokenType)
+    {
+        final int[] positions = getTokenPositions(tokenType);
+        return new NodeList(positions, 0, positions.length);
+    }
+
+    /**
+     * Gets all nodes of token type below the node, the node itself is not
+     * included.
+     * @param ast
+     *        root of subtree.
+     * @param tokenType
+     *        token type.
+     * @return unmodifiable list of nodes in document order.
+     */
+    public List<DetailAST> getDescendants(DetailAST ast, int tokenType)
+    {
+        final int position = getIndexedPosition(ast);
+        final int[] positions = getTokenPositions(tokenType);
+        final int from = lowerBound(positions, position + 1);
+        final int to = lowerBound(positions, subtreeEnds[position]);
+        return new NodeList(positions, from, to);
+    }
+
+    /**
+     * Checks whether the node or any node below it has token type, like
+     * {@link DetailAST#branchContains(int)}, which is recursive and may
+     * overflow the stack on deeply nested expressions.
+     * @param ast
+     *        root of subtree.
+     * @param tokenType
+     *        token type.
+     * @return true if subtree contains node of token type.
+     */
+    public boolean branchContains(DetailAST ast, int tokenType)
+    {
+        final int position = getIndexedPosition(ast);
+        final int[] positions = getTokenPositions(tokenType);
+        final int first = lowerBound(positions, position);
+        return first < positions.length && positions[first] < subtreeEnds[position];
+    }
+
+    /**
+     * Gets nodes of token type below the node without entering into subtrees of
+     * nodes of skipped types, the node itself is not included.
+     * @param ast
+     *        root of subtree.
+     * @param tokenType
+     *        token type.
+     * @param outermostOnly
+     *        whether subtrees of found nodes are skipped as well.
+     * @param skippedTypes
+     *        token types of nodes whose subtrees are skipped.
+     * @return list of nodes in document order.
+     */
+    public List<DetailAST> findDescendants(DetailAST ast, int tokenType,
+            boolean outermostOnly, int... skippedTypes)
+    {
+        final int position = getIndexedPosition(ast);
+        final int end = subtreeEnds[position];
+        final int[] positions = getTokenPositions(tokenType);
+        final List<DetailAST> result = new ArrayList<>();
+
+        final int[][] skipped = new int[skippedTypes.length][];
+        final int[] skippedIndexes = new int[skippedTypes.length];
+        for (int i = 0; i < skippedTypes.length; i++) {
+            skipped[i] = getTokenPositions(skippedTypes[i]);
+            skippedIndexes[i] = lowerBound(skipped[i], position + 1);
+        }
+
+        int skipEnd = position + 1;
+        for (int i = lowerBound(positions, position + 1);
+                i < positions.length && positions[i] < end; i++)
+        {
+            final int candidate = positions[i];
+            for (int j = 0; j < skipped.length; j++) {
+                while (skippedIndexes[j] < skipped[j].length
+                        && skipped[j][skippedIndexes[j]] < candidate)
+                {
+                    skipEnd = Math.max(skipEnd, subtreeEnds[skipped[j][skippedIndexes[j]]]);
+                    skippedIndexes[j]++;
+                }
+            }
+            if (candidate >= skipEnd) {
+                result.add(nodes[candidate]);
+                if (outermostOnly) {
+                    skipEnd = subtreeEnds[candidate];
+                }
+            }
+        }
+        return result;
+    }
+
+    private int getIndexedPosition(DetailAST ast)
+    {
+        final int result = getPosition(ast);
+        if (result < 0) {
+            throw new IllegalArgumentException("Node " + ast + " is not indexed");
+        }
+        return result;
+    }
+
+    private int[] getTokenPositions(int tokenType)
+    {
+        int[] result;
+        if (tokenType >= 0 && tokenType < tokenPositions.length
+                && tokenPositions[tokenType] != null)
+        {
+            result = tokenPositions[tokenType];
+        }
+        else {
+            result = new int[0];
+        }
+        return result;
+    }
+
+    /**
+     * Numbers nodes in pre-order without recursion.
+     */
+    private void indexNodes()
+    {
+        int[] parents = new int[INITIAL_CAPACITY];
+        int depth = 0;
+        DetailAST node = rootAST;
+        while (node != null) {
+            final int position = addNode(node);
+            final DetailAST child = node.getFirstChild();
+            if (child != null) {
+                if (depth == parents.length) {
+                    parents = Arrays.copyOf(parents, depth * 2);
+                }
+                parents[depth] = position;
+                depth++;
+                node = child;
+            }
+            else {
+                subtreeEnds[position] = nodesCount;
+                node = node.getNextSibling();
+                while (node == null && depth > 0) {
+                    depth--;
+                    final int parent = parents[depth];
+                    subtreeEnds[parent] = nodesCount;
+                    node = nodes[parent].getNextSibling();
+                }
+            }
+        }
+    }
+
+    private int addNode(DetailAST node)
+    {
+        if (nodesCount == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodesCount * 2);
+            subtreeEnds = Arrays.copyOf(subtreeEnds, nodesCount * 2);
+        }
+        nodes[nodesCount] = node;
+        return nodesCount++;
+    }
+
+    private void indexTokenTypes()
+    {
+        int maxType = 0;
+        for (int i = 0; i < nodesCount; i++) {
+            maxType = Math.max(maxType, nodes[i].getType());
+        }
+        final int[] counts = new int[maxType + 1];
+        for (int i = 0; i < nodesCount; i++) {
+            counts[nodes[i].getType()]++;
+        }
+        tokenPositions = new int[maxType + 1][];
+        for (int type = 0; type <= maxType; type++) {
+            if (counts[type] > 0) {
+                tokenPositions[type] = new int[counts[type]];
+                counts[type] = 0;
+            }
+        }
+        for (int i = 0; i < nodesCount; i++) {
+            final int type = nodes[i].getType();
+            tokenPositions[type][counts[type]] = i;
+            counts[type]++;
+        }
+    }
+
+    private void indexPositions()
+    {
+        int capacity = 1;
+        while (capacity < nodesCount * 2) {
+            capacity <<= 1;
+        }
+        positionKeys = new DetailAST[capacity];
+        positionValues = new int[capacity];
+        for (int i = 0; i < nodesCount; i++) {
+            int slot = getSlot(nodes[i]);
+            while (positionKeys[slot] != null) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            positionKeys[slot] = nodes[i];
+            positionValues[slot] = i;
+        }
+    }
+
+    private int getSlot(DetailAST ast)
+    {
+        final int hash = System.identityHashCode(ast);
+        return (hash ^ (hash >>> 16)) & (positionKeys.length - 1);
+    }
+
+    /**
+     * Gets index of the first element which is not less than value.
+     * @param values
+     *        sorted values.
+     * @param value
+     *        value to search.
+     * @return index in range 0..values.length.
+     */
+    private static int lowerBound(int[] values, int value)
+    {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (values[middle] < value) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Unmodifiable view of range of nodes of one token type.
+     */
+    private final class NodeList extends AbstractList<DetailAST> implements RandomAccess
+    {
+        /** Numbers of nodes. */
+        private final int[] positions;
+
+        /** Index of the first element in positions. */
+        private final int from;
+
+        /** Index after the last element in positions. */
+        private final int to;
+
+        NodeList(int[] positions, int from, int to)
+        {
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public DetailAST get(int index)
+        {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+            }
+            return nodes[positions[from + index]];
+        }
+
+        @Override
+        public int size()
+        {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,778 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.puppycrawl.tools.checkstyle.TreeWalker;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.FullIdent;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+/**
+ * <p>
+ * Project-wide summary of classes: for each class its fully qualified name,
+ * the fully qualified name of its superclass and signatures of its methods
+ * (name, count of parameters and modifiers). Checks which work with one file
+ * at a time use it to look into base classes declared in other files without
+ * parsing them.
+ * </p>
+ * <p>
+ * Index is created by {@link Builder} in a first pass over sources and can be
+ * written to a compact binary file. Such file is memory-mapped by
+ * {@link #load(File)}: only names are decoded on load, methods are read
+ * directly from the mapped file on lookup. Loaded indexes are cached, so all
+ * checks which use the same file share one instance. Index is immutable and
+ * may be used from several threads.
+ * </p>
+ * <p>
+ * Index file can be built from command line:
+ * </p>
+ * <pre>
+ * java -cp sevntu-checks.jar:checkstyle-all.jar \
+ *     com.github.sevntu.checkstyle.ClassHierarchyIndex index.bin src/main/java
+ * </pre>
+ */
+public final class ClassHierarchyIndex
+{
+    /** Modifier flag of static methods. */
+    public static final int STATIC = 1;
+
+    /** Modifier flag of final methods. */
+    public static final int FINAL = 2;
+
+    /** Modifier flag of private methods. */
+    public static final int PRIVATE = 4;
+
+    /** First bytes of index file, "SVCH". */
+    private static final int MAGIC = 0x53564348;
+
+    /** Version of index file format. */
+    private static final int VERSION = 1;
+
+    /** Charset of names in index file. */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /** Indexes which were loaded from files, by canonical path. */
+    private static final Map<String, ClassHierarchyIndex> LOADED_INDEXES =
+            new HashMap<>();
+
+    /** Content of index, mapped file or array. */
+    private final ByteBuffer buffer;
+
+    /** Names stored in index, by their numbers. */
+    private final String[] names;
+
+    /** Numbers of names stored in index. */
+    private final Map<String, Integer> nameNumbers;
+
+    /** Offsets of class records, by fully qualified class name. */
+    private final Map<String, Integer> classOffsets;
+
+    /** Modification time of the file index was loaded from. */
+    private final long lastModified;
+
+    /**
+     * Reads names and class records of index.
+     * @param buffer
+     *        content of index.
+     * @param lastModified
+     *        modification time of index file.
+     * @throws IOException
+     *         if content is not an index.
+     */
+    private ClassHierarchyIndex(ByteBuffer buffer, long lastModified) throws IOException
+    {
+        this.buffer = buffer;
+        this.lastModified = lastModified;
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a class hierarchy index");
+        }
+        final int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported class hierarchy index version " + version);
+        }
+        names = new String[buffer.getInt()];
+        nameNumbers = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            final byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(bytes);
+            names[i] = new String(bytes, UTF_8);
+            nameNumbers.put(names[i], i);
+        }
+        final int classesCount = buffer.getInt();
+        classOffsets = new HashMap<>(classesCount * 2);
+        for (int i = 0; i < classesCount; i++) {
+            classOffsets.put(names[buffer.getInt()], buffer.position());
+            buffer.position(buffer.position() + 4);
+            final int methodsCount = buffer.getInt();
+            buffer.position(buffer.position() + methodsCount * 7);
+        }
+    }
+
+    /**
+     * Loads index from file. Index is memory-mapped and cached, the same
+     * instance is returned till the file is modified.
+     * @param file
+     *        index file written by {@link Builder#write(File)}.
+     * @return loaded index.
+     * @throws IOException
+     *         if file can not be read or is not an index.
+     */
+    public static ClassHierarchyIndex load(File file) throws IOException
+    {
+        final String path = file.getCanonicalPath();
+        synchronized (LOADED_INDEXES) {
+            ClassHierarchyIndex result = LOADED_INDEXES.get(path);
+            if (result == null || result.lastModified != file.lastModified()) {
+                try (RandomAccessFile input = new RandomAccessFile(file, "r");
+                        FileChannel channel = input.getChannel())
+                {
+                    result = new ClassHierarchyIndex(
+                            channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                            file.lastModified());
+                }
+                LOADED_INDEXES.put(path, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * @return count of classes in index.
+     */
+    public int getClassesCount()
+    {
+        return classOffsets.size();
+    }
+
+    /**
+     * Checks whether class is in index.
+     * @param className
+     *        fully qualified class name.
+     * @return true if class is in index.
+     */
+    public boolean contains(String className)
+    {
+        return classOffsets.containsKey(className);
+    }
+
+    /**
+     * Gets superclass of class.
+     * @param className
+     *        fully qualified class name.
+     * @return fully qualified name of superclass, or null if class is not in
+     *         index or its superclass is unknown.
+     */
+    public String getSuperClass(String className)
+    {
+        String result = null;
+        final int offset = getClassOffset(className);
+        if (offset >= 0) {
+            final int superClass = buffer.getInt(offset);
+            if (superClass >= 0) {
+                result = names[superClass];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets methods of class with the given name, inherited methods are not
+     * included.
+     * @param className
+     *        fully qualified class name.
+     * @param methodName
+     *        name of method.
+     * @return methods in order of declaration, empty list if there are no such
+     *         methods.
+     */
+    public List<MethodSummary> getMethods(String className, String methodName)
+    {
+        List<MethodSummary> result = Collections.emptyList();
+        final int offset = getClassOffset(className);
+        final Integer name = nameNumbers.get(methodName);
+        if (offset >= 0 && name != null) {
+            final int methodsCount = buffer.getInt(offset + 4);
+            for (int i = 0; i < methodsCount; i++) {
+                final int methodOffset = offset + 8 + i * 7;
+                if (buffer.getInt(methodOffset) == name) {
+                    if (result.isEmpty()) {
+                        result = new ArrayList<>(1);
+                    }
+                    result.add(new MethodSummary(methodName,
+                            buffer.getShort(methodOffset + 4),
+                            buffer.get(methodOffset + 6)));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resolves name of type which is used in the file of the given node to
+     * fully qualified name of a class from index. Name is looked up as a
+     * member of enclosing classes, then in single-type imports, in the package
+     * of the file, in on-demand imports and in java.lang package.
+     * @param ast
+     *        any node of the file where type name is used.
+     * @param typeName
+     *        simple or qualified type name, as written in the file.
+     * @return fully qualified class name, or null if there is no such class in
+     *         index.
+     */
+    public String resolve(DetailAST ast, String typeName)
+    {
+        return resolve(ast, typeName, ImportIndex.get(getFirstTopLevelNode(ast)));
+    }
+
+    /**
+     * Resolves name of type in the same way as {@link #resolve(DetailAST, String)},
+     * but with package and imports which are already read, so checks which
+     * resolve many names in one file read imports only once.
+     * @param ast
+     *        any node of the file where type name is used.
+     * @param typeName
+     *        simple or qualified type name, as written in the file.
+     * @param imports
+     *        package and imports of the file.
+     * @return fully qualified class name, or null if there is no such class in
+     *         index.
+     */
+    public String resolve(DetailAST ast, String typeName, ImportIndex imports)
+    {
+        return resolve(typeName, new FileContext(ast, imports), classOffsets.keySet());
+    }
+
+    private int getClassOffset(String className)
+    {
+        final Integer offset = classOffsets.get(className);
+        int result = -1;
+        if (offset != null) {
+            result = offset;
+        }
+        return result;
+    }
+
+    /**
+     * Resolves type name using imports of a file.
+     * @param typeName
+     *        simple or qualified type name.
+     * @param context
+     *        package, imports and enclosing classes of place of usage.
+     * @param knownClasses
+     *        fully qualified names of all known classes.
+     * @return fully qualified name of a known class or null.
+     */
+    private static String resolve(String typeName, FileContext context,
+            Collection<String> knownClasses)
+    {
+        String result = null;
+        if (typeName.indexOf('.') >= 0 && knownClasses.contains(typeName)) {
+            result = typeName;
+        }
+        for (int i = 0; result == null && i < context.enclosingClasses.size(); i++) {
+            result = getKnownClass(context.enclosingClasses.get(i) + '.' + typeName,
+                    knownClasses);
+        }
+        final Iterator<String> candidates = context.imports.getCandidates(typeName).iterator();
+        while (result == null && candidates.hasNext()) {
+            result = getKnownClass(candidates.next(), knownClasses);
+        }
+        if (result == null) {
+            result = getKnownClass("java.lang." + typeName, knownClasses);
+        }
+        return result;
+    }
+
+    private static String getKnownClass(String className, Collection<String> knownClasses)
+    {
+        String result = null;
+        if (knownClasses.contains(className)) {
+            result = className;
+        }
+        return result;
+    }
+
+    /**
+     * Gets simple or qualified name of superclass as it is written in class
+     * definition.
+     * @param classDefAST
+     *        CLASS_DEF node.
+     * @return name of superclass or null if class has no extends clause.
+     */
+    public static String getSuperClassName(DetailAST classDefAST)
+    {
+        String result = null;
+        final DetailAST extendsClause = classDefAST.findFirstToken(TokenTypes.EXTENDS_CLAUSE);
+        if (extendsClause != null) {
+            result = FullIdent.createFullIdent(extendsClause.getFirstChild()).getText();
+        }
+        return result;
+    }
+
+    /**
+     * Gets fully qualified name of a class which is declared in the file.
+     * @param classDefAST
+     *        CLASS_DEF node.
+     * @return fully qualified name, or null for local and anonymous classes.
+     */
+    public static String getClassName(DetailAST classDefAST)
+    {
+        return getClassName(classDefAST, getPackagePrefix(classDefAST));
+    }
+
+    /**
+     * Gets fully qualified name of a type which is declared in the file.
+     * @param typeDefAST
+     *        CLASS_DEF, INTERFACE_DEF, ENUM_DEF or ANNOTATION_DEF node.
+     * @param packagePrefix
+     *        package of the file followed by dot.
+     * @return fully qualified name, or null for local and anonymous types.
+     */
+    private static String getClassName(DetailAST typeDefAST, String packagePrefix)
+    {
+        final StringBuilder name = new StringBuilder(
+                typeDefAST.findFirstToken(TokenTypes.IDENT).getText());
+        DetailAST typeDef = typeDefAST;
+        boolean local = false;
+        while (!local && typeDef.getParent() != null) {
+            final DetailAST objBlock = typeDef.getParent();
+            typeDef = objBlock.getParent();
+            local = objBlock.getType() != TokenTypes.OBJBLOCK || !isTypeDef(typeDef);
+            if (!local) {
+                name.insert(0, '.').insert(0,
+                        typeDef.findFirstToken(TokenTypes.IDENT).getText());
+            }
+        }
+        String result = null;
+        if (!local) {
+            result = packagePrefix + name;
+        }
+        return result;
+    }
+
+    private static boolean isTypeDef(DetailAST ast)
+    {
+        final int type = ast.getType();
+        return type == TokenTypes.CLASS_DEF || type == TokenTypes.INTERFACE_DEF
+                || type == TokenTypes.ENUM_DEF || type == TokenTypes.ANNOTATION_DEF;
+    }
+
+    /**
+     * Gets package of the file.
+     * @param ast
+     *        any node of the file.
+     * @return package name followed by dot, or empty string for default
+     *         package.
+     */
+    private static String getPackagePrefix(DetailAST ast)
+    {
+        String result = "";
+        final DetailAST packageDef = getFirstTopLevelNode(ast);
+        if (packageDef.getType() == TokenTypes.PACKAGE_DEF) {
+            result = FullIdent.createFullIdent(packageDef.getLastChild().getPreviousSibling())
+                    .getText() + '.';
+        }
+        return result;
+    }
+
+    private static DetailAST getFirstTopLevelNode(DetailAST ast)
+    {
+        DetailAST result = ast;
+        while (result.getParent() != null) {
+            result = result.getParent();
+        }
+        while (result.getPreviousSibling() != null) {
+            result = result.getPreviousSibling();
+        }
+        return result;
+    }
+
+    /**
+     * Builds index to write it to a file and load later.
+     * @param args
+     *        index file name, followed by source files and directories.
+     * @throws Exception
+     *         if sources can not be parsed or index can not be written.
+     */
+    public static void main(String... args) throws Exception
+    {
+        main(System.out, System.err, args);
+    }
+
+    /**
+     * Builds index to write it to a file, reporting to the given streams.
+     * @param out
+     *        stream for count of indexed classes.
+     * @param err
+     *        stream for usage message.
+     * @param args
+     *        index file name, followed by source files and directories.
+     * @throws Exception
+     *         if sources can not be parsed or index can not be written.
+     */
+    static void main(PrintStream out, PrintStream err, String... args) throws Exception
+    {
+        if (args.length < 2) {
+            err.println("Usage: ClassHierarchyIndex <index file>"
+                    + " <source file or directory>...");
+            return;
+        }
+        final Builder builder = new Builder();
+        for (String source : Arrays.asList(args).subList(1, args.length)) {
+            builder.addFiles(new File(source));
+        }
+        builder.write(new File(args[0]));
+        out.println("Indexed " + builder.classes.size() + " classes");
+    }
+
+    /**
+     * Signature of a method from index.
+     */
+    public static final class MethodSummary
+    {
+        /** Name of method. */
+        private final String name;
+
+        /** Count of parameters. */
+        private final int paramsCount;
+
+        /** Flags {@link #STATIC}, {@link #FINAL}, {@link #PRIVATE}. */
+        private final int modifiers;
+
+        /**
+         * Creates summary.
+         * @param name
+         *        name of method.
+         * @param paramsCount
+         *        count of parameters.
+         * @param modifiers
+         *        modifier flags.
+         */
+        public MethodSummary(String name, int paramsCount, int modifiers)
+        {
+            this.name = name;
+            this.paramsCount = paramsCount;
+            this.modifiers = modifiers;
+        }
+
+        /**
+         * @return name of method.
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * @return count of parameters.
+         */
+        public int getParamsCount()
+        {
+            return paramsCount;
+        }
+
+        /**
+         * @return modifier flags: {@link ClassHierarchyIndex#STATIC},
+         *         {@link ClassHierarchyIndex#FINAL},
+         *         {@link ClassHierarchyIndex#PRIVATE}.
+         */
+        public int getModifiers()
+        {
+            return modifiers;
+        }
+    }
+
+    /**
+     * Collects classes from parsed files and creates index.
+     */
+    public static final class Builder
+    {
+        /** Classes by fully qualified name. */
+        private final Map<String, ClassRecord> classes = new TreeMap<>();
+
+        /** Charset of source files. */
+        private String charset = Charset.defaultCharset().name();
+
+        /**
+         * Sets charset of source files added by {@link #addFiles(File)}.
+         * @param charset
+         *        name of charset.
+         * @return this builder.
+         */
+        public Builder setCharset(String charset)
+        {
+            this.charset = charset;
+            return this;
+        }
+
+        /**
+         * Parses java file, or all java files in directory recursively, and
+         * adds their classes to index.
+         * @param file
+         *        java file or directory.
+         * @return this builder.
+         * @throws Exception
+         *         if file can not be read or parsed.
+         */
+        public Builder addFiles(File file) throws Exception
+        {
+            if (file.isDirectory()) {
+                final File[] children = file.listFiles();
+                if (children != null) {
+                    Arrays.sort(children);
+                    for (File child : children) {
+                        if (child.isDirectory() || child.getName().endsWith(".java")) {
+                            addFiles(child);
+                        }
+                    }
+                }
+            }
+            else {
+                add(TreeWalker.parse(new FileContents(new FileText(file, charset))));
+            }
+            return this;
+        }
+
+        /**
+         * Adds classes declared in file to index.
+         * @param rootAST
+         *        first top level node of file.
+         * @return this builder.
+         */
+        public Builder add(DetailAST rootAST)
+        {
+            for (DetailAST classDef : AstIndex.get(rootAST).getTokens(TokenTypes.CLASS_DEF)) {
+                final String className = getClassName(classDef);
+                if (className != null) {
+                    classes.put(className, new ClassRecord(classDef));
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Creates index of all added classes.
+         * @return index.
+         */
+        public ClassHierarchyIndex build()
+        {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            try {
+                write(content);
+                return new ClassHierarchyIndex(ByteBuffer.wrap(content.toByteArray()), 0);
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        /**
+         * Writes index of all added classes to file.
+         * @param file
+         *        index file.
+         * @throws IOException
+         *         if file can not be written.
+         */
+        public void write(File file) throws IOException
+        {
+            try (OutputStream output = new FileOutputStream(file)) {
+                write(output);
+            }
+        }
+
+        private void write(OutputStream output) throws IOException
+        {
+            final Map<String, Integer> numbers = new LinkedHashMap<>();
+            final List<int[]> records = new ArrayList<>(classes.size());
+            for (Map.Entry<String, ClassRecord> entry : classes.entrySet()) {
+                final ClassRecord record = entry.getValue();
+                final String superClass;
+                if (record.superClassName == null) {
+                    superClass = null;
+                }
+                else {
+                    superClass = resolve(record.superClassName, record.context,
+                            classes.keySet());
+                }
+                final int[] numbered = new int[2 + record.methods.size() * 3];
+                numbered[0] = getNumber(numbers, entry.getKey());
+                numbered[1] = superClass == null ? -1 : getNumber(numbers, superClass);
+                for (int i = 0; i < record.methods.size(); i++) {
+                    final MethodSummary method = record.methods.get(i);
+                    numbered[2 + i * 3] = getNumber(numbers, method.name);
+                    numbered[3 + i * 3] = method.paramsCount;
+                    numbered[4 + i * 3] = method.modifiers;
+                }
+                records.add(numbered);
+            }
+
+            final DataOutputStream data = new DataOutputStream(output);
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(numbers.size());
+            for (String name : numbers.keySet()) {
+                final byte[] bytes = name.getBytes(UTF_8);
+                data.writeShort(bytes.length);
+                data.write(bytes);
+            }
+            data.writeInt(records.size());
+            for (int[] record : records) {
+                data.writeInt(record[0]);
+                data.writeInt(record[1]);
+                data.writeInt((record.length - 2) / 3);
+                for (int i = 2; i < record.length; i += 3) {
+                    data.writeInt(record[i]);
+                    data.writeShort(record[i + 1]);
+                    data.writeByte(record[i + 2]);
+                }
+            }
+            data.flush();
+        }
+
+        private static int getNumber(Map<String, Integer> numbers, String name)
+        {
+            Integer result = numbers.get(name);
+            if (result == null) {
+                result = numbers.size();
+                numbers.put(name, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Class which is added to index but not written yet.
+     */
+    private static final class ClassRecord
+    {
+        /** Imports of file where class is declared. */
+        private final FileContext context;
+
+        /** Name of superclass as it is written in class. */
+        private final String superClassName;
+
+        /** Methods declared in class. */
+        private final List<MethodSummary> methods = new ArrayList<>();
+
+        /**
+         * Summarizes class.
+         * @param classDefAST
+         *        CLASS_DEF node.
+         */
+        ClassRecord(DetailAST classDefAST)
+        {
+            context = new FileContext(classDefAST,
+                    ImportIndex.get(getFirstTopLevelNode(classDefAST)));
+            superClassName = getSuperClassName(classDefAST);
+            final DetailAST objBlock = classDefAST.findFirstToken(TokenTypes.OBJBLOCK);
+            for (DetailAST member = objBlock.getFirstChild(); member != null;
+                    member = member.getNextSibling())
+            {
+                if (member.getType() == TokenTypes.METHOD_DEF) {
+                    methods.add(new MethodSummary(
+                            member.findFirstToken(TokenTypes.IDENT).getText(),
+                            member.findFirstToken(TokenTypes.PARAMETERS)
+                                    .getChildCount(TokenTypes.PARAMETER_DEF),
+                            getModifiers(member)));
+                }
+            }
+        }
+
+        private static int getModifiers(DetailAST methodDefAST)
+        {
+            final DetailAST modifiers = methodDefAST.findFirstToken(TokenTypes.MODIFIERS);
+            int result = 0;
+            if (modifiers.branchContains(TokenTypes.LITERAL_STATIC)) {
+                result |= STATIC;
+            }
+            if (modifiers.branchContains(TokenTypes.FINAL)) {
+                result |= FINAL;
+            }
+            if (modifiers.branchContains(TokenTypes.LITERAL_PRIVATE)) {
+                result |= PRIVATE;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Package, imports and enclosing classes which are used to resolve type
+     * names.
+     */
+    private static final class FileContext
+    {
+        /** Package and imports of file. */
+        private final ImportIndex imports;
+
+        /** Fully qualified names of enclosing classes, innermost first. */
+        private final List<String> enclosingClasses;
+
+        /**
+         * Collects enclosing classes of node.
+         * @param ast
+         *        node where type names are used.
+         * @param imports
+         *        package and imports of file.
+         */
+        FileContext(DetailAST ast, ImportIndex imports)
+        {
+            this.imports = imports;
+            final String packagePrefix;
+            if (imports.getPackageName().isEmpty()) {
+                packagePrefix = "";
+            }
+            else {
+                packagePrefix = imports.getPackageName() + '.';
+            }
+            enclosingClasses = new ArrayList<>();
+            for (DetailAST node = ast.getParent(); node != null; node = node.getParent()) {
+                if (isTypeDef(node)) {
+                    final String className = getClassName(node, packagePrefix);
+                    if (className != null) {
+                        enclosingClasses.add(className);
+                    }
+                }
+            }
+        }
+    }
+}
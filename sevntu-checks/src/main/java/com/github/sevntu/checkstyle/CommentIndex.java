@@ -0,0 +1,264 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.TextBlock;
+
+/**
+ * <p>
+ * Index of comments of one file. Block and single-line comments are kept in
+ * arrays sorted by their positions, so questions like "is this character
+ * inside of a comment" are answered by binary search instead of the scan of
+ * all comments done by
+ * {@link FileContents#hasIntersectionWithComment(int, int, int, int)}.
+ * </p>
+ * <p>
+ * Index is built once per file and shared by all checks of the same
+ * TreeWalker: checks should call {@link #get(FileContents)} from
+ * {@link com.puppycrawl.tools.checkstyle.api.Check#beginTree(
+ * com.puppycrawl.tools.checkstyle.api.DetailAST)} and keep the result till
+ * the end of file. Lines are numbered from 1 and columns from 0, the same as
+ * in {@link FileContents}.
+ * </p>
+ */
+public final class CommentIndex
+{
+    /** Index of the file which is processed by current thread. */
+    private static final ThreadLocal<WeakReference<CommentIndex>> CURRENT_INDEX =
+            new ThreadLocal<>();
+
+    /** Orders comments by their first characters. */
+    private static final Comparator<TextBlock> POSITION_ORDER = new Comparator<TextBlock>()
+    {
+        @Override
+        public int compare(TextBlock first, TextBlock second)
+        {
+            return Long.compare(toPosition(first.getStartLineNo(), first.getStartColNo()),
+                    toPosition(second.getStartLineNo(), second.getStartColNo()));
+        }
+    };
+
+    /** Contents of indexed file. */
+    private final FileContents contents;
+
+    /** Positions of the first characters of comments, sorted. */
+    private final long[] starts;
+
+    /**
+     * Positions of the last characters of comments. Comments do not overlap,
+     * so these positions are sorted too.
+     */
+    private final long[] ends;
+
+    /** Whether each comment is a block comment. */
+    private final boolean[] blockComments;
+
+    /**
+     * Builds index of comments.
+     * @param contents
+     *        contents of file.
+     */
+    private CommentIndex(FileContents contents)
+    {
+        this.contents = contents;
+        final List<TextBlock> comments = new ArrayList<>();
+        for (List<TextBlock> lineComments : contents.getCComments().values()) {
+            comments.addAll(lineComments);
+        }
+        final int blockCommentsCount = comments.size();
+        comments.addAll(contents.getCppComments().values());
+        final List<TextBlock> sortedComments = new ArrayList<>(comments);
+        Collections.sort(sortedComments, POSITION_ORDER);
+
+        starts = new long[comments.size()];
+        ends = new long[comments.size()];
+        blockComments = new boolean[comments.size()];
+        for (int i = 0; i < sortedComments.size(); i++) {
+            final TextBlock comment = sortedComments.get(i);
+            starts[i] = toPosition(comment.getStartLineNo(), comment.getStartColNo());
+            ends[i] = toPosition(comment.getEndLineNo(), comment.getEndColNo());
+        }
+        for (int i = 0; i < blockCommentsCount; i++) {
+            final TextBlock comment = comments.get(i);
+            blockComments[findFirstComment(comment.getStartLineNo(),
+                    comment.getStartColNo())] = true;
+        }
+    }
+
+    /**
+     * Gets index of comments which is shared by all checks processing the
+     * current file; index is built if it was not built yet.
+     * @param contents
+     *        contents of the current file.
+     * @return index of comments.
+     */
+    public static CommentIndex get(FileContents contents)
+    {
+        final WeakReference<CommentIndex> reference = CURRENT_INDEX.get();
+        CommentIndex result = null;
+        if (reference != null) {
+            result = reference.get();
+        }
+        if (result == null || result.contents != contents) {
+            result = new CommentIndex(contents);
+            CURRENT_INDEX.set(new WeakReference<>(result));
+        }
+        return result;
+    }
+
+    /**
+     * @return count of comments in file.
+     */
+    public int getCommentsCount()
+    {
+        return starts.length;
+    }
+
+    /**
+     * @param index
+     *        number of comment in order of positions.
+     * @return true for block comments, false for single-line comments.
+     */
+    public boolean isBlockComment(int index)
+    {
+        return blockComments[index];
+    }
+
+    /**
+     * @param index
+     *        number of comment in order of positions.
+     * @return line of the first character of comment.
+     */
+    public int getStartLineNo(int index)
+    {
+        return (int) (starts[index] >> Integer.SIZE);
+    }
+
+    /**
+     * @param index
+     *        number of comment in order of positions.
+     * @return column of the first character of comment.
+     */
+    public int getStartColNo(int index)
+    {
+        return (int) starts[index];
+    }
+
+    /**
+     * @param index
+     *        number of comment in order of positions.
+     * @return line of the last character of comment.
+     */
+    public int getEndLineNo(int index)
+    {
+        return (int) (ends[index] >> Integer.SIZE);
+    }
+
+    /**
+     * @param index
+     *        number of comment in order of positions.
+     * @return column of the last character of comment.
+     */
+    public int getEndColNo(int index)
+    {
+        return (int) ends[index];
+    }
+
+    /**
+     * Finds the first comment which starts at or after the given position.
+     * @param lineNo
+     *        line of position.
+     * @param colNo
+     *        column of position.
+     * @return number of comment, or count of comments if there is no such
+     *         comment.
+     */
+    public int findFirstComment(int lineNo, int colNo)
+    {
+        final long position = toPosition(lineNo, colNo);
+        int low = 0;
+        int high = starts.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (starts[middle] < position) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Checks whether the character at the given position is a part of comment.
+     * @param lineNo
+     *        line of character.
+     * @param colNo
+     *        column of character.
+     * @return true if character is inside of comment.
+     */
+    public boolean isInComment(int lineNo, int colNo)
+    {
+        return hasIntersectionWithComment(lineNo, colNo, lineNo, colNo);
+    }
+
+    /**
+     * Checks whether the given range of characters intersects with a comment,
+     * the same as
+     * {@link FileContents#hasIntersectionWithComment(int, int, int, int)}.
+     * @param startLineNo
+     *        line of the first character of range.
+     * @param startColNo
+     *        column of the first character of range.
+     * @param endLineNo
+     *        line of the last character of range.
+     * @param endColNo
+     *        column of the last character of range.
+     * @return true if some character of range is inside of comment.
+     */
+    public boolean hasIntersectionWithComment(int startLineNo, int startColNo,
+            int endLineNo, int endColNo)
+    {
+        // the last comment which starts before the end of range
+        final int index = findFirstComment(endLineNo, endColNo + 1) - 1;
+        return index >= 0 && ends[index] >= toPosition(startLineNo, startColNo);
+    }
+
+    /**
+     * Packs position into a number, numbers of positions are ordered the same
+     * way as positions.
+     * @param lineNo
+     *        line of position.
+     * @param colNo
+     *        column of position.
+     * @return number of position.
+     */
+    private static long toPosition(int lineNo, int colNo)
+    {
+        return ((long) lineNo << Integer.SIZE) + colNo;
+    }
+}
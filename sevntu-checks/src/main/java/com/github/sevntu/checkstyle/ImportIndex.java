@@ -0,0 +1,363 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FullIdent;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+/**
+ * <p>
+ * Package and imports of one file. Single-type imports are kept in a hash
+ * table by their simple names, so resolving of a simple type name takes
+ * constant time instead of the scan of all imports, and each import is
+ * parsed to text only once.
+ * </p>
+ * <p>
+ * Index is built once per file and shared by all checks of the same
+ * TreeWalker: checks should call {@link #get(DetailAST)} from
+ * {@link com.puppycrawl.tools.checkstyle.api.Check#beginTree(DetailAST)}
+ * instead of collecting IMPORT and PACKAGE_DEF tokens by themselves. Static
+ * imports are not indexed.
+ * </p>
+ */
+public final class ImportIndex
+{
+    /** Index of the file which is processed by current thread. */
+    private static final ThreadLocal<WeakReference<ImportIndex>> CURRENT_INDEX =
+            new ThreadLocal<>();
+
+    /**
+     * The first node of indexed tree, it is not kept alive by index, as
+     * index may outlive the file.
+     */
+    private final WeakReference<DetailAST> rootAST;
+
+    /** Package name, or empty string for default package. */
+    private String packageName = "";
+
+    /** Fully qualified names of single-type imports in order of imports. */
+    private final Set<String> singleTypeImports = new LinkedHashSet<>();
+
+    /** Single-type imports by simple names of imported types. */
+    private final Map<String, String> singleTypeImportsBySimpleName = new HashMap<>();
+
+    /** Package names of on-demand imports, without ".*", in order of imports. */
+    private final List<String> onDemandImports = new ArrayList<>();
+
+    /** Package names of on-demand imports, without ".*". */
+    private final Set<String> onDemandImportsSet = new HashSet<>();
+
+    /**
+     * Reads package and imports of file.
+     * @param rootAST
+     *        the first node of tree, package and imports are its siblings.
+     */
+    private ImportIndex(DetailAST rootAST)
+    {
+        this.rootAST = new WeakReference<>(rootAST);
+        for (DetailAST node = rootAST; node != null; node = node.getNextSibling()) {
+            if (node.getType() == TokenTypes.PACKAGE_DEF) {
+                packageName = FullIdent.createFullIdent(
+                        node.getLastChild().getPreviousSibling()).getText();
+            }
+            else if (node.getType() == TokenTypes.IMPORT) {
+                addImport(FullIdent.createFullIdentBelow(node).getText());
+            }
+        }
+    }
+
+    /**
+     * Gets index of package and imports which is shared by all checks
+     * processing the current file; index is built if it was not built yet.
+     * @param rootAST
+     *        root of tree which is passed to
+     *        {@link com.puppycrawl.tools.checkstyle.api.Check#beginTree(DetailAST)}.
+     * @return index of package and imports.
+     */
+    public static ImportIndex get(DetailAST rootAST)
+    {
+        final WeakReference<ImportIndex> reference = CURRENT_INDEX.get();
+        ImportIndex result = null;
+        if (reference != null) {
+            result = reference.get();
+        }
+        if (result == null || result.rootAST.get() != rootAST) {
+            result = new ImportIndex(rootAST);
+            CURRENT_INDEX.set(new WeakReference<>(result));
+        }
+        return result;
+    }
+
+    /**
+     * @return package name of file, or empty string for default package.
+     */
+    public String getPackageName()
+    {
+        return packageName;
+    }
+
+    /**
+     * @return unmodifiable set of fully qualified names of single-type
+     *         imports, in order of imports.
+     */
+    public Set<String> getSingleTypeImports()
+    {
+        return Collections.unmodifiableSet(singleTypeImports);
+    }
+
+    /**
+     * @return unmodifiable list of package names of on-demand imports, without
+     *         ".*", in order of imports.
+     */
+    public List<String> getOnDemandImports()
+    {
+        return Collections.unmodifiableList(onDemandImports);
+    }
+
+    /**
+     * Gets single-type import of a type by its simple name.
+     * @param simpleName
+     *        simple name of type.
+     * @return fully qualified name of the first import of type with this
+     *         simple name, or null if there is no such import.
+     */
+    public String getSingleTypeImport(String simpleName)
+    {
+        return singleTypeImportsBySimpleName.get(simpleName);
+    }
+
+    /**
+     * Checks whether type is imported by single-type import.
+     * @param className
+     *        fully qualified name of type.
+     * @return true if file contains import of this type.
+     */
+    public boolean isImported(String className)
+    {
+        return singleTypeImports.contains(className);
+    }
+
+    /**
+     * Checks whether package is imported by on-demand import.
+     * @param name
+     *        package name, without ".*".
+     * @return true if file contains on-demand import of this package.
+     */
+    public boolean isOnDemandImported(String name)
+    {
+        return onDemandImportsSet.contains(name);
+    }
+
+    /**
+     * Gets fully qualified names which type name, as it is written in the
+     * file, may refer to: type from single-type import, type from the package
+     * of the file and types from packages of on-demand imports. Types of
+     * java.lang package and nested types of enclosing classes are not
+     * included. Names are built lazily, when they are iterated, so search of
+     * the first suitable name does not build the rest of names.
+     * @param typeName
+     *        simple or qualified type name, qualified name is resolved by its
+     *        first part.
+     * @return candidate names, in order of precedence.
+     */
+    public Iterable<String> getCandidates(final String typeName)
+    {
+        return new Iterable<String>()
+        {
+            @Override
+            public Iterator<String> iterator()
+            {
+                return new CandidateIterator(typeName);
+            }
+        };
+    }
+
+    /**
+     * Checks whether fully qualified name is one of
+     * {@link #getCandidates(String) candidates} of type name, without building
+     * of candidates.
+     * @param typeName
+     *        simple or qualified type name, as it is written in the file.
+     * @param className
+     *        fully qualified name.
+     * @return true if type name may refer to the class.
+     */
+    public boolean isCandidate(String typeName, String className)
+    {
+        boolean result = false;
+        if (className.endsWith(typeName)) {
+            final int qualifierLength = className.length() - typeName.length() - 1;
+            if (qualifierLength < 0) {
+                result = packageName.isEmpty();
+            }
+            else if (className.charAt(qualifierLength) == '.') {
+                result = !packageName.isEmpty()
+                        && isQualifier(packageName, className, qualifierLength);
+                for (int i = 0; !result && i < onDemandImports.size(); i++) {
+                    result = isQualifier(onDemandImports.get(i), className, qualifierLength);
+                }
+            }
+            if (!result) {
+                final int dot = typeName.indexOf('.');
+                final String single = getSingleTypeImport(typeName, dot);
+                int restLength = 0;
+                if (dot >= 0) {
+                    restLength = typeName.length() - dot;
+                }
+                result = single != null
+                        && className.length() == single.length() + restLength
+                        && className.startsWith(single);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets single-type import of the first part of type name.
+     * @param typeName
+     *        simple or qualified type name.
+     * @param dot
+     *        index of the first dot in type name, or -1 for simple name.
+     * @return fully qualified name of import, or null.
+     */
+    private String getSingleTypeImport(String typeName, int dot)
+    {
+        final String result;
+        if (dot < 0) {
+            result = singleTypeImportsBySimpleName.get(typeName);
+        }
+        else {
+            result = singleTypeImportsBySimpleName.get(typeName.substring(0, dot));
+        }
+        return result;
+    }
+
+    private static boolean isQualifier(String qualifier, String className, int qualifierLength)
+    {
+        return qualifier.length() == qualifierLength && className.startsWith(qualifier);
+    }
+
+    private void addImport(String importText)
+    {
+        if (importText.endsWith(".*")) {
+            final String name = importText.substring(0, importText.length() - 2);
+            if (onDemandImportsSet.add(name)) {
+                onDemandImports.add(name);
+            }
+        }
+        else {
+            singleTypeImports.add(importText);
+            final String simpleName = importText.substring(importText.lastIndexOf('.') + 1);
+            if (!singleTypeImportsBySimpleName.containsKey(simpleName)) {
+                singleTypeImportsBySimpleName.put(simpleName, importText);
+            }
+        }
+    }
+
+    /**
+     * Iterator over candidate names of type name, which builds each name when
+     * it is requested.
+     */
+    private final class CandidateIterator implements Iterator<String>
+    {
+        /** Simple or qualified type name. */
+        private final String typeName;
+
+        /** Index of the first dot in type name, or -1 for simple name. */
+        private final int dot;
+
+        /**
+         * Number of the next candidate: 0 for single-type import, 1 for
+         * package, then numbers of on-demand imports starting from 2.
+         */
+        private int position;
+
+        /** Candidate which is built but not returned yet. */
+        private String next;
+
+        CandidateIterator(String typeName)
+        {
+            this.typeName = typeName;
+            dot = typeName.indexOf('.');
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            while (next == null && position < onDemandImports.size() + 2) {
+                next = getCandidate(position);
+                position++;
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final String result = next;
+            next = null;
+            return result;
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        private String getCandidate(int candidatePosition)
+        {
+            String result;
+            if (candidatePosition == 0) {
+                result = getSingleTypeImport(typeName, dot);
+                if (result != null && dot >= 0) {
+                    result += typeName.substring(dot);
+                }
+            }
+            else if (candidatePosition == 1) {
+                if (packageName.isEmpty()) {
+                    result = typeName;
+                }
+                else {
+                    result = packageName + '.' + typeName;
+                }
+            }
+            else {
+                result = onDemandImports.get(candidatePosition - 2) + '.' + typeName;
+            }
+            return result;
+        }
+    }
+}
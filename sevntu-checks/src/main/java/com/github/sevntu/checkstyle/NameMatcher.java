@@ -0,0 +1,771 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * Matcher of names against a regular expression, which is usually a property
+ * of a check. Most of such expressions are alternations of literals with
+ * ".*", ".+" or "\d*" at their ends, like ".+Exception" or "Test|org.junit.Test",
+ * so expression is analyzed once, when it is configured, and names are matched
+ * by hash lookups, {@link String#startsWith(String)}, {@link String#endsWith(String)}
+ * and Aho-Corasick automaton instead of {@link java.util.regex.Matcher}. Any
+ * other expression, and any name with surrogate pairs, is matched by
+ * {@link Pattern}.
+ * </p>
+ * <p>
+ * Result is always the same as the result of {@link java.util.regex.Matcher#matches()}
+ * for matchers created by {@link #compile(String)}, and as the result of
+ * {@link java.util.regex.Matcher#find()} for matchers created by
+ * {@link #compileForFind(String)}. Matcher created by
+ * {@link #compile(Collection)} matches names, which match any of given
+ * expressions, so lists of expressions are matched by one set of literals too.
+ * </p>
+ */
+public final class NameMatcher
+{
+    /** Characters, which are not literals when they are not escaped. */
+    private static final String META_CHARACTERS = "^$|?*+()[]{}";
+
+    /** Compiled expressions. */
+    private final Pattern[] patterns;
+
+    /** Compiled expressions, which can not be analyzed. */
+    private final Pattern[] complexPatterns;
+
+    /** Whether whole name should match expression. */
+    private final boolean wholeName;
+
+    /** Names, which are matched exactly. */
+    private final Set<String> names = new HashSet<>();
+
+    /** Unmodifiable copy of {@link #names}, if there are no other alternatives. */
+    private final List<String> literalNames;
+
+    /** Automaton for literals, which may occur anywhere in a name. */
+    private final KeywordAutomaton keywords;
+
+    /** Remaining alternatives of analyzed expressions. */
+    private final List<Alternative> alternatives = new ArrayList<>();
+
+    /**
+     * Whether names with line terminators are matched by {@link #patterns},
+     * because ".*", ".+" and "$" treat line terminators specially.
+     */
+    private final boolean lineTerminatorsMatter;
+
+    /**
+     * Creates matcher.
+     * @param regexps
+     *        regular expressions.
+     * @param wholeName
+     *        whether whole name should match expression.
+     */
+    private NameMatcher(Collection<String> regexps, boolean wholeName)
+    {
+        this.wholeName = wholeName;
+        patterns = new Pattern[regexps.size()];
+        final List<Pattern> complex = new ArrayList<>();
+        final List<String> keywordLiterals = new ArrayList<>();
+        int index = 0;
+        for (String regexp : regexps) {
+            final Pattern pattern = Pattern.compile(regexp);
+            patterns[index] = pattern;
+            index++;
+            final List<Alternative> parsed = parseAlternatives(regexp, wholeName);
+            if (parsed == null) {
+                complex.add(pattern);
+            }
+            else {
+                for (Alternative alternative : parsed) {
+                    if (alternative.isExactName()) {
+                        names.add(alternative.literal);
+                    }
+                    else if (alternative.isKeyword()) {
+                        keywordLiterals.add(alternative.literal);
+                    }
+                    else {
+                        alternatives.add(alternative);
+                    }
+                }
+            }
+        }
+        complexPatterns = complex.toArray(new Pattern[complex.size()]);
+        if (keywordLiterals.size() > 1) {
+            keywords = new KeywordAutomaton(keywordLiterals);
+        }
+        else {
+            keywords = null;
+            for (String literal : keywordLiterals) {
+                alternatives.add(new Alternative(literal, null, 0, 0, false));
+            }
+        }
+        boolean anyText = !wholeName || keywords != null;
+        for (Alternative alternative : alternatives) {
+            anyText |= alternative.anyBefore || alternative.anyAfter;
+        }
+        lineTerminatorsMatter = anyText;
+        if (wholeName && complexPatterns.length == 0 && keywords == null
+                && alternatives.isEmpty())
+        {
+            literalNames = Collections.unmodifiableList(new ArrayList<>(names));
+        }
+        else {
+            literalNames = null;
+        }
+    }
+
+    /**
+     * Creates matcher, which checks that whole name matches expression, the
+     * same as {@link java.util.regex.Matcher#matches()}.
+     * @param regexp
+     *        regular expression.
+     * @return matcher.
+     * @throws java.util.regex.PatternSyntaxException
+     *         if expression is invalid.
+     */
+    public static NameMatcher compile(String regexp)
+    {
+        return new NameMatcher(Collections.singletonList(regexp), true);
+    }
+
+    /**
+     * Creates matcher, which checks that whole name matches any of
+     * expressions.
+     * @param regexps
+     *        regular expressions.
+     * @return matcher.
+     * @throws java.util.regex.PatternSyntaxException
+     *         if some expression is invalid.
+     */
+    public static NameMatcher compile(Collection<String> regexps)
+    {
+        return new NameMatcher(regexps, true);
+    }
+
+    /**
+     * Creates matcher, which checks that some part of name matches expression,
+     * the same as {@link java.util.regex.Matcher#find()}.
+     * @param regexp
+     *        regular expression.
+     * @return matcher.
+     * @throws java.util.regex.PatternSyntaxException
+     *         if expression is invalid.
+     */
+    public static NameMatcher compileForFind(String regexp)
+    {
+        return new NameMatcher(Collections.singletonList(regexp), false);
+    }
+
+    /**
+     * Matches name against expressions.
+     * @param name
+     *        name to match.
+     * @return true, if name matches any of expressions.
+     */
+    public boolean matches(String name)
+    {
+        final boolean result;
+        if (hasCharacterMatchedByPatterns(name)) {
+            result = matchesPatterns(patterns, name);
+        }
+        else {
+            result = matchesLiterals(name) || matchesPatterns(complexPatterns, name);
+        }
+        return result;
+    }
+
+    /**
+     * Gets names matched by expressions, when expressions are plain
+     * alternations of literals like "javax\.persistence\.Entity|Entity", so
+     * callers can look names up instead of building strings to match.
+     * @return unmodifiable list of all names which match expressions, or null
+     *         if expressions match any other names.
+     */
+    public List<String> getLiteralNames()
+    {
+        return literalNames;
+    }
+
+    /**
+     * Whether all expressions were analyzed and names are matched without
+     * {@link Pattern}.
+     * @return true, if all expressions were analyzed.
+     */
+    boolean isSimple()
+    {
+        return complexPatterns.length == 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder result = new StringBuilder();
+        for (Pattern pattern : patterns) {
+            if (result.length() > 0) {
+                result.append(',');
+            }
+            result.append(pattern.pattern());
+        }
+        return result.toString();
+    }
+
+    /**
+     * Matches name against analyzed alternatives.
+     * @param name
+     *        name to match.
+     * @return true, if some alternative matches name.
+     */
+    private boolean matchesLiterals(String name)
+    {
+        boolean result = names.contains(name)
+                || keywords != null && keywords.isFoundIn(name);
+        for (int i = 0; !result && i < alternatives.size(); i++) {
+            result = alternatives.get(i).matches(name);
+        }
+        return result;
+    }
+
+    /**
+     * Matches name against compiled expressions.
+     * @param expressions
+     *        compiled expressions.
+     * @param name
+     *        name to match.
+     * @return true, if some expression matches name.
+     */
+    private boolean matchesPatterns(Pattern[] expressions, String name)
+    {
+        boolean result = false;
+        for (int i = 0; !result && i < expressions.length; i++) {
+            if (wholeName) {
+                result = expressions[i].matcher(name).matches();
+            }
+            else {
+                result = expressions[i].matcher(name).find();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parses alternatives of expression.
+     * @param regexp
+     *        regular expression.
+     * @param wholeName
+     *        whether whole name should match expression.
+     * @return alternatives, or null if expression can not be analyzed.
+     */
+    private static List<Alternative> parseAlternatives(String regexp, boolean wholeName)
+    {
+        final List<String> texts = splitAlternatives(regexp);
+        List<Alternative> result = null;
+        if (texts != null) {
+            result = new ArrayList<>();
+            for (String text : texts) {
+                final Alternative alternative = Alternative.parse(text, wholeName);
+                if (alternative == null) {
+                    result = null;
+                    break;
+                }
+                result.add(alternative);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits expression into alternatives.
+     * @param regexp
+     *        regular expression.
+     * @return texts of alternatives, or null if expression has groups,
+     *         character classes or bounded repetitions, so alternatives can not be
+     *         found by search of "|".
+     */
+    private static List<String> splitAlternatives(String regexp)
+    {
+        final List<String> result = new ArrayList<>();
+        int start = 0;
+        int index = 0;
+        while (index < regexp.length()) {
+            final char character = regexp.charAt(index);
+            if (character == '\\') {
+                index++;
+            }
+            else if (character == '(' || character == '[' || character == '{') {
+                return null;
+            }
+            else if (character == '|') {
+                result.add(regexp.substring(start, index));
+                start = index + 1;
+            }
+            index++;
+        }
+        result.add(regexp.substring(start));
+        return result;
+    }
+
+    /**
+     * Checks whether name should be matched by {@link #patterns}, because it
+     * has surrogates, which "." matches by code points instead of chars, or
+     * line terminators, which "." does not match.
+     * @param name
+     *        name to check.
+     * @return true, if name has surrogates or line terminators, which matter.
+     */
+    private boolean hasCharacterMatchedByPatterns(String name)
+    {
+        for (int i = 0; i < name.length(); i++) {
+            final char character = name.charAt(i);
+            if (Character.isSurrogate(character)
+                    || lineTerminatorsMatter && isLineTerminator(character))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether character is not matched by ".".
+     * @param character
+     *        character to check.
+     * @return true, if character is a line terminator.
+     */
+    private static boolean isLineTerminator(char character)
+    {
+        return character <= '\r' && (character == '\n' || character == '\r')
+                || character >= '\u0085' && (character == '\u0085'
+                    || character == '\u2028' || character == '\u2029');
+    }
+
+    /**
+     * Checks whether character at index is escaped by backslash.
+     * @param text
+     *        text of expression.
+     * @param start
+     *        index where escape sequences may start.
+     * @param index
+     *        index of character.
+     * @return true, if odd count of backslashes precedes the character.
+     */
+    private static boolean isEscaped(String text, int start, int index)
+    {
+        int backslashes = 0;
+        for (int i = index - 1; i >= start && text.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        return backslashes % 2 == 1;
+    }
+
+    /**
+     * Checks whether character is an ASCII digit, which is matched by "\d".
+     * @param character
+     *        character to check.
+     * @return true, if character is a digit.
+     */
+    private static boolean isDigit(char character)
+    {
+        return character >= '0' && character <= '9';
+    }
+
+    /**
+     * One alternative of expression: literal, which may contain "." wildcards,
+     * preceded by any text or nothing and followed by any text, digits or
+     * nothing.
+     */
+    private static final class Alternative
+    {
+        /** Literal, wildcard positions contain '.' character. */
+        private final String literal;
+
+        /** Positions of "." wildcards in literal, null if there are none. */
+        private final boolean[] wildcards;
+
+        /** Whether any text may precede literal. */
+        private final boolean anyBefore;
+
+        /** Minimal length of text before literal. */
+        private final int minBefore;
+
+        /** Whether any text may follow literal. */
+        private final boolean anyAfter;
+
+        /** Minimal length of text after literal. */
+        private final int minAfter;
+
+        /** Whether only digits may follow literal. */
+        private final boolean digitsAfter;
+
+        /**
+         * Creates alternative.
+         * @param literal
+         *        literal.
+         * @param wildcards
+         *        positions of wildcards in literal, or null.
+         * @param minBefore
+         *        minimal length of text before literal, or -1 if nothing
+         *        precedes literal.
+         * @param minAfter
+         *        minimal length of text after literal, or -1 if nothing or only
+         *        digits follow literal.
+         * @param digitsAfter
+         *        whether only digits follow literal.
+         */
+        private Alternative(String literal, boolean[] wildcards, int minBefore,
+                int minAfter, boolean digitsAfter)
+        {
+            this.literal = literal;
+            this.wildcards = wildcards;
+            anyBefore = minBefore >= 0;
+            this.minBefore = Math.max(minBefore, 0);
+            anyAfter = minAfter >= 0;
+            this.minAfter = Math.max(minAfter, 0);
+            this.digitsAfter = digitsAfter;
+        }
+
+        /**
+         * Parses alternative of expression.
+         * @param text
+         *        text of alternative, without "|".
+         * @param wholeName
+         *        whether whole name should match alternative.
+         * @return parsed alternative, or null if it is not supported.
+         */
+        private static Alternative parse(String text, boolean wholeName)
+        {
+            int start = 0;
+            int end = text.length();
+            boolean startAnchored = wholeName;
+            boolean endAnchored = wholeName;
+            if (start < end && text.charAt(start) == '^') {
+                startAnchored = true;
+                start++;
+            }
+            if (start < end && text.charAt(end - 1) == '$'
+                    && !isEscaped(text, start, end - 1))
+            {
+                endAnchored = true;
+                end--;
+            }
+            int minBefore = -1;
+            if (text.startsWith(".*", start) || text.startsWith(".+", start)) {
+                minBefore = text.charAt(start + 1) == '*' ? 0 : 1;
+                start += 2;
+            }
+            int minAfter = -1;
+            boolean digitsAfter = false;
+            if (end - start >= 2 && text.charAt(end - 2) == '.'
+                    && (text.charAt(end - 1) == '*' || text.charAt(end - 1) == '+')
+                    && !isEscaped(text, start, end - 2))
+            {
+                minAfter = text.charAt(end - 1) == '*' ? 0 : 1;
+                end -= 2;
+            }
+            else if (end - start >= 3 && text.startsWith("\\d*", end - 3)
+                    && !isEscaped(text, start, end - 3))
+            {
+                digitsAfter = true;
+                end -= 3;
+            }
+
+            final StringBuilder literal = new StringBuilder();
+            final boolean[] wildcards = new boolean[end - start];
+            boolean wildcardFound = false;
+            for (int i = start; i < end; i++) {
+                char character = text.charAt(i);
+                if (character == '\\') {
+                    i++;
+                    character = text.charAt(i);
+                    if (Character.isLetterOrDigit(character)) {
+                        return null;
+                    }
+                }
+                else if (character == '.') {
+                    wildcards[literal.length()] = true;
+                    wildcardFound = true;
+                }
+                else if (META_CHARACTERS.indexOf(character) >= 0) {
+                    return null;
+                }
+                literal.append(character);
+            }
+
+            if (!startAnchored && minBefore < 0) {
+                minBefore = 0;
+            }
+            if (!endAnchored && minAfter < 0) {
+                minAfter = 0;
+                digitsAfter = false;
+            }
+            return new Alternative(literal.toString(), wildcardFound ? wildcards : null,
+                    minBefore, minAfter, digitsAfter);
+        }
+
+        /**
+         * Whether alternative matches only the literal itself.
+         * @return true, if literal has no wildcards and nothing may precede or
+         *         follow it.
+         */
+        private boolean isExactName()
+        {
+            return wildcards == null && !anyBefore && !anyAfter && !digitsAfter;
+        }
+
+        /**
+         * Whether alternative matches any name which contains the literal.
+         * @return true, if literal has no wildcards and any text may precede and
+         *         follow it.
+         */
+        private boolean isKeyword()
+        {
+            return wildcards == null && anyBefore && minBefore == 0
+                    && anyAfter && minAfter == 0;
+        }
+
+        /**
+         * Matches name against alternative.
+         * @param name
+         *        name to match.
+         * @return true, if name matches alternative.
+         */
+        private boolean matches(String name)
+        {
+            final int length = literal.length();
+            final boolean result;
+            if (!anyBefore) {
+                result = isLiteralAt(name, 0) && isSuffixMatched(name, length);
+            }
+            else if (anyAfter) {
+                final int index = indexOfLiteral(name, minBefore);
+                result = index >= 0 && name.length() - index - length >= minAfter;
+            }
+            else if (digitsAfter) {
+                int end = name.length();
+                boolean found = false;
+                while (!found && end >= 0) {
+                    found = end - length >= minBefore && isLiteralAt(name, end - length);
+                    if (end == 0 || !isDigit(name.charAt(end - 1))) {
+                        break;
+                    }
+                    end--;
+                }
+                result = found;
+            }
+            else {
+                final int index = name.length() - length;
+                result = index >= minBefore && isLiteralAt(name, index);
+            }
+            return result;
+        }
+
+        /**
+         * Matches text after the literal.
+         * @param name
+         *        name to match.
+         * @param index
+         *        index of text after the literal.
+         * @return true, if text after literal is allowed.
+         */
+        private boolean isSuffixMatched(String name, int index)
+        {
+            final boolean result;
+            if (anyAfter) {
+                result = name.length() - index >= minAfter;
+            }
+            else if (digitsAfter) {
+                int digitIndex = index;
+                while (digitIndex < name.length() && isDigit(name.charAt(digitIndex))) {
+                    digitIndex++;
+                }
+                result = digitIndex == name.length();
+            }
+            else {
+                result = name.length() == index;
+            }
+            return result;
+        }
+
+        /**
+         * Checks whether literal occurs in name at index.
+         * @param name
+         *        name to check.
+         * @param index
+         *        index in name.
+         * @return true, if literal occurs at index.
+         */
+        private boolean isLiteralAt(String name, int index)
+        {
+            final boolean result;
+            if (wildcards == null) {
+                result = name.startsWith(literal, index);
+            }
+            else if (index < 0 || index + literal.length() > name.length()) {
+                result = false;
+            }
+            else {
+                int i = 0;
+                while (i < literal.length()
+                        && (wildcards[i] ? !isLineTerminator(name.charAt(index + i))
+                            : literal.charAt(i) == name.charAt(index + i)))
+                {
+                    i++;
+                }
+                result = i == literal.length();
+            }
+            return result;
+        }
+
+        /**
+         * Finds the first occurrence of literal in name.
+         * @param name
+         *        name to search in.
+         * @param fromIndex
+         *        index to start search from.
+         * @return index of occurrence, or -1 if there is none.
+         */
+        private int indexOfLiteral(String name, int fromIndex)
+        {
+            int result = -1;
+            if (fromIndex > name.length()) {
+                result = -1;
+            }
+            else if (wildcards == null) {
+                result = name.indexOf(literal, fromIndex);
+            }
+            else {
+                for (int i = fromIndex; i <= name.length() - literal.length(); i++) {
+                    if (isLiteralAt(name, i)) {
+                        result = i;
+                        break;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Aho-Corasick automaton, which finds whether any of literals occurs in a
+     * text by one pass over the text.
+     */
+    private static final class KeywordAutomaton
+    {
+        /** Transitions of each state by characters. */
+        private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+
+        /** State to continue from when there is no transition, for each state. */
+        private final int[] failures;
+
+        /** Whether some literal ends in each state. */
+        private final boolean[] terminals;
+
+        /**
+         * Builds automaton.
+         * @param literals
+         *        literals to search.
+         */
+        private KeywordAutomaton(List<String> literals)
+        {
+            transitions.add(new HashMap<Character, Integer>());
+            final List<Integer> ends = new ArrayList<>();
+            for (String literal : literals) {
+                int state = 0;
+                for (int i = 0; i < literal.length(); i++) {
+                    Integer next = transitions.get(state).get(literal.charAt(i));
+                    if (next == null) {
+                        next = transitions.size();
+                        transitions.add(new HashMap<Character, Integer>());
+                        transitions.get(state).put(literal.charAt(i), next);
+                    }
+                    state = next;
+                }
+                ends.add(state);
+            }
+            failures = new int[transitions.size()];
+            terminals = new boolean[transitions.size()];
+            for (int state : ends) {
+                terminals[state] = true;
+            }
+
+            final Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+            while (!queue.isEmpty()) {
+                final int state = queue.remove();
+                for (Map.Entry<Character, Integer> transition
+                        : transitions.get(state).entrySet())
+                {
+                    final int next = transition.getValue();
+                    if (state != 0) {
+                        failures[next] = step(failures[state], transition.getKey());
+                    }
+                    terminals[next] |= terminals[failures[next]];
+                    queue.add(next);
+                }
+            }
+        }
+
+        /**
+         * Checks whether any literal occurs in text.
+         * @param text
+         *        text to search in.
+         * @return true, if some literal is found.
+         */
+        private boolean isFoundIn(String text)
+        {
+            int state = 0;
+            boolean result = terminals[0];
+            for (int i = 0; !result && i < text.length(); i++) {
+                state = step(state, text.charAt(i));
+                result = terminals[state];
+            }
+            return result;
+        }
+
+        /**
+         * Makes transition from state by character, following failure links.
+         * @param state
+         *        current state.
+         * @param character
+         *        next character of text.
+         * @return next state.
+         */
+        private int step(int state, char character)
+        {
+            int current = state;
+            Integer next = transitions.get(current).get(character);
+            while (next == null && current != 0) {
+                current = failures[current];
+                next = transitions.get(current).get(character);
+            }
+            return next == null ? 0 : next;
+        }
+    }
+}
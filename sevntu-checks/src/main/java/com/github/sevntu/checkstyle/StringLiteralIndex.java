@@ -0,0 +1,426 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * Index of string literals found in all audited files. Literals are
+ * interned: each distinct literal is kept once together with the compact list
+ * of its occurrences (number of file, line and column). Literals are spread
+ * over partitions by their hash codes.
+ * </p>
+ * <p>
+ * When the estimated heap size of collected literals exceeds the given
+ * budget, all partitions are appended to their spill files through
+ * memory-mapped buffers and dropped from heap. The budget bounds only the
+ * collection: names of audited files are kept in heap and are not counted.
+ * </p>
+ * <p>
+ * Partitions are merged back one by one in
+ * {@link #forEachLiteral(LiteralHandler)}. Each merged partition holds all
+ * its literals, spilled ones included, so heap peaks at about the total
+ * size of literals divided by count of partitions. Count of partitions
+ * should be chosen so that this part fits into heap.
+ * </p>
+ */
+public final class StringLiteralIndex implements Closeable
+{
+    /** Estimated heap size of a literal entry without its characters. */
+    private static final int LITERAL_OVERHEAD = 112;
+
+    /** Estimated heap size of an occurrence, including growth of arrays. */
+    private static final int OCCURRENCE_SIZE = 16;
+
+    /** Charset of literals in spill files. */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /** Names of files by their numbers. */
+    private final List<String> fileNames = new ArrayList<>();
+
+    /** Literals kept in heap, by partitions. */
+    private final List<Map<String, Occurrences>> partitions;
+
+    /** Spill files of partitions, null if partition was never spilled. */
+    private final File[] spillFiles;
+
+    /** Sizes of regions written to spill files on each spill. */
+    private final List<List<Integer>> spillRegions;
+
+    /** Directory of spill files. */
+    private final File spillDirectory;
+
+    /** Heap budget in bytes. */
+    private final long heapBudget;
+
+    /** Estimated heap size of literals kept in heap. */
+    private long heapSize;
+
+    /** Count of spills. */
+    private int spillsCount;
+
+    /**
+     * Creates empty index.
+     * @param partitionsCount
+     *        count of partitions, one of them is held in heap at once by
+     *        {@link #forEachLiteral(LiteralHandler)}.
+     * @param heapBudget
+     *        heap size in bytes, exceeding it spills literals to files.
+     * @param spillDirectory
+     *        directory of spill files, null for the default temporary
+     *        directory.
+     */
+    public StringLiteralIndex(int partitionsCount, long heapBudget, File spillDirectory)
+    {
+        partitions = new ArrayList<>(partitionsCount);
+        spillRegions = new ArrayList<>(partitionsCount);
+        for (int i = 0; i < partitionsCount; i++) {
+            partitions.add(new HashMap<String, Occurrences>());
+            spillRegions.add(new ArrayList<Integer>());
+        }
+        spillFiles = new File[partitionsCount];
+        // a spilled region is mapped at once, so it has to fit into int
+        this.heapBudget = Math.min(heapBudget, Integer.MAX_VALUE / 2);
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Registers audited file.
+     * @param fileName
+     *        name of file.
+     * @return number of file, occurrences in this file are added with it.
+     */
+    public int addFile(String fileName)
+    {
+        fileNames.add(fileName);
+        return fileNames.size() - 1;
+    }
+
+    /**
+     * @param fileNumber
+     *        number of file returned by {@link #addFile(String)}.
+     * @return name of file.
+     */
+    public String getFileName(int fileNumber)
+    {
+        return fileNames.get(fileNumber);
+    }
+
+    /**
+     * @return count of spills to files.
+     */
+    int getSpillsCount()
+    {
+        return spillsCount;
+    }
+
+    /**
+     * Adds an occurrence of literal.
+     * @param literal
+     *        text of literal.
+     * @param fileNumber
+     *        number of file.
+     * @param line
+     *        line of literal.
+     * @param column
+     *        column of literal.
+     * @throws IOException
+     *         if index is over the budget and can not be spilled.
+     */
+    public void add(String literal, int fileNumber, int line, int column) throws IOException
+    {
+        final Map<String, Occurrences> partition = partitions.get(getPartition(literal));
+        Occurrences occurrences = partition.get(literal);
+        if (occurrences == null) {
+            occurrences = new Occurrences();
+            partition.put(literal, occurrences);
+            heapSize += LITERAL_OVERHEAD + 2 * literal.length();
+        }
+        occurrences.add(fileNumber, line, column);
+        heapSize += OCCURRENCE_SIZE;
+        if (heapSize > heapBudget) {
+            spill();
+        }
+    }
+
+    /**
+     * Passes all literals with their occurrences to handler. Literals of one
+     * partition are passed in lexicographical order, occurrences of a literal
+     * are passed in order they were added. Index is empty after this call.
+     * @param handler
+     *        receiver of literals.
+     * @throws IOException
+     *         if spill files can not be read.
+     */
+    public void forEachLiteral(LiteralHandler handler) throws IOException
+    {
+        for (int partition = 0; partition < partitions.size(); partition++) {
+            final Map<String, Occurrences> literals = new TreeMap<>();
+            if (spillFiles[partition] != null) {
+                readSpillFile(partition, literals);
+            }
+            for (Map.Entry<String, Occurrences> entry
+                    : partitions.get(partition).entrySet())
+            {
+                final Occurrences spilled = literals.get(entry.getKey());
+                if (spilled == null) {
+                    literals.put(entry.getKey(), entry.getValue());
+                }
+                else {
+                    spilled.addAll(entry.getValue());
+                }
+            }
+            partitions.get(partition).clear();
+            for (Map.Entry<String, Occurrences> entry : literals.entrySet()) {
+                handler.handle(entry.getKey(), entry.getValue());
+            }
+        }
+        heapSize = 0;
+    }
+
+    /**
+     * Deletes spill files.
+     */
+    @Override
+    public void close()
+    {
+        for (int partition = 0; partition < spillFiles.length; partition++) {
+            final File file = spillFiles[partition];
+            if (file != null && !file.delete()) {
+                // mapped buffers may keep the file open until they are collected
+                file.deleteOnExit();
+            }
+            spillFiles[partition] = null;
+            spillRegions.get(partition).clear();
+        }
+    }
+
+    private int getPartition(String literal)
+    {
+        // spread bits of hash, the same literals go to the same partition
+        final int hash = literal.hashCode();
+        return ((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % partitions.size();
+    }
+
+    /**
+     * Appends all non-empty partitions to their spill files and removes them
+     * from heap. Region of partition has format: count of literals, then for
+     * each literal length of its UTF-8 bytes, bytes, count of occurrences and
+     * occurrences as triples of ints.
+     * @throws IOException
+     *         if spill file can not be written.
+     */
+    private void spill() throws IOException
+    {
+        for (int partition = 0; partition < partitions.size(); partition++) {
+            final Map<String, Occurrences> literals = partitions.get(partition);
+            if (!literals.isEmpty()) {
+                final byte[][] texts = new byte[literals.size()][];
+                int size = 4;
+                int index = 0;
+                for (Map.Entry<String, Occurrences> entry : literals.entrySet()) {
+                    texts[index] = entry.getKey().getBytes(UTF_8);
+                    size += 8 + texts[index].length + 12 * entry.getValue().size;
+                    index++;
+                }
+                if (spillFiles[partition] == null) {
+                    spillFiles[partition] = File.createTempFile("sevntu-literals", ".spill",
+                            spillDirectory);
+                }
+                try (RandomAccessFile file = new RandomAccessFile(spillFiles[partition], "rw");
+                        FileChannel channel = file.getChannel())
+                {
+                    final MappedByteBuffer buffer =
+                            channel.map(FileChannel.MapMode.READ_WRITE, file.length(), size);
+                    buffer.putInt(literals.size());
+                    index = 0;
+                    for (Occurrences occurrences : literals.values()) {
+                        buffer.putInt(texts[index].length);
+                        buffer.put(texts[index]);
+                        buffer.putInt(occurrences.size);
+                        for (int i = 0; i < occurrences.size * 3; i++) {
+                            buffer.putInt(occurrences.values[i]);
+                        }
+                        index++;
+                    }
+                    spillRegions.get(partition).add(buffer.position());
+                }
+                literals.clear();
+            }
+        }
+        heapSize = 0;
+        spillsCount++;
+    }
+
+    /**
+     * Reads all spilled regions of partition.
+     * @param partition
+     *        number of partition.
+     * @param literals
+     *        receiver of read literals.
+     * @throws IOException
+     *         if spill file can not be read.
+     */
+    private void readSpillFile(int partition, Map<String, Occurrences> literals)
+            throws IOException
+    {
+        try (RandomAccessFile file = new RandomAccessFile(spillFiles[partition], "r");
+                FileChannel channel = file.getChannel())
+        {
+            long position = 0;
+            for (int regionSize : spillRegions.get(partition)) {
+                final ByteBuffer buffer =
+                        channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+                position += regionSize;
+                final int literalsCount = buffer.getInt();
+                for (int i = 0; i < literalsCount; i++) {
+                    final byte[] text = new byte[buffer.getInt()];
+                    buffer.get(text);
+                    final String literal = new String(text, UTF_8);
+                    Occurrences occurrences = literals.get(literal);
+                    if (occurrences == null) {
+                        occurrences = new Occurrences();
+                        literals.put(literal, occurrences);
+                    }
+                    final int count = buffer.getInt();
+                    for (int j = 0; j < count; j++) {
+                        occurrences.add(buffer.getInt(), buffer.getInt(), buffer.getInt());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Receiver of literals from {@link StringLiteralIndex#forEachLiteral(LiteralHandler)}.
+     */
+    public interface LiteralHandler
+    {
+        /**
+         * Handles literal.
+         * @param literal
+         *        text of literal.
+         * @param occurrences
+         *        all occurrences of literal.
+         * @throws IOException
+         *         if handler fails to write results.
+         */
+        void handle(String literal, Occurrences occurrences) throws IOException;
+    }
+
+    /**
+     * Occurrences of one literal, stored as triples of file number, line and
+     * column in a growing array.
+     */
+    public static final class Occurrences
+    {
+        /** Initial count of occurrences in array. */
+        private static final int INITIAL_CAPACITY = 2;
+
+        /** File numbers, lines and columns of occurrences. */
+        private int[] values = new int[INITIAL_CAPACITY * 3];
+
+        /** Count of occurrences. */
+        private int size;
+
+        private void add(int fileNumber, int line, int column)
+        {
+            if (size * 3 == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[size * 3] = fileNumber;
+            values[size * 3 + 1] = line;
+            values[size * 3 + 2] = column;
+            size++;
+        }
+
+        private void addAll(Occurrences other)
+        {
+            for (int i = 0; i < other.size; i++) {
+                add(other.getFileNumber(i), other.getLine(i), other.getColumn(i));
+            }
+        }
+
+        /**
+         * @return count of occurrences.
+         */
+        public int size()
+        {
+            return size;
+        }
+
+        /**
+         * @return count of distinct files with occurrences.
+         */
+        public int getFilesCount()
+        {
+            int result = 0;
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || getFileNumber(i) != getFileNumber(i - 1)) {
+                    result++;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * @param index
+         *        number of occurrence.
+         * @return number of file of occurrence.
+         */
+        public int getFileNumber(int index)
+        {
+            return values[index * 3];
+        }
+
+        /**
+         * @param index
+         *        number of occurrence.
+         * @return line of occurrence.
+         */
+        public int getLine(int index)
+        {
+            return values[index * 3 + 1];
+        }
+
+        /**
+         * @param index
+         *        number of occurrence.
+         * @return column of occurrence.
+         */
+        public int getColumn(int index)
+        {
+            return values[index * 3 + 2];
+        }
+    }
+}
@@ -0,0 +1,383 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FullIdent;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+/**
+ * <p>
+ * Lexical scopes of variables of one file. Check which uses the table
+ * subscribes to {@link #getTokens(int...)} and passes each of them to
+ * {@link #visitToken(DetailAST)} and {@link #leaveToken(DetailAST)}, so
+ * scopes are opened and closed together with class bodies, methods, blocks,
+ * loops, catch clauses and lambdas, while fields, local variables and
+ * parameters are declared in the innermost open scope. At any moment of the
+ * walk the table answers which declaration of a name is visible at the current
+ * node, by single hash lookup, and names of inner scopes shadow the same
+ * names of outer ones.
+ * </p>
+ * <p>
+ * Fields are declared when class body is entered, so they are visible in the
+ * whole body, while local variables are visible only after their declaration.
+ * Members inherited from other classes are unknown to the table. Unlike
+ * {@link AstIndex}, the table depends on the position of the walk, so each
+ * check keeps its own instance and calls {@link #clear()} from
+ * {@link com.puppycrawl.tools.checkstyle.api.Check#beginTree(DetailAST)}.
+ * </p>
+ */
+public final class SymbolTable
+{
+    /** Tokens which open scopes or declare variables, sorted. */
+    private static final int[] TOKENS = {
+        TokenTypes.OBJBLOCK,
+        TokenTypes.METHOD_DEF,
+        TokenTypes.CTOR_DEF,
+        TokenTypes.SLIST,
+        TokenTypes.LITERAL_FOR,
+        TokenTypes.LITERAL_CATCH,
+        TokenTypes.LITERAL_TRY,
+        TokenTypes.LITERAL_SWITCH,
+        TokenTypes.LAMBDA,
+        TokenTypes.VARIABLE_DEF,
+        TokenTypes.PARAMETER_DEF,
+        TokenTypes.RESOURCE,
+    };
+
+    static {
+        Arrays.sort(TOKENS);
+    }
+
+    /** Innermost visible declaration of each name. */
+    private final Map<String, Symbol> symbols = new HashMap<>();
+
+    /** Innermost open scope, or null outside of all scopes. */
+    private Scope currentScope;
+
+    /**
+     * Gets tokens which should be passed to the table together with tokens of
+     * check itself; tokens are not duplicated, as each of them is visited as
+     * many times as it is listed.
+     * @param checkTokens
+     *        tokens which are required by check itself.
+     * @return tokens of the table and of check.
+     */
+    public static int[] getTokens(int... checkTokens)
+    {
+        int[] result = Arrays.copyOf(TOKENS, TOKENS.length + checkTokens.length);
+        int count = TOKENS.length;
+        for (int token : checkTokens) {
+            if (Arrays.binarySearch(TOKENS, token) < 0) {
+                result[count] = token;
+                count++;
+            }
+        }
+        if (count < result.length) {
+            result = Arrays.copyOf(result, count);
+        }
+        return result;
+    }
+
+    /**
+     * Forgets all scopes and declarations, should be called before walking of
+     * next file.
+     */
+    public void clear()
+    {
+        symbols.clear();
+        currentScope = null;
+    }
+
+    /**
+     * Opens scope or declares variable by node. Nodes of other types are
+     * ignored.
+     * @param ast
+     *        visited node.
+     */
+    public void visitToken(DetailAST ast)
+    {
+        switch (ast.getType()) {
+            case TokenTypes.OBJBLOCK:
+                openScope(ast);
+                for (DetailAST child = ast.getFirstChild(); child != null;
+                        child = child.getNextSibling())
+                {
+                    if (child.getType() == TokenTypes.VARIABLE_DEF) {
+                        declare(child);
+                    }
+                }
+                break;
+
+            case TokenTypes.SLIST:
+                if (ast.getParent().getType() != TokenTypes.CASE_GROUP) {
+                    openScope(ast);
+                }
+                break;
+
+            case TokenTypes.LAMBDA:
+                openScope(ast);
+                if (ast.getFirstChild().getType() == TokenTypes.IDENT) {
+                    declare(ast.getFirstChild());
+                }
+                break;
+
+            case TokenTypes.METHOD_DEF:
+            case TokenTypes.CTOR_DEF:
+            case TokenTypes.LITERAL_FOR:
+            case TokenTypes.LITERAL_CATCH:
+            case TokenTypes.LITERAL_TRY:
+            case TokenTypes.LITERAL_SWITCH:
+                openScope(ast);
+                break;
+
+            case TokenTypes.VARIABLE_DEF:
+                if (ast.getParent().getType() != TokenTypes.OBJBLOCK) {
+                    declare(ast);
+                }
+                break;
+
+            case TokenTypes.PARAMETER_DEF:
+            case TokenTypes.RESOURCE:
+                declare(ast);
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Closes scope which was opened by node, and restores declarations which
+     * were shadowed by its variables. Other nodes are ignored.
+     * @param ast
+     *        left node.
+     */
+    public void leaveToken(DetailAST ast)
+    {
+        if (currentScope != null && currentScope.owner == ast) {
+            for (Symbol symbol = currentScope.lastSymbol; symbol != null;
+                    symbol = symbol.previousInScope)
+            {
+                if (symbol.shadowed == null) {
+                    symbols.remove(symbol.name);
+                }
+                else {
+                    symbols.put(symbol.name, symbol.shadowed);
+                }
+            }
+            currentScope = currentScope.enclosing;
+        }
+    }
+
+    /**
+     * Gets declaration of variable which is visible by name at the current
+     * node.
+     * @param name
+     *        name of variable.
+     * @return VARIABLE_DEF, PARAMETER_DEF or RESOURCE node, or IDENT node of
+     *         lambda parameter without type, or null if variable is not
+     *         declared in this file or is not visible here.
+     */
+    public DetailAST getDeclaration(String name)
+    {
+        final Symbol symbol = symbols.get(name);
+        DetailAST result = null;
+        if (symbol != null) {
+            result = symbol.declaration;
+        }
+        return result;
+    }
+
+    /**
+     * Gets declaration of field of the innermost class, which is referenced
+     * as "this.name" at the current node; local variables of the same name
+     * are skipped.
+     * @param name
+     *        name of field.
+     * @return VARIABLE_DEF node, or null if the innermost class does not
+     *         declare such field.
+     */
+    public DetailAST getFieldDeclaration(String name)
+    {
+        Scope classScope = currentScope;
+        while (classScope != null && classScope.owner.getType() != TokenTypes.OBJBLOCK) {
+            classScope = classScope.enclosing;
+        }
+        Symbol symbol = symbols.get(name);
+        while (symbol != null && symbol.scope != classScope) {
+            symbol = symbol.shadowed;
+        }
+        DetailAST result = null;
+        if (symbol != null) {
+            result = symbol.declaration;
+        }
+        return result;
+    }
+
+    /**
+     * Gets declared type of variable which is visible by name at the current
+     * node.
+     * @param name
+     *        name of variable.
+     * @return type as it is written in declaration, without type arguments,
+     *         for example "Map" or "java.util.Map[]"; null if variable is not
+     *         visible here or its type is inferred.
+     */
+    public String getDeclaredType(String name)
+    {
+        final DetailAST declaration = getDeclaration(name);
+        String result = null;
+        if (declaration != null) {
+            final DetailAST type = declaration.findFirstToken(TokenTypes.TYPE);
+            if (type != null && type.getFirstChild() != null) {
+                result = getTypeName(type.getFirstChild());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets name of type, {@link com.puppycrawl.tools.checkstyle.checks.CheckUtils#createFullType}
+     * is not used as it loses array brackets.
+     * @param typeNode
+     *        the first child of TYPE node.
+     * @return name of type with array brackets but without type arguments.
+     */
+    private static String getTypeName(DetailAST typeNode)
+    {
+        DetailAST elementTypeNode = typeNode;
+        int dimensions = 0;
+        while (elementTypeNode.getType() == TokenTypes.ARRAY_DECLARATOR) {
+            elementTypeNode = elementTypeNode.getFirstChild();
+            dimensions++;
+        }
+        final StringBuilder result =
+                new StringBuilder(FullIdent.createFullIdent(elementTypeNode).getText());
+        for (int i = 0; i < dimensions; i++) {
+            result.append("[]");
+        }
+        return result.toString();
+    }
+
+    /**
+     * Opens nested scope.
+     * @param owner
+     *        node which opens the scope and closes it when it is left.
+     */
+    private void openScope(DetailAST owner)
+    {
+        currentScope = new Scope(owner, currentScope);
+    }
+
+    /**
+     * Declares variable in the innermost scope.
+     * @param declaration
+     *        declaration of variable or IDENT node of lambda parameter.
+     */
+    private void declare(DetailAST declaration)
+    {
+        if (currentScope != null) {
+            final String name;
+            if (declaration.getType() == TokenTypes.IDENT) {
+                name = declaration.getText();
+            }
+            else {
+                name = declaration.findFirstToken(TokenTypes.IDENT).getText();
+            }
+            final Symbol symbol = new Symbol(name, declaration, currentScope,
+                    symbols.get(name));
+            symbols.put(name, symbol);
+        }
+    }
+
+    /**
+     * Open scope.
+     */
+    private static final class Scope
+    {
+        /** Node which opened the scope. */
+        private final DetailAST owner;
+
+        /** Scope which encloses this one. */
+        private final Scope enclosing;
+
+        /** The last variable which is declared in the scope. */
+        private Symbol lastSymbol;
+
+        /**
+         * Creates scope.
+         * @param owner
+         *        node which opened the scope.
+         * @param enclosing
+         *        scope which encloses this one.
+         */
+        Scope(DetailAST owner, Scope enclosing)
+        {
+            this.owner = owner;
+            this.enclosing = enclosing;
+        }
+    }
+
+    /**
+     * Declared variable.
+     */
+    private static final class Symbol
+    {
+        /** Name of variable. */
+        private final String name;
+
+        /** Declaration of variable. */
+        private final DetailAST declaration;
+
+        /** Scope of variable. */
+        private final Scope scope;
+
+        /** Declaration of the same name which is shadowed by this one. */
+        private final Symbol shadowed;
+
+        /** Variable which was declared in the same scope before this one. */
+        private final Symbol previousInScope;
+
+        /**
+         * Creates variable and adds it to scope.
+         * @param name
+         *        name of variable.
+         * @param declaration
+         *        declaration of variable.
+         * @param scope
+         *        scope of variable.
+         * @param shadowed
+         *        declaration of the same name which is shadowed by this one.
+         */
+        Symbol(String name, DetailAST declaration, Scope scope, Symbol shadowed)
+        {
+            this.name = name;
+            this.declaration = declaration;
+            this.scope = scope;
+            this.shadowed = shadowed;
+            previousInScope = scope.lastSymbol;
+            scope.lastSymbol = this;
+        }
+    }
+}
@@ -24,6 +24,9 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
 public final class Utils
 {
+    /** Token types which let all nodes be visited. */
+    private static final int[] ALL_TOKEN_TYPES = {};
+
     private Utils()
     {
     }
@@ -67,4 +70,183 @@ public final class Utils
         }
         return toVisitAst;
     }
+
+    /**
+     * Gets the next sibling of node which has token type. Together with
+     * {@link DetailAST#findFirstToken(int)} it iterates over children of some
+     * type without copying them into a collection:
+     * <pre>
+     * for (DetailAST child = node.findFirstToken(type); child != null;
+     *         child = Utils.getNextSibling(child, type))
+     * </pre>
+     * @param node
+     *        current node.
+     * @param tokenType
+     *        token type.
+     * @return the next sibling of token type or null if there is no such sibling.
+     */
+    public static DetailAST getNextSibling(DetailAST node, int tokenType)
+    {
+        DetailAST result = node.getNextSibling();
+        while (result != null && result.getType() != tokenType) {
+            result = result.getNextSibling();
+        }
+        return result;
+    }
+
+    /**
+     * Gets the node which follows the node in document order inside of the
+     * subtree of root. Iterates over all nodes of subtree without copying them
+     * into a collection and without recursion:
+     * <pre>
+     * for (DetailAST node = root; node != null; node = Utils.getNextNode(node, root))
+     * </pre>
+     * @param node
+     *        current node, root or a node of its subtree.
+     * @param root
+     *        root of subtree, its siblings are not iterated.
+     * @return the next node or null if node is the last node of subtree.
+     */
+    public static DetailAST getNextNode(DetailAST node, DetailAST root)
+    {
+        DetailAST result = node.getFirstChild();
+        if (result == null) {
+            result = getNextNodeAfterSubtree(node, root);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the node which follows the subtree of node in document order inside
+     * of the subtree of root, so children of node are skipped by the iteration
+     * of {@link #getNextNode(DetailAST, DetailAST)}.
+     * @param node
+     *        current node, root or a node of its subtree.
+     * @param root
+     *        root of subtree, its siblings are not iterated.
+     * @return the next node or null if subtree of node is the last part of
+     *         subtree of root.
+     */
+    public static DetailAST getNextNodeAfterSubtree(DetailAST node, DetailAST root)
+    {
+        DetailAST result = null;
+        DetailAST current = node;
+        while (result == null && current != root) {
+            result = current.getNextSibling();
+            current = current.getParent();
+        }
+        return result;
+    }
+
+    /**
+     * Walks the subtree of node in document order and calls
+     * {@link AstVisitor#visit(DetailAST)} for each node before its children and
+     * {@link AstVisitor#leave(DetailAST)} after them. The walk keeps no state
+     * besides the links of the tree, so it neither allocates memory nor depends on
+     * depth of the tree.
+     * @param root
+     *        root of subtree, its siblings are not walked.
+     * @param visitor
+     *        visitor of nodes.
+     */
+    public static void walk(DetailAST root, AstVisitor visitor)
+    {
+        walk(root, visitor, ALL_TOKEN_TYPES);
+    }
+
+    /**
+     * Walks the subtree of node in document order like
+     * {@link #walk(DetailAST, AstVisitor)}, but the visitor is called for nodes
+     * of the given token types only. Nodes of other types are not visited, but
+     * their children are.
+     * @param root
+     *        root of subtree, its siblings are not walked.
+     * @param visitor
+     *        visitor of nodes.
+     * @param tokenTypes
+     *        token types of visited nodes, all nodes are visited if none is given.
+     */
+    public static void walk(DetailAST root, AstVisitor visitor, int... tokenTypes)
+    {
+        DetailAST node = root;
+        boolean finished = false;
+        while (!finished) {
+            final boolean accepted = isAccepted(node, tokenTypes);
+            boolean descend = true;
+            if (accepted) {
+                descend = visitor.visit(node);
+                finished = visitor.isFinished();
+            }
+            if (!finished && descend && node.getFirstChild() != null) {
+                node = node.getFirstChild();
+            }
+            else if (!finished) {
+                // leave the node and all its ancestors which have no next siblings
+                DetailAST next = null;
+                while (next == null && !finished) {
+                    if (isAccepted(node, tokenTypes)) {
+                        visitor.leave(node);
+                        finished = visitor.isFinished();
+                    }
+                    if (node == root) {
+                        finished = true;
+                    }
+                    else {
+                        next = node.getNextSibling();
+                        if (next == null) {
+                            node = node.getParent();
+                        }
+                    }
+                }
+                node = next;
+            }
+        }
+    }
+
+    private static boolean isAccepted(DetailAST node, int... tokenTypes)
+    {
+        boolean result = tokenTypes.length == 0;
+        for (int i = 0; !result && i < tokenTypes.length; i++) {
+            result = tokenTypes[i] == node.getType();
+        }
+        return result;
+    }
+
+    /**
+     * Visitor of nodes for {@link Utils#walk(DetailAST, AstVisitor, int...)}.
+     * Walk of a subtree can be stopped by overriding {@link #isFinished()}.
+     */
+    public abstract static class AstVisitor
+    {
+        /**
+         * Called for node before its children.
+         * @param ast
+         *        visited node.
+         * @return false if children of node should not be walked.
+         */
+        public boolean visit(DetailAST ast)
+        {
+            return true;
+        }
+
+        /**
+         * Called for node after its children, or right after
+         * {@link #visit(DetailAST)} if children are not walked.
+         * @param ast
+         *        visited node.
+         */
+        public void leave(DetailAST ast)
+        {
+        }
+
+        /**
+         * Checked after each call of {@link #visit(DetailAST)} and
+         * {@link #leave(DetailAST)}.
+         * @return true if walk should be stopped.
+         */
+        public boolean isFinished()
+        {
+            return false;
+        }
+    }
 }
@@ -18,6 +18,7 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
+import com.github.sevntu.checkstyle.AstIndex;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -61,6 +62,11 @@ public class AvoidConstantAsFirstOperandInConditionCheck extends Check {
             TokenTypes.NUM_DOUBLE,
     };
 
+    /**
+     * Index of the syntax tree is being processed.
+     */
+    private AstIndex astIndex;
+
     /**
      * Set target constant types
      *
@@ -81,6 +87,11 @@ public class AvoidConstantAsFirstOperandInConditionCheck extends Check {
         return new int[]{TokenTypes.EQUAL, TokenTypes.NOT_EQUAL};
     }
 
+    @Override
+    public void beginTree(DetailAST rootAST) {
+        astIndex = AstIndex.get(rootAST);
+    }
+
     @Override
     public void visitToken(DetailAST detailAST) {
         if (isRefactoringRequired(detailAST)) {
@@ -103,8 +114,8 @@ public class AvoidConstantAsFirstOperandInConditionCheck extends Check {
         final int constantType = firstOperand.getType();
 
         return isTargetConstantType(constantType)
-                && firstOperand.branchContains(constantType)
-                && !secondOperand.branchContains(constantType);
+                && astIndex.branchContains(firstOperand, constantType)
+                && !astIndex.branchContains(secondOperand, constantType);
     }
 
     /**
@@ -18,9 +18,12 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import com.github.sevntu.checkstyle.AstIndex;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.api.Check;
@@ -70,12 +73,23 @@ public class AvoidHidingCauseExceptionCheck extends Check
 { 
     public static final String MSG_KEY = "avoid.hiding.cause.exception";
 
+    /**
+     * Index of the syntax tree is being processed.
+     */
+    private AstIndex astIndex;
+
     @Override
     public int[] getDefaultTokens()
     {
         return new int[] {TokenTypes.LITERAL_CATCH};
     }
 
+    @Override
+    public void beginTree(DetailAST rootAST)
+    {
+        astIndex = AstIndex.get(rootAST);
+    }
+
     @Override
     public void visitToken(DetailAST detailAST)
     {
@@ -84,19 +98,54 @@ public class AvoidHidingCauseExceptionCheck extends Check
                 .findFirstToken(TokenTypes.PARAMETER_DEF).getLastChild()
                 .getText();
 
-        List<DetailAST> throwList = makeThrowList(detailAST);
-
-        List<String> wrapExcNames = new LinkedList<String>();
+        final Set<String> wrapExcNames = new HashSet<String>();
         wrapExcNames.add(originExcName);
-        wrapExcNames.addAll(makeExceptionsList(detailAST, detailAST, 
-                            originExcName));
+        final List<DetailAST> throwList = new ArrayList<DetailAST>();
+        final List<List<DetailAST>> throwParamNamesLists = new ArrayList<List<DetailAST>>();
+
+        // walk the catch block in document order, subtrees of parameters are
+        // skipped at all, throws and their parameters are not searched in
+        // nested try blocks and nested throws
+        final int end = astIndex.getSubtreeEnd(detailAST);
+        int tryEnd = 0;
+        int throwEnd = 0;
+        int position = astIndex.getPosition(detailAST) + 1;
+        while (position < end) {
+            final DetailAST currentNode = astIndex.getNode(position);
+            final int type = currentNode.getType();
+            if (type == TokenTypes.PARAMETER_DEF) {
+                position = astIndex.getSubtreeEnd(currentNode);
+            }
+            else {
+                if (type == TokenTypes.LITERAL_TRY && position >= tryEnd) {
+                    tryEnd = astIndex.getSubtreeEnd(currentNode);
+                }
+                else if (type == TokenTypes.LITERAL_THROW
+                        && position >= tryEnd && position >= throwEnd)
+                {
+                    throwEnd = astIndex.getSubtreeEnd(currentNode);
+                    throwList.add(currentNode);
+                    throwParamNamesLists.add(new ArrayList<DetailAST>());
+                }
+                else if (type == TokenTypes.IDENT) {
+                    if (position < throwEnd && position >= tryEnd) {
+                        throwParamNamesLists.get(throwParamNamesLists.size() - 1)
+                                .add(currentNode);
+                    }
+                    final String convertedExcName =
+                            getConvertedExcName(currentNode, originExcName);
+                    if (convertedExcName != null) {
+                        wrapExcNames.add(convertedExcName);
+                    }
+                }
+                position++;
+            }
+        }
 
-        for (DetailAST throwAST : throwList) {
-            List<DetailAST> throwParamNamesList = new LinkedList<DetailAST>();
-            buildThrowParamNamesList(throwAST, throwParamNamesList);
-            if (!isContainsCaughtExc(throwParamNamesList, wrapExcNames))
+        for (int i = 0; i < throwList.size(); i++) {
+            if (!isContainsCaughtExc(throwParamNamesLists.get(i), wrapExcNames))
             {
-                log(throwAST, MSG_KEY, originExcName);
+                log(throwList.get(i), MSG_KEY, originExcName);
             }
         }
     }
@@ -108,7 +157,7 @@ public class AvoidHidingCauseExceptionCheck extends Check
      * @return true when aThrowParamNamesList contains caught exception
      */
     private static boolean isContainsCaughtExc(List<DetailAST> throwParamNamesList, 
-                                    List<String> wrapExcNames)
+                                    Set<String> wrapExcNames)
     {
         boolean result = false;
         for(DetailAST currentNode : throwParamNamesList)
@@ -122,137 +171,42 @@ public class AvoidHidingCauseExceptionCheck extends Check
         }
         return result;
     }
-    
-    /**
-     * Returns a List of<code>DetailAST</code> that contains the names of
-     * parameters  for current "throw" keyword.
-     * @param startNode The start node for exception name searching.
-     * @param paramNamesAST The list, that will be contain names of the 
-     * parameters 
-     * @return A null-safe list of tokens (<code>DetailAST</code>) contains the
-     * thrown exception name if it was found or null otherwise.
-     */
-    private List<DetailAST> buildThrowParamNamesList(DetailAST startNode, 
-                            List<DetailAST> paramNamesAST)
-    {
-        for (DetailAST currentNode : getChildNodes(startNode)) {
-
-            if (currentNode.getType() == TokenTypes.IDENT) {
-                paramNamesAST.add(currentNode);
-            }
-
-            if (currentNode.getType() != TokenTypes.PARAMETER_DEF
-                    && currentNode.getType() != TokenTypes.LITERAL_TRY
-                    && currentNode.getNumberOfChildren() > 0)
-            {
-                buildThrowParamNamesList(currentNode, paramNamesAST);
-            }
-
-        }
-        return paramNamesAST;
-    }
 
     /**
-     * Recursive method which searches for the <code>LITERAL_THROW</code>
-     * DetailASTs all levels below on the current <code>aParentAST</code> node
-     * without entering into nested try/catch blocks.
-     * @param parentAST A start node for "throw" keyword <code>DetailASTs
-     * </code> searching.
-     * @return null-safe list of <code>LITERAL_THROW</code> literals
-     */
-    private List<DetailAST> makeThrowList(DetailAST parentAST)
-    {
-
-        List<DetailAST> throwList = new LinkedList<DetailAST>();
-        for (DetailAST currentNode : getChildNodes(parentAST)) {
-
-            if (currentNode.getType() == TokenTypes.LITERAL_THROW) {
-                throwList.add(currentNode);
-            }
-
-            if (currentNode.getType() != TokenTypes.PARAMETER_DEF
-                    && currentNode.getType() != TokenTypes.LITERAL_THROW
-                    && currentNode.getType() != TokenTypes.LITERAL_TRY
-                    && currentNode.getNumberOfChildren() > 0)
-            {
-                throwList.addAll(makeThrowList(currentNode));
-            }
-
-        }
-        return throwList;
-    }
-
-    /**
-     * Searches for all exceptions that wraps the original exception
-     * object (only in current "catch" block).
-     * @param currentCatchAST A LITERAL_CATCH node of the
-     * current "catch" block.
-     * @param parentAST Current parent node to start search.
+     * Gets the name of exception that wraps the original exception object, if
+     * identifier is the original exception assigned to another variable (only
+     * in current "catch" block).
+     * @param identAST IDENT node inside of the current "catch" block.
      * @param currentExcName The name of exception handled by
      * current "catch" block.
-     * @return List<String> contains exceptions that wraps the original 
-     * exception object.
+     * @return name of the variable the exception is assigned to, or null.
      */
-    private List<String> makeExceptionsList(DetailAST currentCatchAST,
-            DetailAST parentAST, String currentExcName)
+    private static String getConvertedExcName(DetailAST identAST,
+            String currentExcName)
     {
-        List<String> wrapExcNames = new LinkedList<String>();
-
-        for (DetailAST currentNode : getChildNodes(parentAST)) {
+        String result = null;
+        if (identAST.getText().equals(currentExcName)
+                && identAST.getParent().getType() != TokenTypes.DOT)
+        {
+            DetailAST temp = identAST;
 
-            if (currentNode.getType() == TokenTypes.IDENT
-                    && currentNode.getText().equals(currentExcName)
-                    && currentNode.getParent().getType() != TokenTypes.DOT)
+            while (temp.getType() != TokenTypes.LITERAL_CATCH
+                    && temp.getType() != TokenTypes.ASSIGN)
             {
+                temp = temp.getParent();
+            }
 
-                DetailAST temp = currentNode;
-
-                while (!temp.equals(currentCatchAST)
-                        && temp.getType() != TokenTypes.ASSIGN)
-                {
-                    temp = temp.getParent();
+            if (temp.getType() == TokenTypes.ASSIGN) {
+                DetailAST convertedExc = null;
+                if (temp.getParent().getType() == TokenTypes.VARIABLE_DEF) {
+                    convertedExc = temp.getParent().findFirstToken(TokenTypes.IDENT);
                 }
-
-                if (temp.getType() == TokenTypes.ASSIGN) {
-                    DetailAST convertedExc = null;
-                    if (temp.getParent().getType() == TokenTypes.VARIABLE_DEF) {
-                        convertedExc = temp.getParent().findFirstToken(TokenTypes.IDENT);
-                    }
-                    else {
-                        convertedExc = temp.findFirstToken(TokenTypes.IDENT);
-                    }
-                    wrapExcNames.add(convertedExc.getText());
+                else {
+                    convertedExc = temp.findFirstToken(TokenTypes.IDENT);
                 }
+                result = convertedExc.getText();
             }
-
-            if (currentNode.getType() != TokenTypes.PARAMETER_DEF
-                    && currentNode.getNumberOfChildren() > 0)
-            {
-                wrapExcNames.addAll(makeExceptionsList(currentCatchAST, 
-                        currentNode, currentExcName));
-            }
-
         }
-        return wrapExcNames;
-    }
-
-    /**
-     * Gets all the children one level below on the current parent node.
-     * @param node Current parent node.
-     * @return List of children one level below on the current
-     *         parent node (aNode).
-     */
-    private static List<DetailAST> getChildNodes(DetailAST node)
-    {
-        final List<DetailAST> result = new LinkedList<DetailAST>();
-
-        DetailAST currNode = node.getFirstChild();
-
-        while (currNode != null) {
-            result.add(currNode);
-            currNode = currNode.getNextSibling();
-        }
-
         return result;
     }
 
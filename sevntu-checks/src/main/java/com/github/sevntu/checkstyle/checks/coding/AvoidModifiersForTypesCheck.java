@@ -248,28 +248,12 @@ public class AvoidModifiersForTypesCheck extends Check
         final List<Integer> modifiersList = new LinkedList<Integer>();
         final DetailAST modifiersAST = variableDefAst
                 .findFirstToken(TokenTypes.MODIFIERS);
-        for (DetailAST modifier : getChildren(modifiersAST)) {
+        for (DetailAST modifier = modifiersAST.getFirstChild(); modifier != null;
+                modifier = modifier.getNextSibling())
+        {
             modifiersList.add(modifier.getType());
         }
         return modifiersList;
     }
 
-    /**
-     * Gets all the children which are one level below on the current DetailAST
-     * parent node.
-     * @param node
-     *        The parent node.
-     * @return The list of children one level below on the current parent node.
-     */
-    private static List<DetailAST> getChildren(final DetailAST node)
-    {
-        final List<DetailAST> result = new LinkedList<DetailAST>();
-        DetailAST curNode = node.getFirstChild();
-        while (curNode != null) {
-            result.add(curNode);
-            curNode = curNode.getNextSibling();
-        }
-        return result;
-    }
-
 }
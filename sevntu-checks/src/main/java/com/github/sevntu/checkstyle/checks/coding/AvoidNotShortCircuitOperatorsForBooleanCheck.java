@@ -18,9 +18,14 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import com.github.sevntu.checkstyle.AstIndex;
+import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.api.Check;
@@ -92,16 +97,27 @@ public class AvoidNotShortCircuitOperatorsForBooleanCheck extends Check
     public static final String MSG_KEY = "avoid.not.short.circuit.operators.for.boolean";
 
     /**
-     * A list contains all names of operands, which are used in the current
-     * expression, which calculates with using "|", "&", "|=", "&=" operators.
-     * */
-    private final List<String> supportedOperands = new LinkedList<String>();
+     * Boolean variables of method, constructor and class bodies which were
+     * already scanned: maps variable name to the line of its definition.
+     */
+    private final Map<DetailAST, Map<String, Integer>> booleanVariables =
+            new HashMap<DetailAST, Map<String, Integer>>();
 
     /**
-     * Variable, that indicates keywords "true" or "false" in current
-     * expression.
-     * */
-    private boolean hasTrueOrFalseLiteral;
+     * Index of the syntax tree is being processed.
+     */
+    private AstIndex astIndex;
+
+    /**
+     * Expression which was checked by the last visited operator, all
+     * operators of expression share the result.
+     */
+    private DetailAST lastExpression;
+
+    /**
+     * Whether {@link #lastExpression} is a boolean expression.
+     */
+    private boolean lastExpressionIsBoolean;
 
     @Override
     public final int[] getDefaultTokens()
@@ -110,6 +126,14 @@ public class AvoidNotShortCircuitOperatorsForBooleanCheck extends Check
             TokenTypes.BOR_ASSIGN, TokenTypes.BAND_ASSIGN, };
     }
 
+    @Override
+    public void beginTree(DetailAST rootAST)
+    {
+        astIndex = AstIndex.get(rootAST);
+        booleanVariables.clear();
+        lastExpression = null;
+    }
+
     @Override
     public final void visitToken(final DetailAST detailAST)
     {
@@ -121,12 +145,13 @@ public class AvoidNotShortCircuitOperatorsForBooleanCheck extends Check
             currentNode = currentNode.getParent();
         }
 
-        if (isBooleanExpression(currentNode)) {
+        if (currentNode != lastExpression) {
+            lastExpression = currentNode;
+            lastExpressionIsBoolean = isBooleanExpression(currentNode);
+        }
+        if (lastExpressionIsBoolean) {
             log(detailAST, MSG_KEY, detailAST.getText());
         }
-
-        supportedOperands.clear();
-        hasTrueOrFalseLiteral = false;
     }
 
     /**
@@ -151,107 +176,150 @@ public class AvoidNotShortCircuitOperatorsForBooleanCheck extends Check
      */
     public final boolean isBooleanExpression(final DetailAST node)
     {
-        DetailAST curNode = node;
-
-        final List<String> childNames = getSupportedOperandsNames(curNode);
-        final List<String> booleanVariablesNames = new LinkedList<String>();
+        boolean result = hasTrueOrFalseLiteral(node);
+        if (!result) {
+            result = hasBooleanOperand(node, getBooleanVariables(getEnclosingBody(node)));
+        }
+        return result;
+    }
 
-        while (curNode.getType() != TokenTypes.CTOR_DEF
+    /**
+     * Gets the method, constructor or class whose body contains the current
+     * expression.
+     * @param exprAST - the current TokenTypes.EXPR node.
+     * @return CTOR_DEF, METHOD_DEF or CLASS_DEF node, or null if expression
+     * is not inside of them.
+     */
+    private static DetailAST getEnclosingBody(final DetailAST exprAST)
+    {
+        DetailAST curNode = exprAST;
+        while (curNode != null
+                && curNode.getType() != TokenTypes.CTOR_DEF
                 && curNode.getType() != TokenTypes.METHOD_DEF
                 && curNode.getType() != TokenTypes.CLASS_DEF)
         {
             curNode = curNode.getParent();
         }
+        return curNode;
+    }
 
-        final int line = node.getLineNo();
-        for (DetailAST currentNode : getChildren(curNode.getLastChild())) {
-            if (currentNode.getLineNo() < line
-                    && currentNode.getType() == TokenTypes.VARIABLE_DEF)
-            {
-
-                if (isBooleanType(currentNode)) {
-                    booleanVariablesNames.add(currentNode.findFirstToken(
-                            TokenTypes.IDENT).getText());
+    /**
+     * Gets boolean variables which are defined directly in the body of method,
+     * constructor or class. Variables of each body are collected once and
+     * are shared by all expressions in it.
+     * @param bodyOwnerAST - CTOR_DEF, METHOD_DEF or CLASS_DEF node, or null.
+     * @return map from variable name to the line of its definition.
+     */
+    private Map<String, Integer> getBooleanVariables(final DetailAST bodyOwnerAST)
+    {
+        Map<String, Integer> result = Collections.emptyMap();
+        if (bodyOwnerAST != null) {
+            result = booleanVariables.get(bodyOwnerAST);
+            if (result == null) {
+                result = new HashMap<String, Integer>();
+                for (DetailAST currentNode = bodyOwnerAST.getLastChild().getFirstChild();
+                        currentNode != null; currentNode = currentNode.getNextSibling())
+                {
+                    if (currentNode.getType() == TokenTypes.VARIABLE_DEF
+                            && isBooleanType(currentNode))
+                    {
+                        result.put(currentNode.findFirstToken(TokenTypes.IDENT).getText(),
+                                currentNode.getLineNo());
+                    }
                 }
+                booleanVariables.put(bodyOwnerAST, result);
             }
         }
+        return result;
+    }
 
+    /**
+     * Searches supported operands of current expression for a Boolean variable
+     * which is defined before the expression.
+     * When checking, treatments to external class variables, method calls,
+     * etc are not considered as expression operands.
+     * @param exprAST - the current TokenTypes.EXPR node.
+     * @param variables - lines of Boolean variables definitions by names.
+     * @return true if current expression has a Boolean operand.
+     */
+    private static boolean hasBooleanOperand(final DetailAST exprAST,
+            final Map<String, Integer> variables)
+    {
         boolean result = false;
-
-        for (String name : childNames) {
-            if (booleanVariablesNames.contains(name)) {
-                result = true;
-                break;
+        final int line = exprAST.getLineNo();
+        DetailAST node = exprAST.getFirstChild();
+        while (node != null && !result) {
+            if (node.getType() == TokenTypes.METHOD_CALL) {
+                node = Utils.getNextNodeAfterSubtree(node, exprAST);
+            }
+            else {
+                if (node.getType() == TokenTypes.IDENT
+                        && node.getParent().getType() != TokenTypes.DOT)
+                {
+                    final Integer definitionLine = variables.get(node.getText());
+                    result = definitionLine != null && definitionLine < line;
+                }
+                node = Utils.getNextNode(node, exprAST);
             }
         }
-        result = result || hasTrueOrFalseLiteral(node);
         return result;
     }
 
-    /** Searches for all supported operands names in current expression.
+    /**
+     * Searches for all supported operands names in current expression.
      * When checking, treatments to external class variables, method calls,
      * etc are not considered as expression operands.
      * @param exprParentAST - the current TokenTypes.EXPR parent node.
-     * @return List of supported operands contained in current expression.
+     * @return new List of supported operands contained in current expression.
+     * @deprecated the check no longer collects names of operands, use
+     * {@link #isBooleanExpression(DetailAST)}.
      */
+    @Deprecated
     public final List<String> getSupportedOperandsNames(
             final DetailAST exprParentAST)
     {
-
-        for (DetailAST currentNode : getChildren(exprParentAST)) {
-
-            if (currentNode.getNumberOfChildren() > 0
-                    && currentNode.getType() != TokenTypes.METHOD_CALL)
-            {
-                getSupportedOperandsNames(currentNode);
-            }
-
-            if (currentNode.getType() == TokenTypes.IDENT
-                    && currentNode.getParent().getType() != TokenTypes.DOT)
-            {
-                supportedOperands.add(currentNode.getText());
+        final List<String> result = new ArrayList<String>();
+        DetailAST node = exprParentAST.getFirstChild();
+        while (node != null) {
+            if (node.getType() == TokenTypes.METHOD_CALL) {
+                node = Utils.getNextNodeAfterSubtree(node, exprParentAST);
             }
-
-            if (currentNode.getNextSibling() != null) {
-                currentNode = currentNode.getNextSibling();
+            else {
+                if (node.getType() == TokenTypes.IDENT
+                        && node.getParent().getType() != TokenTypes.DOT)
+                {
+                    result.add(node.getText());
+                }
+                node = Utils.getNextNode(node, exprParentAST);
             }
         }
-        return supportedOperands;
+        return result;
     }
 
-
     /**
      * Checks is the current expression has
-     * keywords "true" or "false".
+     * keywords "true" or "false". Tree of the file which is being processed
+     * is searched by its index, other trees are walked.
      * @param parentAST - the current TokenTypes.EXPR parent node.
      * @return true if the current processed expression contains
      * "true" or "false" keywords and false otherwise.
      */
     public final boolean hasTrueOrFalseLiteral(final DetailAST parentAST)
     {
-
-        for (DetailAST currentNode : getChildren(parentAST)) {
-
-            if (currentNode.getNumberOfChildren() > 0) {
-                hasTrueOrFalseLiteral(currentNode);
-            }
-
-            final int type = currentNode.getType();
-            if (type == TokenTypes.LITERAL_TRUE
-                    || type == TokenTypes.LITERAL_FALSE)
-            {
-                hasTrueOrFalseLiteral = true;
-            }
-
-            if (currentNode.getNextSibling() != null) {
-                currentNode = currentNode.getNextSibling();
-            }
-
-            if (hasTrueOrFalseLiteral) {
-                break;
+        boolean result = false;
+        if (astIndex != null && astIndex.getPosition(parentAST) >= 0) {
+            result = astIndex.branchContains(parentAST, TokenTypes.LITERAL_TRUE)
+                    || astIndex.branchContains(parentAST, TokenTypes.LITERAL_FALSE);
+        }
+        else {
+            DetailAST node = parentAST.getFirstChild();
+            while (node != null && !result) {
+                result = node.getType() == TokenTypes.LITERAL_TRUE
+                        || node.getType() == TokenTypes.LITERAL_FALSE;
+                node = Utils.getNextNode(node, parentAST);
             }
         }
-        return hasTrueOrFalseLiteral;
+        return result;
     }
 
     /**
@@ -259,18 +327,18 @@ public class AvoidNotShortCircuitOperatorsForBooleanCheck extends Check
      * @param node - current parent node.
      * @return an array of children one level below on the current parent node
      *         aNode.
+     * @deprecated the check no longer copies children, iterate over
+     * {@link DetailAST#getFirstChild()} and {@link DetailAST#getNextSibling()}.
      */
+    @Deprecated
     public final static List<DetailAST> getChildren(final DetailAST node)
     {
-        final List<DetailAST> result = new LinkedList<DetailAST>();
-
-        DetailAST currNode = node.getFirstChild();
-
-        while (currNode != null) {
-            result.add(currNode);
-            currNode = currNode.getNextSibling();
+        final List<DetailAST> result = new ArrayList<DetailAST>();
+        for (DetailAST child = node.getFirstChild(); child != null;
+                child = child.getNextSibling())
+        {
+            result.add(child);
         }
-
         return result;
     }
 
@@ -18,6 +18,8 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
+import com.github.sevntu.checkstyle.AstIndex;
+import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -130,6 +132,11 @@ public class ConfusingConditionCheck extends Check {
 	 */
 	private boolean ignoreThrowInElse = true;
 
+	/**
+	 * Index of the syntax tree is being processed.
+	 */
+	private AstIndex astIndex;
+
 	/**
 	 * Disable(true) | Enable(false) warnings.
 	 * 
@@ -156,6 +163,11 @@ public class ConfusingConditionCheck extends Check {
 		return new int[] { TokenTypes.LITERAL_IF };
 	}
 
+	@Override
+	public void beginTree(DetailAST rootAST) {
+		astIndex = AstIndex.get(rootAST);
+	}
+
 	@Override
 	public void visitToken(DetailAST literalIf) {
 		if (isIfEndsWithElse(literalIf)
@@ -202,10 +214,10 @@ public class ConfusingConditionCheck extends Check {
 	 * @param ignoreInnerIf
 	 * @return
 	 */
-	private static boolean isInnerIf(DetailAST literalIf) {
+	private boolean isInnerIf(DetailAST literalIf) {
 		final DetailAST childIf = literalIf.getFirstChild().getNextSibling()
 				.getNextSibling().getNextSibling();
-		return childIf.branchContains(TokenTypes.LITERAL_IF);
+		return astIndex.branchContains(childIf, TokenTypes.LITERAL_IF);
 	}
 
 	/**
@@ -216,9 +228,9 @@ public class ConfusingConditionCheck extends Check {
 	 * @param ignoreThrowInElse
 	 * @return
 	 */
-	private static boolean isElseWithThrow(DetailAST literalIf) {
+	private boolean isElseWithThrow(DetailAST literalIf) {
 		final DetailAST lastChildAfterIf = literalIf.getLastChild();
-		return lastChildAfterIf.getFirstChild().branchContains(
+		return astIndex.branchContains(lastChildAfterIf.getFirstChild(),
 				TokenTypes.LITERAL_THROW);
 	}
 
@@ -273,7 +285,7 @@ public class ConfusingConditionCheck extends Check {
 	 * @param literalIf
 	 * @return
 	 */
-	private static boolean isConditionAllNegative(DetailAST literalIf) {
+	private boolean isConditionAllNegative(DetailAST literalIf) {
 		boolean result = false;
 
 		final DetailAST ifExpr = literalIf.getFirstChild().getNextSibling();
@@ -300,33 +312,59 @@ public class ConfusingConditionCheck extends Check {
 	 * @return
 	 */
 
-	private static boolean isIfWithNull(DetailAST literalIf) {
-		return literalIf.getFirstChild().getNextSibling()
-				.branchContains(TokenTypes.LITERAL_NULL);
+	private boolean isIfWithNull(DetailAST literalIf) {
+		return astIndex.branchContains(literalIf.getFirstChild().getNextSibling(),
+				TokenTypes.LITERAL_NULL);
 	}
 
 	/**
-	 * Recursive method which counts a tokens of the provided type in detAst
-	 * tree.
+	 * Counts a tokens of the provided type in detAst tree and in trees of its
+	 * next siblings. Children of a node are counted, and are walked, only if
+	 * the tree of the first child contains the type.
 	 * 
 	 * @param DetailAST
 	 *            detAst a tree for "atype" tokens searching.
 	 * @param aType
 	 *            a TokenType
 	 */
-	private static int getCountOfToken(DetailAST detAst, int type) {
-		int count = 0;
-		if (detAst.branchContains(type)) {
-			while (detAst != null) {
-				count += detAst.getChildCount(type);
-				final DetailAST detAstChild = detAst.getFirstChild();
-				if (detAstChild != null) {
-					count += getCountOfToken(detAstChild, type);
-				}
-				detAst = detAst.getNextSibling();
+	private int getCountOfToken(DetailAST detAst, final int type) {
+		final TokenCounter counter = new TokenCounter(type);
+		if (astIndex.branchContains(detAst, type)) {
+			for (DetailAST node = detAst; node != null; node = node.getNextSibling()) {
+				Utils.walk(node, counter);
 			}
 		}
-		return count;
+		return counter.count;
+	}
+
+	/**
+	 * Counts children of the provided type of walked nodes.
+	 */
+	private final class TokenCounter extends Utils.AstVisitor {
+
+		/** Counted type. */
+		private final int type;
+
+		/** Count of found tokens. */
+		private int count;
+
+		/**
+		 * Creates counter.
+		 * 
+		 * @param type
+		 *            a TokenType
+		 */
+		TokenCounter(int type) {
+			this.type = type;
+		}
+
+		@Override
+		public boolean visit(DetailAST ast) {
+			count += ast.getChildCount(type);
+			final DetailAST firstChild = ast.getFirstChild();
+			return firstChild != null
+					&& astIndex.branchContains(firstChild, type);
+		}
 	}
 
 }
@@ -23,11 +23,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -212,10 +214,47 @@ public class CustomDeclarationOrderCheck extends Check
         }
     };
 
+    /**
+     * Types of modifiers which are encoded in keys of
+     * {@link #prefixDecisions}, code of modifier is its index plus one.
+     */
+    private static final int[] MODIFIER_TYPES = {
+        TokenTypes.LITERAL_PUBLIC, TokenTypes.LITERAL_PROTECTED,
+        TokenTypes.LITERAL_PRIVATE, TokenTypes.ABSTRACT, TokenTypes.LITERAL_STATIC,
+        TokenTypes.FINAL, TokenTypes.LITERAL_TRANSIENT, TokenTypes.LITERAL_VOLATILE,
+        TokenTypes.LITERAL_SYNCHRONIZED, TokenTypes.LITERAL_NATIVE, TokenTypes.STRICTFP,
+    };
+
+    /** Count of bits of modifier code in key of {@link #prefixDecisions}. */
+    private static final int MODIFIER_CODE_BITS = 4;
+
+    /** Count of modifiers which fit into key of {@link #prefixDecisions}. */
+    private static final int MAX_ENCODED_MODIFIERS = 12;
+
+    /** Rule matches member regardless of its type and name. */
+    private static final byte ALWAYS_MATCHES = 1;
+
+    /** Rule does not match member regardless of its type and name. */
+    private static final byte NEVER_MATCHES = 2;
+
+    /** Match of rule depends on type and name of member. */
+    private static final byte DEPENDS_ON_NAME = 3;
+
     /** List of order declaration customizing by user */
     private final List<FormatMatcher> customOrderDeclaration =
         new ArrayList<FormatMatcher>();
 
+    /**
+     * Decisions of rules by members without annotations: key is the token
+     * type of member and the sequence of its modifiers, value is the
+     * decision of each rule for the modifiers part of the line formed by
+     * {@link #appendCombinedModifiersList(DetailAST, StringBuilder)}.
+     */
+    private final Map<Long, byte[]> prefixDecisions = new HashMap<Long, byte[]>();
+
+    /** Line of the current member, reused for all members. */
+    private final StringBuilder combinedModifiers = new StringBuilder();
+
     /** save compile flags for further usage */
     private int compileFlags;
 
@@ -255,6 +294,7 @@ public class CustomDeclarationOrderCheck extends Check
     public void setCustomDeclarationOrder(final String inputOrderDeclaration)
     {
         customOrderDeclaration.clear();
+        prefixDecisions.clear();
         for (String currentState : inputOrderDeclaration.split("\\s*###\\s*"))
         {
             try {
@@ -287,6 +327,7 @@ public class CustomDeclarationOrderCheck extends Check
     {
         // 0 - case sensitive flag
         compileFlags = caseSensitive ? 0 : Pattern.CASE_INSENSITIVE;
+        prefixDecisions.clear();
 
         for (FormatMatcher currentRule : customOrderDeclaration) {
             currentRule.setCompileFlags(compileFlags);
@@ -590,11 +631,14 @@ public class CustomDeclarationOrderCheck extends Check
     private int getPositionInOrderDeclaration(final DetailAST ast)
     {
         int result = -1;
-        final String modifiers = getCombinedModifiersList(ast);
+        final byte[] decisions = getPrefixDecisions(ast);
+        combinedModifiers.setLength(0);
         for (int index = 0; index < customOrderDeclaration.size(); index++) {
             final FormatMatcher currentRule = customOrderDeclaration.get(index);
             if (currentRule.getClassMember() == ast.getType()
-                    && currentRule.getRegexp().matcher(modifiers).find())
+                    // only macros can replace the first matched rule
+                    && (result == -1 || currentRule.isMacro())
+                    && isMatched(currentRule, index, decisions, ast))
             {
                 if (currentRule.hasRule(ANNON_CLASS_FIELD_MACRO)) {
                     if (isAnonymousClassField(ast)) {
@@ -635,6 +679,132 @@ public class CustomDeclarationOrderCheck extends Check
         return result;
     }
 
+    /**
+     * Checks whether rule matches the line formed from member. The line is
+     * formed only if the decision of rule depends on type and name of member.
+     *
+     * @param rule the rule.
+     * @param index index of rule.
+     * @param decisions decisions of rules for modifiers of member, or null.
+     * @param ast member.
+     * @return true if rule matches member.
+     */
+    private boolean isMatched(FormatMatcher rule, int index, byte[] decisions,
+            DetailAST ast)
+    {
+        final boolean result;
+        if (decisions == null || decisions[index] == DEPENDS_ON_NAME) {
+            if (combinedModifiers.length() == 0) {
+                appendCombinedModifiersList(ast, combinedModifiers);
+            }
+            result = rule.getMatcher().reset(combinedModifiers).find();
+        }
+        else {
+            result = decisions[index] == ALWAYS_MATCHES;
+        }
+        return result;
+    }
+
+    /**
+     * Gets decisions of rules for modifiers of member. Modifiers start the
+     * line formed from member, a rule which is matched there without looking
+     * at the end of input, or which fails without looking at the end of
+     * input, is decided for all members with the same modifiers.
+     *
+     * @param ast member.
+     * @return decisions of rules, or null if member has annotations or too many
+     *         modifiers.
+     */
+    private byte[] getPrefixDecisions(DetailAST ast)
+    {
+        long key = ast.getType();
+        int modifiersCount = 0;
+        boolean encoded = true;
+        DetailAST modifier = ast.findFirstToken(TokenTypes.MODIFIERS).getFirstChild();
+        while (encoded && modifier != null) {
+            final int code = getModifierCode(modifier.getType());
+            encoded = code != 0 && modifiersCount < MAX_ENCODED_MODIFIERS;
+            key = (key << MODIFIER_CODE_BITS) | code;
+            modifiersCount++;
+            modifier = modifier.getNextSibling();
+        }
+
+        byte[] result = null;
+        if (encoded) {
+            // the token type is shifted out of range of the shorter sequences
+            key |= (long) modifiersCount
+                    << (MODIFIER_CODE_BITS * MAX_ENCODED_MODIFIERS + Byte.SIZE);
+            result = prefixDecisions.get(key);
+            if (result == null) {
+                result = decidePrefix(ast);
+                prefixDecisions.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decides rules for modifiers part of the line formed from member.
+     *
+     * @param ast member without annotations.
+     * @return decisions of rules.
+     */
+    private byte[] decidePrefix(DetailAST ast)
+    {
+        final StringBuilder prefix = new StringBuilder();
+        appendModifiersPrefix(ast.findFirstToken(TokenTypes.MODIFIERS), prefix);
+        final byte[] result = new byte[customOrderDeclaration.size()];
+        for (int index = 0; index < result.length; index++) {
+            final FormatMatcher rule = customOrderDeclaration.get(index);
+            if (rule.getClassMember() == ast.getType()) {
+                result[index] = decidePrefix(rule, prefix);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decides rule for modifiers part of the line formed from member.
+     *
+     * @param rule the rule.
+     * @param prefix modifiers part of line.
+     * @return decision of rule.
+     */
+    private static byte decidePrefix(FormatMatcher rule, CharSequence prefix)
+    {
+        byte result = DEPENDS_ON_NAME;
+        if (rule.isPrefixDecidable()) {
+            final Matcher matcher = rule.getMatcher().reset(prefix);
+            if (matcher.find()) {
+                if (!matcher.requireEnd()) {
+                    result = ALWAYS_MATCHES;
+                }
+            }
+            else if (!matcher.hitEnd()) {
+                result = NEVER_MATCHES;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets code of modifier in keys of {@link #prefixDecisions}.
+     *
+     * @param modifierType token type of modifier.
+     * @return code of modifier, 0 if modifier is not encoded.
+     */
+    private static int getModifierCode(int modifierType)
+    {
+        int result = 0;
+        for (int i = 0; i < MODIFIER_TYPES.length; i++) {
+            if (MODIFIER_TYPES[i] == modifierType) {
+                result = i + 1;
+                break;
+            }
+        }
+        return result;
+    }
+
     /**
      * Verify that there is anonymous class in variable definition and this
      * variable is a field.
@@ -801,19 +971,17 @@ public class CustomDeclarationOrderCheck extends Check
      * Contains TokenTypes parameters for entry in child. </br>
      *
      * @param ast current DetailAST state.
-     * @return the unit annotations and modifiers and list.
+     * @param modifiers receiver of the unit annotations and modifiers and list.
      */
-    private static String getCombinedModifiersList(final DetailAST ast)
+    private static void appendCombinedModifiersList(final DetailAST ast,
+            final StringBuilder modifiers)
     {
-        final StringBuilder modifiers = new StringBuilder();
         DetailAST astNode = ast.findFirstToken(TokenTypes.MODIFIERS);
-        if (astNode.getFirstChild() == null) {
-            //if we met package level modifier
-            modifiers.append("package ");
-        }
+        appendModifiersPrefix(astNode, modifiers);
+        astNode = astNode.getNextSibling();
 
         while (astNode.getType() != TokenTypes.IDENT) {
-            if (astNode != null && astNode.getFirstChild() != null) {
+            if (astNode.getFirstChild() != null) {
                 modifiers.append(getModifiersAsText(astNode.getFirstChild()));
                 modifiers.append(" ");
             }
@@ -821,8 +989,26 @@ public class CustomDeclarationOrderCheck extends Check
         }
         // add IDENT(name)
         modifiers.append(astNode.getText());
+    }
 
-        return modifiers.toString();
+    /**
+     * Appends text of annotations and modifiers which starts the line formed
+     * by {@link #appendCombinedModifiersList(DetailAST, StringBuilder)}.
+     *
+     * @param modifiersAst MODIFIERS node.
+     * @param modifiers receiver of text.
+     */
+    private static void appendModifiersPrefix(final DetailAST modifiersAst,
+            final StringBuilder modifiers)
+    {
+        if (modifiersAst.getFirstChild() == null) {
+            //if we met package level modifier
+            modifiers.append("package ");
+        }
+        else {
+            modifiers.append(getModifiersAsText(modifiersAst.getFirstChild()));
+            modifiers.append(" ");
+        }
     }
 
     /**
@@ -1200,6 +1386,16 @@ public class CustomDeclarationOrderCheck extends Check
     {
         /** The regexp to match against */
         private Pattern regExp;
+        /** Matcher of the regexp, reset for each matched line */
+        private Matcher matcher;
+        /** Whether the rule is a macro with additional conditions */
+        private final boolean macro;
+        /**
+         * Whether the regexp has no lookaround and other special groups, so
+         * its result on the modifiers part of line can be decided by
+         * {@link Matcher#hitEnd()} and {@link Matcher#requireEnd()}
+         */
+        private boolean prefixDecidable;
         /** The Member of Class */
         private final int classMember;
         /** The input full one rule with original names */
@@ -1220,6 +1416,8 @@ public class CustomDeclarationOrderCheck extends Check
         {
             this.classMember = classMember;
             rule = inputRule;
+            macro = hasRule(ANNON_CLASS_FIELD_MACRO) || hasRule(GETTER_SETTER_MACRO)
+                    || hasRule(MAIN_METHOD_MACRO);
         }
 
         /** @return the RegExp to match against */
@@ -1228,6 +1426,30 @@ public class CustomDeclarationOrderCheck extends Check
             return regExp;
         }
 
+        /** @return the matcher of the RegExp, shared by all matched lines */
+        public final Matcher getMatcher()
+        {
+            return matcher;
+        }
+
+        /**
+         * @return true if the rule is DeclareAnnonClassField, GetterSetter or
+         *         MainMethod macro.
+         */
+        public final boolean isMacro()
+        {
+            return macro;
+        }
+
+        /**
+         * @return true if the result on the modifiers part of line can be
+         *         decided without type and name.
+         */
+        public final boolean isPrefixDecidable()
+        {
+            return prefixDecidable;
+        }
+
         /** @return the original immutable input rule */
         public final String getRule()
         {
@@ -1261,6 +1483,8 @@ public class CustomDeclarationOrderCheck extends Check
         {
             try {
                 regExp = Pattern.compile(format, compileFlags);
+                matcher = regExp.matcher("");
+                prefixDecidable = !format.contains("(?");
                 this.format = format;
             }
             catch (final PatternSyntaxException e) {
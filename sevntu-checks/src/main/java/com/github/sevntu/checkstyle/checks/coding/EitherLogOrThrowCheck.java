@@ -25,6 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import com.github.sevntu.checkstyle.ImportIndex;
 import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -201,24 +202,23 @@ public class EitherLogOrThrowCheck extends Check
     public int[] getDefaultTokens()
     {
         return new int[] {
-            TokenTypes.IMPORT,
             TokenTypes.CLASS_DEF,
             TokenTypes.LITERAL_CATCH,
             TokenTypes.VARIABLE_DEF,
             TokenTypes.METHOD_DEF, };
     }
 
+    @Override
+    public void beginTree(DetailAST rootAST)
+    {
+        hasLoggerClassInImports =
+                ImportIndex.get(rootAST).isImported(loggerFullyQualifiedClassName);
+    }
+
     @Override
     public void visitToken(final DetailAST ast)
     {
         switch (ast.getType()) {
-            case TokenTypes.IMPORT:
-                if (!hasLoggerClassInImports
-                    && isLoggerImport(ast))
-                {
-                    hasLoggerClassInImports = true;
-                }
-                break;
             case TokenTypes.CLASS_DEF:
                 if (!isInnerClass(ast)) {
                     currentClassDefAst = ast;
@@ -252,18 +252,6 @@ public class EitherLogOrThrowCheck extends Check
         }
     }
 
-    /**
-     * @param importAst
-     *        DetailAST of import statement.
-     * @return true if import equals logger full class name.
-     */
-    private boolean isLoggerImport(final DetailAST importAst)
-    {
-        final String importIdentifier =
-                FullIdent.createFullIdent(importAst.getFirstChild()).getText();
-        return loggerFullyQualifiedClassName.equals(importIdentifier);
-    }
-
     /**
      * Verify that class is inner.
      * @param classDefAst
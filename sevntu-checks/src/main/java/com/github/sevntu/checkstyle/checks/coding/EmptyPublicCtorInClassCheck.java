@@ -1,9 +1,10 @@
 package com.github.sevntu.checkstyle.checks.coding;
 
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Pattern;
 
+import com.github.sevntu.checkstyle.ImportIndex;
+import com.github.sevntu.checkstyle.NameMatcher;
 import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -93,31 +94,21 @@ public class EmptyPublicCtorInClassCheck extends Check
     public static final String MSG_KEY = "empty.public.ctor";
 
     /**
-     * List of single-type-imports for current AST.
+     * Package and imports of current AST.
      */
-    private List<String> singleTypeImports = new ArrayList<String>();
-
-    /**
-     * List of on-demand-imports for current AST.
-     */
-    private List<String> onDemandImports = new ArrayList<String>();
-
-    /**
-     * Package name for current AST or empty string if AST does not contain package name.
-     */
-    private String filePackageName;
+    private ImportIndex importIndex;
 
     /**
      * Regex which matches names of class annotations which require class to have public no-argument
      * ctor. Default value is "javax\.persistence\.Entity".
      */
-    private Pattern classAnnotationNames = Pattern.compile("javax\\.persistence\\.Entity");
+    private NameMatcher classAnnotationNames = NameMatcher.compile("javax\\.persistence\\.Entity");
 
     /**
      * Regex which matches names of ctor annotations which make empty public ctor essential. Default
      * value is "com\.google\.inject\.Inject".
      */
-    private Pattern ctorAnnotationNames = Pattern.compile("com\\.google\\.inject\\.Inject");
+    private NameMatcher ctorAnnotationNames = NameMatcher.compile("com\\.google\\.inject\\.Inject");
 
     /**
      * Sets regex which matches names of class annotations which require class to have public
@@ -128,7 +119,7 @@ public class EmptyPublicCtorInClassCheck extends Check
     public void setClassAnnotationNames(String regex)
     {
         if (regex != null && !regex.isEmpty()) {
-            classAnnotationNames = Pattern.compile(regex);
+            classAnnotationNames = NameMatcher.compile(regex);
         }
         else {
             classAnnotationNames = null;
@@ -143,7 +134,7 @@ public class EmptyPublicCtorInClassCheck extends Check
     public void setCtorAnnotationNames(String regex)
     {
         if (regex != null && !regex.isEmpty()) {
-            ctorAnnotationNames = Pattern.compile(regex);
+            ctorAnnotationNames = NameMatcher.compile(regex);
         }
         else {
             ctorAnnotationNames = null;
@@ -153,15 +144,13 @@ public class EmptyPublicCtorInClassCheck extends Check
     @Override
     public int[] getDefaultTokens()
     {
-        return new int[] { TokenTypes.CLASS_DEF, TokenTypes.PACKAGE_DEF, TokenTypes.IMPORT };
+        return new int[] { TokenTypes.CLASS_DEF };
     }
 
     @Override
     public void beginTree(DetailAST aRootNode)
     {
-        singleTypeImports.clear();
-        onDemandImports.clear();
-        filePackageName = "";
+        importIndex = ImportIndex.get(aRootNode);
     }
 
     @Override
@@ -169,19 +158,6 @@ public class EmptyPublicCtorInClassCheck extends Check
     {
         switch (node.getType()) {
 
-            case TokenTypes.IMPORT:
-                {
-                    String packageMemberName = getIdentifierName(node);
-        
-                    if (isOnDemandImport(packageMemberName)) {
-                        onDemandImports.add(packageMemberName);
-                    }
-                    else {
-                        singleTypeImports.add(packageMemberName);
-                    }
-                }
-                break;
-
             case TokenTypes.CLASS_DEF:
                 if (getClassCtorCount(node) == 1) {
                     DetailAST ctorDef = getFirstCtorDefinition(node);
@@ -199,9 +175,6 @@ public class EmptyPublicCtorInClassCheck extends Check
                 }
                 break;
 
-            case TokenTypes.PACKAGE_DEF:
-                filePackageName = getIdentifierName(node);
-                break;
             default:
                 Utils.reportInvalidToken(node.getType());
                 break;
@@ -276,8 +249,7 @@ public class EmptyPublicCtorInClassCheck extends Check
      */
     private boolean isClassHasRegisteredAnnotation(DetailAST classDefNode)
     {
-        List<String> annotationNames = getAnnotationCanonicalNames(classDefNode);
-        return isAnyOfNamesMatches(annotationNames, classAnnotationNames);
+        return isAnyOfAnnotationsMatches(classDefNode, classAnnotationNames);
     }
 
     /**
@@ -289,218 +261,75 @@ public class EmptyPublicCtorInClassCheck extends Check
      */
     private boolean isCtorHasRegisteredAnnotation(DetailAST ctorDefNode)
     {
-        List<String> annotationNames = getAnnotationCanonicalNames(ctorDefNode);
-        return isAnyOfNamesMatches(annotationNames, ctorAnnotationNames);
-    }
-
-    /**
-     * Checks whether any name from the list matches regex.
-     * @param annotationNames
-     *        annotation names to match against regex.
-     * @param pattern
-     *        regex to match names. may be null.
-     * @return false, if pattern object is null, otherwise true, if any name from the list matches
-     *         regex.
-     */
-    private static boolean isAnyOfNamesMatches(List<String> annotationNames, Pattern pattern)
-    {
-        if (pattern == null) {
-            return false;
-        }
-        else {
-            for (String annotationName : annotationNames) {
-                if (pattern.matcher(annotationName).matches()) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        return isAnyOfAnnotationsMatches(ctorDefNode, ctorAnnotationNames);
     }
 
     /**
-     * Returns canonical names of annotations for given node.
+     * Checks whether any annotation of node matches regex.
      * @param node
      *        annotated node.
-     * @return list of canonical annotation names for given node.
+     * @param annotationNames
+     *        regex to match annotation names. may be null.
+     * @return false, if regex object is null, otherwise true, if simple or any of possible canonical
+     *         names of any annotation matches regex.
      */
-    private List<String> getAnnotationCanonicalNames(DetailAST node)
+    private boolean isAnyOfAnnotationsMatches(DetailAST node, NameMatcher annotationNames)
     {
-        List<String> annotationNames = new ArrayList<String>();
-
-        DetailAST modifierNode =
-                node.findFirstToken(TokenTypes.MODIFIERS).getFirstChild();
+        if (annotationNames != null) {
+            DetailAST modifierNode =
+                    node.findFirstToken(TokenTypes.MODIFIERS).getFirstChild();
 
-        while (modifierNode != null) {
-            if (modifierNode.getType() == TokenTypes.ANNOTATION) {
-                String annotationName = getIdentifierName(modifierNode);
+            while (modifierNode != null) {
+                if (modifierNode.getType() == TokenTypes.ANNOTATION) {
+                    String annotationName = getIdentifierName(modifierNode);
 
-                List<String> annotationPossibleCanonicalNames =
-                        generateAnnotationPossibleCanonicalNames(annotationName);
+                    if (isAnnotationMatches(annotationName, annotationNames)) {
+                        return true;
+                    }
+                }
 
-                annotationNames.add(annotationName);
-                annotationNames.addAll(annotationPossibleCanonicalNames);
+                modifierNode = modifierNode.getNextSibling();
             }
-
-            modifierNode = modifierNode.getNextSibling();
         }
 
-        return annotationNames;
-    }
-
-    /**
-     * Checks whether import is on demand import(one that imports entire package).
-     * @param importTargetName
-     *        target of import statement.
-     * @return true, if import is on demand import import.
-     */
-    private static boolean isOnDemandImport(String importTargetName)
-    {
-        return importTargetName.endsWith(".*");
-    }
-
-    /**
-     * <p>
-     * Generates possible canonical annotation names.
-     * </p>
-     * @param annotationName
-     *        simple annotation name.
-     * @return list of possible canonical annotation names.
-     */
-    private List<String>
-            generateAnnotationPossibleCanonicalNames(String annotationName)
-    {
-        List<String> annotationPossibleCanonicalNames = new ArrayList<String>();
-
-        for (String importEntry : singleTypeImports) {
-            String annotationCanonicalName =
-                    joinSingleTypeImportWithIdentifier(importEntry, annotationName);
-
-            if (annotationCanonicalName != null) {
-                annotationPossibleCanonicalNames.add(annotationCanonicalName);
-                break;
-            }
-        }
-
-        for (String importEntry : onDemandImports)
-        {
-            String annotationCanonicalName =
-                    joinOnDemandImportWithIdentifier(importEntry, annotationName);
-
-            annotationPossibleCanonicalNames.add(annotationCanonicalName);
-        }
-
-        String annotationCanonicalName =
-                joinFilePackageNameWithIdentifier(filePackageName, annotationName);
-
-        annotationPossibleCanonicalNames.add(annotationCanonicalName);
-
-        return annotationPossibleCanonicalNames;
-    }
-
-    /**
-     * <p>
-     * Joins single type import entry and identifier name into fully qualified name.
-     * </p>
-     * <p>
-     * For example: joinMemberImportWithIdentifier("package.Person","Person") returns
-     * "package.Person", joinMemberImportWithIdentifier("package.Person","Person.Name") returns
-     * "package.Person.Name".
-     * </p>
-     * @param importEntry
-     *        single type import entry for join.
-     * @param identifierName
-     *        identifier name to join to import.
-     * @return fully qualified identifier name if given import corresponds to identifier, otherwise
-     *         null.
-     */
-    private static String
-            joinSingleTypeImportWithIdentifier(String importEntry, String identifierName)
-    {
-        String importEntryLastPart = getSimpleIdentifierNameFromQualifiedName(importEntry);
-        String annotationNameFirstPart = getQualifiedNameFirstPart(identifierName);
-
-        if (importEntryLastPart.equals(annotationNameFirstPart)) {
-            return importEntry + identifierName.substring(annotationNameFirstPart.length());
-        }
-        else {
-            return null;
-        }
-    }
-
-    /**
-     * <p>
-     * Joins on demand import entry and identifier name into fully qualified name.
-     * </p>
-     * <p>
-     * For example: joinWildcardImportWithIdentifier("package.*","Person") returns "package.Person",
-     * joinWildcardImportWithIdentifier("package.*","Person.Name") returns "package.Person.Name".
-     * </p>
-     * @param importEntry
-     *        on demand import entry for join.
-     * @param identifierName
-     *        identifier name to join to import.
-     * @return fully qualified identifier name.
-     */
-    private static String
-            joinOnDemandImportWithIdentifier(String importEntry, String identifierName)
-    {
-        return importEntry.substring(0, importEntry.length() - 1) + identifierName;
+        return false;
     }
 
     /**
      * <p>
-     * Joins package name with identifier name into fully qualified name.
+     * Checks whether annotation name or any of its possible canonical names matches regex.
      * </p>
      * <p>
-     * For example: joinFilePackageNameWithIdentifier("com.example","Person") returns
-     * "com.example.Person".
+     * Canonical names are generated one by one till the first match. If regex is a plain
+     * alternation of names, like the default "javax\.persistence\.Entity", each of these names is
+     * checked to be a possible canonical name instead, so no names are generated at all.
      * </p>
-     * @param packageName
-     *        package name to use for join.
-     * @param identifierName
-     *        identifier name to join to package name.
-     * @return fully qualified identifier name.
+     * @param annotationName
+     *        annotation name as it is written in the code.
+     * @param annotationNames
+     *        regex to match annotation names.
+     * @return true, if any name matches regex.
      */
-    private static String
-            joinFilePackageNameWithIdentifier(String packageName, String identifierName)
+    private boolean isAnnotationMatches(String annotationName, NameMatcher annotationNames)
     {
-        return packageName + "." + identifierName;
-    }
+        boolean result = annotationNames.matches(annotationName);
+        final List<String> literalNames = annotationNames.getLiteralNames();
 
-    /**
-     * Returns first part of identifier name.
-     * @param canonicalName
-     *        identifier name.
-     * @return first part of identifier name if name is qualified, otherwise returns identifier name
-     *         argument.
-     */
-    private static String getQualifiedNameFirstPart(String canonicalName)
-    {
-        int firstDotIndex = canonicalName.indexOf('.');
+        if (literalNames == null) {
+            final Iterator<String> canonicalNames =
+                    importIndex.getCandidates(annotationName).iterator();
 
-        if (firstDotIndex == -1) {
-            return canonicalName;
+            while (!result && canonicalNames.hasNext()) {
+                result = annotationNames.matches(canonicalNames.next());
+            }
         }
         else {
-            return canonicalName.substring(0, firstDotIndex);
+            for (int i = 0; !result && i < literalNames.size(); i++) {
+                result = importIndex.isCandidate(annotationName, literalNames.get(i));
+            }
         }
-    }
 
-    /**
-     * <p>
-     * Returns simple identifier name from its qualified name.
-     * </p>
-     * <p>
-     * For example: If method called for name "com.example.company.Person" it will return "Person".
-     * </p>
-     * @param qualifiedName
-     *        qualified identifier name.
-     * @return simple identifier name.
-     */
-    private static String getSimpleIdentifierNameFromQualifiedName(String qualifiedName)
-    {
-        return qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+        return result;
     }
 
     /**
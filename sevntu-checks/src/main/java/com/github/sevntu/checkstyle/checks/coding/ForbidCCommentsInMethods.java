@@ -18,8 +18,9 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
-import java.util.Set;
+import java.util.Arrays;
 
+import com.github.sevntu.checkstyle.CommentIndex;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -39,9 +40,16 @@ public class ForbidCCommentsInMethods extends Check
     public final static String MSG_KEY = "forbid.c.comments.in.the.method.body";
 
     /**
-     * Set contains C style comments from current file
+     * Sorted distinct lines where C style comments of current file start
      */
-    private Set<Integer> clangComments;
+    private int[] clangCommentLines;
+
+    /**
+     * Index in {@link #clangCommentLines} of the first line which is not
+     * reported yet. Methods are visited in order of their positions, so
+     * comments of nested methods are already reported with enclosing ones.
+     */
+    private int firstUnreportedLine;
 
     @Override
     public int[] getDefaultTokens()
@@ -52,13 +60,26 @@ public class ForbidCCommentsInMethods extends Check
     @Override
     public void beginTree(DetailAST rootAST)
     {
-        clangComments = getFileContents().getCComments().keySet();
+        final CommentIndex commentIndex = CommentIndex.get(getFileContents());
+        final int[] lines = new int[commentIndex.getCommentsCount()];
+        int linesCount = 0;
+        for (int i = 0; i < commentIndex.getCommentsCount(); i++) {
+            final int lineNo = commentIndex.getStartLineNo(i);
+            if (commentIndex.isBlockComment(i)
+                    && (linesCount == 0 || lines[linesCount - 1] != lineNo))
+            {
+                lines[linesCount] = lineNo;
+                linesCount++;
+            }
+        }
+        clangCommentLines = Arrays.copyOf(lines, linesCount);
+        firstUnreportedLine = 0;
     }
 
     @Override
     public void visitToken(DetailAST methodNode)
     {
-        if (!clangComments.isEmpty()) {
+        if (firstUnreportedLine < clangCommentLines.length) {
             final DetailAST borders =
                     methodNode.findFirstToken(TokenTypes.SLIST);
             //Could be null when aMethodNode doesn't have body 
@@ -67,14 +88,28 @@ public class ForbidCCommentsInMethods extends Check
             {
                 final int methodBodyBegin = borders.getLineNo();
                 final int methodBodyEnd = borders.getLastChild().getLineNo();
-                for (final int commentLineNo : clangComments) {
-                    if (commentLineNo > methodBodyBegin
-                            && commentLineNo < methodBodyEnd)
-                    {
-                        log(commentLineNo, MSG_KEY);
-                    }
+                int index = Math.max(firstUnreportedLine,
+                        findFirstLine(methodBodyBegin + 1));
+                final int end = findFirstLine(methodBodyEnd);
+                while (index < end) {
+                    log(clangCommentLines[index], MSG_KEY);
+                    index++;
                 }
+                firstUnreportedLine = Math.max(firstUnreportedLine, end);
             }
         }
     }
+
+    /**
+     * Finds the first line of C style comment which is not less than the
+     * given line.
+     * @param lineNo
+     *        the line number
+     * @return index in {@link #clangCommentLines}
+     */
+    private int findFirstLine(int lineNo)
+    {
+        final int index = Arrays.binarySearch(clangCommentLines, lineNo);
+        return index >= 0 ? index : -index - 1;
+    }
 }
@@ -18,8 +18,8 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
-import java.util.regex.Pattern;
-
+import com.github.sevntu.checkstyle.ImportIndex;
+import com.github.sevntu.checkstyle.NameMatcher;
 import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -68,17 +68,17 @@ public class ForbidCertainImportsCheck extends Check
      * Pattern for matching package fully qualified name
      * (sets the scope of affected packages).
      */
-    private Pattern packageNamesRegexp;
+    private NameMatcher packageNamesRegexp;
 
     /**
      * Pattern for matching forbidden imports.
      */
-    private Pattern forbiddenImportsRegexp;
+    private NameMatcher forbiddenImportsRegexp;
 
     /**
      * Pattern for excluding imports from checking.
      */
-    private Pattern forbiddenImportsExcludesRegexp;
+    private NameMatcher forbiddenImportsExcludesRegexp;
 
     /**
      * True, if currently processed package fully qualified name
@@ -94,7 +94,7 @@ public class ForbidCertainImportsCheck extends Check
     public void setPackageNameRegexp(String packageNameRegexp)
     {
         if (packageNameRegexp != null) {
-            packageNamesRegexp = Pattern.compile(packageNameRegexp);
+            packageNamesRegexp = NameMatcher.compile(packageNameRegexp);
         }
     }
 
@@ -115,7 +115,7 @@ public class ForbidCertainImportsCheck extends Check
     public void setForbiddenImportsRegexp(String forbiddenImportsRegexp)
     {
         if (forbiddenImportsRegexp != null) {
-            this.forbiddenImportsRegexp = Pattern.compile(forbiddenImportsRegexp);
+            this.forbiddenImportsRegexp = NameMatcher.compile(forbiddenImportsRegexp);
         }
     }
 
@@ -137,7 +137,7 @@ public class ForbidCertainImportsCheck extends Check
             forbiddenImportsExcludesRegexp)
     {
         if (forbiddenImportsExcludesRegexp != null) {
-            this.forbiddenImportsExcludesRegexp = Pattern
+            this.forbiddenImportsExcludesRegexp = NameMatcher
                     .compile(forbiddenImportsExcludesRegexp);
         }
     }
@@ -152,23 +152,25 @@ public class ForbidCertainImportsCheck extends Check
             defaultTokens = new int[] {};
         }
         else {
-            defaultTokens = new int[] {TokenTypes.PACKAGE_DEF,
-                TokenTypes.IMPORT, TokenTypes.LITERAL_NEW, };
+            defaultTokens = new int[] {TokenTypes.IMPORT, TokenTypes.LITERAL_NEW, };
         }
         return defaultTokens;
     }
 
+    @Override
+    public void beginTree(DetailAST rootAST)
+    {
+        if (packageNamesRegexp != null) {
+            final String packageQualifiedName = ImportIndex.get(rootAST).getPackageName();
+            packageMatches = !packageQualifiedName.isEmpty()
+                    && packageNamesRegexp.matches(packageQualifiedName);
+        }
+    }
+
     @Override
     public void visitToken(DetailAST ast)
     {
         switch (ast.getType()) {
-            case TokenTypes.PACKAGE_DEF:
-                if (packageNamesRegexp != null) {
-                    final String packageQualifiedName = getText(ast);
-                    packageMatches = packageNamesRegexp.matcher(packageQualifiedName)
-                        .matches();
-                }
-                break;
             case TokenTypes.IMPORT:
                 if (packageMatches && forbiddenImportsRegexp != null
                     && forbiddenImportsExcludesRegexp != null)
@@ -205,8 +207,8 @@ public class ForbidCertainImportsCheck extends Check
      */
     private boolean isImportForbidden(String importText)
     {
-        return forbiddenImportsRegexp.matcher(importText).matches()
-                && !forbiddenImportsExcludesRegexp.matcher(importText).matches();
+        return forbiddenImportsRegexp.matches(importText)
+                && !forbiddenImportsExcludesRegexp.matches(importText);
     }
 
     /**
@@ -223,21 +225,21 @@ public class ForbidCertainImportsCheck extends Check
     }
 
     /**
-     * Gets package/import text representation from node of PACKAGE_DEF or IMPORT type.
-     * @param packageDefOrImportNode
-     *        - DetailAST node is pointing to package or import definition
-     *        (should be a PACKAGE_DEF or IMPORT type).
-     * @return The fully qualified name of package or import without
-     *         "package"/"import" words or semicolons.
+     * Gets import text representation from node of IMPORT or LITERAL_NEW type.
+     * @param importOrNewNode
+     *        - DetailAST node is pointing to import definition or to the "new"
+     *        literal (should be an IMPORT or LITERAL_NEW type).
+     * @return The fully qualified name of import without "import" word or
+     *         semicolons, or instantiated class name.
      */
-    private static String getText(DetailAST packageDefOrImportNode)
+    private static String getText(DetailAST importOrNewNode)
     {
         String result = null;
 
-        final DetailAST identNode = packageDefOrImportNode.findFirstToken(TokenTypes.IDENT);
+        final DetailAST identNode = importOrNewNode.findFirstToken(TokenTypes.IDENT);
 
         if (identNode == null) {
-            final DetailAST parentDotAST = packageDefOrImportNode.findFirstToken(TokenTypes.DOT);
+            final DetailAST parentDotAST = importOrNewNode.findFirstToken(TokenTypes.DOT);
             if (parentDotAST != null) {
                 final FullIdent dottedPathIdent = FullIdent
                         .createFullIdentBelow(parentDotAST);
@@ -18,11 +18,14 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import com.github.sevntu.checkstyle.ImportIndex;
 import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -58,17 +61,31 @@ public class ForbidInstantiationCheck extends Check
     private Set<String> forbiddenClasses = new HashSet<String>();
 
     /**
-     * List which contains String representation of imports for class is
-     * currently being processed.
+     * Short names of forbidden "java.lang" classes, which are visible without
+     * imports. Instantiated class is matched by the end of forbidden class
+     * name, so all endings of short names are kept.
+     */
+    private Set<String> forbiddenJavaLangNames = new HashSet<String>();
+
+    /**
+     * Short names of forbidden classes by their packages (with trailing dot),
+     * used to resolve imports with asterisk.
+     */
+    private Map<String, List<String>> forbiddenNamesByPackage =
+            new HashMap<String, List<String>>();
+
+    /**
+     * Short names, which refer to forbidden classes because of imports of
+     * class is currently being processed.
      */
-    private List<String> importsList = new LinkedList<String>();
+    private Set<String> importedForbiddenNames = new HashSet<String>();
 
     /**
      * Creates the check instance.
      */
     public ForbidInstantiationCheck()
     {
-        forbiddenClasses.add("java.lang.NullPointerException");
+        setForbiddenClasses(new String[] {"java.lang.NullPointerException"});
     }
 
     /**
@@ -78,12 +95,27 @@ public class ForbidInstantiationCheck extends Check
      *        full, such as "java.lang.NullpointerException", do not use short
      *        name - NullpointerException;
      */
-    public void setForbiddenClasses(final String[] classNames)
+    public final void setForbiddenClasses(final String[] classNames)
     {
         forbiddenClasses.clear();
+        forbiddenJavaLangNames.clear();
+        forbiddenNamesByPackage.clear();
         if (classNames != null) {
             for (String name : classNames) {
                 forbiddenClasses.add(name);
+                if (name.startsWith("java.lang.")) {
+                    addNameEndings(forbiddenJavaLangNames, name);
+                }
+                final int lastDotIndex = name.lastIndexOf('.');
+                if (lastDotIndex >= 0) {
+                    final String packageName = name.substring(0, lastDotIndex + 1);
+                    List<String> names = forbiddenNamesByPackage.get(packageName);
+                    if (names == null) {
+                        names = new ArrayList<String>();
+                        forbiddenNamesByPackage.put(packageName, names);
+                    }
+                    names.add(name.substring(lastDotIndex + 1));
+                }
             }
         }
     }
@@ -91,13 +123,26 @@ public class ForbidInstantiationCheck extends Check
     @Override
     public void beginTree(final DetailAST rootAST)
     {
-        importsList.clear();
+        importedForbiddenNames.clear();
+        final ImportIndex importIndex = ImportIndex.get(rootAST);
+        for (String packageName : importIndex.getOnDemandImports()) {
+            final List<String> names = forbiddenNamesByPackage.get(packageName + '.');
+            if (names != null) {
+                importedForbiddenNames.addAll(names);
+            }
+        }
+        for (String className : importIndex.getSingleTypeImports()) {
+            if (forbiddenClasses.contains(className)) {
+                // class is matched by the end of import text
+                addNameEndings(importedForbiddenNames, className);
+            }
+        }
     }
 
     @Override
     public int[] getDefaultTokens()
     {
-        return new int[] {TokenTypes.IMPORT, TokenTypes.LITERAL_NEW };
+        return new int[] {TokenTypes.LITERAL_NEW };
     }
 
     @Override
@@ -105,10 +150,6 @@ public class ForbidInstantiationCheck extends Check
     {
         switch (ast.getType()) {
 
-            case TokenTypes.IMPORT:
-                importsList.add(getText(ast));
-                break;
-
             case TokenTypes.LITERAL_NEW:
 
                 final String instanceClass = getText(ast);
@@ -117,26 +158,18 @@ public class ForbidInstantiationCheck extends Check
 
                     final String instanceClassName = getClassName(instanceClass);
 
-                    for (String forbiddenClass : forbiddenClasses) {
-
-                        if (forbiddenClass.startsWith("java.lang.")
-                            && forbiddenClass.endsWith(instanceClassName))
-                        { // java.lang.*
+                    if (forbiddenJavaLangNames.contains(instanceClassName)) { // java.lang.*
+                        log(ast, MSG_KEY, instanceClassName);
+                    }
+                    else if (instanceClass.contains(".")) { // className is full
+                        if (forbiddenClasses.contains(instanceClass)) {
+                            // the full path is forbidden
                             log(ast, MSG_KEY, instanceClassName);
                         }
-                        else if (instanceClass.contains(".")) { // className is full
-
-                            if (instanceClass.equals(forbiddenClass)) {
-                                // the full path is forbidden
-                                log(ast, MSG_KEY, instanceClassName);
-                            }
-                        }
-                        else if (addedUsingForbiddenImport(instanceClass,
-                            forbiddenClass))
-                        {
-                            // className is short and exists in imports
-                            log(ast, MSG_KEY, instanceClass);
-                        }
+                    }
+                    else if (importedForbiddenNames.contains(instanceClass)) {
+                        // className is short and exists in imports
+                        log(ast, MSG_KEY, instanceClass);
                     }
                 }
                 break;
@@ -149,39 +182,18 @@ public class ForbidInstantiationCheck extends Check
     }
 
     /**
-     * Checks that the class with given className is visible because of the
-     * forbidden import.
-     * @param className
-     *        - the name of the class to check.
-     * @param forbiddenClassNameAndPath
-     *        - full name&path of the given forbidden class.
-     * @return true if the class with given className is imported with the
-     *         forbidden import and false otherwise.
+     * Adds all endings of the short name of given class to the set.
+     * @param names
+     *        - the set to add endings to.
+     * @param classNameAndPath
+     *        - the full (dotted) classPath.
      */
-    private boolean addedUsingForbiddenImport(final String className,
-            String forbiddenClassNameAndPath)
+    private static void addNameEndings(Set<String> names, String classNameAndPath)
     {
-        boolean result = false;
-
-        for (String importText : importsList) {
-            if (importText.endsWith("*")) {
-                final String importTextWithoutAsterisk =
-                        importText.substring(0, importText.length() - 1);
-                if (forbiddenClassNameAndPath.equals(
-                        importTextWithoutAsterisk + className))
-                {
-                    result = true;
-                    break;
-                }
-            }
-            else if (importText.equals(forbiddenClassNameAndPath)
-                    && importText.endsWith(className))
-            {
-                result = true;
-                break;
-            }
+        final String className = getClassName(classNameAndPath);
+        for (int i = 0; i < className.length(); i++) {
+            names.add(className.substring(i));
         }
-        return result;
     }
 
     /**
@@ -192,17 +204,15 @@ public class ForbidInstantiationCheck extends Check
      */
     private static String getClassName(final String classNameAndPath)
     {
-        return classNameAndPath.replaceAll(".+\\.", "");
+        return classNameAndPath.substring(classNameAndPath.lastIndexOf('.') + 1);
     }
 
     /**
      * Gets the text representation from the given DetailAST node.
      * @param ast
-     *        - DetailAST node is pointing to import definition or to the "new"
-     *        literal node ("IMPORT" or "LITERAL_NEW" node types).
-     * @return Import text without "import" word and semicolons for given
-     *         "IMPORT" node or instanstiated class Name&Path for given
-     *         "LITERAL_NEW" node.
+     *        - DetailAST node is pointing to the "new" literal node
+     *        ("LITERAL_NEW" node type).
+     * @return instanstiated class Name&Path for given "LITERAL_NEW" node.
      */
     private static String getText(final DetailAST ast)
     {
@@ -18,10 +18,7 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
+import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -53,27 +50,21 @@ public class ForbidReturnInFinallyBlockCheck extends Check
     {
         final DetailAST firstSlistNode = finallyNode.findFirstToken(TokenTypes.SLIST);
 
-        final List<DetailAST> listOfReturnNodes = getReturnNodes(firstSlistNode);
-
-        for (DetailAST returnNode : listOfReturnNodes) {
-            if (!isReturnInMethodDefinition(returnNode)) {
-                log(finallyNode.getLineNo(), MSG_KEY);
+        DetailAST node = firstSlistNode;
+        while (node != null) {
+            // if node has a return among its children, only this return
+            // is taken from the subtree of node
+            final DetailAST returnNode = node.findFirstToken(TokenTypes.LITERAL_RETURN);
+            if (returnNode == null) {
+                node = Utils.getNextNode(node, firstSlistNode);
             }
-        }
-    }
-
-    private List<DetailAST> getReturnNodes(DetailAST node)
-    {
-        final List<DetailAST> result = new ArrayList<DetailAST>();
-        DetailAST child = node.getFirstChild();
-        while (child != null) {
-            if (child.getType() == TokenTypes.LITERAL_RETURN) {
-                return Collections.singletonList(child);
+            else {
+                if (!isReturnInMethodDefinition(returnNode)) {
+                    log(finallyNode.getLineNo(), MSG_KEY);
+                }
+                node = Utils.getNextNodeAfterSubtree(node, firstSlistNode);
             }
-            result.addAll(getReturnNodes(child));
-            child = child.getNextSibling();
         }
-        return result;
     }
 
     private boolean isReturnInMethodDefinition(DetailAST returnNode)
@@ -18,6 +18,7 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
+import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FullIdent;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -121,41 +122,47 @@ public final class IllegalCatchExtendedCheck extends AbstractIllegalCheck
     }
 
     /** Looking for the keyword "throw" among current (aParentAST) node childs.
+     * Nested nodes are looked through before their parents, parameters are
+     * skipped.
      * @param parentAST - the current parent node.
      * @return null if the "throw" keyword was not found
      * or the LITERAL_THROW DetailAST otherwise
      */
-    public DetailAST getThrowAST(DetailAST parentAST)
+    public DetailAST getThrowAST(final DetailAST parentAST)
     {
-
-        final DetailAST asts[] = getChilds(parentAST);
-
-        for (DetailAST currentNode : asts) {
-
-            if (currentNode.getType() != TokenTypes.PARAMETER_DEF
-                    && currentNode.getNumberOfChildren() > 0)
+        final DetailAST[] result = new DetailAST[1];
+        Utils.walk(parentAST, new Utils.AstVisitor() {
+            @Override
+            public boolean visit(DetailAST ast)
             {
-                final DetailAST astResult = getThrowAST(currentNode);
-                if (astResult != null) {
-                    return astResult;
-                }
+                return ast.getType() != TokenTypes.PARAMETER_DEF;
             }
 
-            if (currentNode.getType() == TokenTypes.LITERAL_THROW) {
-                return currentNode;
+            @Override
+            public void leave(DetailAST ast)
+            {
+                if (ast.getType() == TokenTypes.LITERAL_THROW && ast != parentAST) {
+                    result[0] = ast;
+                }
             }
 
-            if (currentNode.getNextSibling() != null) {
-                currentNode = currentNode.getNextSibling();
+            @Override
+            public boolean isFinished()
+            {
+                return result[0] != null;
             }
-        }
-        return null;
+        }, TokenTypes.PARAMETER_DEF, TokenTypes.LITERAL_THROW);
+        return result[0];
     }
 
     /** Gets all the children one level below on the current top node.
      * @param node - current parent node.
      * @return an array of childs one level below
-     * on the current parent node aNode. */
+     * on the current parent node aNode.
+     * @deprecated the check no longer copies children, iterate over
+     * {@link DetailAST#getFirstChild()} and {@link DetailAST#getNextSibling()}.
+     */
+    @Deprecated
     public static DetailAST[] getChilds(DetailAST node)
     {
         final DetailAST[] result = new DetailAST[node.getChildCount()];
@@ -18,6 +18,7 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
+import com.github.sevntu.checkstyle.AstIndex;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -37,12 +38,23 @@ public class LogicConditionNeedOptimizationCheck extends Check
 {
     public static final String MSG_KEY = "logic.condition.need.optimization";
 
+    /**
+     * Index of the syntax tree is being processed.
+     */
+    private AstIndex astIndex;
+
     @Override
     public int[] getDefaultTokens()
     {
         return new int[] {TokenTypes.LAND, TokenTypes.LOR };
     }
 
+    @Override
+    public void beginTree(DetailAST rootAST)
+    {
+        astIndex = AstIndex.get(rootAST);
+    }
+
     @Override
     public void visitToken(DetailAST detailAST)
     {
@@ -61,12 +73,12 @@ public class LogicConditionNeedOptimizationCheck extends Check
      *        - current logic operator node
      * @return - boolean variable
      */
-    private static boolean needOptimization(DetailAST logicNode)
+    private boolean needOptimization(DetailAST logicNode)
     {
         final DetailAST firstOperand = logicNode.getFirstChild();
         final DetailAST secondOperand = getSecondOperand(logicNode);
-        return !secondOperand.branchContains(TokenTypes.METHOD_CALL)
-                && firstOperand.branchContains(TokenTypes.METHOD_CALL);
+        return !astIndex.branchContains(secondOperand, TokenTypes.METHOD_CALL)
+                && astIndex.branchContains(firstOperand, TokenTypes.METHOD_CALL);
     }
     /**
      * <p>
@@ -27,10 +27,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 
-import com.github.sevntu.checkstyle.Utils;
+import com.github.sevntu.checkstyle.ImportIndex;
+import com.github.sevntu.checkstyle.SymbolTable;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
-import com.puppycrawl.tools.checkstyle.api.FullIdent;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
 /**
@@ -183,12 +183,13 @@ public class MapIterationInForEachLoopCheck extends Check
     private static final String GET_KEY_NODE_NAME = "getKey";
 
     /**
-     * This list contains Map object's names.
+     * Variables which are visible at the current node, Map objects are
+     * searched among them.
      */
-    private List<String> mapNamesList = new ArrayList<String>();
+    private final SymbolTable symbolTable = new SymbolTable();
 
     /**
-     * This list contains all qualified imports.
+     * This list contains all qualified imports of supported map implementations.
      */
     private List<String> qualifiedImportList = new ArrayList<String>();
 
@@ -268,51 +269,43 @@ public class MapIterationInForEachLoopCheck extends Check
     @Override
     public int[] getDefaultTokens()
     {
-        return new int[] {TokenTypes.LITERAL_FOR, TokenTypes.IMPORT, TokenTypes.VARIABLE_DEF, };
+        return SymbolTable.getTokens(TokenTypes.LITERAL_FOR);
     }
 
     @Override
     public void beginTree(DetailAST ast)
     {
         qualifiedImportList.clear();
-        mapNamesList.clear();
+        symbolTable.clear();
+        final ImportIndex importIndex = ImportIndex.get(ast);
+        for (String qualifiedName : supportedMapImplQualifiedNames) {
+            if (isImported(importIndex, qualifiedName)) {
+                qualifiedImportList.add(qualifiedName);
+            }
+        }
     }
 
     @Override
     public void visitToken(DetailAST ast)
     {
-        switch (ast.getType()) {
-
-            case TokenTypes.IMPORT:
-                String qualifiedMapImportText = getMapImportQualifiedName(ast);
-                if (qualifiedMapImportText != null) {
-                    qualifiedImportList.add(qualifiedMapImportText);
-                }
-                break;
-
-            case TokenTypes.VARIABLE_DEF:
-                if (!qualifiedImportList.isEmpty() && isMapVariable(ast)) {
-                    DetailAST mapIdentNode = ast.findFirstToken(TokenTypes.TYPE).getNextSibling();
-                    String mapName = mapIdentNode.getText();
-                    //If Map name is contains into mMapNamesList, it doesn't need second inclusion
-                    if (!mapNamesList.contains(mapName)) {
-                        mapNamesList.add(mapIdentNode.getText());
-                    }
-                }
-                break;
-
-            case TokenTypes.LITERAL_FOR:
-                if (!qualifiedImportList.isEmpty() && isForEach(ast)) {
-                    final String warningMessageKey = validate(ast);
-                    if (warningMessageKey != null) {
-                        log(ast, warningMessageKey);
-                    }
+        // Without imports of map implementations there is nothing to look for,
+        // so scopes are not tracked at all
+        if (!qualifiedImportList.isEmpty()) {
+            symbolTable.visitToken(ast);
+            if (ast.getType() == TokenTypes.LITERAL_FOR && isForEach(ast)) {
+                final String warningMessageKey = validate(ast);
+                if (warningMessageKey != null) {
+                    log(ast, warningMessageKey);
                 }
-                break;
+            }
+        }
+    }
 
-            default:
-                Utils.reportInvalidToken(ast.getType());
-                break;
+    @Override
+    public void leaveToken(DetailAST ast)
+    {
+        if (!qualifiedImportList.isEmpty()) {
+            symbolTable.leaveToken(ast);
         }
     }
 
@@ -399,7 +392,7 @@ public class MapIterationInForEachLoopCheck extends Check
                 String mapClassName = isMapClassField
                         ? identNode.getPreviousSibling().getLastChild().getText()
                                 : identNode.getPreviousSibling().getText();
-                if (mapNamesList.contains(mapClassName)) {
+                if (isMap(mapClassName, isMapClassField)) {
                     keySetOrEntrySetNode = identNode;
                     break;
                 }
@@ -438,18 +431,38 @@ public class MapIterationInForEachLoopCheck extends Check
         boolean result = false;
         final List<DetailAST> identNodesList = getSubTreeNodesOfType(methodCallNode,
                 TokenTypes.IDENT);
-        for (String mapName : mapNamesList) {
-            for (DetailAST identNode : identNodesList) {
-                if (mapName.equals(identNode.getText())
-                        && identNode.getParent().getType() == TokenTypes.EXPR)
-                {
-                    result =  true;
-                }
+        for (DetailAST identNode : identNodesList) {
+            if (identNode.getParent().getType() == TokenTypes.EXPR
+                    && isMap(identNode.getText(), false))
+            {
+                result = true;
+                break;
             }
         }
         return result;
     }
 
+    /**
+     * Checks, is name visible at the current node declared as Map object.
+     * @param name
+     *        name of variable.
+     * @param isMapClassField
+     *        true, if name is referenced as "this.name".
+     * @return true, if visible declaration of name is Map object.
+     */
+    private boolean isMap(String name, boolean isMapClassField)
+    {
+        final DetailAST declaration;
+        if (isMapClassField) {
+            declaration = symbolTable.getFieldDeclaration(name);
+        }
+        else {
+            declaration = symbolTable.getDeclaration(name);
+        }
+        return declaration != null && declaration.getType() == TokenTypes.VARIABLE_DEF
+                && isMapVariable(declaration);
+    }
+
     /**
      * Searches for wrong ketSet() usage into for cycles.
      * @param forEachOpeningBraceNode
@@ -682,22 +695,24 @@ public class MapIterationInForEachLoopCheck extends Check
     }
 
     /**
-     * Returns full path of map implementation. If path doesn't
-     * contain full map implementation path, null will be returned.
-     * @param importNode
-     *        Import node.
-     * @return full path of map implementation or null.
+     * Checks, is map implementation or its package imported.
+     * @param importIndex
+     *        Imports of current file.
+     * @param qualifiedName
+     *        Full path of map implementation or its package followed by ".*".
+     * @return true, if file contains import with this text.
      */
-    private String getMapImportQualifiedName(DetailAST importNode)
+    private static boolean isImported(ImportIndex importIndex, String qualifiedName)
     {
-        final String mapClassQualifiedName = FullIdent.createFullIdent(
-                importNode.getFirstChild()).getText();
-        for (String qualifiedName : supportedMapImplQualifiedNames) {
-            if (mapClassQualifiedName.equals(qualifiedName)) {
-                return mapClassQualifiedName;
-            }
+        final boolean result;
+        if (qualifiedName.endsWith(".*")) {
+            result = importIndex.isOnDemandImported(
+                    qualifiedName.substring(0, qualifiedName.length() - 2));
         }
-        return null;
+        else {
+            result = importIndex.isImported(qualifiedName);
+        }
+        return result;
     }
 
     /**
@@ -18,13 +18,17 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.regex.Pattern;
 
-import com.google.common.collect.Lists;
+import com.github.sevntu.checkstyle.StringLiteralIndex;
 import com.google.common.collect.Maps;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -32,6 +36,16 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 
 /**
  * Checks for multiple occurrences of the same string literal within a single file.
+ * <p>
+ * If {@link #setCrossFileReport(String) crossFileReport} is set, the check also
+ * collects literals of all audited files into a {@link StringLiteralIndex} and
+ * after the audit writes literals which appear in several files more than
+ * allowedDuplicates times to the report file. While files are audited,
+ * literals are kept within {@link #setCrossFileHeapBudget(int)
+ * crossFileHeapBudget} megabytes of heap, the rest is spilled to temporary
+ * files. The report is built from one of 64 partitions of literals at a
+ * time, so it needs about 1/64 of all literals in heap.
+ * </p>
  * 
  * @author Daniel Grenner
  */
@@ -40,9 +54,71 @@ public class MultipleStringLiteralsExtendedCheck extends Check
 	public static final String MSG_KEY = "multiple.string.literal";
 	
 	/**
-	 * The found strings and their positions. <String, ArrayList>, with the ArrayList containing StringInfo objects.
+	 * Initial capacity of arrays with found strings and their positions.
 	 */
-	private final Map<String, List<StringInfo>> stringMap = Maps.newHashMap();
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * Count of partitions of the cross-file index.
+	 */
+	private static final int CROSS_FILE_PARTITIONS = 64;
+
+	/**
+	 * Count of bytes in megabyte.
+	 */
+	private static final long MEGABYTE = 1024 * 1024;
+
+	/**
+	 * The found strings and their numbers, positions of strings are kept in
+	 * arrays indexed by these numbers.
+	 */
+	private final Map<String, Integer> stringMap = Maps.newHashMap();
+
+	/**
+	 * Found strings by their numbers.
+	 */
+	private String[] strings = new String[INITIAL_CAPACITY];
+
+	/**
+	 * Count of occurrences of each found string.
+	 */
+	private int[] stringCounts = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Number of the first occurrence of each found string.
+	 */
+	private int[] firstOccurrences = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Number of the last occurrence of each found string.
+	 */
+	private int[] lastOccurrences = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Line of each occurrence.
+	 */
+	private int[] occurrenceLines = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Column of each occurrence.
+	 */
+	private int[] occurrenceColumns = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Number of the next occurrence of the same string, or -1.
+	 */
+	private int[] nextOccurrences = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Count of occurrences in the current file.
+	 */
+	private int occurrencesCount;
+
+	/**
+	 * Count of tokens from {@link #ignoreOccurrenceContext} which enclose the
+	 * current token.
+	 */
+	private int ignoredContextsDepth;
 
 	/**
 	 * Marks the TokenTypes where duplicate strings should be ignored.
@@ -59,6 +135,27 @@ public class MultipleStringLiteralsExtendedCheck extends Check
 	 */
 	private boolean highlightAllDuplicates = false;
 
+	/**
+	 * File of cross-file duplicates report, null if cross-file mode is off.
+	 */
+	private String crossFileReport;
+
+	/**
+	 * Heap budget of the cross-file index in megabytes.
+	 */
+	private int crossFileHeapBudget = 64;
+
+	/**
+	 * Literals of all audited files, created by the first file in cross-file
+	 * mode.
+	 */
+	private StringLiteralIndex crossFileIndex;
+
+	/**
+	 * Number of the current file in {@link #crossFileIndex}.
+	 */
+	private int crossFileNumber;
+
 	/**
 	 * Sets the maximum allowed duplicates of a string.
 	 * 
@@ -114,6 +211,29 @@ public class MultipleStringLiteralsExtendedCheck extends Check
 		this.highlightAllDuplicates = highlightAllDuplicates;
 	}
 
+	/**
+	 * Enables cross-file mode.
+	 * 
+	 * @param crossFileReport
+	 *            file which receives literals duplicated across files
+	 *            after the audit
+	 */
+	public void setCrossFileReport(String crossFileReport)
+	{
+		this.crossFileReport = crossFileReport;
+	}
+
+	/**
+	 * Sets heap budget of the cross-file index.
+	 * 
+	 * @param crossFileHeapBudget
+	 *            budget in megabytes
+	 */
+	public void setCrossFileHeapBudget(int crossFileHeapBudget)
+	{
+		this.crossFileHeapBudget = crossFileHeapBudget;
+	}
+
 	/**
 	 * Adds a set of tokens the check is interested in.
 	 * 
@@ -129,129 +249,233 @@ public class MultipleStringLiteralsExtendedCheck extends Check
 		}
 	}
 
+	/**
+	 * Returns string literals and tokens of ignored contexts, the latter are
+	 * visited to track whether the current literal is inside of them.
+	 * 
+	 * @return token types of string literals and ignored contexts
+	 */
 	@Override
 	public int[] getDefaultTokens()
 	{
-		return new int[] { TokenTypes.STRING_LITERAL };
+		final BitSet tokens = (BitSet) ignoreOccurrenceContext.clone();
+		tokens.set(TokenTypes.STRING_LITERAL);
+		return toTokenTypes(tokens);
+	}
+
+	/**
+	 * Returns tokens of ignored contexts, so that they are visited even if
+	 * tokens of the check are set explicitly.
+	 * 
+	 * @return token types of ignored contexts
+	 */
+	@Override
+	public int[] getRequiredTokens()
+	{
+		return toTokenTypes(ignoreOccurrenceContext);
+	}
+
+	/**
+	 * Lists token types which are set in a bit set.
+	 * 
+	 * @param tokens
+	 *            bit set of token types
+	 * @return token types in ascending order
+	 */
+	private static int[] toTokenTypes(BitSet tokens)
+	{
+		final int[] result = new int[tokens.cardinality()];
+		int index = 0;
+		for (int type = tokens.nextSetBit(0); type >= 0;
+				type = tokens.nextSetBit(type + 1))
+		{
+			result[index] = type;
+			index++;
+		}
+		return result;
 	}
 
 	@Override
 	public void visitToken(DetailAST ast)
 	{
-		if (isInIgnoreOccurrenceContext(ast)) {
-			return;
+		if (ast.getType() != TokenTypes.STRING_LITERAL) {
+			ignoredContextsDepth++;
 		}
-		final String currentString = ast.getText();
-		if ((pattern == null) || !pattern.matcher(currentString).find()) {
-			List<StringInfo> hitList = stringMap.get(currentString);
-			if (hitList == null) {
-				hitList = Lists.newArrayList();
-				stringMap.put(currentString, hitList);
+		else if (ignoredContextsDepth == 0) {
+			final String currentString = ast.getText();
+			if ((pattern == null) || !pattern.matcher(currentString).find()) {
+				addOccurrence(currentString, ast.getLineNo(), ast.getColumnNo());
 			}
-			final int line = ast.getLineNo();
-			final int col = ast.getColumnNo();
-			hitList.add(new StringInfo(line, col));
+		}
+	}
+
+	@Override
+	public void leaveToken(DetailAST ast)
+	{
+		if (ast.getType() != TokenTypes.STRING_LITERAL) {
+			ignoredContextsDepth--;
 		}
 	}
 
 	/**
-	 * Analyses the path from the AST root to a given AST for occurrences of the token types in
-	 * {@link #ignoreOccurrenceContext}.
+	 * Remembers position of a string.
 	 * 
-	 * @param ast
-	 *            the node from where to start searching towards the root node
-	 * @return whether the path from the root node to aAST contains one of the token type in
-	 *         {@link #ignoreOccurrenceContext}.
+	 * @param string
+	 *            the found string
+	 * @param line
+	 *            line of the string
+	 * @param col
+	 *            column of the string
 	 */
-	private boolean isInIgnoreOccurrenceContext(DetailAST ast)
+	private void addOccurrence(String string, int line, int col)
 	{
-		DetailAST token = ast.getParent();
-		while (token != null)
-		{
-			final int type = token.getType();
-			if (ignoreOccurrenceContext.get(type)) {
-				return true;
+		if (occurrencesCount == occurrenceLines.length) {
+			final int capacity = occurrencesCount * 2;
+			occurrenceLines = Arrays.copyOf(occurrenceLines, capacity);
+			occurrenceColumns = Arrays.copyOf(occurrenceColumns, capacity);
+			nextOccurrences = Arrays.copyOf(nextOccurrences, capacity);
+		}
+		final int occurrence = occurrencesCount;
+		occurrencesCount++;
+		occurrenceLines[occurrence] = line;
+		occurrenceColumns[occurrence] = col;
+		nextOccurrences[occurrence] = -1;
+
+		final Integer number = stringMap.get(string);
+		if (number == null) {
+			final int stringNumber = stringMap.size();
+			if (stringNumber == strings.length) {
+				final int capacity = stringNumber * 2;
+				strings = Arrays.copyOf(strings, capacity);
+				stringCounts = Arrays.copyOf(stringCounts, capacity);
+				firstOccurrences = Arrays.copyOf(firstOccurrences, capacity);
+				lastOccurrences = Arrays.copyOf(lastOccurrences, capacity);
 			}
-			token = token.getParent();
+			stringMap.put(string, stringNumber);
+			strings[stringNumber] = string;
+			stringCounts[stringNumber] = 1;
+			firstOccurrences[stringNumber] = occurrence;
+			lastOccurrences[stringNumber] = occurrence;
+		}
+		else {
+			stringCounts[number]++;
+			nextOccurrences[lastOccurrences[number]] = occurrence;
+			lastOccurrences[number] = occurrence;
 		}
-		return false;
 	}
 
 	@Override
 	public void beginTree(DetailAST rootAST)
 	{
 		super.beginTree(rootAST);
+		Arrays.fill(strings, 0, stringMap.size(), null);
 		stringMap.clear();
+		occurrencesCount = 0;
+		ignoredContextsDepth = 0;
+		if (crossFileReport != null) {
+			if (crossFileIndex == null) {
+				crossFileIndex = new StringLiteralIndex(CROSS_FILE_PARTITIONS,
+						crossFileHeapBudget * MEGABYTE, null);
+			}
+			crossFileNumber = crossFileIndex.addFile(getFileContents().getFilename());
+		}
 	}
 
 	@Override
 	public void finishTree(DetailAST rootAST)
 	{
-		final Set<String> keys = stringMap.keySet();
-		for (String key : keys) {
-			final List<StringInfo> hits = stringMap.get(key);
-			if (hits.size() > allowedDuplicates) {
-				int hitsSize = 1;
-				if (highlightAllDuplicates) {
-					hitsSize = hits.size();
-				}
-				for (int index = 0; index < hitsSize; index++) {
-					final StringInfo firstFinding = hits.get(index);
-					final int line = firstFinding.getLine();
-					final int col = firstFinding.getCol();
-					log(line, col,
-							MSG_KEY, key, hits.size());
+		for (int number = 0; number < stringMap.size(); number++) {
+			final int hitsCount = stringCounts[number];
+			if (hitsCount > allowedDuplicates) {
+				int occurrence = firstOccurrences[number];
+				do {
+					log(occurrenceLines[occurrence], occurrenceColumns[occurrence],
+							MSG_KEY, strings[number], hitsCount);
+					occurrence = nextOccurrences[occurrence];
 				}
+				while (highlightAllDuplicates && occurrence >= 0);
 			}
 		}
+		if (crossFileIndex != null) {
+			addToCrossFileIndex();
+		}
 	}
 
 	/**
-	 * This class contains information about where a string was found.
+	 * Writes the cross-file report.
 	 */
-	private static final class StringInfo
+	@Override
+	public void destroy()
 	{
-		/**
-		 * Line of finding
-		 */
-		private final int line;
-		/**
-		 * Column of finding
-		 */
-		private final int col;
-
-		/**
-		 * Creates information about a string position.
-		 * 
-		 * @param line
-		 *            int
-		 * @param col
-		 *            int
-		 */
-		private StringInfo(int line, int col)
-		{
-			this.line = line;
-			this.col = col;
+		if (crossFileIndex != null) {
+			try {
+				writeCrossFileReport();
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Can not write report to "
+						+ crossFileReport, ex);
+			}
+			finally {
+				crossFileIndex.close();
+				crossFileIndex = null;
+			}
 		}
+		super.destroy();
+	}
 
-		/**
-		 * The line where a string was found.
-		 * 
-		 * @return int Line of the string.
-		 */
-		private int getLine()
-		{
-			return line;
+	/**
+	 * Adds all strings of the current file to the cross-file index.
+	 */
+	private void addToCrossFileIndex()
+	{
+		try {
+			for (int number = 0; number < stringMap.size(); number++) {
+				int occurrence = firstOccurrences[number];
+				do {
+					crossFileIndex.add(strings[number], crossFileNumber,
+							occurrenceLines[occurrence], occurrenceColumns[occurrence]);
+					occurrence = nextOccurrences[occurrence];
+				}
+				while (occurrence >= 0);
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Can not spill string literals", ex);
 		}
+	}
 
-		/**
-		 * The column where a string was found.
-		 * 
-		 * @return int Column of the string.
-		 */
-		private int getCol()
+	/**
+	 * Writes strings which appear in several files more than
+	 * {@link #allowedDuplicates} times, each with all its positions.
+	 * 
+	 * @throws IOException
+	 *             if report can not be written
+	 */
+	private void writeCrossFileReport() throws IOException
+	{
+		try (final Writer writer = new OutputStreamWriter(
+				new FileOutputStream(new File(crossFileReport)), "UTF-8"))
 		{
-			return col;
+			final StringLiteralIndex index = crossFileIndex;
+			index.forEachLiteral(new StringLiteralIndex.LiteralHandler() {
+				@Override
+				public void handle(String literal,
+						StringLiteralIndex.Occurrences occurrences) throws IOException
+				{
+					if (occurrences.size() > allowedDuplicates
+							&& occurrences.getFilesCount() > 1)
+					{
+						writer.write("The String " + literal + " appears "
+								+ occurrences.size() + " times in "
+								+ occurrences.getFilesCount() + " files.\n");
+						for (int i = 0; i < occurrences.size(); i++) {
+							writer.write("\t" + index.getFileName(occurrences.getFileNumber(i))
+									+ ":" + occurrences.getLine(i) + ":"
+									+ (occurrences.getColumn(i) + 1) + "\n");
+						}
+					}
+				}
+			});
 		}
 	}
 
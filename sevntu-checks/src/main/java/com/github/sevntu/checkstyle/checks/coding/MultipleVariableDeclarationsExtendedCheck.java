@@ -19,10 +19,10 @@
 
 package com.github.sevntu.checkstyle.checks.coding;
 
+import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
-import com.puppycrawl.tools.checkstyle.checks.CheckUtils;
 
 /**
  * <p>
@@ -123,14 +123,14 @@ public class MultipleVariableDeclarationsExtendedCheck extends Check
 		if ((nextNode != null)
 				&& (nextNode.getType() == TokenTypes.VARIABLE_DEF))
 		{
-			final DetailAST firstNode = CheckUtils.getFirstNode(ast);
+			final DetailAST firstNode = getFirstNode(ast);
 			if (isCommaSeparated) {
 				log(firstNode, MSG_VAR_DECLARATIONS_COMMA);
 				return;
 			}
 
 			final DetailAST lastNode = getLastNode(ast);
-			final DetailAST firstNextNode = CheckUtils.getFirstNode(nextNode);
+			final DetailAST firstNextNode = getFirstNode(nextNode);
 
 			if (firstNextNode.getLineNo() == lastNode.getLineNo()) {
 				log(firstNode, MSG_VAR_DECLARATIONS);
@@ -160,6 +160,20 @@ public class MultipleVariableDeclarationsExtendedCheck extends Check
 
 	}
 
+	/**
+	 * Finds sub-node for given node minimum (line, column) pair.
+	 * 
+	 * @param node
+	 *            the root of tree for search.
+	 * @return sub-node with minimum (line, column) pair.
+	 */
+	private static DetailAST getFirstNode(final DetailAST node)
+	{
+		final NodeFinder finder = new NodeFinder(false);
+		Utils.walk(node, finder);
+		return finder.result;
+	}
+
 	/**
 	 * Finds sub-node for given node maximum (line, column) pair.
 	 * 
@@ -169,20 +183,50 @@ public class MultipleVariableDeclarationsExtendedCheck extends Check
 	 */
 	private static DetailAST getLastNode(final DetailAST node)
 	{
-		DetailAST currentNode = node;
-		DetailAST child = node.getFirstChild();
-		while (child != null) {
-			final DetailAST newNode = getLastNode(child);
-			if ((newNode.getLineNo() > currentNode.getLineNo())
-					|| ((newNode.getLineNo()
-						== currentNode.getLineNo()) && (newNode
-							.getColumnNo() > currentNode.getColumnNo())))
-			{
-				currentNode = newNode;
-			}
-			child = child.getNextSibling();
+		final NodeFinder finder = new NodeFinder(true);
+		Utils.walk(node, finder);
+		return finder.result;
+	}
+
+	/**
+	 * Finds the first walked node with minimum or maximum (line, column)
+	 * pair.
+	 */
+	private static final class NodeFinder extends Utils.AstVisitor
+	{
+		/** Whether maximum pair is searched. */
+		private final boolean last;
+
+		/** Found node. */
+		private DetailAST result;
+
+		/**
+		 * Creates finder.
+		 * 
+		 * @param last
+		 *            true to search for maximum pair, false for minimum.
+		 */
+		NodeFinder(boolean last)
+		{
+			this.last = last;
 		}
 
-		return currentNode;
+		@Override
+		public boolean visit(DetailAST ast)
+		{
+			if (result == null) {
+				result = ast;
+			}
+			else {
+				int compare = ast.getLineNo() - result.getLineNo();
+				if (compare == 0) {
+					compare = ast.getColumnNo() - result.getColumnNo();
+				}
+				if (last && compare > 0 || !last && compare < 0) {
+					result = ast;
+				}
+			}
+			return true;
+		}
 	}
-}
\ No newline at end of file
+}
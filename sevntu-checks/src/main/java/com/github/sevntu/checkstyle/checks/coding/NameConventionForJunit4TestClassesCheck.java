@@ -18,8 +18,7 @@
 
 package com.github.sevntu.checkstyle.checks.coding;
 
-import java.util.regex.Pattern;
-
+import com.github.sevntu.checkstyle.NameMatcher;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -124,8 +123,8 @@ public class NameConventionForJunit4TestClassesCheck extends Check
      * ".+Test\\d*|.+Tests\\d*|Test.+|Tests.+|.+IT|.+ITs|.+TestCase\\d*|.+TestCases\\d*".
      * </p>
      */
-    private Pattern expectedClassNameRegex =
-            Pattern.compile(".+Test\\d*|.+Tests\\d*|Test.+|Tests.+|.+IT|.+ITs|.+TestCase\\d*|.+TestCases\\d*");
+    private NameMatcher expectedClassNameRegex =
+            NameMatcher.compile(".+Test\\d*|.+Tests\\d*|Test.+|Tests.+|.+IT|.+ITs|.+TestCase\\d*|.+TestCases\\d*");
 
     /**
      * <p>
@@ -135,7 +134,7 @@ public class NameConventionForJunit4TestClassesCheck extends Check
      * By default this regex is empty.
      * </p>
      */
-    private Pattern classAnnotationNameRegex;
+    private NameMatcher classAnnotationNameRegex;
 
     /**
      * <p>
@@ -145,8 +144,8 @@ public class NameConventionForJunit4TestClassesCheck extends Check
      * Default value is "Test|org.junit.Test".
      * </p>
      */
-    private Pattern methodAnnotationNameRegex =
-            Pattern.compile("Test|org.junit.Test");
+    private NameMatcher methodAnnotationNameRegex =
+            NameMatcher.compile("Test|org.junit.Test");
 
     /**
      * Sets regexp to match 'expected' class names for JUnit tests.
@@ -156,7 +155,7 @@ public class NameConventionForJunit4TestClassesCheck extends Check
     public void setExpectedClassNameRegex(String expectedClassNameRegex)
     {
         if (expectedClassNameRegex != null && !expectedClassNameRegex.isEmpty()) {
-            this.expectedClassNameRegex = Pattern.compile(expectedClassNameRegex);
+            this.expectedClassNameRegex = NameMatcher.compile(expectedClassNameRegex);
         }
         else {
             this.expectedClassNameRegex = null;
@@ -171,7 +170,7 @@ public class NameConventionForJunit4TestClassesCheck extends Check
     public void setClassAnnotationNameRegex(String annotationNameRegex)
     {
         if (annotationNameRegex != null && !annotationNameRegex.isEmpty()) {
-            classAnnotationNameRegex = Pattern.compile(annotationNameRegex);
+            classAnnotationNameRegex = NameMatcher.compile(annotationNameRegex);
         }
         else {
             classAnnotationNameRegex = null;
@@ -186,7 +185,7 @@ public class NameConventionForJunit4TestClassesCheck extends Check
     public void setMethodAnnotationNameRegex(String annotationNameRegex)
     {
         if (annotationNameRegex != null && !annotationNameRegex.isEmpty()) {
-            methodAnnotationNameRegex = Pattern.compile(annotationNameRegex);
+            methodAnnotationNameRegex = NameMatcher.compile(annotationNameRegex);
         }
         else {
             methodAnnotationNameRegex = null;
@@ -267,7 +266,7 @@ public class NameConventionForJunit4TestClassesCheck extends Check
      * @return true, if the class or method contains one of the annotations,
      *         specified in the regexp
      */
-    private boolean hasAnnotation(DetailAST methodOrClassDefNode, Pattern annotationNamesRegexp)
+    private boolean hasAnnotation(DetailAST methodOrClassDefNode, NameMatcher annotationNamesRegexp)
     {
         DetailAST modifierNode =
                 methodOrClassDefNode.findFirstToken(TokenTypes.MODIFIERS).getFirstChild();
@@ -341,10 +340,10 @@ public class NameConventionForJunit4TestClassesCheck extends Check
      * @return false if regex is null, otherwise result of matching string
      *         against regex.
      */
-    private static boolean isMatchesRegex(Pattern regexPattern, String str)
+    private static boolean isMatchesRegex(NameMatcher regexPattern, String str)
     {
         if (regexPattern != null) {
-            return regexPattern.matcher(str).matches();
+            return regexPattern.matches(str);
         }
         else {
             return false;
@@ -18,10 +18,18 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import com.github.sevntu.checkstyle.AstIndex;
 import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -83,10 +91,27 @@ public class NoNullForCollectionReturnCheck extends Check
 
     /**
      * <p>
-     * List of the method definition tokens, that returns collection.
+     * Set of the method definition tokens, that returns collection.
      * </p>
      */
-    private LinkedList<DetailAST> methodDefs = new LinkedList<DetailAST>();
+    private Set<DetailAST> methodDefs =
+            Collections.newSetFromMap(new IdentityHashMap<DetailAST, Boolean>());
+
+    /**
+     * <p>
+     * Variables of the method bodies, which are built once per method on the
+     * first return of variable.
+     * </p>
+     */
+    private Map<DetailAST, MethodVariables> methodVariables =
+            new IdentityHashMap<DetailAST, MethodVariables>();
+
+    /**
+     * <p>
+     * Index of the syntax tree is being processed.
+     * </p>
+     */
+    private AstIndex astIndex;
 
     public NoNullForCollectionReturnCheck()
     {
@@ -132,6 +157,8 @@ public class NoNullForCollectionReturnCheck extends Check
     public void beginTree(DetailAST rootAST)
     {
         methodDefs.clear();
+        methodVariables.clear();
+        astIndex = AstIndex.get(rootAST);
     }
 
     @Override
@@ -142,7 +169,7 @@ public class NoNullForCollectionReturnCheck extends Check
             case TokenTypes.METHOD_DEF:
                 if (isReturnCollection(detailAST))
                 {
-                    methodDefs.push(detailAST);
+                    methodDefs.add(detailAST);
                 }
                 break;
 
@@ -214,7 +241,7 @@ public class NoNullForCollectionReturnCheck extends Check
      *        - DetailAST contains LITERAL_RETURN
      * @return true, when variable may be null.
      */
-    private static boolean isReturnedValueBeNull(DetailAST returnLit)
+    private boolean isReturnedValueBeNull(DetailAST returnLit)
     {
         boolean result = false;
         DetailAST returnedExpression = returnLit.getFirstChild();
@@ -223,37 +250,14 @@ public class NoNullForCollectionReturnCheck extends Check
             DetailAST variable = returnedExpression.findFirstToken(TokenTypes.IDENT);
             if (variable != null)
             {
-                String variableName = variable.getText();
                 DetailAST methodDef = getMethodDef(returnLit);
-                LinkedList<DetailAST> subblocks = getAllSubblocks(methodDef);
-                subblocks.addFirst(methodDef);
-
-                result = hasNullInDefinition(subblocks, variableName);
-
-                //searching for not a null value into variable assignment
-                if (result)
+                MethodVariables variables = methodVariables.get(methodDef);
+                if (variables == null)
                 {
-                    for (DetailAST subblock : subblocks)
-                    {
-                        List<DetailAST> expressions =
-                                getChildren(getBlockBody(subblock), TokenTypes.EXPR);
-                        for (DetailAST expression : expressions)
-                        {
-                            DetailAST assign = expression.findFirstToken(TokenTypes.ASSIGN);
-                            if (assign != null
-                                    && variableName.equals(assign.findFirstToken(TokenTypes.IDENT).getText()) 
-                                        && !assign.branchContains(TokenTypes.LITERAL_NULL))
-                            {
-                                result = false;
-                                break;
-                            }
-                        }
-                        if (!result)
-                        {
-                            break;
-                        }
-                    }
+                    variables = new MethodVariables(methodDef);
+                    methodVariables.put(methodDef, variables);
                 }
+                result = variables.isNullable(variable.getText());
             }
         }
         return result;
@@ -261,119 +265,90 @@ public class NoNullForCollectionReturnCheck extends Check
 
     /**
      * <p>
-     * Return all the nested subblocks in block.
+     * Appends all the nested subblocks in block: at first the direct subblocks
+     * of the block, then the subblocks of each of them, in the same order.
+     * Nesting is kept in an explicit stack of ranges of not expanded
+     * subblocks.
      * </p>
      * @param blockDef
      *        - node of the block.
-     * @return all the nested subblocks in block.
+     * @param subblocks
+     *        - receiver of the subblocks.
      */
-    private static LinkedList<DetailAST> getAllSubblocks(DetailAST blockDef)
+    private void addAllSubblocks(DetailAST blockDef, List<DetailAST> subblocks)
     {
-        DetailAST blockBody = getBlockBody(blockDef);
-        LinkedList<DetailAST> subblocks = new LinkedList<DetailAST>();
-        subblocks.addAll(getChildren(blockBody, TokenTypes.LITERAL_IF));
-        List<DetailAST> elseBlocks = new LinkedList<DetailAST>();
-        for (DetailAST currentIf : subblocks)
+        final Deque<int[]> notExpanded = new ArrayDeque<int[]>();
+        int first = subblocks.size();
+        addDirectSubblocks(blockDef, subblocks);
+        notExpanded.push(new int[] {first, subblocks.size()});
+        while (!notExpanded.isEmpty())
         {
-            if (currentIf.getChildCount(TokenTypes.LITERAL_ELSE) > 0)
+            final int[] range = notExpanded.peek();
+            if (range[0] == range[1])
             {
-                elseBlocks.add(currentIf.findFirstToken(TokenTypes.LITERAL_ELSE));
+                notExpanded.pop();
             }
-        }
-        if (!elseBlocks.isEmpty())
-        {
-            subblocks.addAll(elseBlocks);
-        }
-        subblocks.addAll(getChildren(blockBody, TokenTypes.LITERAL_WHILE));
-        subblocks.addAll(getChildren(blockBody, TokenTypes.LITERAL_DO));
-        subblocks.addAll(getChildren(blockBody, TokenTypes.LITERAL_FOR));
-        subblocks.addAll(getChildren(blockBody, TokenTypes.LITERAL_TRY));
-        List<DetailAST> nestedSubblocks = new LinkedList<DetailAST>();
-        for (DetailAST currentSubblock : subblocks)
-        {
-            if (currentSubblock.branchContains(TokenTypes.SLIST))
+            else
             {
-                nestedSubblocks.addAll(getAllSubblocks(currentSubblock));
+                DetailAST currentSubblock = subblocks.get(range[0]);
+                range[0]++;
+                if (astIndex.branchContains(currentSubblock, TokenTypes.SLIST))
+                {
+                    first = subblocks.size();
+                    addDirectSubblocks(currentSubblock, subblocks);
+                    notExpanded.push(new int[] {first, subblocks.size()});
+                }
             }
         }
-        subblocks.addAll(nestedSubblocks);
-        return subblocks;
     }
 
     /**
      * <p>
-     * Return true when variable is null into the variable definition.
+     * Appends the ifs, elses, whiles, dos, fors and tries of the block body.
      * </p>
-     * @param subBlocks
-     *        - list contains subblocks.
-     * @param variableName
-     *        - name of returned variable.
-     * @return true when variable is null into the variable definition.
+     * @param blockDef
+     *        - node of the block.
+     * @param subblocks
+     *        - receiver of the subblocks.
      */
-    private static boolean hasNullInDefinition(List<DetailAST> subBlocks, String variableName)
+    private static void addDirectSubblocks(DetailAST blockDef, List<DetailAST> subblocks)
     {
-        boolean result = false;
-        for (DetailAST subblock : subBlocks)
+        DetailAST blockBody = getBlockBody(blockDef);
+        addChildren(blockBody, TokenTypes.LITERAL_IF, subblocks);
+        for (DetailAST currentIf = blockBody.findFirstToken(TokenTypes.LITERAL_IF);
+                currentIf != null;
+                currentIf = Utils.getNextSibling(currentIf, TokenTypes.LITERAL_IF))
         {
-            List<DetailAST> variableDefs =
-                    getChildren(getBlockBody(subblock), TokenTypes.VARIABLE_DEF);
-            boolean isFinded = false;
-            for (DetailAST currentDef : variableDefs)
-            {
-                DetailAST variable = currentDef.findFirstToken(TokenTypes.IDENT);
-
-                if (variableName.equals(variable.getText()))
-                {
-                    DetailAST variableDef = currentDef;
-                    DetailAST variableValue = variableDef.findFirstToken(TokenTypes.ASSIGN);
-                    if (variableValue != null)
-                    {
-                        variableValue = variableValue.findFirstToken(TokenTypes.EXPR);
-                        result = variableValue.getFirstChild().getType() == TokenTypes.LITERAL_NULL;
-                    }
-                    else
-                    {
-                        result = true;
-                    }
-                    isFinded = true;
-                    break;
-                }
-            }
-            if (isFinded)
+            DetailAST elseBlock = currentIf.findFirstToken(TokenTypes.LITERAL_ELSE);
+            if (elseBlock != null)
             {
-                break;
+                subblocks.add(elseBlock);
             }
         }
-        return result;
+        addChildren(blockBody, TokenTypes.LITERAL_WHILE, subblocks);
+        addChildren(blockBody, TokenTypes.LITERAL_DO, subblocks);
+        addChildren(blockBody, TokenTypes.LITERAL_FOR, subblocks);
+        addChildren(blockBody, TokenTypes.LITERAL_TRY, subblocks);
     }
 
     /**
      * <p>
-     * Returns all children of that have the specified type.
+     * Appends all children of root that have the specified type.
      * </p>
      * @param root
      *        - root token of a block
      * @param type
      *        - type of children
-     * @return all children of that have the specified type.
+     * @param children
+     *        - receiver of the children.
      */
-    private static List<DetailAST> getChildren(DetailAST root, int type)
+    private static void addChildren(DetailAST root, int type, List<DetailAST> children)
     {
-        List<DetailAST> children = new LinkedList<DetailAST>();
-        DetailAST currentChild = root.findFirstToken(type);
-        if (currentChild != null)
-        {
-            children.add(currentChild);
-        }
-        while (children.size() < root.getChildCount(type))
+        for (DetailAST child = root.findFirstToken(type); child != null;
+                child = Utils.getNextSibling(child, type))
         {
-            currentChild = currentChild.getNextSibling();
-            if (currentChild.getType() == type)
-            {
-                children.add(currentChild);
-            }
+            children.add(child);
         }
-        return children;
     }
 
     /**
@@ -411,4 +386,120 @@ public class NoNullForCollectionReturnCheck extends Check
         }
         return blockBody;
     }
+
+    /**
+     * <p>
+     * Definitions and assignments of variables in the method body and its
+     * subblocks.
+     * </p>
+     */
+    private final class MethodVariables
+    {
+        /**
+         * <p>
+         * Whether the variable is null in its definition, for the first
+         * definition of each variable name.
+         * </p>
+         */
+        private final Map<String, Boolean> nullDefinitions = new HashMap<String, Boolean>();
+
+        /**
+         * <p>
+         * Names of variables, which are assigned a value without null literal.
+         * </p>
+         */
+        private final Set<String> notNullAssignments = new HashSet<String>();
+
+        /**
+         * <p>
+         * Collects variables of the method.
+         * </p>
+         * @param methodDef
+         *        - DetailAST contains method definition node.
+         */
+        MethodVariables(DetailAST methodDef)
+        {
+            List<DetailAST> subblocks = new ArrayList<DetailAST>();
+            subblocks.add(methodDef);
+            addAllSubblocks(methodDef, subblocks);
+            for (DetailAST subblock : subblocks)
+            {
+                DetailAST blockBody = getBlockBody(subblock);
+                for (DetailAST currentDef = blockBody.findFirstToken(TokenTypes.VARIABLE_DEF);
+                        currentDef != null;
+                        currentDef = Utils.getNextSibling(currentDef, TokenTypes.VARIABLE_DEF))
+                {
+                    addDefinition(currentDef);
+                }
+                for (DetailAST expression = blockBody.findFirstToken(TokenTypes.EXPR);
+                        expression != null;
+                        expression = Utils.getNextSibling(expression, TokenTypes.EXPR))
+                {
+                    addAssignment(expression);
+                }
+            }
+        }
+
+        /**
+         * <p>
+         * Returns true, when variable is null in definition and is never
+         * assigned a value without null literal.
+         * </p>
+         * @param variableName
+         *        - name of returned variable.
+         * @return true, when variable may be null.
+         */
+        public boolean isNullable(String variableName)
+        {
+            return Boolean.TRUE.equals(nullDefinitions.get(variableName))
+                    && !notNullAssignments.contains(variableName);
+        }
+
+        /**
+         * <p>
+         * Remembers whether variable is null into the variable definition,
+         * only the first definition of the name is taken into account.
+         * </p>
+         * @param variableDef
+         *        - VARIABLE_DEF node.
+         */
+        private void addDefinition(DetailAST variableDef)
+        {
+            String variableName = variableDef.findFirstToken(TokenTypes.IDENT).getText();
+            if (!nullDefinitions.containsKey(variableName))
+            {
+                DetailAST variableValue = variableDef.findFirstToken(TokenTypes.ASSIGN);
+                boolean isNull = true;
+                if (variableValue != null)
+                {
+                    // array initializer has no expression
+                    variableValue = variableValue.findFirstToken(TokenTypes.EXPR);
+                    isNull = variableValue != null
+                            && variableValue.getFirstChild().getType() == TokenTypes.LITERAL_NULL;
+                }
+                nullDefinitions.put(variableName, isNull);
+            }
+        }
+
+        /**
+         * <p>
+         * Remembers variable, which is assigned a value without null literal.
+         * </p>
+         * @param expression
+         *        - EXPR node.
+         */
+        private void addAssignment(DetailAST expression)
+        {
+            DetailAST assign = expression.findFirstToken(TokenTypes.ASSIGN);
+            if (assign != null)
+            {
+                DetailAST variable = assign.findFirstToken(TokenTypes.IDENT);
+                if (variable != null
+                        && !astIndex.branchContains(assign, TokenTypes.LITERAL_NULL))
+                {
+                    notNullAssignments.add(variable.getText());
+                }
+            }
+        }
+    }
 }
@@ -19,10 +19,26 @@
 
 package com.github.sevntu.checkstyle.checks.coding;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.commons.beanutils.ConversionException;
+
+import com.github.sevntu.checkstyle.AstIndex;
+import com.github.sevntu.checkstyle.ClassHierarchyIndex;
+import com.github.sevntu.checkstyle.ClassHierarchyIndex.MethodSummary;
+import com.github.sevntu.checkstyle.ImportIndex;
 import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -119,6 +135,12 @@ import com.puppycrawl.tools.checkstyle.api.TokenTypes;
  * <li>InnerClass.this.methodName();</li>
  * <li>and so on, using a similar hierarchy</li>
  * </p>
+ * <p>
+ * By default base classes are searched in the same file only. To find base
+ * classes declared in other files, build class hierarchy index of the project
+ * with {@link ClassHierarchyIndex} and set its file with classHierarchyIndex
+ * property.
+ * </p>
  *<br>
  *
  * @author <a href="mailto:Daniil.Yaroslavtsev@gmail.com"> Daniil
@@ -160,20 +182,64 @@ public class OverridableMethodInConstructorCheck extends Check
     private static final String KEY_READ_OBJECT = "'readObject()' method";
 
     /**
-     * A list contains all METHOD_CALL DetailAST nodes that have been already
-     * visited by check.
-     * */
-    private final List<DetailAST> visitedMethodCalls = new LinkedList<DetailAST>();
+     * Call graph memo: maps every private or final METHOD_DEF whose calls
+     * were already analyzed to the name of the first overridable method
+     * which is reachable from its body, or to null if there is no such one.
+     */
+    private final Map<DetailAST, String> reachedOverridables =
+            new HashMap<DetailAST, String>();
 
     /**
-     * A current MethodDef AST is being processed by check.
-     * */
-    private DetailAST curMethodDef;
+     * Depth-first search indexes of METHOD_DEF nodes in the call graph.
+     */
+    private final Map<DetailAST, Integer> callGraphIndexes =
+            new HashMap<DetailAST, Integer>();
 
     /**
-     * A current root of the synthax tree is being processed.
-     * */
-    private DetailAST treeRootAST;
+     * Smallest depth-first search index which is reachable from METHOD_DEF
+     * node through the nodes of the current search path.
+     */
+    private final Map<DetailAST, Integer> callGraphLowLinks =
+            new HashMap<DetailAST, Integer>();
+
+    /**
+     * METHOD_DEF nodes which are analyzed but whose strongly connected
+     * component of the call graph is not completed yet.
+     */
+    private final Deque<DetailAST> callGraphStack = new ArrayDeque<DetailAST>();
+
+    /**
+     * Same nodes as in {@link #callGraphStack}, for constant time lookups.
+     */
+    private final Set<DetailAST> callGraphStackSet = new HashSet<DetailAST>();
+
+    /**
+     * Method definitions of every class which was already indexed, grouped
+     * by method name.
+     */
+    private final Map<DetailAST, Map<String, List<MethodDefinition>>> classMethods =
+            new HashMap<DetailAST, Map<String, List<MethodDefinition>>>();
+
+    /**
+     * Base classes of every class which were already looked up.
+     */
+    private final Map<DetailAST, List<DetailAST>> baseClasses =
+            new HashMap<DetailAST, List<DetailAST>>();
+
+    /**
+     * First CLASS_DEF node of the file for each class name.
+     */
+    private final Map<String, DetailAST> classDefsByName = new HashMap<String, DetailAST>();
+
+    /**
+     * Index of the synthax tree is being processed.
+     */
+    private AstIndex astIndex;
+
+    /**
+     * Package and imports of the file is being processed.
+     */
+    private ImportIndex importIndex;
 
     /**
      * A boolean check box that enables the searching of calls to overridable
@@ -196,14 +262,10 @@ public class OverridableMethodInConstructorCheck extends Check
     private boolean matchMethodsByArgCount;
 
     /**
-     * The name of current overridable method is being processed.
+     * Project-wide index of classes which is used to find base classes
+     * declared in other files, null if only the current file is searched.
      */
-    private String curOverridableMetName;
-
-    /**
-     * Method definitions counter for class is currently being processed.
-     */
-    private int curMethodDefCount;
+    private ClassHierarchyIndex classHierarchyIndex;
 
     /**
      * Enable|Disable searching of calls to overridable methods from body of any
@@ -231,6 +293,24 @@ public class OverridableMethodInConstructorCheck extends Check
         matchMethodsByArgCount = value;
     }
 
+    /**
+     * Sets file of class hierarchy index which is used to find base classes
+     * declared in other files.
+     *
+     * @param fileName
+     *            Index file written by {@link ClassHierarchyIndex.Builder}.
+     */
+    public void setClassHierarchyIndex(final String fileName)
+    {
+        try {
+            classHierarchyIndex = ClassHierarchyIndex.load(new File(fileName));
+        }
+        catch (IOException ex) {
+            throw new ConversionException("Unable to load class hierarchy index "
+                    + fileName, ex);
+        }
+    }
+
     /**
      * Enable|Disable searching of calls to overridable methods from body of any
      * readObject() method is implemented from Serializable interface.
@@ -254,7 +334,20 @@ public class OverridableMethodInConstructorCheck extends Check
     @Override
     public void beginTree(DetailAST rootAST)
     {
-        treeRootAST = rootAST;
+        astIndex = AstIndex.get(rootAST);
+        importIndex = ImportIndex.get(rootAST);
+        reachedOverridables.clear();
+        callGraphIndexes.clear();
+        callGraphLowLinks.clear();
+        classMethods.clear();
+        baseClasses.clear();
+        classDefsByName.clear();
+        for (DetailAST classDef : astIndex.getTokens(TokenTypes.CLASS_DEF)) {
+            final String className = classDef.findFirstToken(TokenTypes.IDENT).getText();
+            if (!classDefsByName.containsKey(className)) {
+                classDefsByName.put(className, classDef);
+            }
+        }
     }
 
     @Override
@@ -315,10 +408,8 @@ public class OverridableMethodInConstructorCheck extends Check
             getOverridables(detailAST);
 
         for (OverridableMetCall om : methodCallsToWarnList) {
-            final DetailAST methodDef = getMethodDef(om.metCallAST);
-            if (hasModifier(methodDef, TokenTypes.LITERAL_PRIVATE)
-                    || hasModifier(methodDef, TokenTypes.FINAL))
-            {
+            final MethodDefinition methodDef = getMethodDef(om.metCallAST);
+            if (methodDef.privateOrFinal) {
                 log(om.metCallAST, MSG_KEY_LEADS, getMethodName(om.metCallAST),
                         key, om.overridableMetName);
             } else {
@@ -348,15 +439,16 @@ public class OverridableMethodInConstructorCheck extends Check
         final List<DetailAST> methodCallsList = getMethodCallsList(parentAST);
 
         for (DetailAST curNode : methodCallsList) {
-            visitedMethodCalls.clear();
-            final DetailAST methodDef = getMethodDef(curNode);
+            final MethodDefinition methodDef = getMethodDef(curNode);
             if (methodDef != null
-                    && getMethodParamsCount(curNode)
-                        == getMethodParamsCount(methodDef)
-                    && isOverridableMethodCall(curNode))
+                    && getMethodParamsCount(curNode) == methodDef.paramsCount)
             {
-                result.add(new OverridableMetCall(curNode,
-                        curOverridableMetName));
+                final String overridableMetName =
+                        getOverridableMethodName(curNode, methodDef);
+                if (overridableMetName != null) {
+                    result.add(new OverridableMetCall(curNode,
+                            overridableMetName));
+                }
             }
         }
         return result;
@@ -364,60 +456,165 @@ public class OverridableMethodInConstructorCheck extends Check
 
     /**
      * Checks that current processed METHOD_CALL DetailAST is pointing to
-     * overridable method call.
+     * overridable method call, directly or through the chain of private and
+     * final methods.
      *
      * @param methodCallAST
      *            A METHOD_CALL DetailAST is currently being processed.
-     * @return true if current processed METHOD_CALL node is pointing to the
-     *         overridable method call and false otherwise.
+     * @param methodDef
+     *            The method definition which is called by methodCallAST.
+     * @return the name of overridable method which is called or null if
+     *         current processed METHOD_CALL node doesn't lead to the
+     *         overridable method call.
      */
-    private boolean isOverridableMethodCall(final DetailAST methodCallAST)
+    private String getOverridableMethodName(final DetailAST methodCallAST,
+            final MethodDefinition methodDef)
     {
+        String result = null;
+        if (!methodDef.isStatic) {
+            if (methodDef.privateOrFinal) {
+                // bodies of methods from other files are not analyzed
+                if (methodDef.methodDefAST != null) {
+                    if (!callGraphIndexes.containsKey(methodDef.methodDefAST)) {
+                        analyzeCalls(methodDef.methodDefAST);
+                    }
+                    result = reachedOverridables.get(methodDef.methodDefAST);
+                }
+            }
+            else {
+                result = getMethodName(methodCallAST);
+            }
+        }
+        return result;
+    }
 
-        boolean result = false;
-        visitedMethodCalls.add(methodCallAST);
-
-        final String methodName = getMethodName(methodCallAST);
+    /**
+     * Analyzes calls of private or final method and memoizes the name of the
+     * first overridable method which is reachable from its body. Methods
+     * which call each other are handled as strongly connected components of
+     * the call graph (Tarjan's algorithm), so every method of the file is
+     * analyzed once and mutual recursion neither loops nor hides overridable
+     * calls which are reachable from the cycle. The search keeps its path in
+     * explicit stack of frames instead of the call stack, so long chains of
+     * private methods can't overflow it.
+     *
+     * @param methodDef
+     *            A private or final METHOD_DEF node which is not analyzed yet.
+     */
+    private void analyzeCalls(final DetailAST methodDef)
+    {
+        final Deque<CallGraphFrame> frames = new ArrayDeque<CallGraphFrame>();
+        frames.push(openCallGraphFrame(methodDef));
+        while (!frames.isEmpty()) {
+            final CallGraphFrame frame = frames.peek();
+            if (frame.callee != null) {
+                // search returned from the callee
+                frame.lowLink = Math.min(frame.lowLink, callGraphLowLinks.get(frame.callee));
+                frame.result = reachedOverridables.get(frame.callee);
+                frame.callee = null;
+            }
+            final DetailAST calleeDef = getNextCalleeDef(frame);
+            if (calleeDef != null) {
+                frame.callee = calleeDef;
+                frames.push(openCallGraphFrame(calleeDef));
+            }
+            else {
+                frames.pop();
+                closeCallGraphFrame(frame);
+            }
+        }
+    }
 
-        if (methodName != null) {
-            final DetailAST methodDef = getMethodDef(methodCallAST);
-            if (methodDef != null) {
+    /**
+     * Starts analysis of private or final method.
+     *
+     * @param methodDef
+     *            A private or final METHOD_DEF node which is not analyzed yet.
+     * @return search frame of the method.
+     */
+    private CallGraphFrame openCallGraphFrame(final DetailAST methodDef)
+    {
+        final int index = callGraphIndexes.size();
+        callGraphIndexes.put(methodDef, index);
+        callGraphStack.push(methodDef);
+        callGraphStackSet.add(methodDef);
+        return new CallGraphFrame(methodDef, index, getMethodCallsList(methodDef));
+    }
 
-                if (hasModifier(methodDef, TokenTypes.LITERAL_STATIC)) {
-                    // do nothing
-                }
-                else if (hasModifier(methodDef, TokenTypes.LITERAL_PRIVATE)
-                        || hasModifier(methodDef, TokenTypes.FINAL))
-                {
-                    final List<DetailAST> methodCallsList = getMethodCallsList(
-                            methodDef);
-                    for (DetailAST curNode : methodCallsList) {
-                        if (visitedMethodCalls.contains(curNode)) {
-                            result = false;
-                            break;
-                        }
-                        else if (isOverridableMethodCall(curNode)) {
-                            result = true;
-                            break;
-                        }
-                    }
+    /**
+     * Advances the frame over calls of its method till the call of private
+     * or final method which is not analyzed yet, or till the call which
+     * reaches overridable method.
+     *
+     * @param frame
+     *            Search frame of the method.
+     * @return METHOD_DEF node of the method which should be analyzed before
+     *         the rest of calls, or null if all calls are processed.
+     */
+    private DetailAST getNextCalleeDef(final CallGraphFrame frame)
+    {
+        DetailAST result = null;
+        while (result == null && frame.result == null
+                && frame.cursor < frame.methodCalls.size())
+        {
+            final DetailAST methodCall = frame.methodCalls.get(frame.cursor);
+            frame.cursor++;
+            final MethodDefinition callee = getMethodDef(methodCall);
+            if (callee == null || callee.isStatic) {
+                continue;
+            }
+            if (!callee.privateOrFinal) {
+                frame.result = getMethodName(methodCall);
+            }
+            else if (callee.methodDefAST != null) {
+                if (!callGraphIndexes.containsKey(callee.methodDefAST)) {
+                    result = callee.methodDefAST;
                 }
                 else {
-                    curOverridableMetName = methodName;
-                    result = true;
+                    if (callGraphStackSet.contains(callee.methodDefAST)) {
+                        frame.lowLink = Math.min(frame.lowLink,
+                                callGraphIndexes.get(callee.methodDefAST));
+                    }
+                    frame.result = reachedOverridables.get(callee.methodDefAST);
                 }
             }
         }
-        else
-        {
-            result = false;
-        }
         return result;
     }
 
-   /**
+    /**
+     * Completes analysis of private or final method, and of the whole
+     * strongly connected component if the method is its root.
+     *
+     * @param frame
+     *            Search frame of the method whose calls are all processed.
+     */
+    private void closeCallGraphFrame(final CallGraphFrame frame)
+    {
+        callGraphLowLinks.put(frame.methodDef, frame.lowLink);
+        if (frame.result != null) {
+            reachedOverridables.put(frame.methodDef, frame.result);
+        }
+
+        if (frame.lowLink == frame.index) {
+            // all methods of the component reach each other, so they reach
+            // the same overridable methods
+            DetailAST member;
+            do {
+                member = callGraphStack.pop();
+                callGraphStackSet.remove(member);
+                if (reachedOverridables.get(member) == null) {
+                    reachedOverridables.put(member, frame.result);
+                }
+            }
+            while (member != frame.methodDef);
+        }
+    }
+
+    /**
      * Gets all METHOD_CALL nodes which are below on the current parent
-     * METHOD_DEF or CTOR_DEF node.
+     * METHOD_DEF or CTOR_DEF node. Nested method calls (e.g. calls in
+     * arguments of other calls) are not included.
      *
      * @param parentAST
      *            The current parent METHOD_DEF or CTOR_DEF node.
@@ -426,20 +623,7 @@ public class OverridableMethodInConstructorCheck extends Check
      */
     private List<DetailAST> getMethodCallsList(final DetailAST parentAST)
     {
-
-        final List<DetailAST> result = new LinkedList<DetailAST>();
-
-        for (DetailAST curNode : getChildren(parentAST)) {
-            if (curNode.getNumberOfChildren() > 0) {
-                if (curNode.getType() == TokenTypes.METHOD_CALL) {
-                    result.add(curNode);
-                }
-                else {
-                    result.addAll(getMethodCallsList(curNode));
-                }
-            }
-        }
-        return result;
+        return astIndex.findDescendants(parentAST, TokenTypes.METHOD_CALL, true);
     }
 
     /**
@@ -479,8 +663,7 @@ public class OverridableMethodInConstructorCheck extends Check
                     final String curClassName = getClassDef(methodCallAST)
                             .findFirstToken(TokenTypes.IDENT).getText();
                     if (firstChild.getText().equals(curClassName)
-                            || getClassDef(treeRootAST,
-                                    firstChild.getText()) != null)
+                            || classDefsByName.containsKey(firstChild.getText()))
                     {
                         result = lastChild.getText();
                     }
@@ -495,17 +678,13 @@ public class OverridableMethodInConstructorCheck extends Check
      * DetailAST node. If method definition doesn't find, will returned null.
      * @param methodCallAST
      *            A METHOD_CALL DetailAST node is currently being processed.
-     * @return the METHOD_DEF DetailAST node is pointing to the method
-     *         definition which is related to the current METHOD_CALL DetailAST
-     *         node.
+     * @return the method definition which is related to the current
+     *         METHOD_CALL DetailAST node.
      */
-    private DetailAST getMethodDef(final DetailAST methodCallAST)
+    private MethodDefinition getMethodDef(final DetailAST methodCallAST)
     {
 
-        DetailAST result = null;
-
-        curMethodDef = null;
-        curMethodDefCount = 0;
+        MethodDefinition result = null;
 
         final String methodName = getMethodName(methodCallAST);
         if (methodName != null) {
@@ -513,54 +692,43 @@ public class OverridableMethodInConstructorCheck extends Check
             final DetailAST curClassAST = getClassDef(methodCallAST);
             final DetailAST callsChild = methodCallAST.getFirstChild();
             String variableTypeName;
+            List<MethodDefinition> definitions = Collections.emptyList();
 
             if (callsChild.getType() != TokenTypes.DOT ||
                     (variableTypeName = getVariableType(methodCallAST)) == null
                     || (isItTypeOfCurrentClass(variableTypeName, curClassAST) ||
                     isItCallMethodViaKeywordThis(variableTypeName, curClassAST)))
             {
-                getMethodDef(curClassAST, methodName);
+                definitions = getMethodDefs(curClassAST, methodName);
             }
 
-            if (curMethodDefCount == 0) {
-
-                final List<DetailAST> baseClasses = getBaseClasses(curClassAST);
-
-                for (DetailAST curBaseClass : baseClasses) {
-                    curMethodDef = null;
-                    curMethodDefCount = 0;
-                    getMethodDef(curBaseClass, methodName);
-                    if (curMethodDefCount == 1) {
-                        result = curMethodDef;
+            if (definitions.isEmpty()) {
+                for (DetailAST curBaseClass : getBaseClasses(curClassAST)) {
+                    final List<MethodDefinition> baseDefinitions =
+                            getMethodDefs(curBaseClass, methodName);
+                    if (baseDefinitions.size() == 1) {
+                        result = baseDefinitions.get(0);
                         break;
                     }
                 }
+                if (result == null && classHierarchyIndex != null) {
+                    result = getIndexedMethodDef(curClassAST, methodName);
+                }
             }
-            else if (curMethodDefCount == 1) {
-                result = curMethodDef;
+            else if (definitions.size() == 1) {
+                result = definitions.get(0);
             }
-            else
-            {
-                if(matchMethodsByArgCount)
-                {
-                    int sameDefinitionCounter = 0;
-                    int curMethodParamCount = 
-                            getMethodParamsCount(methodCallAST);
-                    for(DetailAST currentDefinition :
-                        getMethodDef(curClassAST, methodName))
-                    {
-                        if(getMethodParamsCount(currentDefinition) ==
-                                curMethodParamCount )
-                        {
-                            result = currentDefinition;
-                            sameDefinitionCounter++;
+            else if (matchMethodsByArgCount) {
+                final int curMethodParamCount = getMethodParamsCount(methodCallAST);
+                for (MethodDefinition currentDefinition : definitions) {
+                    if (currentDefinition.paramsCount == curMethodParamCount) {
+                        if (result != null) {
+                            //you have a lot same method definitions and you can't
+                            //select one of them and be sure that you are right
+                            result = null;
+                            break;
                         }
-                    }
-                    //you have a lot same method definitions and you can't 
-                    //select one of them and be sure that you are right
-                    if(sameDefinitionCounter > 1)
-                    {
-                        result = null;
+                        result = currentDefinition;
                     }
                 }
             }
@@ -568,6 +736,49 @@ public class OverridableMethodInConstructorCheck extends Check
         return result;
     }
 
+    /**
+     * Gets the method definition from base classes which are declared in
+     * other files, using class hierarchy index.
+     *
+     * @param classDefAST
+     *            A CLASS_DEF DetailAST of class whose base classes are
+     *            searched.
+     * @param methodName
+     *            The name of method to search.
+     * @return the method definition, or null if there is no base class with
+     *         single method with such name.
+     */
+    private MethodDefinition getIndexedMethodDef(final DetailAST classDefAST,
+            final String methodName)
+    {
+        final List<DetailAST> fileBaseClasses = getBaseClasses(classDefAST);
+        DetailAST lastFileClass = classDefAST;
+        if (!fileBaseClasses.isEmpty()) {
+            lastFileClass = fileBaseClasses.get(fileBaseClasses.size() - 1);
+        }
+        final String superClassName =
+                ClassHierarchyIndex.getSuperClassName(lastFileClass);
+        String className = null;
+        if (superClassName != null) {
+            className = classHierarchyIndex.resolve(lastFileClass, superClassName,
+                    importIndex);
+        }
+
+        MethodDefinition result = null;
+        // the count of steps guards against cyclic hierarchies
+        for (int i = 0; result == null && className != null
+                && i < classHierarchyIndex.getClassesCount(); i++)
+        {
+            final List<MethodSummary> methods =
+                    classHierarchyIndex.getMethods(className, methodName);
+            if (methods.size() == 1) {
+                result = new MethodDefinition(methods.get(0));
+            }
+            className = classHierarchyIndex.getSuperClass(className);
+        }
+        return result;
+    }
+
     /**
      * Return type of the variable, if it is declaration procedure.
      * @param methodCall
@@ -650,48 +861,41 @@ public class OverridableMethodInConstructorCheck extends Check
     }
     
     /**
-     * Gets the method definition is related to the current METHOD_CALL
-     * DetailAST using the name of method to be searched. Ignores overloaded
-     * methods (retrieves only one METHOD_DEF node).
+     * Gets the method definitions of class with the name of method to be
+     * searched. Methods of class are indexed on the first lookup, so the
+     * search is a hash lookup.
      *
-     * @param parentAST
-     *            A parent CLASS_DEF DetailAST node which uses as a start point
-     *            when searching.
+     * @param classDefAST
+     *            A CLASS_DEF DetailAST node of class to search in.
      * @param methodName
      *            String containing the name of method is currently being
      *            searched.
-     * @return a List of method definition
+     * @return a List of method definitions, empty if there is no such method.
      */
-    private List<DetailAST> getMethodDef(final DetailAST parentAST,
+    private List<MethodDefinition> getMethodDefs(final DetailAST classDefAST,
             final String methodName)
     {
-        List<DetailAST> definitionsList = new LinkedList<DetailAST>();
-        
-        for (DetailAST curNode : getChildren(parentAST)) {
-
-            if (curNode.getNumberOfChildren() > 0) {
-                if (curNode.getType() == TokenTypes.METHOD_DEF) {
-                    final String curMethodName = curNode.findFirstToken(
-                            TokenTypes.IDENT).getText();
-                    if (methodName.equals(curMethodName)) {
-                        curMethodDef = curNode;
-                        definitionsList.add(0,curNode);
-                        curMethodDefCount++;
+        Map<String, List<MethodDefinition>> methods = classMethods.get(classDefAST);
+        if (methods == null) {
+            methods = new HashMap<String, List<MethodDefinition>>();
+            final DetailAST objBlock = classDefAST.findFirstToken(TokenTypes.OBJBLOCK);
+            for (DetailAST member = objBlock.getFirstChild(); member != null;
+                    member = member.getNextSibling())
+            {
+                if (member.getType() == TokenTypes.METHOD_DEF) {
+                    final String name = member.findFirstToken(TokenTypes.IDENT).getText();
+                    List<MethodDefinition> definitions = methods.get(name);
+                    if (definitions == null) {
+                        definitions = new ArrayList<MethodDefinition>(1);
+                        methods.put(name, definitions);
                     }
-                }
-
-                final int type = curNode.getType();
-
-                if (type != TokenTypes.CLASS_DEF && type != TokenTypes.CTOR_DEF
-                        && type != TokenTypes.MODIFIERS
-                        && type != TokenTypes.IMPLEMENTS_CLAUSE
-                        && type != TokenTypes.METHOD_DEF)
-                {
-                    definitionsList = getMethodDef(curNode, methodName);
+                    definitions.add(new MethodDefinition(member));
                 }
             }
+            classMethods.put(classDefAST, methods);
         }
-        return definitionsList;
+        final List<MethodDefinition> result = methods.get(methodName);
+        return result == null ? Collections.<MethodDefinition>emptyList() : result;
     }
 
     /**
@@ -717,12 +921,7 @@ public class OverridableMethodInConstructorCheck extends Check
         }
 
         if (paramsParentAST != null && paramsParentAST.getChildCount() != 0) {
-            for (DetailAST curNode : getChildren(paramsParentAST)) {
-                if (curNode.getType() == TokenTypes.COMMA) {
-                    result++;
-                }
-            }
-            result++;
+            result = paramsParentAST.getChildCount(TokenTypes.COMMA) + 1;
         }
         return result;
     }
@@ -743,19 +942,9 @@ public class OverridableMethodInConstructorCheck extends Check
         int modifierType)
     {
 
-        boolean result = false;
         final DetailAST modifiers = methodOrClassDefAST
                 .findFirstToken(TokenTypes.MODIFIERS);
-
-        if (modifiers != null && modifiers.getChildCount() != 0) {
-            for (DetailAST curNode : getChildren(modifiers)) {
-                if (curNode.getType() == modifierType) {
-                    result = true;
-                    break;
-                }
-            }
-        }
-        return result;
+        return modifiers != null && modifiers.findFirstToken(modifierType) != null;
     }
 
 
@@ -798,7 +987,7 @@ public class OverridableMethodInConstructorCheck extends Check
 
         boolean result = false;
         final List<DetailAST> classWithBaseClasses =
-                getBaseClasses(classDefNode);
+                new ArrayList<DetailAST>(getBaseClasses(classDefNode));
 
         classWithBaseClasses.add(classDefNode);
 
@@ -831,88 +1020,48 @@ public class OverridableMethodInConstructorCheck extends Check
                 .findFirstToken(TokenTypes.IMPLEMENTS_CLAUSE);
 
         if (implClause != null) {
-            for (DetailAST ident : getChildren(implClause)) {
-                if (ident.getText().equals(interfaceName)) {
-                    result = true;
-                    break;
-                }
+            for (DetailAST ident = implClause.getFirstChild(); ident != null && !result;
+                    ident = ident.getNextSibling())
+            {
+                result = ident.getText().equals(interfaceName);
             }
         }
         return result;
     }
 
     /**
-     * Gets the list of CLASS_DEF DetailAST nodes that are associated with class
-     * is currently being processed and all it`s base classes.
+     * Gets the list of CLASS_DEF DetailAST nodes that are associated with
+     * all base classes of class is currently being processed. Base classes
+     * are searched in the current file only.
      *
      * @param classDefNode
      *            A CLASS_DEF DetailAST is related to the class is currently
      *            being processed.
-     * @return a list of CLASS_DEF DetailAST nodes for class is currently being
-     *         processed and all it`s base classes.
+     * @return an unmodifiable list of CLASS_DEF DetailAST nodes for all base
+     *         classes of class is currently being processed.
      */
     private List<DetailAST> getBaseClasses(final DetailAST classDefNode)
     {
-
-        final List<DetailAST> result = new LinkedList<DetailAST>();
-        String baseClassName = getBaseClassName(classDefNode);
-
-        if (baseClassName != null) {
-            DetailAST curClass = getClassDef(treeRootAST, baseClassName);
-            while (curClass != null) {
-                result.add(curClass);
-                baseClassName = getBaseClassName(curClass);
-                if (baseClassName != null) {
-                    curClass = getClassDef(treeRootAST, baseClassName);
-                }
-                else {
+        List<DetailAST> result = baseClasses.get(classDefNode);
+        if (result == null) {
+            result = new ArrayList<DetailAST>();
+            String baseClassName = getBaseClassName(classDefNode);
+            while (baseClassName != null) {
+                final DetailAST curClass = classDefsByName.get(baseClassName);
+                if (curClass == null || curClass == classDefNode
+                        || result.contains(curClass))
+                {
                     break;
                 }
+                result.add(curClass);
+                baseClassName = getBaseClassName(curClass);
             }
+            result = Collections.unmodifiableList(result);
+            baseClasses.put(classDefNode, result);
         }
         return result;
     }
 
-    /**
-     * Gets the CLASS_DEF DetailAST node for the class is named "aClassName".
-     *
-     * @param rootNode
-     *            A root node of synthax tree is being processed.
-     * @param className
-     *            The name of class to search.
-     * @return The CLASS_DEF DetailAST node which is related to the class is
-     *         named "aClassName".
-     */
-    private static DetailAST getClassDef(DetailAST rootNode, String className)
-    {
-
-        DetailAST curNode = rootNode;
-
-        while (curNode != null) {
-            DetailAST toVisit = curNode.getFirstChild();
-            while ((curNode != null) && (toVisit == null)) {
-                toVisit = curNode.getNextSibling();
-                if (toVisit == null) {
-                    curNode = curNode.getParent();
-                }
-            }
-
-            curNode = toVisit;
-
-            if (curNode == null) {
-                break;
-            }
-
-            if (curNode.getType() == TokenTypes.CLASS_DEF
-                    && curNode.findFirstToken(TokenTypes.IDENT).getText()
-                            .equals(className))
-            {
-                break;
-            }
-        }
-        return curNode;
-    }
-
     /**
      * Gets the the base class name for current class.
      *
@@ -940,26 +1089,6 @@ public class OverridableMethodInConstructorCheck extends Check
         return result;
     }
 
-    /**
-     * Gets all the children one level below on the current DetailAST parent
-     * node.
-     *
-     * @param node
-     *            Current parent node.
-     * @return An array of children one level below on the current parent node
-     *         aNode.
-     */
-    private static List<DetailAST> getChildren(final DetailAST node)
-    {
-        final List<DetailAST> result = new LinkedList<DetailAST>();
-        DetailAST curNode = node.getFirstChild();
-        while (curNode != null) {
-            result.add(curNode);
-            curNode = curNode.getNextSibling();
-        }
-        return result;
-    }
-
     /**
      * Class that incapsulates the DetailAST node related to the method call
      * that leads to call of the overridable method and the name of
@@ -994,4 +1123,99 @@ public class OverridableMethodInConstructorCheck extends Check
         }
     }
 
+    /**
+     * Method definition with the properties which are needed to resolve
+     * calls of the method.
+     */
+    private static final class MethodDefinition
+    {
+        /**
+         * METHOD_DEF DetailAST node of the method, null for methods from
+         * class hierarchy index.
+         */
+        private final DetailAST methodDefAST;
+
+        /** Count of method parameters. */
+        private final int paramsCount;
+
+        /** Whether method is static. */
+        private final boolean isStatic;
+
+        /** Whether method is private or final, i.e. can't be overridden. */
+        private final boolean privateOrFinal;
+
+        /**
+         * Creates an instance of MethodDefinition.
+         * @param methodDefAST
+         *            METHOD_DEF DetailAST node of the method.
+         */
+        MethodDefinition(DetailAST methodDefAST)
+        {
+            this.methodDefAST = methodDefAST;
+            paramsCount = getMethodParamsCount(methodDefAST);
+            isStatic = hasModifier(methodDefAST, TokenTypes.LITERAL_STATIC);
+            privateOrFinal = hasModifier(methodDefAST, TokenTypes.LITERAL_PRIVATE)
+                    || hasModifier(methodDefAST, TokenTypes.FINAL);
+        }
+
+        /**
+         * Creates an instance of MethodDefinition for method which is
+         * declared in other file.
+         * @param summary
+         *            Signature of the method from class hierarchy index.
+         */
+        MethodDefinition(MethodSummary summary)
+        {
+            methodDefAST = null;
+            paramsCount = summary.getParamsCount();
+            isStatic = (summary.getModifiers() & ClassHierarchyIndex.STATIC) != 0;
+            privateOrFinal = (summary.getModifiers()
+                    & (ClassHierarchyIndex.PRIVATE | ClassHierarchyIndex.FINAL)) != 0;
+        }
+    }
+
+    /**
+     * Search frame of private or final method in the call graph.
+     */
+    private static final class CallGraphFrame
+    {
+        /** METHOD_DEF node of the method. */
+        private final DetailAST methodDef;
+
+        /** Depth-first search index of the method. */
+        private final int index;
+
+        /** Calls of the method. */
+        private final List<DetailAST> methodCalls;
+
+        /** Number of the next call to process. */
+        private int cursor;
+
+        /** Smallest depth-first search index which is reachable from the method. */
+        private int lowLink;
+
+        /** METHOD_DEF node of the callee which is analyzed now, or null. */
+        private DetailAST callee;
+
+        /** Name of overridable method which is reachable from the method. */
+        private String result;
+
+        /**
+         * Creates search frame.
+         * @param methodDef
+         *            METHOD_DEF node of the method.
+         * @param index
+         *            Depth-first search index of the method.
+         * @param methodCalls
+         *            Calls of the method.
+         */
+        CallGraphFrame(DetailAST methodDef, int index, List<DetailAST> methodCalls)
+        {
+            this.methodDef = methodDef;
+            this.index = index;
+            this.methodCalls = methodCalls;
+            lowLink = index;
+        }
+    }
+
 }
@@ -18,12 +18,10 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.coding;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
+import com.github.sevntu.checkstyle.NameMatcher;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -101,9 +99,10 @@ public class ReturnCountExtendedCheck extends Check
     private static final int DEFAULT_TOP_LINES_TO_IGNORE_COUNT = 5;
 
     /**
-     * List contains RegExp patterns for methods' names which would be ignored by check.
+     * Matcher of RegExp patterns for methods' names which would be ignored by
+     * check, null if no methods are ignored.
      */
-    private Set<String> ignoreMethodsNames = new HashSet<String>();
+    private NameMatcher ignoreMethodsNames = NameMatcher.compile("equals");
 
     /**
      * Maximum allowed "return" literals count per method/ctor (1 by default).
@@ -141,12 +140,18 @@ public class ReturnCountExtendedCheck extends Check
      */
     public void setIgnoreMethodsNames(String [] ignoreMethodNames)
     {
-        ignoreMethodsNames.clear();
+        final List<String> regexps = new ArrayList<String>();
         if (ignoreMethodNames != null) {
             for (String name : ignoreMethodNames) {
-                ignoreMethodsNames.add(name);
+                regexps.add(name);
             }
         }
+        if (regexps.isEmpty()) {
+            ignoreMethodsNames = null;
+        }
+        else {
+            ignoreMethodsNames = NameMatcher.compile(regexps);
+        }
     }
 
     /**
@@ -207,14 +212,6 @@ public class ReturnCountExtendedCheck extends Check
         this.topLinesToIgnoreCount = topLinesToIgnoreCount;
     }
 
-    /**
-     * Creates the new check instance.
-     */
-    public ReturnCountExtendedCheck()
-    {
-        ignoreMethodsNames.add("equals");
-    }
-
     @Override
     public int[] getDefaultTokens()
     {
@@ -228,7 +225,7 @@ public class ReturnCountExtendedCheck extends Check
                 .findFirstToken(TokenTypes.SLIST);
         String methodName = getMethodName(methodDefNode);
         if (openingBrace != null
-                && !matches(methodName, ignoreMethodsNames))
+                && !isIgnoredMethodName(methodName))
         {
             final DetailAST closingBrace = openingBrace.getLastChild();
 
@@ -241,8 +238,7 @@ public class ReturnCountExtendedCheck extends Check
 
             if (curMethodLinesCount >= ignoreMethodLinesCount) {
 
-                final int mCurReturnCount = getReturnCount(methodDefNode,
-                        openingBrace);
+                final int mCurReturnCount = getReturnCount(openingBrace);
 
                 if (mCurReturnCount > maxReturnCount) {
                     final String mKey = (methodDefNode.getType()
@@ -263,19 +259,19 @@ public class ReturnCountExtendedCheck extends Check
     /**
      * Gets the "return" statements count for given method/ctor and saves the
      * last "return" statement DetailAST node for given method/ctor body. Uses
-     * an iterative algorithm.
+     * an iterative algorithm, which keeps the depth of current node while
+     * walking.
      * @param methodOpeningBrace
      *        a DetailAST node that points to the current method`s opening
      *        brace.
-     * @param methodDefNode
-     *        DetailAST node is pointing to current method definition is being
-     *        processed.
      * @return "return" literals count for given method.
      */
-    private int getReturnCount(final DetailAST methodDefNode,
-            final DetailAST methodOpeningBrace)
+    private int getReturnCount(final DetailAST methodOpeningBrace)
     {
         int result = 0;
+        int depth = 0;
+        final int lastIgnoredLineNo = methodOpeningBrace.getLineNo()
+                + topLinesToIgnoreCount;
 
         DetailAST curNode = methodOpeningBrace;
 
@@ -289,14 +285,15 @@ public class ReturnCountExtendedCheck extends Check
             }
             else {
                 if (curNode.getType() == TokenTypes.LITERAL_RETURN
-                        && getDepth(methodDefNode
-                                , curNode) < minIgnoreReturnDepth
+                        && depth < minIgnoreReturnDepth
                         && shouldEmptyReturnStatementBeCounted(curNode)
-                        && getLinesCount(methodOpeningBrace,
-                                curNode) > topLinesToIgnoreCount)
+                        && curNode.getLineNo() > lastIgnoredLineNo)
                 {
                     result++;
                 }
+                if (isDepthBlock(curNode)) {
+                    depth++;
+                }
             }
 
             // before node leaving
@@ -307,11 +304,14 @@ public class ReturnCountExtendedCheck extends Check
             if (type == TokenTypes.METHOD_DEF
                   || type == TokenTypes.CLASS_DEF) // skip anonymous classes
             {
-                nextNode = curNode.getNextSibling();
+                nextNode = null;
             }
 
             while ((curNode != null) && (nextNode == null)) {
                 // leave the visited Node
+                if (isDepthBlock(curNode)) {
+                    depth--;
+                }
                 nextNode = curNode.getNextSibling();
                 if (nextNode == null) {
                     curNode = curNode.getParent();
@@ -339,36 +339,22 @@ public class ReturnCountExtendedCheck extends Check
     }
 
     /**
-     * Gets the depth level of given "return" statement. There are few supported
-     * coding blocks when depth counting: "if-else", "for", "while"/"do-while"
-     * and "switch".
-     * @param methodDefNode
-     *        a DetailAST node that points to the current method`s definition.
-     * @param returnStmtNode
-     *        given "return" statement node.
-     * @return the depth of given
+     * Checks whether given node increases the depth level of nested "return"
+     * statements. There are few supported coding blocks when depth counting:
+     * "if-else", "for", "while"/"do-while", "switch" and "try".
+     * @param node
+     *        the DetailAST node to check.
+     * @return true if given node is one of supported coding blocks.
      */
-    private static int getDepth(DetailAST methodDefNode,
-            DetailAST returnStmtNode)
+    private static boolean isDepthBlock(DetailAST node)
     {
-        int result = 0;
-
-        DetailAST curNode = returnStmtNode;
-
-        while (!curNode.equals(methodDefNode)) {
-            curNode = curNode.getParent();
-            final int type = curNode.getType();
-            if (type == TokenTypes.LITERAL_IF
-                    || type == TokenTypes.LITERAL_SWITCH
-                    || type == TokenTypes.LITERAL_FOR
-                    || type == TokenTypes.LITERAL_DO
-                    || type == TokenTypes.LITERAL_WHILE
-                    || type == TokenTypes.LITERAL_TRY)
-            {
-                result++;
-            }
-        }
-        return result;
+        final int type = node.getType();
+        return type == TokenTypes.LITERAL_IF
+                || type == TokenTypes.LITERAL_SWITCH
+                || type == TokenTypes.LITERAL_FOR
+                || type == TokenTypes.LITERAL_DO
+                || type == TokenTypes.LITERAL_WHILE
+                || type == TokenTypes.LITERAL_TRY;
     }
 
     /**
@@ -380,14 +366,7 @@ public class ReturnCountExtendedCheck extends Check
      */
     private static String getMethodName(DetailAST methodDefNode)
     {
-        String result = null;
-        for (DetailAST curNode : getChildren(methodDefNode)) {
-            if (curNode.getType() == TokenTypes.IDENT) {
-                result = curNode.getText();
-                break;
-            }
-        }
-        return result;
+        return methodDefNode.findFirstToken(TokenTypes.IDENT).getText();
     }
 
     /**
@@ -403,45 +382,17 @@ public class ReturnCountExtendedCheck extends Check
     {
         return endAST.getLineNo() - beginAst.getLineNo();
     }
-
-    /**
-     * Gets all the children which are one level below on the current DetailAST
-     * parent node.
-     * @param node
-     *        Current parent node.
-     * @return The list of children one level below on the current parent node.
-     */
-    private static List<DetailAST> getChildren(final DetailAST node)
-    {
-        final List<DetailAST> result = new LinkedList<DetailAST>();
-        DetailAST curNode = node.getFirstChild();
-        while (curNode != null) {
-            result.add(curNode);
-            curNode = curNode.getNextSibling();
-        }
-        return result;
-    }
     
     /**
-     * Matches string to given list of RegExp patterns.
+     * Checks whether method with given name is ignored by check.
      * 
-     * @param string
-     *            String to be matched.
-     * @param patterns
-     *            Collection of RegExp patterns to match with.
-     * @return true if given string could be fully matched by one of given patterns, false otherwise
+     * @param methodName
+     *            name of method or ctor.
+     * @return true if given name could be fully matched by one of RegExp
+     *         patterns of "ignoreMethodsNames" property, false otherwise
      */
-    private static boolean matches(String string, Collection<String> patterns) {
-        boolean result = false;
-        if (!patterns.isEmpty()) {
-            for (String pattern : patterns) {
-                if (string.matches(pattern)) {
-                    result = true;
-                    break;
-                }
-            }
-        }
-        return result;
+    private boolean isIgnoredMethodName(String methodName) {
+        return ignoreMethodsNames != null && ignoreMethodsNames.matches(methodName);
     }
 
 }
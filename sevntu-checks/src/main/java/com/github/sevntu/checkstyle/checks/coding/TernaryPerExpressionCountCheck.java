@@ -21,6 +21,7 @@ package com.github.sevntu.checkstyle.checks.coding;
 import java.util.LinkedList;
 import java.util.List;
 
+import com.github.sevntu.checkstyle.CommentIndex;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -100,11 +101,23 @@ public class TernaryPerExpressionCountCheck extends Check {
     
     private boolean ignoreIsolatedTernaryOnLine = true;
 
+    /**
+     * Comments of the current file, used to skip '?' characters in comments.
+     */
+    private CommentIndex commentIndex;
+
     @Override
     public int[] getDefaultTokens() {
         return new int[] { TokenTypes.EXPR };
     }
 
+    @Override
+    public void beginTree(DetailAST rootAST) {
+        if (ignoreIsolatedTernaryOnLine) {
+            commentIndex = CommentIndex.get(getFileContents());
+        }
+    }
+
     /**
      * Sets the maximum number of ternary operators, default value = 1
      * 
@@ -213,16 +226,12 @@ public class TernaryPerExpressionCountCheck extends Check {
      */
     private boolean isSingleTernaryLine(String line, int lineNo) {
         int questionsPerLine = 0;
-        char[] charArrayFromLine = line.toCharArray();
-        for (int i = 0; i < line.length(); i++) {
-            char currentSymbol = charArrayFromLine[i];
-            if (currentSymbol == '?' && !getFileContents().hasIntersectionWithComment(lineNo + 1,
-                    i, lineNo + 1, i)) {
+        int i = line.indexOf('?');
+        while (i >= 0 && questionsPerLine <= 1) {
+            if (!commentIndex.isInComment(lineNo + 1, i)) {
                 questionsPerLine++;
             }
-            if (questionsPerLine > 1) {
-                break;
-            }
+            i = line.indexOf('?', i + 1);
         }
         
         return questionsPerLine == 1;
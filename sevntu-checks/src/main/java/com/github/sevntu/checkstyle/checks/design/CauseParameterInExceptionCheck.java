@@ -22,8 +22,8 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
 
+import com.github.sevntu.checkstyle.NameMatcher;
 import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -56,16 +56,16 @@ public class CauseParameterInExceptionCheck extends Check
     public static final String MSG_KEY = "cause.parameter.in.exception";
 
     /**
-     * Pattern object is used to store the regexp for the names of classes, that
+     * Matcher is used to store the regexp for the names of classes, that
      * should be checked. Default value = ".+Exception".
      */
-    private Pattern classNamesRegexp = Pattern.compile(".+Exception");
+    private NameMatcher classNamesRegexp = NameMatcher.compile(".+Exception");
 
     /**
-     * Pattern object is used to store the regexp for the names of classes, that
+     * Matcher is used to store the regexp for the names of classes, that
      * should be ignored by check.
      */
-    private Pattern ignoredClassNamesRegexp = Pattern.compile("");
+    private NameMatcher ignoredClassNamesRegexp = NameMatcher.compile("");
 
     /**
      * List contains the names of classes which would be considered as Exception
@@ -99,7 +99,7 @@ public class CauseParameterInExceptionCheck extends Check
     {
         final String regexp = classNamesRegexp == null ? ""
                 : classNamesRegexp;
-        this.classNamesRegexp = Pattern.compile(regexp);
+        this.classNamesRegexp = NameMatcher.compile(regexp);
     }
 
     /**
@@ -113,7 +113,7 @@ public class CauseParameterInExceptionCheck extends Check
     {
         final String regexp = ignoredClassNamesRegexp == null ? ""
                 : ignoredClassNamesRegexp;
-        this.ignoredClassNamesRegexp = Pattern.compile(regexp);
+        this.ignoredClassNamesRegexp = NameMatcher.compile(regexp);
     }
 
     /**
@@ -143,9 +143,8 @@ public class CauseParameterInExceptionCheck extends Check
         switch (ast.getType()) {
             case TokenTypes.CLASS_DEF:
                 final String exceptionClassName = getName(ast);
-                if (classNamesRegexp.matcher(exceptionClassName).matches()
-                    && !ignoredClassNamesRegexp.matcher(exceptionClassName)
-                        .matches())
+                if (classNamesRegexp.matches(exceptionClassName)
+                    && !ignoredClassNamesRegexp.matches(exceptionClassName))
                 {
                     exceptionClassesToWarn.add(ast);
                 }
@@ -204,14 +203,15 @@ public class CauseParameterInExceptionCheck extends Check
     private static List<String> getParameterTypes(DetailAST parametersAST)
     {
         final List<String> result = new LinkedList<String>();
-        for (DetailAST parametersChild : getChildren(parametersAST)) {
-            if (parametersChild.getType() == TokenTypes.PARAMETER_DEF) {
-                final DetailAST parameterType = parametersChild
-                        .findFirstToken(TokenTypes.TYPE);
-                final String parameter = parameterType.getFirstChild()
-                        .getText();
-                result.add(parameter);
-            }
+        for (DetailAST parameterDef = parametersAST.findFirstToken(TokenTypes.PARAMETER_DEF);
+                parameterDef != null;
+                parameterDef = Utils.getNextSibling(parameterDef, TokenTypes.PARAMETER_DEF))
+        {
+            final DetailAST parameterType = parameterDef
+                    .findFirstToken(TokenTypes.TYPE);
+            final String parameter = parameterType.getFirstChild()
+                    .getText();
+            result.add(parameter);
         }
         return result;
     }
@@ -247,22 +247,4 @@ public class CauseParameterInExceptionCheck extends Check
         return curNode;
     }
 
-    /**
-     * Gets all the children which are one level below on the current DetailAST
-     * parent node.
-     * @param node
-     *        Current parent node.
-     * @return The list of children one level below on the current parent node.
-     */
-    private static List<DetailAST> getChildren(final DetailAST node)
-    {
-        final List<DetailAST> result = new LinkedList<DetailAST>();
-        DetailAST curNode = node.getFirstChild();
-        while (curNode != null) {
-            result.add(curNode);
-            curNode = curNode.getNextSibling();
-        }
-        return result;
-    }
-
 }
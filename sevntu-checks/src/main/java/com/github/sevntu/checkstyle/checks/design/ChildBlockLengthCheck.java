@@ -18,10 +18,10 @@
 ////////////////////////////////////////////////////////////////////////////////
 package com.github.sevntu.checkstyle.checks.design;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 
-import com.google.common.collect.Lists;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -90,6 +90,12 @@ public class ChildBlockLengthCheck extends Check
      */
     private int ignoreBlockLinesCount = DEFAULT_IGNORE_BLOCK_LINESCOUNT;
 
+    /**
+     * Enclosing blocks of the current node which are long enough to be
+     * checked and enclosing methods and classes, the innermost one is first.
+     */
+    private final Deque<Block> openBlocks = new ArrayDeque<>();
+
     /**
      * Sets allowed types of blocks to be checked. Supported block types:
      * LITERAL_IF, LITERAL_SWITCH, LITERAL_FOR, LITERAL_DO, LITERAL_WHILE,
@@ -130,157 +136,73 @@ public class ChildBlockLengthCheck extends Check
     @Override
     public int[] getDefaultTokens()
     {
-        return blockTypes;
+        final int[] result = Arrays.copyOf(blockTypes, blockTypes.length + 2);
+        // nested methods and classes hide their blocks from enclosing blocks
+        result[blockTypes.length] = TokenTypes.METHOD_DEF;
+        result[blockTypes.length + 1] = TokenTypes.CLASS_DEF;
+        return result;
     }
 
     @Override
-    public void visitToken(DetailAST ast)
+    public void beginTree(DetailAST rootAST)
     {
-        final DetailAST aOpeningBrace = openingBrace(ast);
-
-        if (aOpeningBrace != null) { // if the block has braces at all
-
-            final DetailAST aClosingBrace = closingBrace(ast);
-            final int parentBlockSize =
-                    linesCount(aOpeningBrace, aClosingBrace);
-
-            if (parentBlockSize > ignoreBlockLinesCount) {
-
-                final List<DetailAST> childBlocks = getChildBlocks(
-                        aOpeningBrace, aClosingBrace);
-
-                final List<DetailAST> badChildBlocks = getBadChildBlocks(
-                        childBlocks, parentBlockSize);
-
-                if (badChildBlocks.isEmpty()) {
-                    for (DetailAST childBlock : childBlocks) {
-                        visitToken(childBlock);
-                    }
-                }
-                else {
-                    for (DetailAST badBlock : badChildBlocks) {
-
-                        final int blockSize = linesCount(badBlock);
-
-                        final double allowedBlockSize = (int) (parentBlockSize
-                                * maxChildBlockPercentage / PERCENTS_FACTOR);
-
-                        log(badBlock, MSG_KEY, blockSize, allowedBlockSize);
-                    }
-                }
-            }
-        }
+        openBlocks.clear();
     }
 
-    /**
-     * Gets all the child blocks for given parent block. Uses an iterative
-     * algorithm.
-     * @param blockOpeningBrace
-     *        a DetailAST node that points to the current method`s opening
-     *        brace.
-     * @param blockClosingBrace
-     *        the a block closing brace
-     * @return all child blocks that have braces.
-     */
-    private List<DetailAST> getChildBlocks(DetailAST blockOpeningBrace,
-            DetailAST blockClosingBrace)
+    @Override
+    public void visitToken(DetailAST ast)
     {
-        final List<DetailAST> childBlocks = Lists.newLinkedList();
+        final int type = ast.getType();
+        if (type == TokenTypes.METHOD_DEF || type == TokenTypes.CLASS_DEF) {
+            openBlocks.push(new Block(ast, null, null));
+        }
+        else {
+            final DetailAST aOpeningBrace = openingBrace(ast);
 
-        DetailAST curNode = blockOpeningBrace;
+            if (aOpeningBrace != null) { // if the block has braces at all
 
-        while (curNode != null) {
-            // before node visiting
-            if (curNode == blockClosingBrace) {
-                break; // stop at closing brace
-            }
-            else {
-                if (isAllowedBlockType(curNode.getType())) {
-                    childBlocks.add(curNode);
-                }
-            }
-            // before node leaving
-            DetailAST nextNode = curNode.getFirstChild();
-
-            final int type = curNode.getType();
-            // skip anonymous classes and nested methods
-            if (type == TokenTypes.METHOD_DEF
-                    || type == TokenTypes.CLASS_DEF)
-            {
-                nextNode = curNode.getNextSibling();
-            }
+                final Block block = new Block(ast, aOpeningBrace, closingBrace(ast));
+                checkParentBlocks(block);
 
-            while ((curNode != null) && (nextNode == null)) {
-                // leave the visited node
-                nextNode = curNode.getNextSibling();
-                if (nextNode == null) {
-                    curNode = curNode.getParent();
+                if (block.size > ignoreBlockLinesCount) {
+                    openBlocks.push(block);
                 }
             }
-            curNode = nextNode;
         }
-        return childBlocks;
     }
 
-    /**
-     * Checks that given child block type is allowed.
-     * @param blockType
-     *        the token type ID for the given block.
-     * @return true, if the given child block type is allowed.
-     */
-    private boolean isAllowedBlockType(int blockType)
+    @Override
+    public void leaveToken(DetailAST ast)
     {
-        boolean result = false;
-        for (int type : blockTypes) {
-            if (type == blockType) {
-                result = true;
-                break;
-            }
+        if (!openBlocks.isEmpty() && openBlocks.peek().ast == ast) {
+            openBlocks.pop();
         }
-        return result;
     }
 
     /**
-     * Gets the child blocks which occupies too much size (in percentage) of
-     * given parent block size.
-     * @param blocksList
-     *        the blocks
-     * @param parentBlockSize
-     *        the a parent block size
-     * @return the wrong child blocks
+     * Logs the given block for each enclosing block which it occupies too
+     * much size (in percentage) of. Enclosing blocks are checked from the
+     * innermost one, sizes of enclosing blocks only grow, so the search stops
+     * at the first enclosing block which is long enough.
+     * @param childBlock
+     *        the block with braces.
      */
-    private List<DetailAST> getBadChildBlocks(List<DetailAST> blocksList,
-            int parentBlockSize)
+    private void checkParentBlocks(Block childBlock)
     {
-        final List<DetailAST> result = new LinkedList<DetailAST>();
-        for (DetailAST block : blocksList) {
-            if (isChildBlockBad(block, parentBlockSize)) {
-                result.add(block);
+        for (Block parentBlock : openBlocks) {
+            if (parentBlock.openingBrace == null) {
+                break;
             }
-        }
-        return result;
-    }
+            if (parentBlock.contains(childBlock.ast)) {
+                if (!getPercentage(parentBlock.size, childBlock.size)) {
+                    break;
+                }
+                final double allowedBlockSize = (int) (parentBlock.size
+                        * maxChildBlockPercentage / PERCENTS_FACTOR);
 
-    /**
-     * Checks if the child block size percentage from parent block is greater
-     * than.
-     * @param childBlock
-     *        the a child block node
-     * @param parentBlockSize
-     *        the a parent block size
-     * @return true, if is child block wrong
-     */
-    private boolean isChildBlockBad(DetailAST childBlock,
-            int parentBlockSize)
-    {
-        boolean result = false;
-        final DetailAST openingBrace = openingBrace(childBlock);
-        if (openingBrace != null) {
-            final DetailAST closingBrace = closingBrace(childBlock);
-            final int childBlockSize = linesCount(openingBrace, closingBrace);
-            result = getPercentage(parentBlockSize, childBlockSize);
+                log(childBlock.ast, MSG_KEY, childBlock.size, allowedBlockSize);
+            }
         }
-        return result;
     }
 
     /**
@@ -327,18 +249,6 @@ public class ChildBlockLengthCheck extends Check
                 : openingBrace(parentBlockNode).getLastChild();
     }
 
-    /**
-     * Gets the lines count between braces of the given block.
-     * @param blockAst
-     *        - the DetailAST node is related to the given block (the block
-     *        should have braces!).
-     * @return the lines count between the given block braces.
-     */
-    private static int linesCount(DetailAST blockAst)
-    {
-        return linesCount(openingBrace(blockAst), closingBrace(blockAst));
-    }
-
     /**
      * Gets the lines count between the given block opening and closing braces.
      * @param openingBrace
@@ -357,4 +267,67 @@ public class ChildBlockLengthCheck extends Check
         return result;
     }
 
+    /**
+     * Block which is open during the tree walk: a block with braces which is
+     * long enough to be checked, or a nested method or class which hides its
+     * blocks from enclosing blocks.
+     */
+    private static final class Block
+    {
+        /** Node of the block. */
+        private final DetailAST ast;
+
+        /** Opening brace of the block, null for methods and classes. */
+        private final DetailAST openingBrace;
+
+        /** Closing brace of the block, null for methods and classes. */
+        private final DetailAST closingBrace;
+
+        /** Lines count between braces of the block. */
+        private final int size;
+
+        /**
+         * Creates block.
+         * @param ast
+         *        node of the block.
+         * @param openingBrace
+         *        opening brace of the block.
+         * @param closingBrace
+         *        closing brace of the block.
+         */
+        Block(DetailAST ast, DetailAST openingBrace, DetailAST closingBrace)
+        {
+            this.ast = ast;
+            this.openingBrace = openingBrace;
+            this.closingBrace = closingBrace;
+            size = openingBrace == null ? 0 : linesCount(openingBrace, closingBrace);
+        }
+
+        /**
+         * Checks whether node is between braces of the block.
+         * @param node
+         *        the node inside of the block.
+         * @return true if node is between braces.
+         */
+        boolean contains(DetailAST node)
+        {
+            return isBefore(openingBrace, node) && isBefore(node, closingBrace);
+        }
+
+        /**
+         * Checks whether the first node starts before the second one.
+         * @param first
+         *        the first node.
+         * @param second
+         *        the second node.
+         * @return true if the first node starts before the second one.
+         */
+        private static boolean isBefore(DetailAST first, DetailAST second)
+        {
+            return first.getLineNo() < second.getLineNo()
+                    || first.getLineNo() == second.getLineNo()
+                    && first.getColumnNo() < second.getColumnNo();
+        }
+    }
+
 }
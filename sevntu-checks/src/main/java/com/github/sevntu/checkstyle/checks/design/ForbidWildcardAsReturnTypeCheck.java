@@ -8,6 +8,7 @@ import java.util.regex.Pattern;
 
 import antlr.collections.AST;
 
+import com.github.sevntu.checkstyle.Utils;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -44,10 +45,6 @@ public class ForbidWildcardAsReturnTypeCheck extends Check
      */
     private static final int WILDCARD_SUPER_IDENT =
             TokenTypes.TYPE_LOWER_BOUNDS;
-    /**
-     * Empty array of DetailAST.
-     */
-    private static final DetailAST[] EMPTY_DETAILAST_ARRAY = new DetailAST[0];
     /**
      * Check methods with 'public' modifier.
      */
@@ -275,40 +272,18 @@ public class ForbidWildcardAsReturnTypeCheck extends Check
         final List<DetailAST> result = new LinkedList<DetailAST>();
         final DetailAST methodTypeAst =
                 methodDefAst.findFirstToken(TokenTypes.TYPE);
-        final DetailAST[] methodTypeArgumentTokens =
-                getGenericTypeArguments(methodTypeAst);
-        for (DetailAST typeArgumentAst: methodTypeArgumentTokens) {
-            if (hasChildToken(typeArgumentAst, TokenTypes.WILDCARD_TYPE)) {
-                result.add(typeArgumentAst);
-            }
-        }
-        return result;
-    }
-
-    /**
-     * Get all type arguments of TypeAST.
-     * @param typeAst
-     *        DetailAST of type definition.
-     * @return array of type arguments.
-     */
-    private static DetailAST[] getGenericTypeArguments(DetailAST typeAst)
-    {
-        DetailAST[] result = EMPTY_DETAILAST_ARRAY;
-        if (hasChildToken(typeAst, TokenTypes.TYPE_ARGUMENTS)) {
-            final DetailAST typeArguments = typeAst
-                    .findFirstToken(TokenTypes.TYPE_ARGUMENTS);
-            final int argumentsCount = typeArguments
-                    .getChildCount(TokenTypes.TYPE_ARGUMENT);
-            result = new DetailAST[argumentsCount];
-            DetailAST firstTypeArgument = typeArguments
-                    .findFirstToken(TokenTypes.TYPE_ARGUMENT);
-            int counter = 0;
-            while (firstTypeArgument != null) {
-                if (firstTypeArgument.getType() == TokenTypes.TYPE_ARGUMENT) {
-                    result[counter] = firstTypeArgument;
-                    counter++;
+        final DetailAST typeArguments =
+                methodTypeAst.findFirstToken(TokenTypes.TYPE_ARGUMENTS);
+        if (typeArguments != null) {
+            for (DetailAST typeArgumentAst =
+                    typeArguments.findFirstToken(TokenTypes.TYPE_ARGUMENT);
+                    typeArgumentAst != null;
+                    typeArgumentAst = Utils.getNextSibling(typeArgumentAst,
+                            TokenTypes.TYPE_ARGUMENT))
+            {
+                if (hasChildToken(typeArgumentAst, TokenTypes.WILDCARD_TYPE)) {
+                    result.add(typeArgumentAst);
                 }
-                firstTypeArgument = firstTypeArgument.getNextSibling();
             }
         }
         return result;
@@ -19,8 +19,10 @@
 package com.github.sevntu.checkstyle.checks.design;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.github.sevntu.checkstyle.Utils;
@@ -86,9 +88,11 @@ public class PublicReferenceToPrivateTypeCheck extends Check
     private final Set<DetailAST> privateTypes = new HashSet<DetailAST>();
 
     /**
-     * List containing the names of types returned by public methods or fields.
+     * Types returned by public methods or fields, or types of their
+     * parameters, grouped by type names.
      */
-    private final Set<DetailAST> externallyReferencedTypes = new HashSet<DetailAST>();
+    private final Map<String, List<DetailAST>> externallyReferencedTypes =
+            new HashMap<String, List<DetailAST>>();
 
     @Override
     public int[] getDefaultTokens()
@@ -137,12 +141,17 @@ public class PublicReferenceToPrivateTypeCheck extends Check
     @Override
     public void finishTree(DetailAST rootAst)
     {
+        final Set<String> privateTypesNames = new HashSet<String>();
         for (DetailAST privateType : privateTypes) {
-            for (DetailAST outReturnedType : externallyReferencedTypes) {
-                if (privateType.getText().equals(
-                        outReturnedType.getText())
-                        && !isExtendsOrImplementsSmth(privateType
-                                .getParent())) {
+            privateTypesNames.add(privateType.getText());
+        }
+        for (DetailAST privateType : privateTypes) {
+            final List<DetailAST> outReturnedTypes =
+                    externallyReferencedTypes.get(privateType.getText());
+            if (outReturnedTypes != null
+                    && !isExtendsOrImplementsSmth(privateType.getParent(),
+                            privateTypesNames)) {
+                for (DetailAST outReturnedType : outReturnedTypes) {
                     log(outReturnedType.getLineNo(), MSG_KEY,
                             outReturnedType.getText());
                 }
@@ -174,8 +183,8 @@ public class PublicReferenceToPrivateTypeCheck extends Check
                 .findFirstToken(TokenTypes.TYPE);
         DetailAST parametersDefAst = methodDefAst
                 .findFirstToken(TokenTypes.PARAMETERS);
-        externallyReferencedTypes.addAll(getMethodOrFieldReferencedTypes(typeDefAst));
-        externallyReferencedTypes.addAll(getMethodParameterTypes(parametersDefAst));
+        addExternallyReferencedTypes(getMethodOrFieldReferencedTypes(typeDefAst));
+        addExternallyReferencedTypes(getMethodParameterTypes(parametersDefAst));
     }
 
     /**
@@ -187,7 +196,24 @@ public class PublicReferenceToPrivateTypeCheck extends Check
     private void addExternallyAccessibleFieldTypes(DetailAST fieldDefAst)
     {
         DetailAST typeDefAst = fieldDefAst.findFirstToken(TokenTypes.TYPE);
-        externallyReferencedTypes.addAll(getMethodOrFieldReferencedTypes(typeDefAst));
+        addExternallyReferencedTypes(getMethodOrFieldReferencedTypes(typeDefAst));
+    }
+
+    /**
+     * Appends types to the out referenced types with the same names.
+     * @param types
+     *        IDENT nodes of types.
+     */
+    private void addExternallyReferencedTypes(List<DetailAST> types)
+    {
+        for (DetailAST type : types) {
+            List<DetailAST> sameNameTypes = externallyReferencedTypes.get(type.getText());
+            if (sameNameTypes == null) {
+                sameNameTypes = new ArrayList<DetailAST>();
+                externallyReferencedTypes.put(type.getText(), sameNameTypes);
+            }
+            sameNameTypes.add(type);
+        }
     }
 
     /**
@@ -249,37 +275,24 @@ public class PublicReferenceToPrivateTypeCheck extends Check
 
     /**
      * Checks if defined type or interface extends or implements any
-     * <u>non-private type</u>.
+     * <u>non-private type</u>. Extends and implements clauses of the whole
+     * type subtree are collected in one walk.
      * @param classOrInterfaceDefAst
+     * @param privateTypesNames
+     *        names of all inner private types.
      * @return Method returns true if class extends or implements something.
      */
-    private boolean isExtendsOrImplementsSmth(DetailAST classOrInterfaceDefAst)
-    {
-        return (classOrInterfaceDefAst
-                .branchContains(TokenTypes.EXTENDS_CLAUSE)
-                || classOrInterfaceDefAst
-                .branchContains(TokenTypes.IMPLEMENTS_CLAUSE))
-                && !isExtendsOrImplementsPrivate(classOrInterfaceDefAst);
-    }
-
-    /**
-     * Checks if inner class or interface extends or implements <u>inner private
-     * type</u>
-     * @param classOrInterfaceDefAst
-     * @return true if extending or implementing type is in collection of inner
-     *         private types
-     */
-    private boolean
-            isExtendsOrImplementsPrivate(DetailAST classOrInterfaceDefAst)
+    private static boolean isExtendsOrImplementsSmth(DetailAST classOrInterfaceDefAst,
+            Set<String> privateTypesNames)
     {
-        boolean result = false;
-
-        Set<String> inheritedTypesNamesSet = new HashSet<String>();
+        boolean hasInheritanceClause = false;
+        final Set<String> inheritedTypesNamesSet = new HashSet<String>();
         DetailAST currentNode = classOrInterfaceDefAst;
 
         while (currentNode != null) {
             if (currentNode.getType() == TokenTypes.EXTENDS_CLAUSE
                     || currentNode.getType() == TokenTypes.IMPLEMENTS_CLAUSE) {
+                hasInheritanceClause = true;
                 DetailAST implementingOrExtendingAst = currentNode;
 
                 while (implementingOrExtendingAst != null) {
@@ -296,15 +309,8 @@ public class PublicReferenceToPrivateTypeCheck extends Check
             currentNode = Utils.getNextSubTreeNode(currentNode, classOrInterfaceDefAst);
         }
 
-        Set<String> existingPrivateTypes = new HashSet<String>();
-        for (DetailAST privateType : privateTypes) {
-            existingPrivateTypes.add(privateType.getText());
-        }
-        if (existingPrivateTypes.containsAll(inheritedTypesNamesSet)) {
-            result = true;
-        }
-
-        return result;
+        return hasInheritanceClause
+                && !privateTypesNames.containsAll(inheritedTypesNamesSet);
     }
 
     /**
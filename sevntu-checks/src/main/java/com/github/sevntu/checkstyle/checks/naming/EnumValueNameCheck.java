@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import com.github.sevntu.checkstyle.NameMatcher;
 import com.google.common.collect.Lists;
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
@@ -118,7 +119,7 @@ public class EnumValueNameCheck extends Check
     /**
      * Method and field names to exclude from check.
      */
-    private final List<Pattern> excludes;
+    private final List<NameMatcher> excludes;
 
     /**
      * Constructs check with the default pattern.compile
@@ -160,7 +161,7 @@ public class EnumValueNameCheck extends Check
     {
         this.excludes.clear();
         for (String exclude: excludes) {
-            this.excludes.add(Pattern.compile(exclude));
+            this.excludes.add(NameMatcher.compileForFind(exclude));
         }
     }
 
@@ -214,7 +215,7 @@ public class EnumValueNameCheck extends Check
      * @return <code>true</code> if enum is a class enumeration
      */
     private static boolean
-            hasMembers(DetailAST ast, List<Pattern> excludes)
+            hasMembers(DetailAST ast, List<NameMatcher> excludes)
     {
         final DetailAST objBlock = ast.getParent();
         assert objBlock.getType() == TokenTypes.OBJBLOCK;
@@ -247,10 +248,10 @@ public class EnumValueNameCheck extends Check
      *         matched.
      */
     private static boolean
-            isAnyMatched(Collection<Pattern> patterns, String value)
+            isAnyMatched(Collection<NameMatcher> patterns, String value)
     {
-        for (Pattern pattern : patterns) {
-            if (pattern.matcher(value).find()) {
+        for (NameMatcher pattern : patterns) {
+            if (pattern.matches(value)) {
                 return true;
             }
         }
@@ -20,7 +20,9 @@
 package com.github.sevntu.checkstyle.checks.sizes;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -28,6 +30,7 @@ import org.apache.commons.beanutils.ConversionException;
 
 import com.puppycrawl.tools.checkstyle.api.Check;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.Utils;
 
@@ -96,11 +99,14 @@ public class LineLengthExtendedCheck extends Check
 	/** the maximum number of columns in a line */
 	private int max = DEFAULT_MAX_COLUMNS;
 
-	/** the regexp when long lines are ignored */
-	private Pattern ignorePattern;
+	/**
+	 * matcher of the regexp when long lines are ignored, it is reset for
+	 * each line, check instances are not shared between threads
+	 */
+	private Matcher ignoreMatcher;
 
-	/** array of strings in source file */
-	private String[] lines;
+	/** indexes of lines in source file which are not checked */
+	private final BitSet ignoredLines = new BitSet();
 
 	/** check field declaration length */
 	private boolean ignoreField;
@@ -208,14 +214,12 @@ public class LineLengthExtendedCheck extends Check
 		{
 			final int mNumberOfLine = ast.getLineNo();
 			if (null == endOfIgnoreLine) {
-				lines[mNumberOfLine - 1] = null;
+				ignoredLines.set(mNumberOfLine - 1);
 			}
 			else {
-				int mEndNumberOfLine = endOfIgnoreLine.getLineNo();
-				while (mEndNumberOfLine >= mNumberOfLine) {
-					lines[mEndNumberOfLine - 1] = null;
-					mEndNumberOfLine--;
-				}
+				final int mEndNumberOfLine = endOfIgnoreLine.getLineNo();
+				ignoredLines.set(mNumberOfLine - 1,
+						Math.max(mNumberOfLine - 1, mEndNumberOfLine));
 			}
 		}
 	}
@@ -223,23 +227,27 @@ public class LineLengthExtendedCheck extends Check
 	@Override
 	public void beginTree(DetailAST rootAST)
 	{
-		lines = getLines();
+		ignoredLines.clear();
 	}
 
 	@Override
 	public void finishTree(DetailAST rootAST)
 	{
-		for (int i = 0; i < lines.length; i++) {
+		final FileText text = getFileContents().getText();
+		for (int i = ignoredLines.nextClearBit(0); i < text.size();
+				i = ignoredLines.nextClearBit(i + 1))
+		{
+			final String line = text.get(i);
 
-			if (null == lines[i]) {
+			// tabs only make a line longer, so a short line without tabs is fine
+			if (line.length() <= max && line.indexOf('\t') < 0) {
 				continue;
 			}
 
-			final String line = lines[i];
 			final int realLength = Utils.lengthExpandedTabs(line,
 					line.length(), getTabWidth());
 
-			if ((realLength > max) && !ignorePattern.matcher(line).find()) {
+			if ((realLength > max) && !ignoreMatcher.reset(line).find()) {
 				log(i + 1, MSG_KEY, max, realLength);
 			}
 		}
@@ -265,7 +273,7 @@ public class LineLengthExtendedCheck extends Check
 	public void setIgnorePattern(String format) throws ConversionException
 	{
 		try {
-			ignorePattern = Pattern.compile(format);
+			ignoreMatcher = Pattern.compile(format).matcher("");
 		} catch (final PatternSyntaxException e) {
 			throw new ConversionException("unable to parse " + format, e);
 		}
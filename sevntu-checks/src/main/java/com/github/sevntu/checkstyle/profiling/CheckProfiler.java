@@ -0,0 +1,257 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.profiling;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+/**
+ * Registry of statistics collected by {@link ProfilingCheck}. Profiling is
+ * switched off by default and is switched on by
+ * "sevntu.checkstyle.profiling=true" system property or through JMX. When the
+ * last profiled check is destroyed (at the end of audit) summary is written to
+ * the file from "sevntu.checkstyle.profiling.output" system property or to
+ * standard error stream if property is not set.
+ */
+public final class CheckProfiler implements CheckProfilerMBean
+{
+    /** System property which switches profiling on. */
+    public static final String ENABLED_PROPERTY = "sevntu.checkstyle.profiling";
+
+    /** System property with path of file for summary. */
+    public static final String OUTPUT_PROPERTY = "sevntu.checkstyle.profiling.output";
+
+    /** Name of JMX bean. */
+    public static final String OBJECT_NAME = "com.github.sevntu.checkstyle:type=CheckProfiler";
+
+    /** The only instance. */
+    private static final CheckProfiler INSTANCE = new CheckProfiler();
+
+    /** Bean which measures allocation, null if JVM does not support it. */
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN =
+            getAllocationBean();
+
+    /** Accumulated statistics by check names. */
+    private final Map<String, CheckStatistics> statistics = new TreeMap<>();
+
+    /** Profiling switch. */
+    private volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /** Count of initialized and not destroyed profiled checks. */
+    private int activeChecks;
+
+    /** Whether JMX bean is registered. */
+    private boolean registered;
+
+    private CheckProfiler()
+    {
+    }
+
+    /**
+     * @return the only instance of profiler.
+     */
+    public static CheckProfiler getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * @return bytes allocated by current thread, or 0 if JVM does not measure
+     *         allocation.
+     */
+    static long getAllocatedBytes()
+    {
+        long result = 0;
+        if (ALLOCATION_BEAN != null) {
+            result = ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Adds statistics of a check to accumulated ones.
+     * @param checkStatistics
+     *        statistics of a check.
+     */
+    public synchronized void record(CheckStatistics checkStatistics)
+    {
+        final String checkName = checkStatistics.getCheckName();
+        CheckStatistics accumulated = statistics.get(checkName);
+        if (accumulated == null) {
+            accumulated = new CheckStatistics(checkName);
+            statistics.put(checkName, accumulated);
+        }
+        accumulated.addAll(checkStatistics);
+    }
+
+    /**
+     * Gets copy of accumulated statistics of check.
+     * @param checkName
+     *        name of check.
+     * @return statistics, empty if check was not profiled.
+     */
+    public synchronized CheckStatistics getStatistics(String checkName)
+    {
+        final CheckStatistics result = new CheckStatistics(checkName);
+        final CheckStatistics accumulated = statistics.get(checkName);
+        if (accumulated != null) {
+            result.addAll(accumulated);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized String[] getCheckNames()
+    {
+        return statistics.keySet().toArray(new String[statistics.size()]);
+    }
+
+    @Override
+    public long getTotalTime(String checkName)
+    {
+        return getStatistics(checkName).getTotalTime();
+    }
+
+    @Override
+    public long getTokenTime(String checkName, String tokenName)
+    {
+        return getStatistics(checkName).getTime(TokenTypes.getTokenId(tokenName));
+    }
+
+    @Override
+    public long getInvocationCount(String checkName)
+    {
+        return getStatistics(checkName).getTotalCount();
+    }
+
+    @Override
+    public long getAllocatedBytes(String checkName)
+    {
+        return getStatistics(checkName).getTotalAllocated();
+    }
+
+    @Override
+    public synchronized String getSummary()
+    {
+        final StringBuilder result = new StringBuilder("Sevntu checks profile:")
+                .append(System.getProperty("line.separator"));
+        for (CheckStatistics checkStatistics : statistics.values()) {
+            checkStatistics.appendSummary(result);
+        }
+        return result.toString();
+    }
+
+    @Override
+    public synchronized void reset()
+    {
+        statistics.clear();
+    }
+
+    /**
+     * Registers initialized profiled check, the first one also registers JMX
+     * bean.
+     */
+    synchronized void checkInitialized()
+    {
+        activeChecks++;
+        if (!registered) {
+            registered = true;
+            try {
+                final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                final ObjectName name = new ObjectName(OBJECT_NAME);
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(this, name);
+                }
+            }
+            catch (JMException ex) {
+                throw new IllegalStateException("Can not register " + OBJECT_NAME, ex);
+            }
+        }
+    }
+
+    /**
+     * Registers destroyed profiled check, when the last one is destroyed
+     * summary is written.
+     */
+    synchronized void checkDestroyed()
+    {
+        activeChecks--;
+        if (activeChecks == 0 && enabled && !statistics.isEmpty()) {
+            writeSummary();
+        }
+    }
+
+    private void writeSummary()
+    {
+        final String output = System.getProperty(OUTPUT_PROPERTY);
+        if (output == null) {
+            final PrintStream err = System.err;
+            err.print(getSummary());
+            err.flush();
+        }
+        else {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(output), "UTF-8")) {
+                writer.write(getSummary());
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException("Can not write profile to " + output, ex);
+            }
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationBean()
+    {
+        com.sun.management.ThreadMXBean result = null;
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            result = (com.sun.management.ThreadMXBean) bean;
+            if (!result.isThreadAllocatedMemorySupported()
+                    || !result.isThreadAllocatedMemoryEnabled())
+            {
+                result = null;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.profiling;
+
+/**
+ * JMX interface of {@link CheckProfiler}, registered under
+ * {@link CheckProfiler#OBJECT_NAME}.
+ */
+public interface CheckProfilerMBean
+{
+    /**
+     * @return true if checks are profiled.
+     */
+    boolean isEnabled();
+
+    /**
+     * Switches profiling on or off, takes effect from the next file.
+     * @param enabled
+     *        true to profile checks.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return names of profiled checks.
+     */
+    String[] getCheckNames();
+
+    /**
+     * @param checkName
+     *        name of check.
+     * @return wall time in nanoseconds spent by check.
+     */
+    long getTotalTime(String checkName);
+
+    /**
+     * @param checkName
+     *        name of check.
+     * @param tokenName
+     *        name of token type, e.g. "CTOR_DEF".
+     * @return wall time in nanoseconds spent by check on visiting of tokens of
+     *         the type.
+     */
+    long getTokenTime(String checkName, String tokenName);
+
+    /**
+     * @param checkName
+     *        name of check.
+     * @return invocation count of check.
+     */
+    long getInvocationCount(String checkName);
+
+    /**
+     * @param checkName
+     *        name of check.
+     * @return bytes allocated by check.
+     */
+    long getAllocatedBytes(String checkName);
+
+    /**
+     * @return human readable summary of all checks.
+     */
+    String getSummary();
+
+    /**
+     * Removes all accumulated statistics.
+     */
+    void reset();
+}
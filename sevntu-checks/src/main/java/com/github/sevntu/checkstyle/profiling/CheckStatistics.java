@@ -0,0 +1,274 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.profiling;
+
+import java.util.Arrays;
+
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+/**
+ * Accumulated wall time, invocation count and allocated bytes of one check.
+ * Values are kept separately for {@link #BEGIN_TREE}, {@link #FINISH_TREE} and
+ * each token type (time of visitToken and leaveToken of a token type is
+ * accumulated together, invocation count is the count of visited tokens).
+ * Instances are not thread safe.
+ */
+public final class CheckStatistics
+{
+    /** Event of beginTree call. */
+    public static final int BEGIN_TREE = -2;
+
+    /** Event of finishTree call. */
+    public static final int FINISH_TREE = -1;
+
+    /** Offset of token type in arrays of values. */
+    private static final int TOKENS_OFFSET = 2;
+
+    /** Initial size of arrays of values, enough for all token types. */
+    private static final int INITIAL_SIZE = 256;
+
+    /** Name of check. */
+    private final String checkName;
+
+    /** Count of processed files. */
+    private long filesCount;
+
+    /** Wall time in nanoseconds per event. */
+    private long[] times = new long[INITIAL_SIZE];
+
+    /** Invocation count per event. */
+    private long[] counts = new long[INITIAL_SIZE];
+
+    /** Allocated bytes per event. */
+    private long[] allocations = new long[INITIAL_SIZE];
+
+    /**
+     * Creates empty statistics.
+     * @param checkName
+     *        name of check.
+     */
+    public CheckStatistics(String checkName)
+    {
+        this.checkName = checkName;
+    }
+
+    /**
+     * @return name of check.
+     */
+    public String getCheckName()
+    {
+        return checkName;
+    }
+
+    /**
+     * Registers one invocation.
+     * @param event
+     *        {@link #BEGIN_TREE}, {@link #FINISH_TREE} or token type.
+     * @param time
+     *        wall time in nanoseconds.
+     * @param allocated
+     *        allocated bytes.
+     * @param invocation
+     *        true if invocation count should be increased, false if only time
+     *        and allocation are added to the previous invocation, e.g. for
+     *        leaveToken.
+     */
+    public void add(int event, long time, long allocated, boolean invocation)
+    {
+        final int index = event + TOKENS_OFFSET;
+        if (index >= times.length) {
+            final int size = Math.max(index + 1, times.length * 2);
+            times = Arrays.copyOf(times, size);
+            counts = Arrays.copyOf(counts, size);
+            allocations = Arrays.copyOf(allocations, size);
+        }
+        times[index] += time;
+        allocations[index] += allocated;
+        if (invocation) {
+            counts[index]++;
+        }
+    }
+
+    /**
+     * Registers one processed file.
+     */
+    public void addFile()
+    {
+        filesCount++;
+    }
+
+    /**
+     * Adds all values of other statistics to this one.
+     * @param other
+     *        statistics to add.
+     */
+    public void addAll(CheckStatistics other)
+    {
+        for (int index = 0; index < other.times.length; index++) {
+            if (other.counts[index] != 0 || other.times[index] != 0) {
+                add(index - TOKENS_OFFSET, other.times[index], other.allocations[index],
+                        false);
+                counts[index] += other.counts[index];
+            }
+        }
+        filesCount += other.filesCount;
+    }
+
+    /**
+     * Removes all accumulated values.
+     */
+    public void reset()
+    {
+        Arrays.fill(times, 0);
+        Arrays.fill(counts, 0);
+        Arrays.fill(allocations, 0);
+        filesCount = 0;
+    }
+
+    /**
+     * @return count of processed files.
+     */
+    public long getFilesCount()
+    {
+        return filesCount;
+    }
+
+    /**
+     * @param event
+     *        {@link #BEGIN_TREE}, {@link #FINISH_TREE} or token type.
+     * @return wall time in nanoseconds spent on event.
+     */
+    public long getTime(int event)
+    {
+        return getValue(times, event);
+    }
+
+    /**
+     * @param event
+     *        {@link #BEGIN_TREE}, {@link #FINISH_TREE} or token type.
+     * @return invocation count of event.
+     */
+    public long getCount(int event)
+    {
+        return getValue(counts, event);
+    }
+
+    /**
+     * @param event
+     *        {@link #BEGIN_TREE}, {@link #FINISH_TREE} or token type.
+     * @return bytes allocated by event.
+     */
+    public long getAllocated(int event)
+    {
+        return getValue(allocations, event);
+    }
+
+    /**
+     * @return wall time in nanoseconds spent on all events.
+     */
+    public long getTotalTime()
+    {
+        return sum(times);
+    }
+
+    /**
+     * @return invocation count of all events.
+     */
+    public long getTotalCount()
+    {
+        return sum(counts);
+    }
+
+    /**
+     * @return bytes allocated by all events.
+     */
+    public long getTotalAllocated()
+    {
+        return sum(allocations);
+    }
+
+    /**
+     * @return token types which were visited at least once, in ascending order.
+     */
+    public int[] getTokenTypes()
+    {
+        int size = 0;
+        final int[] result = new int[counts.length];
+        for (int index = TOKENS_OFFSET; index < counts.length; index++) {
+            if (counts[index] != 0) {
+                result[size] = index - TOKENS_OFFSET;
+                size++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Writes human readable summary of statistics.
+     * @param out
+     *        target of summary.
+     */
+    public void appendSummary(StringBuilder out)
+    {
+        final long total = getTotalTime();
+        out.append(String.format("%s: %d files, %d calls, %.3f ms, %d KB allocated%n",
+                checkName, filesCount, getTotalCount(), toMillis(total),
+                getTotalAllocated() / 1024));
+        appendEvent(out, "beginTree", BEGIN_TREE, total);
+        for (int type : getTokenTypes()) {
+            appendEvent(out, TokenTypes.getTokenName(type), type, total);
+        }
+        appendEvent(out, "finishTree", FINISH_TREE, total);
+    }
+
+    private void appendEvent(StringBuilder out, String name, int event, long total)
+    {
+        final long time = getTime(event);
+        final long count = getCount(event);
+        if (count != 0) {
+            out.append(String.format("    %-30s %10d calls %12.3f ms %6.1f%% %12d KB%n",
+                    name, count, toMillis(time), total == 0 ? 0 : time * 100.0 / total,
+                    getAllocated(event) / 1024));
+        }
+    }
+
+    private static double toMillis(long nanos)
+    {
+        return nanos / 1e6;
+    }
+
+    private long getValue(long[] values, int event)
+    {
+        final int index = event + TOKENS_OFFSET;
+        long result = 0;
+        if (index < values.length) {
+            result = values[index];
+        }
+        return result;
+    }
+
+    private static long sum(long[] values)
+    {
+        long result = 0;
+        for (long value : values) {
+            result += value;
+        }
+        return result;
+    }
+}
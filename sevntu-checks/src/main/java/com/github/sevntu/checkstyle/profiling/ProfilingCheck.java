@@ -0,0 +1,319 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.profiling;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import com.puppycrawl.tools.checkstyle.DefaultContext;
+import com.puppycrawl.tools.checkstyle.api.Check;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessages;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+/**
+ * <p>
+ * Wraps the only child check and measures wall time, invocation count and
+ * allocated bytes of its beginTree, visitToken, leaveToken and finishTree
+ * methods per token type. Violations of wrapped check are collected
+ * separately and reported by the wrapper at the end of each file with the
+ * same line, column and text. Statistics are accumulated by {@link CheckProfiler} only if profiling is
+ * switched on, otherwise wrapper just delegates all calls.
+ * </p>
+ * <p>
+ * Child check should be configured by full class name:
+ * </p>
+ * <pre>
+ * &lt;module name="TreeWalker"&gt;
+ *     &lt;module name="com.github.sevntu.checkstyle.profiling.ProfilingCheck"&gt;
+ *         &lt;module name="com.github.sevntu.checkstyle.checks.coding.OverridableMethodInConstructorCheck"&gt;
+ *             &lt;property name="checkCloneMethod" value="true"/&gt;
+ *         &lt;/module&gt;
+ *     &lt;/module&gt;
+ * &lt;/module&gt;
+ * </pre>
+ * <p>
+ * and profiling is switched on by "-Dsevntu.checkstyle.profiling=true".
+ * </p>
+ */
+public class ProfilingCheck extends Check
+{
+    /**
+     * Key of the message which repeats text of wrapped check violation.
+     */
+    public static final String MSG_KEY = "profiling.forwarded";
+
+    /** Messages collector of wrapped check. */
+    private final LocalizedMessages delegateMessages = new LocalizedMessages();
+
+    /** Wrapped check. */
+    private Check delegate;
+
+    /** Tokens which are visited by wrapped check. */
+    private int[] tokens;
+
+    /** Statistics of the current file. */
+    private CheckStatistics fileStatistics;
+
+    /** Whether the current file is profiled. */
+    private boolean profiled;
+
+    @Override
+    protected void setupChild(Configuration childConfig) throws CheckstyleException
+    {
+        if (delegate != null) {
+            throw new CheckstyleException("ProfilingCheck can wrap only one check, but "
+                    + childConfig.getName() + " is found after "
+                    + delegate.getClass().getName());
+        }
+        delegate = createDelegate(childConfig.getName());
+
+        final DefaultContext context = new DefaultContext();
+        context.add("classLoader", getClassLoader());
+        context.add("messages", delegateMessages);
+        context.add("severity", getSeverity());
+        context.add("tabWidth", String.valueOf(getTabWidth()));
+        delegate.contextualize(context);
+        delegate.configure(childConfig);
+
+        tokens = getDelegateTokens();
+        fileStatistics = new CheckStatistics(delegate.getClass().getName());
+    }
+
+    @Override
+    public int[] getDefaultTokens()
+    {
+        return tokens.clone();
+    }
+
+    @Override
+    public boolean isCommentNodesRequired()
+    {
+        return delegate.isCommentNodesRequired();
+    }
+
+    @Override
+    public void init()
+    {
+        if (delegate == null) {
+            throw new IllegalStateException("ProfilingCheck requires a check to wrap");
+        }
+        delegate.init();
+        CheckProfiler.getInstance().checkInitialized();
+    }
+
+    @Override
+    public void destroy()
+    {
+        delegate.destroy();
+        CheckProfiler.getInstance().checkDestroyed();
+    }
+
+    @Override
+    public void beginTree(DetailAST rootAST)
+    {
+        delegateMessages.reset();
+        delegate.setFileContents(getFileContents());
+        profiled = CheckProfiler.getInstance().isEnabled();
+        if (profiled) {
+            fileStatistics.reset();
+            final long allocated = CheckProfiler.getAllocatedBytes();
+            final long start = System.nanoTime();
+            delegate.beginTree(rootAST);
+            record(CheckStatistics.BEGIN_TREE, start, allocated, true);
+        }
+        else {
+            delegate.beginTree(rootAST);
+        }
+    }
+
+    @Override
+    public void visitToken(DetailAST ast)
+    {
+        if (profiled) {
+            final long allocated = CheckProfiler.getAllocatedBytes();
+            final long start = System.nanoTime();
+            delegate.visitToken(ast);
+            record(ast.getType(), start, allocated, true);
+        }
+        else {
+            delegate.visitToken(ast);
+        }
+    }
+
+    @Override
+    public void leaveToken(DetailAST ast)
+    {
+        if (profiled) {
+            final long allocated = CheckProfiler.getAllocatedBytes();
+            final long start = System.nanoTime();
+            delegate.leaveToken(ast);
+            record(ast.getType(), start, allocated, false);
+        }
+        else {
+            delegate.leaveToken(ast);
+        }
+    }
+
+    @Override
+    public void finishTree(DetailAST rootAST)
+    {
+        if (profiled) {
+            final long allocated = CheckProfiler.getAllocatedBytes();
+            final long start = System.nanoTime();
+            delegate.finishTree(rootAST);
+            record(CheckStatistics.FINISH_TREE, start, allocated, true);
+            fileStatistics.addFile();
+            CheckProfiler.getInstance().record(fileStatistics);
+        }
+        else {
+            delegate.finishTree(rootAST);
+        }
+        forwardMessages();
+    }
+
+    /**
+     * @return wrapped check.
+     */
+    public Check getDelegate()
+    {
+        return delegate;
+    }
+
+    /**
+     * Reports violations of wrapped check as violations of the wrapper.
+     * Check has no way to add ready message to the collector of TreeWalker,
+     * so formatted text of each message is logged by its own key.
+     */
+    private void forwardMessages()
+    {
+        for (LocalizedMessage message : delegateMessages.getMessages()) {
+            final int lineNo = message.getLineNo();
+            final int columnNo = message.getColumnNo();
+            if (columnNo == 0) {
+                log(lineNo, MSG_KEY, message.getMessage());
+            }
+            else {
+                log(lineNo, getRawColumn(getLines()[lineNo - 1], columnNo - 1), MSG_KEY,
+                        message.getMessage());
+            }
+        }
+        delegateMessages.reset();
+    }
+
+    /**
+     * Converts column with expanded tabs back to the index in the line, as
+     * {@link #log(int, int, String, Object...)} expands tabs on its own.
+     * @param line
+     *        text of the line.
+     * @param expandedColumn
+     *        zero based column with expanded tabs.
+     * @return index of the column in the line.
+     */
+    private int getRawColumn(String line, int expandedColumn)
+    {
+        final int tabWidth = getTabWidth();
+        int index = 0;
+        int length = 0;
+        while (index < line.length() && length < expandedColumn) {
+            if (line.charAt(index) == '\t') {
+                length = (length / tabWidth + 1) * tabWidth;
+            }
+            else {
+                length++;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    private void record(int event, long start, long allocated, boolean invocation)
+    {
+        final long time = System.nanoTime() - start;
+        fileStatistics.add(event, time, CheckProfiler.getAllocatedBytes() - allocated,
+                invocation);
+    }
+
+    /**
+     * Gets tokens of wrapped check in the same way as TreeWalker does: custom
+     * tokens are validated against acceptable ones and joined with required
+     * ones.
+     * @return tokens to visit.
+     * @throws CheckstyleException
+     *         if custom token is not acceptable by wrapped check.
+     */
+    private int[] getDelegateTokens() throws CheckstyleException
+    {
+        final Set<String> tokenNames = delegate.getTokenNames();
+        int[] result;
+        if (tokenNames.isEmpty()) {
+            result = delegate.getDefaultTokens();
+        }
+        else {
+            final int[] acceptableTokens = delegate.getAcceptableTokens().clone();
+            Arrays.sort(acceptableTokens);
+            final int[] requiredTokens = delegate.getRequiredTokens();
+            result = Arrays.copyOf(requiredTokens, requiredTokens.length + tokenNames.size());
+            int index = requiredTokens.length;
+            for (String tokenName : tokenNames) {
+                final int tokenId = TokenTypes.getTokenId(tokenName);
+                if (Arrays.binarySearch(acceptableTokens, tokenId) < 0) {
+                    throw new CheckstyleException("Token \"" + tokenName
+                            + "\" was not found in Acceptable tokens list in check "
+                            + delegate.getClass().getName());
+                }
+                result[index] = tokenId;
+                index++;
+            }
+        }
+        return result;
+    }
+
+    private Check createDelegate(String name) throws CheckstyleException
+    {
+        ClassLoader classLoader = getClassLoader();
+        if (classLoader == null) {
+            classLoader = ProfilingCheck.class.getClassLoader();
+        }
+        Class<?> checkClass;
+        try {
+            checkClass = Class.forName(name, true, classLoader);
+        }
+        catch (ClassNotFoundException ex) {
+            try {
+                checkClass = Class.forName(name + "Check", true, classLoader);
+            }
+            catch (ClassNotFoundException ignored) {
+                throw new CheckstyleException("Unable to find check class " + name, ex);
+            }
+        }
+        if (!Check.class.isAssignableFrom(checkClass)) {
+            throw new CheckstyleException(name + " is not a Check");
+        }
+        try {
+            return (Check) checkClass.getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException ex) {
+            throw new CheckstyleException("Unable to instantiate " + name, ex);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+public class AstIndexTest extends BaseCheckTestSupport
+{
+    private static final File INPUT = new File(AstIndexTest.class.getResource(
+            "/com/github/sevntu/checkstyle/checks/coding/InputAvoidHidingCauseExceptionCheck.java")
+            .getPath());
+
+    @Test
+    public void testSharedIndex() throws Exception
+    {
+        final DetailAST root = parse(INPUT);
+        final AstIndex index = AstIndex.get(root);
+        assertSame(index, AstIndex.get(root));
+        assertSame(root, index.getRootAST());
+        assertNotSame(index, AstIndex.get(parse(INPUT)));
+    }
+
+    @Test
+    public void testIndexOfNewRoot() throws Exception
+    {
+        final DetailAST firstRoot = parse(INPUT);
+        final DetailAST secondRoot = parse(INPUT);
+        final AstIndex firstIndex = AstIndex.get(firstRoot);
+        final AstIndex secondIndex = AstIndex.get(secondRoot);
+        assertNotSame(firstIndex, secondIndex);
+        assertSame(secondRoot, secondIndex.getRootAST());
+        assertEquals(-1, secondIndex.getPosition(firstRoot));
+
+        final AstIndex rebuiltIndex = AstIndex.get(firstRoot);
+        assertNotSame(firstIndex, rebuiltIndex);
+        assertNotSame(secondIndex, rebuiltIndex);
+        assertSame(firstRoot, rebuiltIndex.getRootAST());
+        assertEquals(0, rebuiltIndex.getPosition(firstRoot));
+        assertSame(rebuiltIndex, AstIndex.get(firstRoot));
+    }
+
+    @Test
+    public void testEmptyTree() throws Exception
+    {
+        final AstIndex index = AstIndex.get(null);
+        assertNull(index.getRootAST());
+        assertEquals(0, index.getNodesCount());
+        assertTrue(index.getTokens(TokenTypes.IDENT).isEmpty());
+        assertEquals(-1, index.getPosition(parse(INPUT)));
+    }
+
+    @Test
+    public void testPositions() throws Exception
+    {
+        final DetailAST root = parse(INPUT);
+        final AstIndex index = AstIndex.get(root);
+        final List<DetailAST> nodes = new ArrayList<DetailAST>();
+        for (DetailAST node = root; node != null; node = node.getNextSibling()) {
+            collect(node, nodes);
+        }
+        assertEquals(nodes.size(), index.getNodesCount());
+        for (int i = 0; i < nodes.size(); i++) {
+            final DetailAST node = nodes.get(i);
+            assertEquals(i, index.getPosition(node));
+            assertSame(node, index.getNode(i));
+            assertEquals(i + countDescendants(node) + 1, index.getSubtreeEnd(node));
+            assertTrue(index.isInSubtree(node, node));
+            if (node.getParent() != null) {
+                assertTrue(index.isInSubtree(node.getParent(), node));
+                assertFalse(index.isInSubtree(node, node.getParent()));
+            }
+        }
+        assertEquals(-1, index.getPosition(parse(INPUT)));
+    }
+
+    @Test
+    public void testDescendants() throws Exception
+    {
+        final DetailAST root = parse(INPUT);
+        final AstIndex index = AstIndex.get(root);
+        for (DetailAST classDef : index.getTokens(TokenTypes.CLASS_DEF)) {
+            for (int type : new int[] {TokenTypes.METHOD_CALL, TokenTypes.LITERAL_THROW,
+                TokenTypes.IDENT, TokenTypes.LITERAL_CATCH})
+            {
+                final List<DetailAST> all = new ArrayList<DetailAST>();
+                collectDescendants(classDef, type, false, new int[0], all);
+                assertEquals(all, index.getDescendants(classDef, type));
+                assertEquals(all, index.findDescendants(classDef, type, false));
+
+                final List<DetailAST> outermost = new ArrayList<DetailAST>();
+                collectDescendants(classDef, type, true, new int[0], outermost);
+                assertEquals(outermost, index.findDescendants(classDef, type, true));
+
+                final int[] skipped = {TokenTypes.LITERAL_TRY, TokenTypes.PARAMETER_DEF};
+                final List<DetailAST> notSkipped = new ArrayList<DetailAST>();
+                collectDescendants(classDef, type, true, skipped, notSkipped);
+                assertEquals(notSkipped, index.findDescendants(classDef, type, true, skipped));
+            }
+        }
+    }
+
+    @Test
+    public void testFindDescendantsWithSkippedTypes() throws Exception
+    {
+        final DetailAST root = parse(
+                "class Input {",
+                "    void method() {",
+                "        try { call(); } catch (RuntimeException e) { call(); }",
+                "        Runnable r = new Runnable() { public void run() { call(); } };",
+                "        call();",
+                "    }",
+                "    void call() {}",
+                "}");
+        final AstIndex index = AstIndex.get(root);
+        final DetailAST method = index.getTokens(TokenTypes.METHOD_DEF).get(0);
+        final List<DetailAST> calls = index.getDescendants(method, TokenTypes.METHOD_CALL);
+        assertEquals(4, calls.size());
+
+        assertEquals(calls, index.findDescendants(method, TokenTypes.METHOD_CALL, false,
+                TokenTypes.LITERAL_ASSERT));
+        assertEquals(calls.subList(3, 4), index.findDescendants(method,
+                TokenTypes.METHOD_CALL, false, TokenTypes.LITERAL_TRY, TokenTypes.OBJBLOCK));
+        assertEquals(Arrays.asList(calls.get(0), calls.get(2), calls.get(3)),
+                index.findDescendants(method, TokenTypes.METHOD_CALL, true,
+                        TokenTypes.LITERAL_ASSERT, TokenTypes.LITERAL_CATCH));
+        assertTrue(index.findDescendants(method, TokenTypes.LITERAL_ASSERT, false,
+                TokenTypes.LITERAL_TRY).isEmpty());
+        assertTrue(index.findDescendants(method, TokenTypes.METHOD_CALL, false,
+                TokenTypes.SLIST).isEmpty());
+    }
+
+    @Test
+    public void testBranchContainsHitsAndMisses() throws Exception
+    {
+        final DetailAST root = parse(
+                "class Input {",
+                "    void method() { call(); }",
+                "    void call() {}",
+                "}");
+        final AstIndex index = AstIndex.get(root);
+        final List<DetailAST> methods = index.getTokens(TokenTypes.METHOD_DEF);
+        assertTrue(index.branchContains(methods.get(0), TokenTypes.METHOD_CALL));
+        assertTrue(index.branchContains(methods.get(0), TokenTypes.METHOD_DEF));
+        assertFalse(index.branchContains(methods.get(1), TokenTypes.METHOD_CALL));
+        assertFalse(index.branchContains(methods.get(0), TokenTypes.LITERAL_ASSERT));
+        assertFalse(index.branchContains(root, Integer.MAX_VALUE));
+        assertFalse(index.isInSubtree(methods.get(0), methods.get(1)));
+    }
+
+    @Test
+    public void testBranchContains() throws Exception
+    {
+        final DetailAST root = parse(INPUT);
+        final AstIndex index = AstIndex.get(root);
+        for (int i = 0; i < index.getNodesCount(); i++) {
+            final DetailAST node = index.getNode(i);
+            for (int type : new int[] {TokenTypes.IDENT, TokenTypes.LITERAL_THROW,
+                TokenTypes.SLIST, TokenTypes.LITERAL_ASSERT, node.getType()})
+            {
+                assertEquals(node.branchContains(type), index.branchContains(node, type));
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownTokenType() throws Exception
+    {
+        final DetailAST root = parse(INPUT);
+        final AstIndex index = AstIndex.get(root);
+        assertTrue(index.getTokens(TokenTypes.LITERAL_ASSERT).isEmpty());
+        assertTrue(index.getDescendants(root, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testDeepTree() throws Exception
+    {
+        final int depth = 5000;
+        DetailAST root = null;
+        DetailAST deepest = null;
+        for (int i = 0; i < depth; i++) {
+            final DetailAST node = new DetailAST();
+            node.setType(TokenTypes.PLUS);
+            if (root == null) {
+                root = node;
+            }
+            else {
+                deepest.addChild(node);
+            }
+            deepest = node;
+        }
+        final AstIndex index = AstIndex.get(root);
+        assertEquals(depth, index.getNodesCount());
+        assertEquals(depth - 1, index.getPosition(deepest));
+        assertEquals(depth, index.getSubtreeEnd(root));
+        assertEquals(depth - 1, index.getDescendants(root, TokenTypes.PLUS).size());
+    }
+
+    @Test
+    public void testNodeOutOfRange() throws Exception
+    {
+        final AstIndex index = AstIndex.get(parse(INPUT));
+        for (int position : new int[] {-1, index.getNodesCount()}) {
+            try {
+                index.getNode(position);
+                fail("Node " + position + " is out of range");
+            }
+            catch (IndexOutOfBoundsException ex) {
+                assertTrue(ex.getMessage().contains(String.valueOf(position)));
+            }
+        }
+        final List<DetailAST> idents = index.getTokens(TokenTypes.IDENT);
+        for (int position : new int[] {-1, idents.size()}) {
+            try {
+                idents.get(position);
+                fail("Element " + position + " is out of range");
+            }
+            catch (IndexOutOfBoundsException ex) {
+                assertTrue(ex.getMessage().contains(String.valueOf(position)));
+            }
+        }
+        assertTrue(index.getTokens(-1).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotIndexedNode() throws Exception
+    {
+        AstIndex.get(parse(INPUT)).getSubtreeEnd(parse(INPUT));
+    }
+
+    private static void collect(DetailAST node, List<DetailAST> result)
+    {
+        result.add(node);
+        for (DetailAST child = node.getFirstChild(); child != null;
+                child = child.getNextSibling())
+        {
+            collect(child, result);
+        }
+    }
+
+    private static int countDescendants(DetailAST node)
+    {
+        int result = 0;
+        for (DetailAST child = node.getFirstChild(); child != null;
+                child = child.getNextSibling())
+        {
+            result += 1 + countDescendants(child);
+        }
+        return result;
+    }
+
+    private static void collectDescendants(DetailAST node, int type, boolean outermostOnly,
+            int[] skippedTypes, List<DetailAST> result)
+    {
+        for (DetailAST child = node.getFirstChild(); child != null;
+                child = child.getNextSibling())
+        {
+            boolean skipped = false;
+            for (int skippedType : skippedTypes) {
+                skipped |= child.getType() == skippedType;
+            }
+            if (child.getType() == type) {
+                result.add(child);
+                skipped |= outermostOnly;
+            }
+            if (!skipped) {
+                collectDescendants(child, type, outermostOnly, skippedTypes, result);
+            }
+        }
+    }
+}
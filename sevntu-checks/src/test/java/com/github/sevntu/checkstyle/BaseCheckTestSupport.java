@@ -11,6 +11,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
@@ -24,6 +25,9 @@ import com.puppycrawl.tools.checkstyle.DefaultLogger;
 import com.puppycrawl.tools.checkstyle.TreeWalker;
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
 
 public abstract class BaseCheckTestSupport extends Assert
 {
@@ -100,6 +104,35 @@ public abstract class BaseCheckTestSupport extends Assert
 		}
 	}
 
+	/**
+	 * Verifies file in a new thread with stack of the given size, as the main
+	 * thread of tests may have much bigger stack than threads of tools which
+	 * run Checkstyle.
+	 * @param stackSize the stack size of thread, in bytes.
+	 */
+	protected void verifyWithStackSize(final Configuration config, final String fileName,
+			final String[] expected, long stackSize) throws Exception
+	{
+		final Throwable[] failure = new Throwable[1];
+		final Thread thread = new Thread(null, new Runnable() {
+			@Override
+			public void run() {
+				try {
+					verify(config, fileName, expected);
+				} catch (Throwable e) {
+					failure[0] = e;
+				}
+			}
+		}, "verify", stackSize);
+		thread.start();
+		thread.join();
+		if (failure[0] instanceof Error) {
+			throw (Error) failure[0];
+		} else if (failure[0] != null) {
+			throw (Exception) failure[0];
+		}
+	}
+
 	protected Checker createChecker(Configuration checkConfig) throws Exception
 	{
 		Checker checker = new Checker();
@@ -128,6 +161,56 @@ public abstract class BaseCheckTestSupport extends Assert
 		return result;
 	}
 
+	/**
+	 * Reads file with the charset of tests.
+	 * @param file the file to read.
+	 */
+	public static FileContents getFileContents(File file) throws IOException
+	{
+		return new FileContents(new FileText(file, "iso-8859-1"));
+	}
+
+	/**
+	 * Creates contents of file "Input.java" from lines of source code, nothing
+	 * is written to disk.
+	 * @param lines the lines of source code.
+	 */
+	public static FileContents getFileContents(String... lines)
+	{
+		return new FileContents(FileText.fromLines(new File("Input.java"), Arrays.asList(lines)));
+	}
+
+	/**
+	 * Parses file contents like TreeWalker does, comments are registered in
+	 * the contents.
+	 * @param contents the contents of file.
+	 * @return the root of syntax tree.
+	 */
+	public static DetailAST parse(FileContents contents) throws Exception
+	{
+		return TreeWalker.parse(contents);
+	}
+
+	/**
+	 * Parses file with the charset of tests.
+	 * @param file the file to parse.
+	 * @return the root of syntax tree.
+	 */
+	public static DetailAST parse(File file) throws Exception
+	{
+		return parse(getFileContents(file));
+	}
+
+	/**
+	 * Parses lines of source code.
+	 * @param lines the lines of source code.
+	 * @return the root of syntax tree.
+	 */
+	public static DetailAST parse(String... lines) throws Exception
+	{
+		return parse(getFileContents(lines));
+	}
+
 	protected String getPath(String filename)
 	{
 		String result = null;
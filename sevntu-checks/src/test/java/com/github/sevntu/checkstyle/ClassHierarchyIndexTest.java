@@ -0,0 +1,157 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.github.sevntu.checkstyle.ClassHierarchyIndex.MethodSummary;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+public class ClassHierarchyIndexTest extends BaseCheckTestSupport
+{
+    private static final String PACKAGE = "com.github.sevntu.checkstyle.checks.coding.";
+
+    private static File getInput(String name)
+    {
+        return new File(ClassHierarchyIndexTest.class.getResource(
+                "/com/github/sevntu/checkstyle/checks/coding/" + name).getPath());
+    }
+
+    private static ClassHierarchyIndex.Builder createBuilder() throws Exception
+    {
+        return new ClassHierarchyIndex.Builder().setCharset("UTF-8")
+                .addFiles(getInput("InputOverridableMethodInConstructor30.java"))
+                .addFiles(getInput("InputOverridableMethodInConstructor31.java"));
+    }
+
+    @Test
+    public void testBuild() throws Exception
+    {
+        final ClassHierarchyIndex index = createBuilder().build();
+        assertEquals(3, index.getClassesCount());
+        assertTrue(index.contains(PACKAGE + "InputOverridableMethodInConstructor31.Nested"));
+        assertFalse(index.contains(PACKAGE + "Local"));
+        assertEquals(PACKAGE + "InputOverridableMethodInConstructor31",
+                index.getSuperClass(PACKAGE + "InputOverridableMethodInConstructor30"));
+        assertEquals(PACKAGE + "InputOverridableMethodInConstructor31",
+                index.getSuperClass(PACKAGE + "InputOverridableMethodInConstructor31.Nested"));
+        assertNull(index.getSuperClass(PACKAGE + "InputOverridableMethodInConstructor31"));
+        assertNull(index.getSuperClass("Unknown"));
+
+        final String className = PACKAGE + "InputOverridableMethodInConstructor30";
+        final List<MethodSummary> overloaded = index.getMethods(className, "overloaded");
+        assertEquals(2, overloaded.size());
+        assertEquals("overloaded", overloaded.get(0).getName());
+        assertEquals(0, overloaded.get(0).getParamsCount());
+        assertEquals(1, overloaded.get(1).getParamsCount());
+        assertEquals(0, overloaded.get(0).getModifiers());
+        assertEquals(ClassHierarchyIndex.FINAL,
+                index.getMethods(className, "finalMethod").get(0).getModifiers());
+        assertEquals(ClassHierarchyIndex.STATIC,
+                index.getMethods(className, "staticMethod").get(0).getModifiers());
+        assertTrue(index.getMethods(className, "deepOverridable").isEmpty());
+        assertTrue(index.getMethods(className, "unknown").isEmpty());
+        assertTrue(index.getMethods("Unknown", "overloaded").isEmpty());
+    }
+
+    @Test
+    public void testWriteAndLoad() throws Exception
+    {
+        final File file = File.createTempFile("class-hierarchy", ".bin");
+        file.deleteOnExit();
+        createBuilder().write(file);
+        final ClassHierarchyIndex index = ClassHierarchyIndex.load(file);
+        assertSame(index, ClassHierarchyIndex.load(file));
+        assertEquals(3, index.getClassesCount());
+        assertEquals(1, index.getMethods(PACKAGE + "InputOverridableMethodInConstructor31",
+                "deepOverridable").size());
+    }
+
+    @Test(expected = IOException.class)
+    public void testLoadInvalidFile() throws Exception
+    {
+        final File file = File.createTempFile("class-hierarchy", ".bin");
+        file.deleteOnExit();
+        try (FileOutputStream output = new FileOutputStream(file)) {
+            output.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        ClassHierarchyIndex.load(file);
+    }
+
+    @Test
+    public void testResolve() throws Exception
+    {
+        final ClassHierarchyIndex index = createBuilder().build();
+        final DetailAST root = parse(getInput("InputOverridableMethodInConstructor29.java"));
+        final DetailAST classDef = AstIndex.get(root).getTokens(TokenTypes.CLASS_DEF).get(0);
+        assertEquals(PACKAGE + "InputOverridableMethodInConstructor30",
+                index.resolve(classDef, "InputOverridableMethodInConstructor30"));
+        assertEquals(PACKAGE + "InputOverridableMethodInConstructor31.Nested",
+                index.resolve(classDef, "InputOverridableMethodInConstructor31.Nested"));
+        assertEquals(PACKAGE + "InputOverridableMethodInConstructor31",
+                index.resolve(classDef, PACKAGE + "InputOverridableMethodInConstructor31"));
+        assertNull(index.resolve(classDef, "ArrayList"));
+        assertEquals(PACKAGE + "InputOverridableMethodInConstructor29",
+                ClassHierarchyIndex.getClassName(classDef));
+        assertEquals("InputOverridableMethodInConstructor30",
+                ClassHierarchyIndex.getSuperClassName(classDef));
+    }
+
+    @Test
+    public void testResolveInLocalClass() throws Exception
+    {
+        final ClassHierarchyIndex index = createBuilder().build();
+        final DetailAST root = parse(getInput("InputOverridableMethodInConstructor31.java"));
+        final List<DetailAST> classDefs = AstIndex.get(root).getTokens(TokenTypes.CLASS_DEF);
+        final DetailAST localClassDef = classDefs.get(classDefs.size() - 1);
+        assertNull(ClassHierarchyIndex.getClassName(localClassDef));
+        assertEquals(PACKAGE + "InputOverridableMethodInConstructor31.Nested",
+                index.resolve(localClassDef.getLastChild(), "Nested", ImportIndex.get(root)));
+    }
+
+    @Test
+    public void testMain() throws Exception
+    {
+        final File file = File.createTempFile("class-hierarchy", ".bin");
+        file.deleteOnExit();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ByteArrayOutputStream err = new ByteArrayOutputStream();
+        ClassHierarchyIndex.main(new PrintStream(out, true), new PrintStream(err, true),
+                file.getPath(),
+                getInput("InputOverridableMethodInConstructor30.java").getParent());
+        assertTrue(ClassHierarchyIndex.load(file).contains(
+                PACKAGE + "InputOverridableMethodInConstructor29"));
+        assertTrue(out.toString().startsWith("Indexed "));
+        assertEquals(0, err.size());
+
+        out.reset();
+        ClassHierarchyIndex.main(new PrintStream(out, true), new PrintStream(err, true),
+                file.getPath());
+        assertEquals(0, out.size());
+        assertTrue(err.toString().startsWith("Usage: "));
+    }
+}
@@ -0,0 +1,107 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+
+public class CommentIndexTest extends BaseCheckTestSupport
+{
+    private static final String[] INPUTS = {
+        "/com/github/sevntu/checkstyle/checks/coding/InputForbidCCommentsInMethods.java",
+        "/com/github/sevntu/checkstyle/checks/coding/InputForbidCCommentsInMethods3.java",
+        "/com/github/sevntu/checkstyle/checks/coding/InputTernaryPerExpressionCountCheck.java",
+    };
+
+    private FileContents parseContents(String resource) throws Exception
+    {
+        final FileContents contents = getFileContents(new File(getPath(resource)));
+        parse(contents);
+        return contents;
+    }
+
+    @Test
+    public void testSharedIndex() throws Exception
+    {
+        final FileContents contents = parseContents(INPUTS[0]);
+        final CommentIndex index = CommentIndex.get(contents);
+        assertSame(index, CommentIndex.get(contents));
+        assertNotSame(index, CommentIndex.get(parseContents(INPUTS[0])));
+    }
+
+    @Test
+    public void testComments() throws Exception
+    {
+        for (String input : INPUTS) {
+            final FileContents contents = parseContents(input);
+            final CommentIndex index = CommentIndex.get(contents);
+            int blockCommentsCount = 0;
+            for (int i = 0; i < index.getCommentsCount(); i++) {
+                if (index.isBlockComment(i)) {
+                    blockCommentsCount++;
+                    assertTrue(contents.getCComments().get(index.getStartLineNo(i))
+                            .get(0).getStartColNo() <= index.getStartColNo(i));
+                }
+                else {
+                    assertEquals(index.getStartColNo(i), contents.getCppComments()
+                            .get(index.getStartLineNo(i)).getStartColNo());
+                    assertEquals(index.getStartLineNo(i), index.getEndLineNo(i));
+                }
+                assertEquals(i, index.findFirstComment(index.getStartLineNo(i),
+                        index.getStartColNo(i)));
+                if (i > 0) {
+                    assertTrue(index.getStartLineNo(i) >= index.getEndLineNo(i - 1));
+                }
+            }
+            int expectedBlockComments = 0;
+            for (List<?> lineComments : contents.getCComments().values()) {
+                expectedBlockComments += lineComments.size();
+            }
+            assertEquals(expectedBlockComments, blockCommentsCount);
+            assertEquals(expectedBlockComments + contents.getCppComments().size(),
+                    index.getCommentsCount());
+        }
+    }
+
+    @Test
+    public void testIntersections() throws Exception
+    {
+        for (String input : INPUTS) {
+            final FileContents contents = parseContents(input);
+            final CommentIndex index = CommentIndex.get(contents);
+            final String[] lines = contents.getLines();
+            for (int line = 1; line <= lines.length; line++) {
+                for (int col = 0; col <= lines[line - 1].length(); col++) {
+                    assertEquals(input + ":" + line + ":" + col,
+                            contents.hasIntersectionWithComment(line, col, line, col),
+                            index.isInComment(line, col));
+                    if (line < lines.length) {
+                        assertEquals(input + ":" + line + ":" + col,
+                                contents.hasIntersectionWithComment(line, col, line + 1, 0),
+                                index.hasIntersectionWithComment(line, col, line + 1, 0));
+                    }
+                }
+            }
+        }
+    }
+}
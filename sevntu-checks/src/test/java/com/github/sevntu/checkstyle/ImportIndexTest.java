@@ -0,0 +1,163 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+
+public class ImportIndexTest extends BaseCheckTestSupport
+{
+    private static List<String> toList(Iterable<String> names)
+    {
+        final List<String> result = new ArrayList<>();
+        for (String name : names) {
+            result.add(name);
+        }
+        return result;
+    }
+
+    @Test
+    public void testSharedIndex() throws Exception
+    {
+        final DetailAST root = parse("class Input {}");
+        final ImportIndex index = ImportIndex.get(root);
+        assertSame(index, ImportIndex.get(root));
+        assertNotSame(index, ImportIndex.get(parse("class Input {}")));
+    }
+
+    @Test
+    public void testImports() throws Exception
+    {
+        final ImportIndex index = ImportIndex.get(parse(
+                "package com.example.app;",
+                "import java.util.List;",
+                "import java.util.*;",
+                "import java.awt.List;",
+                "import static java.lang.Math.max;",
+                "import static java.util.Collections.*;",
+                "import javax.persistence.*;",
+                "import com.google.inject.Inject;",
+                "import java.util.List;",
+                "import java.util.*;",
+                "class Input {}"));
+        assertEquals("com.example.app", index.getPackageName());
+        assertEquals(Arrays.asList("java.util.List", "java.awt.List", "com.google.inject.Inject"),
+                new ArrayList<>(index.getSingleTypeImports()));
+        assertEquals(Arrays.asList("java.util", "javax.persistence"),
+                new ArrayList<>(index.getOnDemandImports()));
+        assertEquals("java.util.List", index.getSingleTypeImport("List"));
+        assertEquals("com.google.inject.Inject", index.getSingleTypeImport("Inject"));
+        assertNull(index.getSingleTypeImport("max"));
+        assertNull(index.getSingleTypeImport("Map"));
+        assertTrue(index.isImported("java.awt.List"));
+        assertFalse(index.isImported("java.util.*"));
+        assertFalse(index.isImported("java.lang.Math.max"));
+        assertTrue(index.isOnDemandImported("javax.persistence"));
+        assertFalse(index.isOnDemandImported("java.util.Collections"));
+        assertFalse(index.isOnDemandImported("java"));
+
+        assertEquals(Arrays.asList("com.google.inject.Inject", "com.example.app.Inject",
+                "java.util.Inject", "javax.persistence.Inject"),
+                toList(index.getCandidates("Inject")));
+        assertEquals(Arrays.asList("java.util.List.Entry", "com.example.app.List.Entry",
+                "java.util.List.Entry", "javax.persistence.List.Entry"),
+                toList(index.getCandidates("List.Entry")));
+        assertEquals(Arrays.asList("com.example.app.Entity", "java.util.Entity",
+                "javax.persistence.Entity"), toList(index.getCandidates("Entity")));
+    }
+
+    @Test
+    public void testDefaultPackage() throws Exception
+    {
+        final ImportIndex index = ImportIndex.get(parse(
+                "import java.util.Map;",
+                "class Input {}"));
+        assertEquals("", index.getPackageName());
+        assertTrue(index.getOnDemandImports().isEmpty());
+        assertEquals(Arrays.asList("java.util.Map.Entry", "Map.Entry"),
+                toList(index.getCandidates("Map.Entry")));
+        assertEquals(Arrays.asList("Entity"), toList(index.getCandidates("Entity")));
+    }
+
+    @Test
+    public void testIsCandidate() throws Exception
+    {
+        final List<String> typeNames = Arrays.asList("Inject", "List", "List.Entry", "Map.Entry",
+                "Entity", "Input", "util.List", "a");
+        final List<String> classNames = Arrays.asList("Inject", "com.google.inject.Inject",
+                "java.util.List", "java.awt.List", "java.util.List.Entry", "java.util.Map.Entry",
+                "Map.Entry", "com.example.app.Entity", "javax.persistence.Entity",
+                "javax.persistence.entity.Entity", "javaxpersistence.Entity", ".Entity",
+                "com.example.app.Input", "Input", "java.util.util.List", "com.example.app.a",
+                "com.example.appEntity", "java.awt.xList");
+        final ImportIndex[] indexes = {
+            ImportIndex.get(parse(
+                    "package com.example.app;",
+                    "import java.util.*;",
+                    "import javax.persistence.*;",
+                    "import com.google.inject.Inject;",
+                    "import java.util.List;",
+                    "class Input {}")),
+            ImportIndex.get(parse(
+                    "import java.util.Map;",
+                    "import a;",
+                    "class Input {}")),
+        };
+        for (ImportIndex index : indexes) {
+            for (String typeName : typeNames) {
+                final List<String> candidates = toList(index.getCandidates(typeName));
+                for (String className : classNames) {
+                    assertEquals(typeName + " " + className, candidates.contains(className),
+                            index.isCandidate(typeName, className));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCandidatesIterator() throws Exception
+    {
+        final ImportIndex index = ImportIndex.get(parse("class Input {}"));
+        final Iterator<String> iterator = index.getCandidates("Input").iterator();
+        assertTrue(iterator.hasNext());
+        assertEquals("Input", iterator.next());
+        assertFalse(iterator.hasNext());
+        try {
+            iterator.next();
+            fail();
+        }
+        catch (NoSuchElementException ex) {
+            assertFalse(iterator.hasNext());
+        }
+        try {
+            iterator.remove();
+            fail();
+        }
+        catch (UnsupportedOperationException ex) {
+            assertFalse(iterator.hasNext());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NameMatcherTest extends Assert
+{
+    private static final String[] SIMPLE_REGEXPS = {
+        "",
+        ".+Exception",
+        "Test|org.junit.Test",
+        ".+Test\\d*|.+Tests\\d*|Test.+|Tests.+|.+IT|.+ITs|.+TestCase\\d*|.+TestCases\\d*",
+        "^toString$",
+        "toString",
+        "java\\.util\\..*",
+        "com.google.*|org.apache.*",
+        ".*Test.*",
+        "Foo|Bar|oo|Baz|az",
+        "a|ab|bab|bc|bca|c|caa",
+        "^Test|Case$",
+        ".*",
+        ".+",
+        "^.+\\d*$",
+        "Test1\\d*",
+        ".*1\\d*",
+        ".+\\$Inner",
+        "a.c",
+        "a..c",
+        ".*a.c.+",
+        "^$",
+        "|x",
+        "\\.\\*",
+    };
+
+    private static final String[] COMPLEX_REGEXPS = {
+        "[A-Z][a-z]*",
+        "^[A-Z][A-Z0-9]*(_[A-Z0-9]+)*$",
+        "a+",
+        "a*b",
+        "ab?",
+        "x{2}",
+        "\\w+",
+        "\\Qa.b\\E",
+        ".*?x",
+        "(?i)test",
+    };
+
+    private static final String[] NAMES = {
+        "",
+        "a",
+        "abc",
+        "aXc",
+        "Test",
+        "Tests",
+        "MyTest",
+        "MyTest12",
+        "MyTest1a",
+        "Test1",
+        "Test12",
+        "1",
+        "x1",
+        "Testx",
+        "MyTests3",
+        "MyIT",
+        "IT",
+        "MyTestCase",
+        "TestCase07",
+        "Exception",
+        "MyException",
+        "MyExceptionX",
+        "toString",
+        "toStringX",
+        "org.junit.Test",
+        "orgXjunitXTest",
+        "java.util.List",
+        "java.utilXList",
+        "java.util.",
+        "com.google.common",
+        "com.google",
+        "Foo",
+        "xBazx",
+        "bcaa",
+        "cab",
+        "abab",
+        "Outer$Inner",
+        "$Inner",
+        ".*",
+        "\n",
+        "a\nc",
+        "x\ny",
+        "Test\n",
+        "My Test",
+        "\u0085Exception",
+        "a\uD83D\uDE00c",
+        "a\uD83Dc",
+        "\uD83D\uDE00Exception",
+        "MyTest\uD83D\uDE00",
+    };
+
+    @Test
+    public void testSimpleRegexps()
+    {
+        for (String regexp : SIMPLE_REGEXPS) {
+            assertTrue(regexp, NameMatcher.compile(regexp).isSimple());
+            assertTrue(regexp, NameMatcher.compileForFind(regexp).isSimple());
+            verifyMatches(regexp);
+        }
+    }
+
+    @Test
+    public void testComplexRegexps()
+    {
+        for (String regexp : COMPLEX_REGEXPS) {
+            assertFalse(regexp, NameMatcher.compile(regexp).isSimple());
+            verifyMatches(regexp);
+        }
+    }
+
+    @Test
+    public void testRegexpsCollection()
+    {
+        final List<String> regexps = Arrays.asList("equals", "hashCode|toString", "get.+",
+                ".+Test\\d*", "[a-z]+Case", ".*Exception.*", "run|.*Runnable.*");
+        final NameMatcher matcher = NameMatcher.compile(regexps);
+        assertFalse(matcher.isSimple());
+        assertTrue(NameMatcher.compile(regexps.subList(0, 4)).isSimple());
+        for (String name : NAMES) {
+            boolean expected = false;
+            for (String regexp : regexps) {
+                expected |= name.matches(regexp);
+            }
+            assertEquals(name, expected, matcher.matches(name));
+        }
+        assertTrue(matcher.matches("hashCode"));
+        assertTrue(matcher.matches("getName"));
+        assertTrue(matcher.matches("upperCase"));
+        assertTrue(matcher.matches("MyRunnableTask"));
+        assertFalse(matcher.matches("get"));
+        assertFalse(NameMatcher.compile(new ArrayList<String>()).matches(""));
+    }
+
+    @Test
+    public void testLiteralNames()
+    {
+        assertEquals(new HashSet<>(Arrays.asList("javax.persistence.Entity", "Entity")),
+                new HashSet<>(NameMatcher.compile("javax\\.persistence\\.Entity|Entity")
+                        .getLiteralNames()));
+        assertEquals(new HashSet<>(Arrays.asList("equals", "hashCode")),
+                new HashSet<>(NameMatcher.compile(Arrays.asList("equals", "hashCode"))
+                        .getLiteralNames()));
+        assertNull(NameMatcher.compile("javax.persistence.Entity").getLiteralNames());
+        assertNull(NameMatcher.compile("Entity|.+Entity").getLiteralNames());
+        assertNull(NameMatcher.compile("Entity|[A-Z]").getLiteralNames());
+        assertNull(NameMatcher.compileForFind("Entity").getLiteralNames());
+    }
+
+    @Test
+    public void testToString()
+    {
+        assertEquals(".+Exception", NameMatcher.compile(".+Exception").toString());
+        assertEquals("equals,get.+",
+                NameMatcher.compile(Arrays.asList("equals", "get.+")).toString());
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testInvalidRegexp()
+    {
+        NameMatcher.compile("abc\\");
+    }
+
+    private static void verifyMatches(String regexp)
+    {
+        final Pattern pattern = Pattern.compile(regexp);
+        final NameMatcher wholeNameMatcher = NameMatcher.compile(regexp);
+        final NameMatcher partMatcher = NameMatcher.compileForFind(regexp);
+        for (String name : NAMES) {
+            final String message = "'" + regexp + "' against '" + name + "'";
+            assertEquals(message, pattern.matcher(name).matches(),
+                    wholeNameMatcher.matches(name));
+            assertEquals(message, pattern.matcher(name).find(), partMatcher.matches(name));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StringLiteralIndexTest
+{
+    @Test
+    public void testWithoutSpills() throws IOException
+    {
+        final StringLiteralIndex index = new StringLiteralIndex(4, 1024 * 1024, null);
+        fill(index);
+        Assert.assertEquals(0, index.getSpillsCount());
+        Assert.assertEquals(getExpected(), collect(index));
+        index.close();
+    }
+
+    @Test
+    public void testSpills() throws IOException
+    {
+        final StringLiteralIndex index = new StringLiteralIndex(4, 300, null);
+        fill(index);
+        Assert.assertTrue(index.getSpillsCount() > 1);
+        Assert.assertEquals(getExpected(), collect(index));
+        index.close();
+    }
+
+    @Test
+    public void testSpillEveryOccurrence() throws IOException
+    {
+        final StringLiteralIndex index = new StringLiteralIndex(1, 0, null);
+        fill(index);
+        Assert.assertEquals(9, index.getSpillsCount());
+        Assert.assertEquals(getExpected(), collect(index));
+        index.close();
+        Assert.assertEquals(new ArrayList<String>(), collect(index));
+    }
+
+    private static void fill(StringLiteralIndex index) throws IOException
+    {
+        final int first = index.addFile("First.java");
+        index.add("\"a\"", first, 1, 2);
+        index.add("\"\u0436\"", first, 3, 4);
+        index.add("\"a\"", first, 5, 6);
+        final int second = index.addFile("Second.java");
+        index.add("\"b\"", second, 7, 8);
+        index.add("\"a\"", second, 9, 10);
+        index.add("\"c\"", second, 11, 12);
+        final int third = index.addFile("Third.java");
+        index.add("\"a\"", third, 13, 14);
+        index.add("\"b\"", third, 15, 16);
+        index.add("\"\u0436\"", third, 17, 18);
+    }
+
+    private static List<String> getExpected()
+    {
+        return Arrays.asList(
+                "\"a\" 3 First.java:1:2 First.java:5:6 Second.java:9:10 Third.java:13:14",
+                "\"b\" 2 Second.java:7:8 Third.java:15:16",
+                "\"c\" 1 Second.java:11:12",
+                "\"\u0436\" 2 First.java:3:4 Third.java:17:18");
+    }
+
+    private static List<String> collect(final StringLiteralIndex index) throws IOException
+    {
+        final List<String> result = new ArrayList<>();
+        index.forEachLiteral(new StringLiteralIndex.LiteralHandler() {
+            @Override
+            public void handle(String literal, StringLiteralIndex.Occurrences occurrences)
+            {
+                final StringBuilder text = new StringBuilder(literal).append(' ')
+                        .append(occurrences.getFilesCount());
+                for (int i = 0; i < occurrences.size(); i++) {
+                    text.append(' ').append(index.getFileName(occurrences.getFileNumber(i)))
+                            .append(':').append(occurrences.getLine(i))
+                            .append(':').append(occurrences.getColumn(i));
+                }
+                result.add(text.toString());
+            }
+        });
+        Collections.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,147 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+public class SymbolTableTest extends BaseCheckTestSupport
+{
+    /**
+     * Walks tree like TreeWalker does and describes argument of each call of
+     * "use" by its declared type, and argument of each call of "useField" by
+     * line of field declaration.
+     */
+    private static List<String> describeUsages(SymbolTable table, DetailAST root)
+    {
+        final int[] tokens = SymbolTable.getTokens(TokenTypes.METHOD_CALL);
+        Arrays.sort(tokens);
+        final List<String> result = new ArrayList<>();
+        table.clear();
+        describeUsages(table, root, tokens, result);
+        return result;
+    }
+
+    private static void describeUsages(SymbolTable table, DetailAST node, int[] tokens,
+            List<String> result)
+    {
+        for (DetailAST child = node; child != null; child = child.getNextSibling()) {
+            final boolean isToken = Arrays.binarySearch(tokens, child.getType()) >= 0;
+            if (isToken) {
+                table.visitToken(child);
+            }
+            if (child.getType() == TokenTypes.METHOD_CALL) {
+                final String method = child.getFirstChild().getText();
+                final DetailAST argument = child.findFirstToken(TokenTypes.ELIST).getFirstChild();
+                final String name = argument == null ? null : argument.getFirstChild().getText();
+                if ("use".equals(method)) {
+                    result.add(child.getLineNo() + ":" + name + "="
+                            + table.getDeclaredType(name));
+                }
+                else if ("useField".equals(method)) {
+                    final DetailAST field = table.getFieldDeclaration(name);
+                    result.add(child.getLineNo() + ":this." + name + "="
+                            + (field == null ? null : field.getLineNo()));
+                }
+            }
+            describeUsages(table, child.getFirstChild(), tokens, result);
+            if (isToken) {
+                table.leaveToken(child);
+            }
+        }
+    }
+
+    @Test
+    public void testGetTokens()
+    {
+        final int[] tokens = SymbolTable.getTokens();
+        assertEquals(tokens.length + 1,
+                SymbolTable.getTokens(TokenTypes.LITERAL_FOR, TokenTypes.METHOD_CALL).length);
+        Arrays.sort(tokens);
+        assertTrue(Arrays.binarySearch(tokens, TokenTypes.SLIST) >= 0);
+        assertTrue(Arrays.binarySearch(tokens, TokenTypes.VARIABLE_DEF) >= 0);
+    }
+
+    @Test
+    public void testScopes() throws Exception
+    {
+        final DetailAST root = parse(
+            "class Input {",
+            "    void before() { use(field); }",
+            "    java.util.Map<String, Integer>[] field;",
+            "    int value; int[][] matrix = { { use(matrix) } };",
+            "    void method(String value, int... counts) {",
+            "        use(value); use(counts); useField(value);",
+            "        for (int i = 0; i < 1; i++) { long value = i; use(value); use(i); }",
+            "        use(value); use(i);",
+            "        try (java.io.Reader reader = open()) { use(reader); }",
+            "        catch (RuntimeException value) { use(value); }",
+            "        Function f = value -> use(value); BiFunction h = (key, value) -> use(key);",
+            "        Function g = (Integer value) -> use(value);",
+            "        switch (value) { case \"a\": int local = 1; case \"b\": use(local); }",
+            "        new Object() {",
+            "            Object value;",
+            "            void inner() { use(value); useField(value); useField(field); }",
+            "        };",
+            "        use(local); use(unknown);",
+            "    }",
+            "}");
+        final SymbolTable table = new SymbolTable();
+        final List<String> expected = Arrays.asList(
+                "2:field=java.util.Map[]", "4:matrix=int[][]",
+                "6:value=String", "6:counts=int", "6:this.value=4",
+                "7:value=long", "7:i=int",
+                "8:value=String", "8:i=null",
+                "9:reader=java.io.Reader",
+                "10:value=RuntimeException",
+                "11:value=null", "11:key=null",
+                "12:value=Integer",
+                "13:local=int",
+                "16:value=Object", "16:this.value=15", "16:this.field=null",
+                "18:local=null", "18:unknown=null");
+        assertEquals(expected, describeUsages(table, root));
+        // the same instance is reused for the next file
+        assertEquals(expected, describeUsages(table, root));
+    }
+
+    @Test
+    public void testOutsideOfScopes() throws Exception
+    {
+        final SymbolTable table = new SymbolTable();
+        final DetailAST root = parse("import java.util.Map;",
+                "class Input { void method(Map parameter) {} }");
+        table.visitToken(root);
+        table.leaveToken(root);
+        assertNull(table.getDeclaration("Map"));
+        assertNull(table.getFieldDeclaration("Map"));
+        assertNull(table.getDeclaredType("Map"));
+        // declaration is ignored if scope of method was not opened
+        final DetailAST parameter = root.getNextSibling().findFirstToken(TokenTypes.OBJBLOCK)
+                .findFirstToken(TokenTypes.METHOD_DEF).findFirstToken(TokenTypes.PARAMETERS)
+                .getFirstChild();
+        table.visitToken(parameter);
+        assertNull(table.getDeclaration("parameter"));
+    }
+}
@@ -0,0 +1,317 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+public class UtilsTest extends BaseCheckTestSupport
+{
+    private static final File INPUT = new File(UtilsTest.class.getResource(
+            "/com/github/sevntu/checkstyle/checks/coding/InputAvoidHidingCauseExceptionCheck.java")
+            .getPath());
+
+    @Test
+    public void testWalkOrder() throws Exception
+    {
+        final DetailAST classDef = getClassDef(parse(INPUT));
+        final List<DetailAST> expectedVisited = new ArrayList<DetailAST>();
+        final List<DetailAST> expectedLeft = new ArrayList<DetailAST>();
+        collect(classDef, expectedVisited, expectedLeft);
+
+        final RecordingVisitor visitor = new RecordingVisitor();
+        Utils.walk(classDef, visitor);
+        assertEquals(expectedVisited, visitor.visited);
+        assertEquals(expectedLeft, visitor.left);
+    }
+
+    @Test
+    public void testWalkTokenTypes() throws Exception
+    {
+        final DetailAST classDef = getClassDef(parse(INPUT));
+        final List<Integer> types = Arrays.asList(TokenTypes.METHOD_DEF, TokenTypes.IDENT);
+        final List<DetailAST> expectedVisited = new ArrayList<DetailAST>();
+        final List<DetailAST> expectedLeft = new ArrayList<DetailAST>();
+        collect(classDef, expectedVisited, expectedLeft);
+        filter(expectedVisited, types);
+        filter(expectedLeft, types);
+
+        final RecordingVisitor visitor = new RecordingVisitor();
+        Utils.walk(classDef, visitor, TokenTypes.METHOD_DEF, TokenTypes.IDENT);
+        assertFalse(visitor.visited.isEmpty());
+        assertEquals(expectedVisited, visitor.visited);
+        assertEquals(expectedLeft, visitor.left);
+    }
+
+    @Test
+    public void testWalkSkippedChildren() throws Exception
+    {
+        final DetailAST classDef = getClassDef(parse(INPUT));
+        final RecordingVisitor visitor = new RecordingVisitor() {
+            @Override
+            public boolean visit(DetailAST ast)
+            {
+                super.visit(ast);
+                return ast.getType() != TokenTypes.METHOD_DEF;
+            }
+        };
+        Utils.walk(classDef, visitor);
+        int methodsCount = 0;
+        for (int i = 1; i < visitor.visited.size(); i++) {
+            final DetailAST node = visitor.visited.get(i);
+            for (DetailAST parent = node.getParent(); parent != classDef;
+                    parent = parent.getParent())
+            {
+                assertFalse(parent.getType() == TokenTypes.METHOD_DEF);
+            }
+            if (node.getType() == TokenTypes.METHOD_DEF) {
+                methodsCount++;
+            }
+        }
+        assertTrue(methodsCount > 0);
+        assertEquals(visitor.visited.size(), visitor.left.size());
+    }
+
+    @Test
+    public void testWalkFinished() throws Exception
+    {
+        final DetailAST classDef = getClassDef(parse(INPUT));
+        final RecordingVisitor visitor = new RecordingVisitor() {
+            @Override
+            public boolean isFinished()
+            {
+                return visited.size() == 5;
+            }
+        };
+        Utils.walk(classDef, visitor);
+        assertEquals(5, visitor.visited.size());
+        assertSame(classDef, visitor.visited.get(0));
+
+        final RecordingVisitor leaveVisitor = new RecordingVisitor() {
+            @Override
+            public boolean isFinished()
+            {
+                return left.size() == 1;
+            }
+        };
+        Utils.walk(classDef, leaveVisitor);
+        assertEquals(1, leaveVisitor.left.size());
+        assertNull(leaveVisitor.left.get(0).getFirstChild());
+    }
+
+    @Test
+    public void testWalkLeafRoot() throws Exception
+    {
+        final DetailAST ident = getClassDef(parse(INPUT)).findFirstToken(TokenTypes.IDENT);
+        final RecordingVisitor visitor = new RecordingVisitor();
+        Utils.walk(ident, visitor);
+        assertEquals(Arrays.asList(ident), visitor.visited);
+        assertEquals(Arrays.asList(ident), visitor.left);
+    }
+
+    @Test
+    public void testWalkDeepTree() throws Exception
+    {
+        final int depth = 10000;
+        DetailAST root = null;
+        DetailAST deepest = null;
+        for (int i = 0; i < depth; i++) {
+            final DetailAST node = new DetailAST();
+            node.setType(TokenTypes.PLUS);
+            if (root == null) {
+                root = node;
+            }
+            else {
+                deepest.addChild(node);
+            }
+            deepest = node;
+        }
+        final RecordingVisitor visitor = new RecordingVisitor();
+        Utils.walk(root, visitor);
+        assertEquals(depth, visitor.visited.size());
+        assertSame(deepest, visitor.left.get(0));
+        assertSame(root, visitor.left.get(depth - 1));
+    }
+
+    @Test
+    public void testNextSibling() throws Exception
+    {
+        final DetailAST objBlock = getClassDef(parse(INPUT)).findFirstToken(TokenTypes.OBJBLOCK);
+        final List<DetailAST> expected = new ArrayList<DetailAST>();
+        for (DetailAST child = objBlock.getFirstChild(); child != null;
+                child = child.getNextSibling())
+        {
+            if (child.getType() == TokenTypes.METHOD_DEF) {
+                expected.add(child);
+            }
+        }
+        final List<DetailAST> methods = new ArrayList<DetailAST>();
+        for (DetailAST method = objBlock.findFirstToken(TokenTypes.METHOD_DEF); method != null;
+                method = Utils.getNextSibling(method, TokenTypes.METHOD_DEF))
+        {
+            methods.add(method);
+        }
+        assertTrue(expected.size() > 1);
+        assertEquals(expected, methods);
+        assertNull(Utils.getNextSibling(objBlock.getLastChild(), TokenTypes.METHOD_DEF));
+    }
+
+    @Test
+    public void testNextNode() throws Exception
+    {
+        final DetailAST classDef = getClassDef(parse(INPUT));
+        final List<DetailAST> expected = new ArrayList<DetailAST>();
+        collect(classDef, expected, new ArrayList<DetailAST>());
+        final List<DetailAST> nodes = new ArrayList<DetailAST>();
+        for (DetailAST node = classDef; node != null; node = Utils.getNextNode(node, classDef)) {
+            nodes.add(node);
+        }
+        assertEquals(expected, nodes);
+
+        final DetailAST ident = classDef.findFirstToken(TokenTypes.IDENT);
+        assertNull(Utils.getNextNode(ident, ident));
+    }
+
+    @Test
+    public void testNextNodeAfterSubtree() throws Exception
+    {
+        final DetailAST classDef = getClassDef(parse(INPUT));
+        final RecordingVisitor visitor = new RecordingVisitor() {
+            @Override
+            public boolean visit(DetailAST ast)
+            {
+                super.visit(ast);
+                return ast.getType() != TokenTypes.METHOD_DEF;
+            }
+        };
+        Utils.walk(classDef, visitor);
+        final List<DetailAST> nodes = new ArrayList<DetailAST>();
+        DetailAST node = classDef;
+        while (node != null) {
+            nodes.add(node);
+            if (node.getType() == TokenTypes.METHOD_DEF) {
+                node = Utils.getNextNodeAfterSubtree(node, classDef);
+            }
+            else {
+                node = Utils.getNextNode(node, classDef);
+            }
+        }
+        assertEquals(visitor.visited, nodes);
+        assertNull(Utils.getNextNodeAfterSubtree(classDef, classDef));
+    }
+
+    @Test
+    public void testWalkDefaultVisitor() throws Exception
+    {
+        final DetailAST classDef = getClassDef(parse(INPUT));
+        final List<DetailAST> nodes = new ArrayList<DetailAST>();
+        collect(classDef, nodes, new ArrayList<DetailAST>());
+        final int[] checks = new int[1];
+        Utils.walk(classDef, new Utils.AstVisitor() {
+            @Override
+            public boolean isFinished()
+            {
+                checks[0]++;
+                return false;
+            }
+        });
+        assertEquals(2 * nodes.size(), checks[0]);
+    }
+
+    @Test
+    public void testNextSubTreeNode() throws Exception
+    {
+        final DetailAST classDef = getClassDef(parse(INPUT));
+        final DetailAST variableDef = classDef.findFirstToken(TokenTypes.OBJBLOCK)
+                .findFirstToken(TokenTypes.VARIABLE_DEF);
+        final List<DetailAST> expected = new ArrayList<DetailAST>();
+        collect(variableDef, expected, new ArrayList<DetailAST>());
+        expected.remove(0);
+        final List<DetailAST> nodes = new ArrayList<DetailAST>();
+        for (DetailAST node = Utils.getNextSubTreeNode(variableDef, variableDef); node != null;
+                node = Utils.getNextSubTreeNode(node, variableDef))
+        {
+            nodes.add(node);
+        }
+        assertEquals(expected, nodes);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReportInvalidToken()
+    {
+        Utils.reportInvalidToken(TokenTypes.PLUS);
+    }
+
+    private static DetailAST getClassDef(DetailAST root)
+    {
+        DetailAST result = root;
+        while (result.getType() != TokenTypes.CLASS_DEF) {
+            result = result.getNextSibling();
+        }
+        return result;
+    }
+
+    private static void collect(DetailAST node, List<DetailAST> visited,
+            List<DetailAST> left)
+    {
+        visited.add(node);
+        for (DetailAST child = node.getFirstChild(); child != null;
+                child = child.getNextSibling())
+        {
+            collect(child, visited, left);
+        }
+        left.add(node);
+    }
+
+    private static void filter(List<DetailAST> nodes, List<Integer> types)
+    {
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            if (!types.contains(nodes.get(i).getType())) {
+                nodes.remove(i);
+            }
+        }
+    }
+
+    private static class RecordingVisitor extends Utils.AstVisitor
+    {
+        protected final List<DetailAST> visited = new ArrayList<DetailAST>();
+
+        protected final List<DetailAST> left = new ArrayList<DetailAST>();
+
+        @Override
+        public boolean visit(DetailAST ast)
+        {
+            visited.add(ast);
+            return true;
+        }
+
+        @Override
+        public void leave(DetailAST ast)
+        {
+            left.add(ast);
+        }
+    }
+}
@@ -43,5 +43,18 @@ public class AvoidHidingCauseExceptionCheckTest extends BaseCheckTestSupport {
         verify(checkConfig, getPath("InputAvoidHidingCauseExceptionCheck.java"), expected);
     }
 
+    @Test
+    public final void testNestedTryAndAliases() throws Exception {
+        DefaultConfiguration checkConfig = createCheckConfig(AvoidHidingCauseExceptionCheck.class);
+
+        String[] expected = {
+                "15:17: " + getCheckMessage(MSG_KEY, "n"),
+                "18:17: " + getCheckMessage(MSG_KEY, "e"),
+                "33:17: " + getCheckMessage(MSG_KEY, "e"),
+                };
+
+        verify(checkConfig, getPath("InputAvoidHidingCauseExceptionCheck3.java"), expected);
+    }
+
 }
 
@@ -20,9 +20,15 @@ package com.github.sevntu.checkstyle.checks.coding;
 
 import static com.github.sevntu.checkstyle.checks.coding.AvoidNotShortCircuitOperatorsForBooleanCheck.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import com.github.sevntu.checkstyle.BaseCheckTestSupport;
 import com.github.sevntu.checkstyle.checks.coding.AvoidNotShortCircuitOperatorsForBooleanCheck;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import org.junit.Test;
 
 public class AvoidNotShortCircuitOperatorsForBooleanCheckTest extends BaseCheckTestSupport
@@ -49,8 +55,61 @@ public class AvoidNotShortCircuitOperatorsForBooleanCheckTest extends BaseCheckT
             "95:14: " + getCheckMessage(MSG_KEY, "|"),
             "96:14: " + getCheckMessage(MSG_KEY, "|"),
             "97:11: " + getCheckMessage(MSG_KEY, "|="),
+            "157:39: " + getCheckMessage(MSG_KEY, "|"),
         };
 
         verify(checkConfig, getPath("InputAvoidNotShortCircuitOperatorsForBooleanCheck.java"), expected);
     }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public final void testPublicMethods() throws Exception
+    {
+        final DetailAST root = parse(
+            "class Input {",
+            "    void method(int x) {",
+            "        boolean flag = true;",
+            "        boolean other = flag | x > 1;",
+            "        int mask = x | foo(y) | z.w;",
+            "        boolean last = other & false;",
+            "    }",
+            "}",
+            "enum Constants { A; int mask = 1 | 2; }");
+        final DetailAST body = root.findFirstToken(TokenTypes.OBJBLOCK)
+                .findFirstToken(TokenTypes.METHOD_DEF).findFirstToken(TokenTypes.SLIST);
+        final List<DetailAST> expressions = new ArrayList<DetailAST>();
+        for (DetailAST child = body.getFirstChild(); child != null;
+                child = child.getNextSibling())
+        {
+            if (child.getType() == TokenTypes.VARIABLE_DEF) {
+                expressions.add(child.findFirstToken(TokenTypes.ASSIGN).getFirstChild());
+            }
+        }
+        final DetailAST flagExpr = expressions.get(0);
+        final DetailAST otherExpr = expressions.get(1);
+        final DetailAST maskExpr = expressions.get(2);
+        final DetailAST lastExpr = expressions.get(3);
+        final DetailAST enumExpr = root.getNextSibling().findFirstToken(TokenTypes.OBJBLOCK)
+                .findFirstToken(TokenTypes.VARIABLE_DEF).findFirstToken(TokenTypes.ASSIGN)
+                .getFirstChild();
+
+        final AvoidNotShortCircuitOperatorsForBooleanCheck check =
+                new AvoidNotShortCircuitOperatorsForBooleanCheck();
+        // methods are usable outside of tree walk, and during it
+        for (int i = 0; i < 2; i++) {
+            assertTrue(check.hasTrueOrFalseLiteral(flagExpr));
+            assertFalse(check.hasTrueOrFalseLiteral(otherExpr));
+            assertTrue(check.hasTrueOrFalseLiteral(lastExpr));
+            assertFalse(check.isBooleanExpression(enumExpr));
+            assertTrue(check.isBooleanExpression(otherExpr));
+            assertFalse(check.isBooleanExpression(maskExpr));
+            assertEquals(Arrays.asList("x"), check.getSupportedOperandsNames(maskExpr));
+            assertEquals(2, AvoidNotShortCircuitOperatorsForBooleanCheck.getChildren(
+                    maskExpr.getFirstChild()).size());
+            check.beginTree(root);
+        }
+        // node of other tree than the walked one
+        check.beginTree(parse("class Other {}"));
+        assertTrue(check.isBooleanExpression(otherExpr));
+    }
 }
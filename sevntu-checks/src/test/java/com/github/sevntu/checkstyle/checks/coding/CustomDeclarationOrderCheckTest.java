@@ -144,4 +144,70 @@ public class CustomDeclarationOrderCheckTest extends BaseCheckTestSupport {
         checkConfig.addAttribute("caseSensitive", "false");
         verify(checkConfig, getPath("InputCustomDeclarationOrderCheckMainMethod.java"), expected);
     }
+    @Test
+    public void rulesDecidedByModifiers()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig =
+                createCheckConfig(CustomDeclarationOrderCheck.class);
+        final String staticFinal = "Field(private static final .*)";
+        final String logger = "Field(private final .*Logger.*)";
+        final String anyPrivate = "Field(private .*)";
+        final String anyPublic = "Field(public .*)";
+        final String[] expected = {
+                "7:5: " + getCheckMessage(MSG_KEY_FIELD, staticFinal, anyPrivate),
+                "11:5: " + getCheckMessage(MSG_KEY_FIELD, logger, anyPrivate),
+                "13:5: " + getCheckMessage(MSG_KEY_FIELD, staticFinal, anyPrivate),
+                "17:5: " + getCheckMessage(MSG_KEY_FIELD, logger, anyPublic),
+                "19:5: " + getCheckMessage(MSG_KEY_FIELD, staticFinal, anyPublic),
+        };
+        checkConfig.addAttribute("customDeclarationOrder",
+                staticFinal + " ### " + logger + " ### " + anyPrivate + " ### " + anyPublic);
+        verify(checkConfig, getPath("InputCustomDeclarationOrderCheckPrefixDecisions.java"),
+                expected);
+    }
+
+    @Test
+    public void rulesWithSpecialGroups()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig =
+                createCheckConfig(CustomDeclarationOrderCheck.class);
+        final String staticFinal = "Field((?i)PRIVATE STATIC FINAL .*)";
+        final String notLogger = "Field((?!.*Logger)private .*)";
+        final String anyPrivate = "Field(private .*)";
+        final String anyPublic = "Field(public .*)";
+        final String[] expected = {
+                "7:5: " + getCheckMessage(MSG_KEY_FIELD, staticFinal, notLogger),
+                "13:5: " + getCheckMessage(MSG_KEY_FIELD, staticFinal, anyPrivate),
+                "17:5: " + getCheckMessage(MSG_KEY_FIELD, anyPrivate, anyPublic),
+                "19:5: " + getCheckMessage(MSG_KEY_FIELD, staticFinal, anyPublic),
+        };
+        checkConfig.addAttribute("customDeclarationOrder",
+                staticFinal + " ### " + notLogger + " ### " + anyPrivate + " ### " + anyPublic);
+        verify(checkConfig, getPath("InputCustomDeclarationOrderCheckPrefixDecisions.java"),
+                expected);
+    }
+
+    @Test
+    public void anchoredRules()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig =
+                createCheckConfig(CustomDeclarationOrderCheck.class);
+        final String anyPublic = "Field(^public .*)";
+        final String max = "Field(^private static final int MAX$)";
+        final String neverMatched = "Field(^static .*)";
+        final String anyPrivate = "Field(private .*)";
+        final String modifiersOnly = "Field(^private static final $)";
+        final String[] expected = {
+                "7:5: " + getCheckMessage(MSG_KEY_FIELD, max, anyPrivate),
+                "15:5: " + getCheckMessage(MSG_KEY_FIELD, anyPublic, anyPrivate),
+        };
+        checkConfig.addAttribute("customDeclarationOrder",
+                anyPublic + " ### " + max + " ### " + neverMatched + " ### " + anyPrivate
+                + " ### " + modifiersOnly);
+        verify(checkConfig, getPath("InputCustomDeclarationOrderCheckPrefixDecisions.java"),
+                expected);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.checks.coding;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.github.sevntu.checkstyle.BaseCheckTestSupport;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+
+/**
+ * Audits generated code with expressions nested 10000 levels deep and a chain
+ * of 10000 private methods called from constructor, which used to overflow the
+ * stack in checks walking the syntax tree or the call graph recursively.
+ */
+public class DeeplyNestedCodeTest extends BaseCheckTestSupport
+{
+    private static final int DEPTH = 10000;
+
+    @ClassRule
+    public static final TemporaryFolder TEMPORARY_FOLDER = new TemporaryFolder();
+
+    private static String inputPath;
+
+    @BeforeClass
+    public static void generateInput() throws Exception
+    {
+        final StringBuilder condition = new StringBuilder("x == 1");
+        final StringBuilder numbers = new StringBuilder("x");
+        final StringBuilder texts = new StringBuilder("text");
+        final StringBuilder flags = new StringBuilder("x");
+        final StringBuilder chain = new StringBuilder();
+        for (int i = 2; i <= DEPTH; i++) {
+            condition.append(" || x == ").append(i);
+            numbers.append(" + x");
+            texts.append(" + text");
+            flags.append(" | x");
+        }
+        for (int i = 0; i < DEPTH - 1; i++) {
+            chain.append("    private void chain").append(i).append("() { chain").append(i + 1)
+                    .append("(); }\n");
+        }
+        final String source = "import java.util.ArrayList;\n"
+                + "import java.util.List;\n"
+                + "\n"
+                + "public class InputDeeplyNestedCode\n"
+                + "{\n"
+                + "    public List<String> method(int x, String text)\n"
+                + "    {\n"
+                + "        List<String> result = null;\n"
+                + "        try {\n"
+                + "            if (" + condition + ") {\n"
+                + "                result = new ArrayList<String>();\n"
+                + "            }\n"
+                + "            else {\n"
+                + "                result = new ArrayList<String>(x);\n"
+                + "            }\n"
+                + "        }\n"
+                + "        catch (RuntimeException e) {\n"
+                + "            if (0 == " + numbers + ") {\n"
+                + "                throw new IllegalStateException(e);\n"
+                + "            }\n"
+                + "        }\n"
+                + "        finally {\n"
+                + "            text = " + texts + ";\n"
+                + "        }\n"
+                + "        int first = " + numbers + ", second = first;\n"
+                + "        int mask = " + flags + ";\n"
+                + "        return result;\n"
+                + "    }\n"
+                + "\n"
+                + "    public InputDeeplyNestedCode()\n"
+                + "    {\n"
+                + "        chain0();\n"
+                + "    }\n"
+                + "\n"
+                + chain
+                + "    private void chain" + (DEPTH - 1) + "() { method(1, \"\"); }\n"
+                + "}\n";
+        final File input = TEMPORARY_FOLDER.newFile("InputDeeplyNestedCode.java");
+        Files.write(input.toPath(), source.getBytes(StandardCharsets.ISO_8859_1));
+        inputPath = input.getPath();
+    }
+
+    @Test
+    public void testConfusingCondition() throws Exception
+    {
+        verifyNoViolations(createCheckConfig(ConfusingConditionCheck.class));
+    }
+
+    @Test
+    public void testForbidReturnInFinallyBlock() throws Exception
+    {
+        verifyNoViolations(createCheckConfig(ForbidReturnInFinallyBlockCheck.class));
+    }
+
+    @Test
+    public void testIllegalCatchExtended() throws Exception
+    {
+        verifyNoViolations(createCheckConfig(IllegalCatchExtendedCheck.class));
+    }
+
+    @Test
+    public void testLogicConditionNeedOptimization() throws Exception
+    {
+        verifyNoViolations(createCheckConfig(LogicConditionNeedOptimizationCheck.class));
+    }
+
+    @Test
+    public void testNoNullForCollectionReturn() throws Exception
+    {
+        final DefaultConfiguration checkConfig =
+                createCheckConfig(NoNullForCollectionReturnCheck.class);
+        checkConfig.addAttribute("searchThroughMethodBody", "true");
+        verifyNoViolations(checkConfig);
+    }
+
+    @Test
+    public void testAvoidHidingCauseException() throws Exception
+    {
+        verifyNoViolations(createCheckConfig(AvoidHidingCauseExceptionCheck.class));
+    }
+
+    @Test
+    public void testAvoidNotShortCircuitOperatorsForBoolean() throws Exception
+    {
+        verifyNoViolations(createCheckConfig(AvoidNotShortCircuitOperatorsForBooleanCheck.class));
+    }
+
+    @Test
+    public void testOverridableMethodInConstructor() throws Exception
+    {
+        final String[] expected = {
+            "32:15: " + getCheckMessage(OverridableMethodInConstructorCheck.MSG_KEY_LEADS,
+                    "chain0", "constructor", "method"),
+        };
+        verify(createCheckConfig(OverridableMethodInConstructorCheck.class), inputPath,
+                expected);
+    }
+
+    @Test
+    public void testMultipleVariableDeclarationsExtended() throws Exception
+    {
+        final String[] expected = {
+            "25:9: " + getCheckMessage(
+                    MultipleVariableDeclarationsExtendedCheck.MSG_VAR_DECLARATIONS_COMMA),
+        };
+        verify(createCheckConfig(MultipleVariableDeclarationsExtendedCheck.class), inputPath,
+                expected);
+    }
+
+    @Test
+    public void testAvoidConstantAsFirstOperandInCondition() throws Exception
+    {
+        final String[] expected = {
+            "18: " + getCheckMessage(AvoidConstantAsFirstOperandInConditionCheck.MSG_KEY, "=="),
+        };
+        verify(createCheckConfig(AvoidConstantAsFirstOperandInConditionCheck.class), inputPath,
+                expected);
+    }
+
+    private void verifyNoViolations(DefaultConfiguration checkConfig) throws Exception
+    {
+        verify(checkConfig, inputPath, new String[0]);
+    }
+}
@@ -2,6 +2,8 @@ package com.github.sevntu.checkstyle.checks.coding;
 
 import static com.github.sevntu.checkstyle.checks.coding.EitherLogOrThrowCheck.MSG_KEY;
 
+import java.io.File;
+
 import org.junit.Test;
 
 import com.github.sevntu.checkstyle.BaseCheckTestSupport;
@@ -43,4 +45,35 @@ public class EitherLogOrThrowCheckTest extends BaseCheckTestSupport
         verify(checkConfig, getPath("InputEitherLogOrThrowCheck.java"),
                 expected);
     }
+
+    @Test
+    public void testLoggerImportIsPerFile() throws Exception
+    {
+        checkConfig.addAttribute("loggerFullyQualifiedClassName", "org.slf4j.Logger");
+        checkConfig.addAttribute("loggingMethodNames", "error, warn");
+
+        final String[] expected = {
+        		"19: " + warningMessage,
+        		"31: " + warningMessage,
+        		"43: " + warningMessage,
+        		"82: " + warningMessage,
+        		"93: " + warningMessage,
+        		"102: " + warningMessage,
+        		"112: " + warningMessage,
+        		"124: " + warningMessage,
+        		"154: " + warningMessage,
+        		"164: " + warningMessage,
+        		"207: " + warningMessage,
+        		"231: " + warningMessage,
+        		"241: " + warningMessage,
+        		"252: " + warningMessage,
+        		"262: " + warningMessage,
+        };
+        final File[] files = {
+            new File(getPath("InputEitherLogOrThrowCheck.java")),
+            new File(getPath("InputEitherLogOrThrowCheckWithoutImport.java")),
+        };
+        verify(createChecker(checkConfig), files, getPath("InputEitherLogOrThrowCheck.java"),
+                expected);
+    }
 }
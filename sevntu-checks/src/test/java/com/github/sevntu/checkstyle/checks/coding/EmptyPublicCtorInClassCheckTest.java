@@ -113,4 +113,96 @@ public class EmptyPublicCtorInClassCheckTest extends BaseCheckTestSupport
 
         verify(config, getPath("InputEmptyPublicCtorInClass10.java"), expected);
     }
+
+    @Test
+    public void testClassAnnotatedWithRegexp() throws Exception
+    {
+        DefaultConfiguration config = createCheckConfig(EmptyPublicCtorInClassCheck.class);
+
+        config.addAttribute("classAnnotationNames",
+                "com\\.github\\..*\\.AnnotationName|" +
+                "org\\.junit\\.(runner\\.RunWith|Ignore)|" +
+                ".+\\.InputEmptyPublicCtorInClass9\\.InnerAnnotation");
+
+        String expected[] = {};
+
+        verify(config, getPath("InputEmptyPublicCtorInClass8.java"), expected);
+    }
+
+    @Test
+    public void testEmptyAnnotationNames() throws Exception
+    {
+        DefaultConfiguration config = createCheckConfig(EmptyPublicCtorInClassCheck.class);
+
+        config.addAttribute("classAnnotationNames", "");
+        config.addAttribute("ctorAnnotationNames", "");
+
+        String expected[] = {
+                "5:5: " + message,
+        };
+
+        verify(config, getPath("InputEmptyPublicCtorInClass7.java"), expected);
+    }
+
+    @Test
+    public void testDefaultPackageLiteralNames() throws Exception
+    {
+        DefaultConfiguration config = createCheckConfig(EmptyPublicCtorInClassCheck.class);
+
+        config.addAttribute("classAnnotationNames", "org\\.junit\\.Ignore");
+        config.addAttribute("ctorAnnotationNames", "java\\.beans\\.ConstructorProperties");
+
+        String expected[] = {
+                "17:9: " + message,
+                "31:9: " + message,
+        };
+
+        verify(config, getPath("InputEmptyPublicCtorInClass11.java"), expected);
+    }
+
+    @Test
+    public void testDefaultPackageRegexp() throws Exception
+    {
+        DefaultConfiguration config = createCheckConfig(EmptyPublicCtorInClassCheck.class);
+
+        config.addAttribute("classAnnotationNames", "org\\.junit\\.[I]gnore");
+        config.addAttribute("ctorAnnotationNames", "java\\.beans\\.[C]onstructorProperties");
+
+        String expected[] = {
+                "17:9: " + message,
+                "31:9: " + message,
+        };
+
+        verify(config, getPath("InputEmptyPublicCtorInClass11.java"), expected);
+    }
+
+    @Test
+    public void testQualifiedAnnotationLiteralNames() throws Exception
+    {
+        DefaultConfiguration config = createCheckConfig(EmptyPublicCtorInClassCheck.class);
+
+        config.addAttribute("classAnnotationNames", "org\\.junit\\.runners\\.Suite\\.SuiteClasses");
+
+        String expected[] = {
+                "26:9: " + message,
+                "34:9: " + message,
+        };
+
+        verify(config, getPath("InputEmptyPublicCtorInClass12.java"), expected);
+    }
+
+    @Test
+    public void testQualifiedAnnotationRegexp() throws Exception
+    {
+        DefaultConfiguration config = createCheckConfig(EmptyPublicCtorInClassCheck.class);
+
+        config.addAttribute("classAnnotationNames", "org\\.junit\\.runners\\.Suite\\.[S]uiteClasses");
+
+        String expected[] = {
+                "26:9: " + message,
+                "34:9: " + message,
+        };
+
+        verify(config, getPath("InputEmptyPublicCtorInClass12.java"), expected);
+    }
 }
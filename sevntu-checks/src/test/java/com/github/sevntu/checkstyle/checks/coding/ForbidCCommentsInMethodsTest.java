@@ -67,4 +67,18 @@ public class ForbidCCommentsInMethodsTest extends
         final String[] expected = {};
         verify(checkConfig, getPath("InputForbidCCommentsInMethods3.java"), expected);
     }
+
+    @Test
+    public void testNestedMethods()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig = createCheckConfig(ForbidCCommentsInMethods.class);
+        final String[] expected = {
+                "6: " + warningMessage,
+                "11: " + warningMessage,
+                "14: " + warningMessage,
+                "25: " + warningMessage,
+        };
+        verify(checkConfig, getPath("InputForbidCCommentsInMethods4.java"), expected);
+    }
 }
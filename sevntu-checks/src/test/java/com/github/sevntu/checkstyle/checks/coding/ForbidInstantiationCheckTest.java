@@ -105,4 +105,20 @@ public class ForbidInstantiationCheckTest extends BaseCheckTestSupport
 
         verify(checkConfig, getPath("InputForbidInstantiationCheckWithAsterisk.java"), expected);
     }
+
+    @Test
+    public void testSeveralForbiddenClassesInPackage() throws Exception
+    {
+
+        checkConfig.addAttribute("forbiddenClasses",
+                "java.io.File, java.io.FileReader, java.util.ArrayList, Foo");
+
+        String[] expected = {
+            "11:25: " + getCheckMessage(MSG_KEY, "FileReader"),
+            "12:21: " + getCheckMessage(MSG_KEY, "File"),
+            "13:34: " + getCheckMessage(MSG_KEY, "ArrayList"),
+        };
+
+        verify(checkConfig, getPath("InputForbidInstantiationCheckImports.java"), expected);
+    }
 }
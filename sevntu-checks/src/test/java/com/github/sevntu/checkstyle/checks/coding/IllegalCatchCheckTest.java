@@ -3,8 +3,11 @@ package com.github.sevntu.checkstyle.checks.coding;
 import static com.github.sevntu.checkstyle.checks.coding.IllegalCatchExtendedCheck.*;
 
 import com.github.sevntu.checkstyle.BaseCheckTestSupport;
+import com.github.sevntu.checkstyle.Utils;
 import com.github.sevntu.checkstyle.checks.coding.IllegalCatchExtendedCheck;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import org.junit.Test;
 
 public class IllegalCatchCheckTest extends BaseCheckTestSupport
@@ -70,4 +73,44 @@ public class IllegalCatchCheckTest extends BaseCheckTestSupport
         verify(checkConfig,getPath("InputIllegalCatchCheckNew.java"),expected);
     }
 
-}
\ No newline at end of file
+    @Test
+    @SuppressWarnings("deprecation")
+    public final void testGetChilds() throws Exception
+    {
+        final DetailAST classDef = parse("class Input { int a; int b; }");
+        final DetailAST[] childs =
+                IllegalCatchExtendedCheck.getChilds(classDef.findFirstToken(TokenTypes.OBJBLOCK));
+        assertEquals(4, childs.length);
+        assertEquals(TokenTypes.LCURLY, childs[0].getType());
+        assertEquals(TokenTypes.VARIABLE_DEF, childs[2].getType());
+        assertEquals(TokenTypes.RCURLY, childs[3].getType());
+    }
+
+    @Test
+    public final void testGetThrowAST() throws Exception
+    {
+        final DetailAST classDef = parse(
+                "class Input {",
+                "    void method(Object o) {",
+                "        try { o.hashCode(); }",
+                "        catch (RuntimeException e) {",
+                "            if (o == null) { throw new IllegalStateException(); }",
+                "            throw e;",
+                "        }",
+                "    }",
+                "}");
+        DetailAST catchAST = classDef;
+        while (catchAST.getType() != TokenTypes.LITERAL_CATCH) {
+            catchAST = Utils.getNextNode(catchAST, classDef);
+        }
+        final IllegalCatchExtendedCheck check = new IllegalCatchExtendedCheck();
+
+        final DetailAST throwAST = check.getThrowAST(catchAST);
+        assertEquals(TokenTypes.LITERAL_THROW, throwAST.getType());
+        assertEquals(5, throwAST.getLineNo());
+        // the node itself is not looked through
+        assertNull(check.getThrowAST(throwAST));
+        assertNull(check.getThrowAST(catchAST.findFirstToken(TokenTypes.PARAMETER_DEF)));
+    }
+
+}
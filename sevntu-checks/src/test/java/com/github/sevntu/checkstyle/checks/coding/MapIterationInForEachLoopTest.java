@@ -75,5 +75,40 @@ public class MapIterationInForEachLoopTest extends BaseCheckTestSupport
                 getPath("InputMapIterationInForEachLoopSkipIf.java"),
                 expected);
     }
+
+    @Test
+    public final void scopesTest() throws Exception
+    {
+        checkConfig.addAttribute("proposeValuesUsage", "true");
+        checkConfig.addAttribute("proposeKeySetUsage", "true");
+        checkConfig.addAttribute("proposeEntrySetUsage", "true");
+
+        final String[] expected = {
+            "11:9: " + getCheckMessage(MSG_KEY_VALUES),
+            "24:9: " + getCheckMessage(MSG_KEY_VALUES),
+            "32:9: " + getCheckMessage(MSG_KEY_VALUES),
+            "37:13: " + getCheckMessage(MSG_KEY_KEYSET),
+            "51:9: " + getCheckMessage(MSG_KEY_VALUES),
+        };
+
+        verify(checkConfig,
+                getPath("InputMapIterationInForEachLoopScopes.java"),
+                expected);
+    }
+
+    @Test
+    public final void noMapImportsTest() throws Exception
+    {
+        checkConfig.addAttribute("proposeValuesUsage", "true");
+        checkConfig.addAttribute("proposeKeySetUsage", "true");
+        checkConfig.addAttribute("proposeEntrySetUsage", "true");
+        checkConfig.addAttribute("supportedMapImplQualifiedNames", "com.myTest.MyMap");
+
+        final String[] expected = {};
+
+        verify(checkConfig,
+                getPath("InputMapIterationInForEachLoopScopes.java"),
+                expected);
+    }
     
 }
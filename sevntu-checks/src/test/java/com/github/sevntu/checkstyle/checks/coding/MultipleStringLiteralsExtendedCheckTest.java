@@ -20,9 +20,15 @@ package com.github.sevntu.checkstyle.checks.coding;
 
 import static com.github.sevntu.checkstyle.checks.coding.MultipleStringLiteralsExtendedCheck.*;
 
+import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+
 import org.junit.Test;
 
 import com.github.sevntu.checkstyle.BaseCheckTestSupport;
+import com.puppycrawl.tools.checkstyle.Checker;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 
 public class MultipleStringLiteralsExtendedCheckTest extends BaseCheckTestSupport
@@ -102,6 +108,20 @@ public class MultipleStringLiteralsExtendedCheckTest extends BaseCheckTestSuppor
 		verify(checkConfig, getPath("InputMultipleStringLiterals.java"), expected);
 	}
 
+	@Test
+	public void testIgnoredContextWithExplicitTokens() throws Exception
+	{
+		DefaultConfiguration checkConfig =
+				createCheckConfig(MultipleStringLiteralsExtendedCheck.class);
+		checkConfig.addAttribute("allowedDuplicates", "3");
+		checkConfig.addAttribute("tokens", "STRING_LITERAL");
+		checkConfig.addAttribute("highlightAllDuplicates", "false");
+
+		final String[] expected = {};
+
+		verify(checkConfig, getPath("InputMultipleStringLiterals.java"), expected);
+	}
+
 	@Test
 	public void testItWithoutIgnoringAnnotations() throws Exception
 	{
@@ -118,4 +138,65 @@ public class MultipleStringLiteralsExtendedCheckTest extends BaseCheckTestSuppor
 		verify(checkConfig, getPath("InputMultipleStringLiterals.java"), expected);
 	}
 
+
+	@Test
+	public void testManyLiterals() throws Exception
+	{
+		DefaultConfiguration checkConfig =
+				createCheckConfig(MultipleStringLiteralsExtendedCheck.class);
+		checkConfig.addAttribute("allowedDuplicates", "2");
+		checkConfig.addAttribute("highlightAllDuplicates", "true");
+
+		final String[] expected = {
+				"6:9: " + getCheckMessage(MSG_KEY, "\"literal0\"", 3),
+				"79:9: " + getCheckMessage(MSG_KEY, "\"literal0\"", 3),
+				"151:34: " + getCheckMessage(MSG_KEY, "\"literal0\"", 3),
+		};
+
+		verify(checkConfig, getPath("InputMultipleStringLiteralsLarge.java"), expected);
+	}
+
+	@Test
+	public void testCrossFileReport() throws Exception
+	{
+		final File report = File.createTempFile("string-literals", ".txt");
+		report.deleteOnExit();
+		DefaultConfiguration checkConfig =
+				createCheckConfig(MultipleStringLiteralsExtendedCheck.class);
+		checkConfig.addAttribute("allowedDuplicates", "2");
+		checkConfig.addAttribute("crossFileReport", report.getPath());
+		checkConfig.addAttribute("crossFileHeapBudget", "1");
+		checkConfig.addAttribute("ignoreOccurrenceContext", "ANNOTATION");
+
+		final String file1 = getPath("InputMultipleStringLiteralsCrossFile1.java");
+		final String file2 = getPath("InputMultipleStringLiteralsCrossFile2.java");
+		final String file3 = getPath("InputMultipleStringLiteralsCrossFile3.java");
+		final Checker checker = createChecker(checkConfig);
+		final String[] expected = {
+				"8:20: " + getCheckMessage(MSG_KEY, "\"LocalContents\"", 3),
+		};
+		verify(checker, new File[] {new File(file1), new File(file2), new File(file3)},
+				file1, expected);
+
+		assertEquals(Arrays.asList(
+				"The String \"SharedContents\" appears 3 times in 2 files.",
+				"\t" + file1 + ":5:21",
+				"\t" + file2 + ":5:21",
+				"\t" + file2 + ":11:28"),
+				Files.readAllLines(report.toPath(), Charset.forName("UTF-8")));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testCrossFileReportNotWritten() throws Exception
+	{
+		final File directory = File.createTempFile("string-literals", "");
+		directory.deleteOnExit();
+		DefaultConfiguration checkConfig =
+				createCheckConfig(MultipleStringLiteralsExtendedCheck.class);
+		checkConfig.addAttribute("crossFileReport",
+				new File(directory, "report.txt").getPath());
+
+		verify(checkConfig, getPath("InputMultipleStringLiteralsCrossFile3.java"),
+				new String[0]);
+	}
 }
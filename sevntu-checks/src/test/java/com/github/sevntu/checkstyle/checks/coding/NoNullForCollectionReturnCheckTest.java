@@ -146,6 +146,22 @@ public class NoNullForCollectionReturnCheckTest extends BaseCheckTestSupport
 
         verify(checkConfig, getPath("InputNoNullForCollectionReturnCheck7.java"), expected);
     }
+
+    @Test
+    public void testNestedBlocksDeep()
+            throws Exception
+    {
+        final DefaultConfiguration checkConfig = createCheckConfig(NoNullForCollectionReturnCheck.class);
+        checkConfig.addAttribute("searchThroughMethodBody", "true");
+        final String[] expected = {
+                "17: " + warningMessage,
+                "48: " + warningMessage,
+                "56: " + warningMessage,
+                "64: " + warningMessage,
+                };
+
+        verify(checkConfig, getPath("InputNoNullForCollectionReturnCheck8.java"), expected);
+    }
     
     
 }
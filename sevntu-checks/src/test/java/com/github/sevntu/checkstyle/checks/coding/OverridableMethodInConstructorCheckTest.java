@@ -21,9 +21,17 @@ package com.github.sevntu.checkstyle.checks.coding;
 import static com.github.sevntu.checkstyle.checks.coding.OverridableMethodInConstructorCheck.MSG_KEY;
 import static com.github.sevntu.checkstyle.checks.coding.OverridableMethodInConstructorCheck.MSG_KEY_LEADS;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.beanutils.ConversionException;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import com.github.sevntu.checkstyle.BaseCheckTestSupport;
+import com.github.sevntu.checkstyle.ClassHierarchyIndex;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 
 public class OverridableMethodInConstructorCheckTest extends BaseCheckTestSupport
@@ -34,6 +42,9 @@ public class OverridableMethodInConstructorCheckTest extends BaseCheckTestSuppor
     private static final String cloneKey = "'clone()' method";
     private static final String readObjectKey = "'readObject()' method";
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public final void revereCodeTest() throws Exception
     {
@@ -420,4 +431,107 @@ public class OverridableMethodInConstructorCheckTest extends BaseCheckTestSuppor
 
         verify(checkConfig, getPath("InputOverridableMethodInConstructor25.java"), expected);
     }
+
+    @Test
+    public final void testMutuallyRecursiveMethods() throws Exception
+    {
+        checkConfig.addAttribute("checkCloneMethod", "true");
+        checkConfig.addAttribute("checkReadObjectMethod", "true");
+        checkConfig.addAttribute("matchMethodsByArgCount", "true");
+
+        String[] expected = {
+            "8:14: " + getCheckMessage(MSG_KEY_LEADS, "first", ctorKey, "overrideMe"),
+            "9:14: " + getCheckMessage(MSG_KEY_LEADS, "third", ctorKey, "overrideMe"),
+            };
+
+        verify(checkConfig, getPath("InputOverridableMethodInConstructor28.java"), expected);
+    }
+
+    @Test
+    public final void testBaseClassesInOtherFiles() throws Exception
+    {
+        final File index = File.createTempFile("class-hierarchy", ".bin");
+        index.deleteOnExit();
+        new ClassHierarchyIndex.Builder().setCharset("UTF-8")
+            .addFiles(new File(getPath("InputOverridableMethodInConstructor30.java")))
+            .addFiles(new File(getPath("InputOverridableMethodInConstructor31.java")))
+            .write(index);
+        checkConfig.addAttribute("classHierarchyIndex", index.getPath());
+
+        String[] expected = {
+            "8:19: " + getCheckMessage(MSG_KEY, "overrideMe", ctorKey),
+            "11:24: " + getCheckMessage(MSG_KEY, "deepOverridable", ctorKey),
+            "13:15: " + getCheckMessage(MSG_KEY_LEADS, "helper", ctorKey, "deepOverridable"),
+            };
+
+        verify(checkConfig, getPath("InputOverridableMethodInConstructor29.java"), expected);
+    }
+
+    @Test
+    public final void testBaseClassesInOtherFilesWithoutIndex() throws Exception
+    {
+        String[] expected = {};
+
+        verify(checkConfig, getPath("InputOverridableMethodInConstructor29.java"), expected);
+    }
+
+    @Test(expected = ConversionException.class)
+    public final void testMissingClassHierarchyIndex() throws Exception
+    {
+        new OverridableMethodInConstructorCheck().setClassHierarchyIndex(
+                getPath("InputOverridableMethodInConstructor29.java") + ".missing");
+    }
+
+    @Test
+    public final void testMethodsOfNestedTypesAreNotMembers() throws Exception
+    {
+        String[] expected = {
+            "17:13: " + getCheckMessage(MSG_KEY, "init", ctorKey),
+            "18:16: " + getCheckMessage(MSG_KEY_LEADS, "prepare", ctorKey, "overrideMe"),
+        };
+
+        verify(checkConfig, getPath("InputOverridableMethodInConstructor32.java"), expected);
+    }
+
+    @Test
+    public final void testCyclicBaseClassNames() throws Exception
+    {
+        String[] expected = {
+            "9:23: " + getCheckMessage(MSG_KEY, "overrideMe", ctorKey),
+            "30:23: " + getCheckMessage(MSG_KEY, "overrideMe", ctorKey),
+        };
+
+        verify(checkConfig, getPath("InputOverridableMethodInConstructor33.java"), expected);
+    }
+
+    @Test
+    public final void testLongChainOfPrivateMethods() throws Exception
+    {
+        final int chainLength = 5000;
+        final StringBuilder source = new StringBuilder()
+                .append("public class InputOverridableMethodInConstructorChain\n")
+                .append("{\n")
+                .append("    public InputOverridableMethodInConstructorChain()\n")
+                .append("    {\n")
+                .append("        m0();\n")
+                .append("    }\n");
+        for (int i = 0; i < chainLength - 1; i++) {
+            source.append("    private void m").append(i).append("() { m").append(i + 1)
+                    .append("(); }\n");
+        }
+        source.append("    private void m").append(chainLength - 1)
+                .append("() { doPublic(); }\n")
+                .append("    public void doPublic() {}\n")
+                .append("}\n");
+        final File input =
+                temporaryFolder.newFile("InputOverridableMethodInConstructorChain.java");
+        Files.write(input.toPath(), source.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+        String[] expected = {
+            "5:11: " + getCheckMessage(MSG_KEY_LEADS, "m0", ctorKey, "doPublic"),
+        };
+
+        // default stack size of threads of 64-bit JVM
+        verifyWithStackSize(checkConfig, input.getPath(), expected, 1024 * 1024);
+    }
 }
@@ -234,4 +234,25 @@ public class ReturnCountExtendedCheckTest extends BaseCheckTestSupport
 
 		verify(checkConfig, getPath("InputReturnCountExtendedCheckMethods.java"), expected);
 	}
+
+	@Test
+	public void testEmptyIgnoreMethodsNamesProperty() throws Exception
+	{
+		checkConfig.addAttribute("maxReturnCount", "1");
+		checkConfig.addAttribute("ignoreMethodLinesCount", "0"); // swithed off
+		checkConfig.addAttribute("minIgnoreReturnDepth", "5");
+		checkConfig.addAttribute("ignoreEmptyReturns", "false");
+		checkConfig.addAttribute("topLinesToIgnoreCount", "0");
+		checkConfig.addAttribute("ignoreMethodsNames", "");
+
+		String[] expected = {
+			"26:16: " + getCheckMessage(WARNING_MSG_KEY_METHOD, "twoReturnsInMethod", 2, 1),
+			"38:16: " + getCheckMessage(WARNING_MSG_KEY_METHOD, "threeReturnsInMethod", 3, 1),
+			"58:16: " + getCheckMessage(WARNING_MSG_KEY_METHOD, "fourReturnsInMethod", 4, 1),
+			"92:16: " + getCheckMessage(WARNING_MSG_KEY_METHOD, "nm", 2, 1),
+			"105:17: " + getCheckMessage(WARNING_MSG_KEY_METHOD, "returnFromLiteral", 6, 1),
+		};
+
+		verify(checkConfig, getPath("InputReturnCountExtendedCheckMethods.java"), expected);
+	}
 }
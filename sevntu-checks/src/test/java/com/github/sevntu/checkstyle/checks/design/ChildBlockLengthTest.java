@@ -147,4 +147,19 @@ public class ChildBlockLengthTest extends BaseCheckTestSupport
 
         verify(checkConfig, getPath("InputChildBlockLengthCheckNestedClass.java"), expected);
     }
+
+    @Test
+    public void testNestedMethodsAndElse() throws Exception
+    {
+        checkConfig.addAttribute("maxChildBlockPercentage", "30");
+        checkConfig.addAttribute("blockTypes", "LITERAL_IF, LITERAL_SWITCH, LITERAL_FOR, "
+                + "LITERAL_DO, LITERAL_WHILE, LITERAL_TRY, LITERAL_ELSE, LITERAL_CATCH");
+        checkConfig.addAttribute("ignoreBlockLinesCount", "0");
+
+        String[] expected = {
+                "21:13: " + getCheckMessage(MSG_KEY, 7, 2),
+        };
+
+        verify(checkConfig, getPath("InputChildBlockLengthCheckNestedMethods.java"), expected);
+    }
 }
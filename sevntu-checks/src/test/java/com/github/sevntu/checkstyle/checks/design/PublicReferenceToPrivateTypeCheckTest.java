@@ -375,4 +375,24 @@ public class PublicReferenceToPrivateTypeCheckTest extends
                 expected);
     }
     
+    @Test
+    public void referencingPrivateTypesManyTimesTest()
+        throws Exception
+    {
+        final DefaultConfiguration checkConfig =
+                createCheckConfig(PublicReferenceToPrivateTypeCheck.class);
+        final String[] expected = {
+                "15: " + getCheckMessage(MSG_KEY, "Node"),
+                "17: " + getCheckMessage(MSG_KEY, "Edge"),
+                "17: " + getCheckMessage(MSG_KEY, "Node"),
+                "18: " + getCheckMessage(MSG_KEY, "Edge"),
+                "18: " + getCheckMessage(MSG_KEY, "Node"),
+                "24: " + getCheckMessage(MSG_KEY, "Edge"),
+                "24: " + getCheckMessage(MSG_KEY, "Node"),
+        };
+        verify(checkConfig,
+                getPath("InputPublicReferenceToPrivateTypeCheck20.java"),
+                expected);
+    }
+
 }
\ No newline at end of file
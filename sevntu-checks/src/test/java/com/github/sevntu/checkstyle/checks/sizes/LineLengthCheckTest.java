@@ -56,4 +56,43 @@ public class LineLengthCheckTest extends BaseCheckTestSupport
 		checkConfig.addAttribute("ignoreMethod", "true");
 		verify(checkConfig, getPath("InputSimple.java"), expected);
 	}
+
+	@Test
+	public void testTabsAroundMax()
+			throws Exception
+	{
+		final DefaultConfiguration checkConfig =
+				createCheckConfig(LineLengthExtendedCheck.class);
+		checkConfig.addAttribute("max", "60");
+		final String[] expected = {
+				"6: " + getCheckMessage(MSG_KEY, 60, 61),
+				"7: " + getCheckMessage(MSG_KEY, 60, 61),
+				"9: " + getCheckMessage(MSG_KEY, 60, 61),
+				"11: " + getCheckMessage(MSG_KEY, 60, 61),
+		};
+		verify(checkConfig, getPath("InputLineLengthExtendedCheckTabs.java"), expected);
+	}
+
+	@Test
+	public void testIgnoredLinesInsideFile()
+			throws Exception
+	{
+		final DefaultConfiguration checkConfig =
+				createCheckConfig(LineLengthExtendedCheck.class);
+		checkConfig.addAttribute("max", "40");
+		checkConfig.addAttribute("ignoreClass", "true");
+		checkConfig.addAttribute("ignoreConstructor", "true");
+		checkConfig.addAttribute("ignoreField", "true");
+		checkConfig.addAttribute("ignoreMethod", "true");
+		final String[] expected = {
+				"1: " + getCheckMessage(MSG_KEY, 40, 50),
+				"5: " + getCheckMessage(MSG_KEY, 40, 48),
+				"7: " + getCheckMessage(MSG_KEY, 40, 47),
+				"10: " + getCheckMessage(MSG_KEY, 40, 61),
+				"13: " + getCheckMessage(MSG_KEY, 40, 49),
+				"17: " + getCheckMessage(MSG_KEY, 40, 65),
+				"23: " + getCheckMessage(MSG_KEY, 40, 61),
+		};
+		verify(checkConfig, getPath("InputLineLengthExtendedCheckIgnoredLines.java"), expected);
+	}
 }
@@ -0,0 +1,142 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2015 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+package com.github.sevntu.checkstyle.profiling;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.github.sevntu.checkstyle.BaseCheckTestSupport;
+import com.github.sevntu.checkstyle.checks.coding.ForbidCCommentsInMethods;
+import com.github.sevntu.checkstyle.checks.coding.ReturnBooleanFromTernary;
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+
+public class ProfilingCheckTest extends BaseCheckTestSupport
+{
+    private final CheckProfiler profiler = CheckProfiler.getInstance();
+
+    private final DefaultConfiguration checkConfig = createCheckConfig(ProfilingCheck.class);
+
+    @Before
+    public void setUp()
+    {
+        profiler.reset();
+    }
+
+    @After
+    public void tearDown()
+    {
+        profiler.setEnabled(false);
+        profiler.reset();
+    }
+
+    @Test
+    public void testViolationsOfWrappedCheck() throws Exception
+    {
+        checkConfig.addChild(createCheckConfig(ForbidCCommentsInMethods.class));
+        final String message = getWrappedCheckMessage();
+        final String[] expected = {
+            "15: " + message,
+            "21: " + message,
+        };
+        verify(checkConfig, getPath("InputProfilingCheck.java"), expected);
+        assertEquals(0, profiler.getCheckNames().length);
+    }
+
+    @Test
+    public void testStatistics() throws Exception
+    {
+        profiler.setEnabled(true);
+        checkConfig.addChild(createCheckConfig(ForbidCCommentsInMethods.class));
+        final String message = getWrappedCheckMessage();
+        final String[] expected = {
+            "15: " + message,
+            "21: " + message,
+        };
+        verify(checkConfig, getPath("InputProfilingCheck.java"), expected);
+
+        final String checkName = ForbidCCommentsInMethods.class.getName();
+        assertTrue(Arrays.asList(profiler.getCheckNames()).contains(checkName));
+        final CheckStatistics statistics = profiler.getStatistics(checkName);
+        assertEquals(1, statistics.getFilesCount());
+        assertEquals(1, statistics.getCount(CheckStatistics.BEGIN_TREE));
+        assertEquals(1, statistics.getCount(CheckStatistics.FINISH_TREE));
+        assertEquals(2, statistics.getCount(TokenTypes.METHOD_DEF));
+        assertEquals(0, statistics.getCount(TokenTypes.CTOR_DEF));
+        assertEquals(4, statistics.getTotalCount());
+        assertEquals(4, profiler.getInvocationCount(checkName));
+        assertTrue(profiler.getTokenTime(checkName, "METHOD_DEF") >= 0);
+        assertTrue(profiler.getSummary().contains("METHOD_DEF"));
+    }
+
+    @Test
+    public void testColumnsOfWrappedCheck() throws Exception
+    {
+        checkConfig.addChild(createCheckConfig(ReturnBooleanFromTernary.class));
+        final String message = getWrappedCheckMessage(ReturnBooleanFromTernary.class,
+                ReturnBooleanFromTernary.MSG_KEY);
+        final String[] expected = {
+            "7:34: " + message,
+        };
+        verify(checkConfig, getPath("InputProfilingCheckTabs.java"), expected);
+    }
+
+    @Test(expected = CheckstyleException.class)
+    public void testWithoutWrappedCheck() throws Exception
+    {
+        createChecker(checkConfig);
+    }
+
+    @Test(expected = CheckstyleException.class)
+    public void testTwoWrappedChecks() throws Exception
+    {
+        checkConfig.addChild(createCheckConfig(ForbidCCommentsInMethods.class));
+        checkConfig.addChild(createCheckConfig(ForbidCCommentsInMethods.class));
+        createChecker(checkConfig);
+    }
+
+    @Test(expected = CheckstyleException.class)
+    public void testUnacceptableToken() throws Exception
+    {
+        final DefaultConfiguration wrappedConfig =
+                createCheckConfig(ForbidCCommentsInMethods.class);
+        wrappedConfig.addAttribute("tokens", "CLASS_DEF");
+        checkConfig.addChild(wrappedConfig);
+        createChecker(checkConfig);
+    }
+
+    private static String getWrappedCheckMessage() throws Exception
+    {
+        return getWrappedCheckMessage(ForbidCCommentsInMethods.class,
+                ForbidCCommentsInMethods.MSG_KEY);
+    }
+
+    private static String getWrappedCheckMessage(Class<?> checkClass, String key)
+        throws Exception
+    {
+        final Properties messages = new Properties();
+        messages.load(checkClass.getResourceAsStream("messages.properties"));
+        return messages.getProperty(key);
+    }
+}
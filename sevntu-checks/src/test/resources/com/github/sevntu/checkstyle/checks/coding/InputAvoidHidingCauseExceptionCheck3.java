@@ -0,0 +1,44 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputAvoidHidingCauseExceptionCheck3
+{
+    public void nestedTry(int value)
+    {
+        try {
+            value++;
+        }
+        catch (IllegalStateException e) {
+            try {
+                value--;
+            }
+            catch (IllegalArgumentException n) {
+                throw new RuntimeException(e); // ok, cause of outer catch
+            }
+            if (value > 0) {
+                throw new RuntimeException(); // violation
+            }
+            RuntimeException wrapped = new RuntimeException(e);
+            throw wrapped;
+        }
+    }
+
+    public void aliasAfterThrow(boolean flag)
+    {
+        try {
+            flag = !flag;
+        }
+        catch (IllegalStateException e) {
+            RuntimeException alias;
+            if (flag) {
+                throw new RuntimeException(new Object() {
+                    public String toString()
+                    {
+                        throw new IllegalStateException();
+                    }
+                }.toString()); // violation
+            }
+            alias = e;
+            throw new RuntimeException(alias.getMessage(), alias);
+        }
+    }
+}
@@ -148,4 +148,11 @@ class MyConstructor
     {
         boolean x = InputAvoidNotShortCircuitOperatorsForBooleanCheck.x | InputAvoidNotShortCircuitOperatorsForBooleanCheck.x;
     }
-}
\ No newline at end of file
+}
+
+enum MyEnum
+{
+    FIRST;
+
+    private final boolean flag = true | false; // a warning here
+}
@@ -0,0 +1,20 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputCustomDeclarationOrderCheckPrefixDecisions
+{
+    private int count;
+
+    private static final int MAX = 1;
+
+    private final Object logger = null;
+
+    private final Object rootLogger = null;
+
+    private static final int MIN = 0;
+
+    public int value;
+
+    private final Object parentLogger = null;
+
+    private static final int DEFAULT = 0;
+}
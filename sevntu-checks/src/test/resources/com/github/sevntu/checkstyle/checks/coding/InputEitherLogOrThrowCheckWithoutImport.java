@@ -0,0 +1,25 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputEitherLogOrThrowCheckWithoutImport
+{
+    private static Logger logger = new Logger();
+
+    public void get()
+            throws Exception
+    {
+        try {
+            throw new Exception();
+        }
+        catch (Exception e) { // no warning, Logger is not org.slf4j.Logger
+            logger.error("Exception: ", e);
+            throw e;
+        }
+    }
+
+    static class Logger
+    {
+        void error(String message, Exception exception)
+        {
+        }
+    }
+}
@@ -0,0 +1,36 @@
+import org.junit.*;
+import java.beans.ConstructorProperties;
+
+public class InputEmptyPublicCtorInClass11
+{
+    //Ignore is imported with on demand import org.junit.* in default package
+    @Ignore
+    class Inner1 {
+        public Inner1() {
+
+        }
+    }
+
+    //Deprecated is not org.junit.Ignore
+    @Deprecated
+    class Inner2 {
+        public Inner2() {
+
+        }
+    }
+
+    class Inner3 {
+        //ConstructorProperties is imported with single type import in default package
+        @ConstructorProperties({})
+        public Inner3() {
+
+        }
+    }
+
+    class Inner4 {
+        @Deprecated
+        public Inner4() {
+
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+import org.junit.runners.*;
+
+public class InputEmptyPublicCtorInClass12
+{
+    //This is case of fully qualified annotation name
+    @org.junit.runners.Suite.SuiteClasses({})
+    class Inner1 {
+        public Inner1() {
+
+        }
+    }
+
+    //Suite is imported with on demand import org.junit.runners.*
+    @Suite.SuiteClasses({})
+    class Inner2 {
+        public Inner2() {
+
+        }
+    }
+
+    //SuiteClasses is declared in this class, not in org.junit.runners.Suite
+    @SuiteClasses
+    class Inner3 {
+        public Inner3() {
+
+        }
+    }
+
+    //Qualified name of SuiteClasses declared in this class
+    @InputEmptyPublicCtorInClass12.SuiteClasses
+    class Inner4 {
+        public Inner4() {
+
+        }
+    }
+
+    @interface SuiteClasses { }
+}
@@ -0,0 +1,27 @@
+package com.github.sevntu.checkstyle.checks.coding;
+public class InputForbidCCommentsInMethods4
+{
+    private void anyMethod()
+    {
+        /* first */ int i = 0; /* first again */
+        Runnable runnable = new Runnable()
+        {
+            public void run()
+            {
+                /* nested */
+            }
+        };
+        /* after nested */
+        runnable.run();
+    }
+
+    /* between methods */
+
+    private void oneLine() { /* one line */ }
+
+    private void otherMethod()
+    {
+        // single line
+        /** javadoc style */
+    }
+}
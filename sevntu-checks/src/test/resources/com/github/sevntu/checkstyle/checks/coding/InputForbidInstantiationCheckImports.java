@@ -0,0 +1,19 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+import java.io.*;
+import java.net.*;
+import java.util.ArrayList;
+import java.util.LinkedList;
+
+public class InputForbidInstantiationCheckImports
+{
+    public void method() throws Exception {
+        Reader reader = new FileReader(""); // !
+        File file = new File(""); // !
+        ArrayList<String> list = new ArrayList<String>(); // !
+        LinkedList<String> linkedList = new LinkedList<String>();
+        URI uri = new URI("");
+        Object object = new Object();
+    }
+
+}
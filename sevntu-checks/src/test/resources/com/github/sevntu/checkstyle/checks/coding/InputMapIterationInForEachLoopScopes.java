@@ -0,0 +1,70 @@
+package com.github.sevntu.checkstyle.checks.coding;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class InputMapIterationInForEachLoopScopes
+{
+    public void iterateFieldDeclaredBelow()
+    {
+        for (String key : map.keySet()) { // WARNING, field is visible above its declaration
+            System.out.println(map.get(key));
+        }
+    }
+
+    private Map<String, String> map = new HashMap<String, String>();
+
+    public void iterateShadowedField()
+    {
+        Registry map = new Registry();
+        for (String key : map.keySet()) { // NO WARNING, local variable is not a map
+            System.out.println(map.get(key));
+        }
+        for (String key : this.map.keySet()) { // WARNING, field is still a map
+            System.out.println(this.map.get(key));
+        }
+    }
+
+    public void iterateLocalMap()
+    {
+        Map<String, String> registry = new HashMap<String, String>();
+        for (String key : registry.keySet()) { // WARNING
+            System.out.println(registry.get(key));
+        }
+        {
+            Map<String, String> inner = new HashMap<String, String>();
+            for (Map.Entry<String, String> entry : inner.entrySet()) { // WARNING
+                System.out.println(entry.getKey());
+            }
+        }
+    }
+
+    public void iterateOtherVariables(Registry registry, Registry inner)
+    {
+        for (String key : registry.keySet()) { // NO WARNING, parameter is not a map
+            System.out.println(registry.get(key));
+        }
+        for (String key : inner.keySet()) { // NO WARNING, map of other block is not visible
+            System.out.println(inner.get(key));
+        }
+        for (String key : map.keySet()) { // WARNING, field is visible here
+            System.out.println(map.get(key));
+        }
+    }
+
+    static class Registry
+    {
+        private final Set<String> keys = new TreeSet<String>();
+
+        public Set<String> keySet()
+        {
+            return keys;
+        }
+
+        public String get(String key)
+        {
+            return key;
+        }
+    }
+}
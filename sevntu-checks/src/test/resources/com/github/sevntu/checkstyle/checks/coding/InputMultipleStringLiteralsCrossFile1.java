@@ -0,0 +1,12 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputMultipleStringLiteralsCrossFile1
+{
+    String shared = "SharedContents";
+    String single = "SingleContents";
+    String twice = "TwiceContents";
+    String local = "LocalContents" + "LocalContents" + "LocalContents";
+
+    @SuppressWarnings("unchecked")
+    void method() {}
+}
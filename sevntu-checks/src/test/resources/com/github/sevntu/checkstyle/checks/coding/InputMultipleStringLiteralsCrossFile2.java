@@ -0,0 +1,13 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputMultipleStringLiteralsCrossFile2
+{
+    String shared = "SharedContents";
+    String other = "OtherContents";
+
+    @SuppressWarnings("unchecked")
+    void method()
+    {
+        System.out.println("SharedContents");
+    }
+}
@@ -0,0 +1,6 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputMultipleStringLiteralsCrossFile3
+{
+    String twice = "TwiceContents";
+}
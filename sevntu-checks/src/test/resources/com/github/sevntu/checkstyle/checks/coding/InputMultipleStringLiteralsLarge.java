@@ -0,0 +1,152 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputMultipleStringLiteralsLarge
+{
+    private final String[] first = {
+        "literal0",
+        "literal1",
+        "literal2",
+        "literal3",
+        "literal4",
+        "literal5",
+        "literal6",
+        "literal7",
+        "literal8",
+        "literal9",
+        "literal10",
+        "literal11",
+        "literal12",
+        "literal13",
+        "literal14",
+        "literal15",
+        "literal16",
+        "literal17",
+        "literal18",
+        "literal19",
+        "literal20",
+        "literal21",
+        "literal22",
+        "literal23",
+        "literal24",
+        "literal25",
+        "literal26",
+        "literal27",
+        "literal28",
+        "literal29",
+        "literal30",
+        "literal31",
+        "literal32",
+        "literal33",
+        "literal34",
+        "literal35",
+        "literal36",
+        "literal37",
+        "literal38",
+        "literal39",
+        "literal40",
+        "literal41",
+        "literal42",
+        "literal43",
+        "literal44",
+        "literal45",
+        "literal46",
+        "literal47",
+        "literal48",
+        "literal49",
+        "literal50",
+        "literal51",
+        "literal52",
+        "literal53",
+        "literal54",
+        "literal55",
+        "literal56",
+        "literal57",
+        "literal58",
+        "literal59",
+        "literal60",
+        "literal61",
+        "literal62",
+        "literal63",
+        "literal64",
+        "literal65",
+        "literal66",
+        "literal67",
+        "literal68",
+        "literal69",
+    };
+
+    private final String[] second = {
+        "literal0",
+        "literal1",
+        "literal2",
+        "literal3",
+        "literal4",
+        "literal5",
+        "literal6",
+        "literal7",
+        "literal8",
+        "literal9",
+        "literal10",
+        "literal11",
+        "literal12",
+        "literal13",
+        "literal14",
+        "literal15",
+        "literal16",
+        "literal17",
+        "literal18",
+        "literal19",
+        "literal20",
+        "literal21",
+        "literal22",
+        "literal23",
+        "literal24",
+        "literal25",
+        "literal26",
+        "literal27",
+        "literal28",
+        "literal29",
+        "literal30",
+        "literal31",
+        "literal32",
+        "literal33",
+        "literal34",
+        "literal35",
+        "literal36",
+        "literal37",
+        "literal38",
+        "literal39",
+        "literal40",
+        "literal41",
+        "literal42",
+        "literal43",
+        "literal44",
+        "literal45",
+        "literal46",
+        "literal47",
+        "literal48",
+        "literal49",
+        "literal50",
+        "literal51",
+        "literal52",
+        "literal53",
+        "literal54",
+        "literal55",
+        "literal56",
+        "literal57",
+        "literal58",
+        "literal59",
+        "literal60",
+        "literal61",
+        "literal62",
+        "literal63",
+        "literal64",
+        "literal65",
+        "literal66",
+        "literal67",
+        "literal68",
+        "literal69",
+    };
+
+    private final String third = "literal0";
+}
@@ -20,4 +20,12 @@ public class InputMultipleVariableDeclarations {
         for (int i=0, j=0; i < 10; i++, j--) {
         }
     }
+
+    void method3(int value) {
+        switch (value) {
+            case 0:
+                // declaration is the last statement of case group
+                int last;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InputNoNullForCollectionReturnCheck8
+{
+    List<String> nestedDefinition(int value)
+    {
+        if (value > 0) {
+            List<String> list = null;
+            for (int i = 0; i < value; i++) {
+                while (i > 1) {
+                    i--;
+                }
+            }
+            return list;
+        }
+        else if (value < 0) {
+            List<String> other = new ArrayList<String>();
+            return other;
+        }
+        return new ArrayList<String>();
+    }
+
+    List<String> assignedInLoop(int value)
+    {
+        List<String> list = null;
+        if (value > 0) {
+            return list;
+        }
+        do {
+            try {
+                list = new ArrayList<String>();
+            }
+            finally {
+                value--;
+            }
+        } while (value > 0);
+        return list;
+    }
+
+    int[] assignedByIndex(int value)
+    {
+        int[] result = null;
+        int[] values = new int[1];
+        values[0] = value;
+        return result;
+    }
+
+    int[] manyReturns(int value)
+    {
+        int[] first = null;
+        int[] second = {value};
+        if (value == 1) {
+            return first;
+        }
+        if (value == 2) {
+            return second;
+        }
+        if (value == 3) {
+            first = null;
+        }
+        return first;
+    }
+}
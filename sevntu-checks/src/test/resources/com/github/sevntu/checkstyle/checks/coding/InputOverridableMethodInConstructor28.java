@@ -0,0 +1,42 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputOverridableMethodInConstructor28
+{
+
+    public InputOverridableMethodInConstructor28()
+    {
+        first(); // warning here should be
+        third(); // warning here should be
+        fourth();
+    }
+
+    private void first()
+    {
+        second();
+    }
+
+    private void second()
+    {
+        first();
+        overrideMe(); // reachable from the cycle of first() and second()
+    }
+
+    private void third()
+    {
+        second();
+    }
+
+    private void fourth()
+    {
+        fifth();
+    }
+
+    private void fifth()
+    {
+        fourth();
+    }
+
+    public void overrideMe()
+    {
+    }
+}
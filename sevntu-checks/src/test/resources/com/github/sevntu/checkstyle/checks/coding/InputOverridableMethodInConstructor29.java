@@ -0,0 +1,22 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputOverridableMethodInConstructor29 extends InputOverridableMethodInConstructor30
+{
+
+    public InputOverridableMethodInConstructor29()
+    {
+        overrideMe(); // warning here should be
+        finalMethod();
+        staticMethod();
+        deepOverridable(); // warning here should be
+        size();
+        helper(); // warning here should be
+    }
+
+    private void helper()
+    {
+        overloaded();
+        overloaded(1);
+        deepOverridable();
+    }
+}
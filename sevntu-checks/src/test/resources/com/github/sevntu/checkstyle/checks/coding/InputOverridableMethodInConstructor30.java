@@ -0,0 +1,25 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputOverridableMethodInConstructor30 extends InputOverridableMethodInConstructor31
+{
+
+    public void overrideMe()
+    {
+    }
+
+    public final void finalMethod()
+    {
+    }
+
+    public static void staticMethod()
+    {
+    }
+
+    public void overloaded()
+    {
+    }
+
+    public void overloaded(int value)
+    {
+    }
+}
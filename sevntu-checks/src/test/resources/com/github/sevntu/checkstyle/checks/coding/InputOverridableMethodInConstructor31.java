@@ -0,0 +1,22 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+import java.util.ArrayList;
+
+public class InputOverridableMethodInConstructor31 extends ArrayList<String>
+{
+
+    protected void deepOverridable()
+    {
+    }
+
+    public static class Nested extends InputOverridableMethodInConstructor31
+    {
+    }
+
+    public void method()
+    {
+        class Local
+        {
+        }
+    }
+}
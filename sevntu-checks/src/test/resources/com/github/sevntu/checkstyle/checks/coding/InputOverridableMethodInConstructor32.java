@@ -0,0 +1,47 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputOverridableMethodInConstructor32
+{
+    private final Runnable task = new Runnable() {
+        public void run()
+        {
+        }
+
+        public void init()
+        {
+        }
+    };
+
+    public InputOverridableMethodInConstructor32()
+    {
+        init(); // warning here should be
+        prepare(); // warning here should be
+    }
+
+    public void init()
+    {
+    }
+
+    private void prepare()
+    {
+        overrideMe();
+    }
+
+    public void overrideMe()
+    {
+    }
+
+    enum Mode
+    {
+        FAST;
+
+        public void prepare(int times)
+        {
+        }
+    }
+
+    interface Listener
+    {
+        void init();
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.sevntu.checkstyle.checks.coding;
+
+public class InputOverridableMethodInConstructor33
+{
+    static class Object extends java.lang.Object
+    {
+        Object()
+        {
+            overrideMe(); // warning here should be
+            toString();
+        }
+
+        public void overrideMe()
+        {
+        }
+    }
+
+    static class Thread extends java.lang.Exception
+    {
+        Thread()
+        {
+            getLocalizedMessage();
+        }
+    }
+
+    static class Exception extends java.lang.Thread
+    {
+        Exception()
+        {
+            overrideMe(); // warning here should be
+            getName();
+        }
+
+        public void overrideMe()
+        {
+        }
+    }
+
+    static class Holder extends Object
+    {
+        Holder()
+        {
+            hashCode();
+        }
+    }
+}
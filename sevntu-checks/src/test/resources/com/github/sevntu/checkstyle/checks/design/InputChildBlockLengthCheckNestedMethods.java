@@ -0,0 +1,38 @@
+package com.github.sevntu.checkstyle.checks.design;
+
+public class InputChildBlockLengthCheckNestedMethods
+{
+    void method(int value)
+    {
+        if (value > 0) {
+            Runnable runnable = new Runnable() {
+                public void run()
+                {
+                    if (isTrue()) {
+                        isTrue();
+                        isTrue();
+                        isTrue();
+                    }
+                }
+            };
+            runnable.run();
+        }
+        else {
+            switch (value) {
+                case 1: {
+                    isTrue();
+                    isTrue();
+                    break;
+                }
+                default:
+                    isTrue();
+            }
+        }
+        while (isTrue()) { if (isTrue()) { isTrue(); } }
+    }
+
+    static boolean isTrue()
+    {
+        return Boolean.TRUE;
+    }
+}
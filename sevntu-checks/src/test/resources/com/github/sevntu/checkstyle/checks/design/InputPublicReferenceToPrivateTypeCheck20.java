@@ -0,0 +1,30 @@
+package com.github.sevntu.checkstyle.checks.design;
+
+import java.util.List;
+import java.util.Map;
+
+public class InputPublicReferenceToPrivateTypeCheck20 {
+    private class Node {}
+    private class Edge extends Node {}
+    private class Label implements Comparable<Label> {
+        public int compareTo(Label o)
+        {
+            return 0;
+        }
+    }
+    public Node root;     //WARNING
+    public Label label;     //OK
+    protected Map<Node, List<Edge>> edges;     //WARNING
+    public Node getRoot(Edge edge) {     //WARNING
+        return root;
+    }
+    public Label getLabel(Label other) {     //OK
+        return label;
+    }
+    Edge getEdge(List<Node> nodes) {     //WARNING
+        return null;
+    }
+    private Node getNode(Edge edge) {     //OK
+        return root;
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.sevntu.checkstyle.checks.sizes;
+
+public class InputLineLengthExtendedCheckIgnoredLines
+{
+    // this long line precedes the ignored field
+    private String field = "this long field declaration is ignored";
+    // this long line follows the ignored field
+    public InputLineLengthExtendedCheckIgnoredLines(int first,
+            int secondParameterWithLongName) {
+        field = "this long line of ctor body is not ignored";
+    }
+
+    // this long line precedes the ignored method
+    public void method(int first, int second, int third,
+            int fourth, int fifth, int sixth, int seventh)
+    {
+        field = "this long line just after the brace is checked";
+    }
+
+    abstract class InnerClassWithVeryLongName extends Object
+    {
+        abstract void abstractMethodWithLongName(int first, int second);
+        // this long line follows the ignored abstract method
+    }
+}
+class InputLineLengthExtendedCheckIgnoredLinesLast { }
@@ -0,0 +1,13 @@
+package com.github.sevntu.checkstyle.checks.sizes;
+
+public class InputLineLengthExtendedCheckTabs
+{
+    // 60 columns without tabs .............................
+    // 61 columns without tabs ..............................
+	// 61 columns, shorter than 60 chars ................
+	// 60 columns with leading tab .....................
+    //	61 columns with tab inside ..........................
+    //	60 columns with tab inside .........................
+		// 61 columns with two tabs .................
+		// 60 columns with two tabs ................
+}
@@ -0,0 +1,24 @@
+package com.github.sevntu.checkstyle.profiling;
+
+public class InputProfilingCheck
+{
+    private int value;
+
+    public InputProfilingCheck()
+    {
+        /* comment in constructor, that hasn't error */
+        value = 1;
+    }
+
+    public int getValue()
+    {
+        /* comment, that has error */
+        return value;
+    }
+
+    public void setValue(int value)
+    {
+        /* comment, that has error */
+        this.value = value;
+    }
+}
@@ -0,0 +1,9 @@
+package com.github.sevntu.checkstyle.profiling;
+
+public class InputProfilingCheckTabs
+{
+	public boolean isPositive(int value)
+	{
+		return value > 0 ? true : false;
+	}
+}